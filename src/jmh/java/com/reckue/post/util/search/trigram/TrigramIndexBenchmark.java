@@ -0,0 +1,112 @@
+package com.reckue.post.util.search.trigram;
+
+import com.reckue.post.model.search.CodeSearchResult;
+import com.reckue.post.model.type.LangType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class TrigramIndexBenchmark measures the latency of the code search over the synthetic code nodes.
+ * It is run by the task jmh, which exists only when the build is started with -Pbenchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrigramIndexBenchmark {
+
+    private static final int NODES_PER_POST = 4;
+    private static final int LINES_PER_NODE = 6;
+
+    private static final String[] TYPES = {"HashMap", "ArrayList", "TreeMap", "LinkedList", "StringBuilder",
+            "Optional", "Stream", "CompletableFuture", "AtomicLong", "ConcurrentHashMap"};
+    private static final String[] METHODS = {"computeIfAbsent", "getOrDefault", "putIfAbsent", "forEach",
+            "stream", "collect", "append", "orElseThrow", "thenApply", "incrementAndGet", "merge", "add"};
+    private static final String[] NAMES = {"counts", "users", "posts", "nodes", "result", "builder", "cache",
+            "index", "value", "key", "tags", "comments"};
+
+    @Param("1000000")
+    private int nodeCount;
+
+    private TrigramIndex index;
+
+    private final TrigramQuery rareSubstring = TrigramQuery.substring("cache.computeIfAbsent(users");
+    private final TrigramQuery commonSubstring = TrigramQuery.substring("stream");
+    private final TrigramQuery regex = TrigramQuery.regex("users\\.merge\\(\\w+, key\\)");
+    private final TrigramQuery regexWithoutLiterals = TrigramQuery.regex("users\\.(put|merge)\\w*\\(key");
+    private final TrigramQuery absentSubstring = TrigramQuery.substring("WeakHashMap.computeIfPresent");
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LangType[] languages = LangType.values();
+        index = new TrigramIndex();
+        for (int postId = 0; postId * NODES_PER_POST < nodeCount; postId++) {
+            List<CodeDocument> documents = new ArrayList<>(NODES_PER_POST);
+            for (int i = 0; i < NODES_PER_POST; i++) {
+                documents.add(new CodeDocument(postId + "-" + i, String.valueOf(postId),
+                        languages[random.nextInt(languages.length)], code(random)));
+            }
+            index.replacePost(String.valueOf(postId), documents);
+        }
+    }
+
+    private static String code(Random random) {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < LINES_PER_NODE; i++) {
+            String type = pick(random, TYPES);
+            String name = pick(random, NAMES);
+            if (random.nextBoolean()) {
+                code.append(type).append(' ').append(name).append(" = new ").append(type).append("<>();\n");
+            } else {
+                code.append(name).append('.').append(pick(random, METHODS)).append('(').append(pick(random, NAMES))
+                        .append(", ").append(pick(random, NAMES)).append(");\n");
+            }
+        }
+        return code.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @Benchmark
+    public List<CodeSearchResult> rareSubstring() {
+        return index.search(rareSubstring, null, 10, 0);
+    }
+
+    @Benchmark
+    public List<CodeSearchResult> rareSubstringOfLanguage() {
+        return index.search(rareSubstring, LangType.JAVA, 10, 0);
+    }
+
+    @Benchmark
+    public List<CodeSearchResult> commonSubstring() {
+        return index.search(commonSubstring, null, 10, 0);
+    }
+
+    @Benchmark
+    public List<CodeSearchResult> regex() {
+        return index.search(regex, null, 10, 0);
+    }
+
+    @Benchmark
+    public List<CodeSearchResult> regexWithoutLiterals() {
+        return index.search(regexWithoutLiterals, null, 10, 0);
+    }
+
+    @Benchmark
+    public List<CodeSearchResult> absentSubstring() {
+        return index.search(absentSubstring, null, 10, 0);
+    }
+}
@@ -27,7 +27,11 @@ package com.reckue.post;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Service for publications, tutorials and articles.
@@ -41,8 +45,10 @@ import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
  * @author Artur Magomedov
  * @author Marina Buinevich
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = {MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class,
+        MongoReactiveRepositoriesAutoConfiguration.class})
 @EnableEurekaClient
+@EnableScheduling
 public class PostServiceApplication {
 
     public static void main(String[] args) {
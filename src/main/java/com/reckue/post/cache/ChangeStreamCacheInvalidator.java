@@ -0,0 +1,231 @@
+package com.reckue.post.cache;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.config.EntityCacheProperties;
+import com.reckue.post.event.EntityInvalidatedEvent;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Tag;
+import com.reckue.post.model.type.ParentType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class ChangeStreamCacheInvalidator evicts the posts, the nodes and the tags changed by any replica of the service
+ * from the local caches. It reads one change stream of the database filtered by the cached collections
+ * on a background thread and publishes EntityInvalidatedEvent for every change.
+ * The position in the stream is stored per replica, so the changes made while the replica was stopped
+ * or disconnected are replayed. When the position is lost, the caches are cleared instead.
+ * The delay between the change and its eviction is recorded as the post.cache.invalidation.lag timer.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "post.cache.invalidation.enabled", havingValue = "true")
+public class ChangeStreamCacheInvalidator {
+
+    static final String TOKENS_COLLECTION = "changeStreamTokens";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final long MAX_AWAIT_SECONDS = 1;
+    private static final String ID = "_id";
+    private static final String FULL_DOCUMENT = "fullDocument";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCacheProperties.Invalidation properties;
+    private final Timer lag;
+    private final Map<String, String> cacheNames;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+    private volatile BsonDocument resumeToken;
+    private volatile BsonDocument storedResumeToken;
+
+    public ChangeStreamCacheInvalidator(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+                                        EntityCacheProperties entityCacheProperties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = entityCacheProperties.getInvalidation();
+        this.lag = Timer.builder("post.cache.invalidation.lag")
+                .description("The delay between the change of the cached entity and its eviction")
+                .register(meterRegistry);
+        this.cacheNames = Map.of(
+                mongoTemplate.getCollectionName(Post.class), CacheConfig.POSTS,
+                mongoTemplate.getCollectionName(Node.class), CacheConfig.NODES,
+                mongoTemplate.getCollectionName(Tag.class), CacheConfig.TAGS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        resumeToken = loadResumeToken();
+        storedResumeToken = resumeToken;
+        running = true;
+        executor.execute(this::watch);
+        log.info("Cache invalidation by the change stream is started {}",
+                resumeToken == null ? "from now" : "from the stored position");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(MAX_AWAIT_SECONDS * 2, TimeUnit.SECONDS);
+        saveResumeToken();
+    }
+
+    private void watch() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream().cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        handle(change);
+                    }
+                    // the token moves on even without the changes, so the stored position doesn't fall behind
+                    Optional.ofNullable(cursor.getResumeToken()).ifPresent(token -> resumeToken = token);
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() != CHANGE_STREAM_HISTORY_LOST) {
+                    retry(e);
+                    continue;
+                }
+                log.warn("The position in the change stream is lost, the caches are cleared");
+                resumeToken = null;
+                invalidateAll();
+            } catch (MongoException e) {
+                retry(e);
+            }
+        }
+    }
+
+    private ChangeStreamIterable<Document> changeStream() {
+        ChangeStreamIterable<Document> changeStream = mongoTemplate.getDb()
+                .watch(List.of(
+                        Aggregates.match(Filters.in("ns.coll", cacheNames.keySet())),
+                        // only the parent of the node is needed from the looked up document
+                        Aggregates.project(Projections.exclude(FULL_DOCUMENT + ".content",
+                                FULL_DOCUMENT + ".nodes", FULL_DOCUMENT + ".title", FULL_DOCUMENT + ".tags"))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(MAX_AWAIT_SECONDS, TimeUnit.SECONDS);
+        return resumeToken == null ? changeStream : changeStream.resumeAfter(resumeToken);
+    }
+
+    private void retry(MongoException e) {
+        log.warn("The change stream is failed, it is reopened in {}", properties.getRetryDelay(), e);
+        try {
+            Thread.sleep(properties.getRetryDelay().toMillis());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * This method is used to evict the changed entity and the post of the changed node.
+     * The dropped or renamed collections make the whole caches stale.
+     *
+     * @param change the event of the change stream
+     */
+    void handle(ChangeStreamDocument<Document> change) {
+        String collection = change.getNamespace() == null ? null : change.getNamespace().getCollectionName();
+        switch (change.getOperationType()) {
+            case INSERT:
+            case UPDATE:
+            case REPLACE:
+            case DELETE:
+                String cacheName = cacheNames.get(collection);
+                if (cacheName != null) {
+                    eventPublisher.publishEvent(new EntityInvalidatedEvent(cacheName, asId(change.getDocumentKey())));
+                }
+                if (CacheConfig.NODES.equals(cacheName) && change.getFullDocument() != null
+                        && ParentType.POST.name().equals(change.getFullDocument().getString("parentType"))) {
+                    eventPublisher.publishEvent(new EntityInvalidatedEvent(CacheConfig.POSTS,
+                            change.getFullDocument().getString("parentId")));
+                }
+                break;
+            default:
+                invalidateAll();
+        }
+        if (change.getClusterTime() != null) {
+            long changeTime = TimeUnit.SECONDS.toMillis(change.getClusterTime().getTime());
+            lag.record(Duration.ofMillis(Math.max(System.currentTimeMillis() - changeTime, 0)));
+        }
+    }
+
+    private static String asId(BsonDocument documentKey) {
+        BsonValue id = documentKey == null ? null : documentKey.get(ID);
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private void invalidateAll() {
+        cacheNames.values().forEach(cacheName -> eventPublisher.publishEvent(new EntityInvalidatedEvent(cacheName,
+                null)));
+    }
+
+    /**
+     * This method is used to store the position in the change stream, so that the replica resumes from it
+     * after the restart. The position is stored periodically instead of after every change.
+     */
+    @Scheduled(fixedDelayString = "${post.cache.invalidation.token-save-delay:10000}")
+    public void saveResumeToken() {
+        BsonDocument token = resumeToken;
+        if (token == null || Objects.equals(token, storedResumeToken)) {
+            return;
+        }
+        BsonDocument document = new BsonDocument(ID, new BsonString(properties.getReplicaId()))
+                .append("token", token)
+                .append("modificationDate", new BsonDateTime(System.currentTimeMillis()));
+        tokens().replaceOne(Filters.eq(ID, properties.getReplicaId()), document, new ReplaceOptions().upsert(true));
+        storedResumeToken = token;
+    }
+
+    private BsonDocument loadResumeToken() {
+        return Optional.ofNullable(tokens().find(Filters.eq(ID, properties.getReplicaId())).first())
+                .map(document -> document.getDocument("token", null))
+                .orElse(null);
+    }
+
+    private MongoCollection<BsonDocument> tokens() {
+        return mongoTemplate.getDb().getCollection(TOKENS_COLLECTION, BsonDocument.class);
+    }
+}
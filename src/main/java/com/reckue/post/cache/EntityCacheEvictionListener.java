@@ -0,0 +1,61 @@
+package com.reckue.post.cache;
+
+import com.reckue.post.event.EntityInvalidatedEvent;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostDeletedEvent;
+import com.reckue.post.event.TagChangedEvent;
+import com.reckue.post.event.TagDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static com.reckue.post.config.CacheConfig.POSTS;
+import static com.reckue.post.config.CacheConfig.TAGS;
+
+/**
+ * Class EntityCacheEvictionListener removes the changed posts and tags from the caches.
+ * The events are published by the blocking and the reactive services and by the changes of the nodes of the posts,
+ * and the listeners run before the others, so the listeners reading the post by id don't get the cached one.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPostChanged(PostChangedEvent event) {
+        ReadThroughCache.evict(cacheManager, POSTS, event.getPostId());
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPostDeleted(PostDeletedEvent event) {
+        ReadThroughCache.evict(cacheManager, POSTS, event.getPostId());
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTagChanged(TagChangedEvent event) {
+        ReadThroughCache.evict(cacheManager, TAGS, event.getTag().getId());
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTagDeleted(TagDeletedEvent event) {
+        ReadThroughCache.evict(cacheManager, TAGS, event.getTagId());
+    }
+
+    @EventListener
+    public void onEntityInvalidated(EntityInvalidatedEvent event) {
+        if (event.getId() == null) {
+            ReadThroughCache.clear(cacheManager, event.getCacheName());
+        } else {
+            ReadThroughCache.evict(cacheManager, event.getCacheName(), event.getId());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.reckue.post.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Class ReadThroughCache reads the entities through the caches of the CacheManager.
+ * The missing cache and the NoOpCache of the disabled caching are skipped, so the entity is loaded
+ * from the database as is, without being copied.
+ * The entities are cached in the serialized form and every read gets its own copy,
+ * so a caller changing the returned entity, e.g. before its update, doesn't change the cached one.
+ */
+public final class ReadThroughCache {
+
+    private ReadThroughCache() {
+    }
+
+    /**
+     * This method is used to get the entity from the cache or to load and cache it on a miss.
+     * The concurrent misses of the same key load the entity once, the exceptions of the loader are rethrown as is.
+     * The returned entity is a copy owned by the caller.
+     *
+     * @param cacheManager the manager of the caches
+     * @param cacheName    the name of the cache
+     * @param key          the identifier of the entity
+     * @param loader       the reader of the entity from the database
+     * @param <T>          the type of the entity
+     * @return the cached or the loaded entity
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> T get(CacheManager cacheManager, String cacheName, String key,
+                                                 Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || cache instanceof NoOpCache || key == null) {
+            return loader.get();
+        }
+        try {
+            byte[] entity = cache.get(key, () -> SerializationUtils.serialize(loader.get()));
+            return (T) SerializationUtils.deserialize(entity);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * This method is used to remove the changed entity from the cache.
+     *
+     * @param cacheManager the manager of the caches
+     * @param cacheName    the name of the cache
+     * @param key          the identifier of the entity
+     */
+    public static void evict(CacheManager cacheManager, String cacheName, String key) {
+        if (key != null) {
+            Optional.ofNullable(cacheManager.getCache(cacheName)).ifPresent(cache -> cache.evict(key));
+        }
+    }
+
+    /**
+     * This method is used to remove all the entities from the cache,
+     * when the identifiers of the changed entities aren't known.
+     *
+     * @param cacheManager the manager of the caches
+     * @param cacheName    the name of the cache
+     */
+    public static void clear(CacheManager cacheManager, String cacheName) {
+        Optional.ofNullable(cacheManager.getCache(cacheName)).ifPresent(Cache::clear);
+    }
+}
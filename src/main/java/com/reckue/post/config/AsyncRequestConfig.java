@@ -0,0 +1,54 @@
+package com.reckue.post.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Class AsyncRequestConfig sets up the asynchronous processing of the requests, e.g. of the StreamingResponseBody.
+ * The bodies are written by the executor and within the timeout of Spring MVC, but the handler may extend
+ * the timeout for its own request, so that the other asynchronous requests keep the default one.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    private static final String TIMEOUT_ATTRIBUTE = AsyncRequestConfig.class.getName() + ".timeout";
+
+    /**
+     * This method is used to set the timeout of the current request before its concurrent handling is started.
+     *
+     * @param configurer the configurer of the asynchronous processing of the requests
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout != null && request instanceof AsyncWebRequest) {
+                    ((AsyncWebRequest) request).setTimeout((Long) timeout);
+                }
+            }
+        });
+    }
+
+    /**
+     * This method is used to set the timeout of the asynchronous processing of the current request.
+     * It is called by the handler on the request thread before the asynchronous result is returned.
+     *
+     * @param timeout the time the request is allowed to be processed asynchronously
+     */
+    public static void setTimeout(Duration timeout) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(TIMEOUT_ATTRIBUTE, timeout.toMillis(), RequestAttributes.SCOPE_REQUEST);
+    }
+}
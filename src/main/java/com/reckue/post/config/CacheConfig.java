@@ -0,0 +1,45 @@
+package com.reckue.post.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Class CacheConfig sets up the caches of the posts, the nodes and the tags read by id.
+ * The caches are created at the start, so their hit, miss and eviction counts are exported
+ * by the metrics endpoint of the actuator as cache.gets, cache.puts and cache.evictions.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String POSTS = "posts";
+    public static final String NODES = "nodes";
+    public static final String TAGS = "tags";
+
+    /**
+     * This method is used to create the manager of the caches, the Caffeine caches evict the entities by size
+     * with the W-TinyLFU policy, so that a burst of reads of cold entities doesn't push the hot ones out.
+     *
+     * @param properties the settings of the caches
+     * @return the object of CacheManager class
+     */
+    @Bean
+    public CacheManager cacheManager(EntityCacheProperties properties) {
+        if (!properties.isEnabled()) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(POSTS, NODES, TAGS));
+        return cacheManager;
+    }
+}
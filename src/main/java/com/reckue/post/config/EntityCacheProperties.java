@@ -0,0 +1,56 @@
+package com.reckue.post.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Class EntityCacheProperties holds the settings of the cache of the posts, the nodes and the tags read by id.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "post.cache")
+public class EntityCacheProperties {
+
+    /**
+     * Flag to cache the entities, otherwise every read goes to the database.
+     * It is off by default, because without the invalidation the writes of the other replicas
+     * are seen only after the time to live, and it follows the flag of the invalidation in bootstrap.yml.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum count of the entities of every cache.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * The time the entity is kept after it is loaded, it bounds the staleness of the changes
+     * which don't invalidate the cache, e.g. the writes of the other replicas.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    private Invalidation invalidation = new Invalidation();
+
+    @Data
+    public static class Invalidation {
+
+        /**
+         * Flag to evict the entities changed by the other replicas of the service,
+         * the change streams require MongoDB running as a replica set.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The identifier of the replica, under which the position in the change stream is stored.
+         */
+        private String replicaId = "local";
+
+        /**
+         * The delay before the change stream is reopened after an error.
+         */
+        private Duration retryDelay = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,20 @@
+package com.reckue.post.config;
+
+import com.reckue.post.model.type.ExecutionModeType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Class ExecutionProperties holds the settings of the execution of the requests to the nodes and the tags.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "post.execution")
+public class ExecutionProperties {
+
+    /**
+     * The mode the endpoints of the nodes and the tags are served in.
+     */
+    private ExecutionModeType mode = ExecutionModeType.BLOCKING;
+}
@@ -0,0 +1,22 @@
+package com.reckue.post.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Class ExportProperties holds the settings of the export of all the posts.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "post.export")
+public class ExportProperties {
+
+    /**
+     * The time the export is allowed to stream the posts. It overrides the timeout of the asynchronous requests
+     * for the export only, the other asynchronous requests keep the default one.
+     */
+    private Duration timeout = Duration.ofHours(1);
+}
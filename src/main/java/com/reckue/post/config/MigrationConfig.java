@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 /**
@@ -19,15 +20,18 @@ public class MigrationConfig {
 
     /**
      * This method creates an instance of the Mongobee object and tells about the package to scan for changes.
+     * The changesets get the template of the application, so that they use the same mapping of the models.
      *
      * @return runner the object of Mongobee class
      */
     @Bean
     public Mongobee mongobee(@Value("${spring.data.mongodb.host}") String host,
                              @Value("${spring.data.mongodb.port}") String port,
-                             @Value("${spring.data.mongodb.database}") String database) {
+                             @Value("${spring.data.mongodb.database}") String database,
+                             MongoTemplate mongoTemplate) {
         Mongobee runner = new Mongobee("mongodb://" + host + ":" + port + "/" + database);
-        runner.setChangeLogsScanPackage("com.reckue.post.migrations");
+        runner.setChangeLogsScanPackage("com.reckue.post.migration");
+        runner.setMongoTemplate(mongoTemplate);
         return runner;
     }
 }
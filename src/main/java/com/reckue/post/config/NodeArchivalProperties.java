@@ -0,0 +1,37 @@
+package com.reckue.post.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Class NodeArchivalProperties holds the settings of the job moving the deleted nodes to the archive.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "post.nodes.archival")
+public class NodeArchivalProperties {
+
+    /**
+     * The time the deleted nodes stay in the collection of nodes before they are archived.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * The count of the nodes moved to the archive at once.
+     */
+    private int batchSize = 500;
+
+    /**
+     * The maximum count of the batches moved by one run of the job,
+     * the rest of the deleted nodes is moved by the next runs.
+     */
+    private int maxBatches = 100;
+
+    /**
+     * The pause between the batches which leaves the database to the requests of the users.
+     */
+    private Duration pause = Duration.ofSeconds(1);
+}
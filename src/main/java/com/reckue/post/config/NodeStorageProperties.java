@@ -0,0 +1,27 @@
+package com.reckue.post.config;
+
+import com.reckue.post.model.type.NodeStorageType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Class NodeStorageProperties holds the settings of the layout in which the nodes of posts are stored.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "post.nodes")
+public class NodeStorageProperties {
+
+    /**
+     * The layout of the nodes of the created posts.
+     */
+    private NodeStorageType storage = NodeStorageType.REFERENCED;
+
+    /**
+     * The maximum size of the nodes stored inside the post document,
+     * the nodes of larger posts are stored in the collection of nodes.
+     */
+    private DataSize embeddedMaxSize = DataSize.ofKilobytes(512);
+}
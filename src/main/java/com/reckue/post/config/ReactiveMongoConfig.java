@@ -0,0 +1,47 @@
+package com.reckue.post.config;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.reckue.post.repository.ReactiveNodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Class ReactiveMongoConfig sets up the reactive driver used by the nodes and the tags in the reactive mode.
+ * The reactive driver keeps its own connection pool, so it is created only when the mode is turned on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "reactive")
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveNodeRepository.class)
+public class ReactiveMongoConfig {
+
+    /**
+     * This method is used to create the client of the reactive driver.
+     *
+     * @param host the host of the database
+     * @param port the port of the database
+     * @return the object of MongoClient class
+     */
+    @Bean
+    public MongoClient reactiveMongoClient(@Value("${spring.data.mongodb.host}") String host,
+                                           @Value("${spring.data.mongodb.port}") String port) {
+        return MongoClients.create("mongodb://" + host + ":" + port);
+    }
+
+    /**
+     * This method is used to create the template the reactive repositories and services work through.
+     *
+     * @param reactiveMongoClient the client of the reactive driver
+     * @param database            the name of the database
+     * @return the object of ReactiveMongoTemplate class
+     */
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient,
+                                                       @Value("${spring.data.mongodb.database}") String database) {
+        return new ReactiveMongoTemplate(reactiveMongoClient, database);
+    }
+}
@@ -0,0 +1,31 @@
+package com.reckue.post.config;
+
+import com.reckue.post.model.type.SearchEngineType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Class SearchProperties holds the settings of the full-text search of posts.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "post.search")
+public class SearchProperties {
+
+    /**
+     * The engine serving the search requests.
+     */
+    private SearchEngineType engine = SearchEngineType.MONGO;
+
+    private Lucene lucene = new Lucene();
+
+    @Data
+    public static class Lucene {
+
+        /**
+         * The local directory of the index.
+         */
+        private String directory = "search-index";
+    }
+}
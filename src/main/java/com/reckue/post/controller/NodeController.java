@@ -3,25 +3,34 @@ package com.reckue.post.controller;
 import com.reckue.post.generated.controller.NodesApi;
 import com.reckue.post.generated.controller.dto.NodeRequestDto;
 import com.reckue.post.generated.controller.dto.NodeResponseDto;
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Node;
 import com.reckue.post.service.NodeService;
 import com.reckue.post.util.converter.NodeConverter;
+import com.reckue.post.util.http.ConditionalRequests;
+import com.reckue.post.util.pagination.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @RestController
 @CrossOrigin(origins = "*", allowedHeaders = "*")
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "blocking", matchIfMissing = true)
 public class NodeController implements NodesApi {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final NodeService nodeService;
 
     // @PreAuthorize("hasRole('USER')")
@@ -46,15 +55,27 @@ public class NodeController implements NodesApi {
     }
 
     @Override
-    public ResponseEntity<NodeResponseDto> getNodeById(String nodeId) {
-        return ResponseEntity.ok(NodeConverter.convertToDto(nodeService.findById(nodeId)));
+    public ResponseEntity<NodeResponseDto> getNodeById(String nodeId, String ifNoneMatch, String ifModifiedSince) {
+        return ConditionalRequests.respond(() -> nodeService.findVersionById(nodeId), ifNoneMatch, ifModifiedSince,
+                () -> nodeService.findById(nodeId), EntityVersion::forNode, NodeConverter::convertToDto);
     }
 
     @Override
-    public ResponseEntity<List<NodeResponseDto>> getNodes(Integer limit, Integer offset, String sort, Boolean desc) {
-        return ResponseEntity.ok(nodeService.findAll(limit, offset, sort, desc).getContent().stream()
+    public ResponseEntity<List<NodeResponseDto>> getNodes(Integer limit, Integer offset, String sort, Boolean desc,
+                                                          String cursor) {
+        if (cursor == null && offset != null && offset != 0) {
+            return ResponseEntity.ok(convertToDtoList(nodeService.findAll(limit, offset, sort, desc)));
+        }
+        KeysetPage<Node> page = nodeService.findAllByCursor(limit, sort, desc, cursor);
+        HttpHeaders headers = new HttpHeaders();
+        Optional.ofNullable(page.getNext()).ifPresent(next -> headers.set(NEXT_CURSOR_HEADER, next));
+        return new ResponseEntity<>(convertToDtoList(page.getContent()), headers, HttpStatus.OK);
+    }
+
+    private List<NodeResponseDto> convertToDtoList(List<Node> nodes) {
+        return nodes.stream()
                 .map(NodeConverter::convertToDto)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
     }
 
 }
@@ -1,67 +1,224 @@
-//package com.reckue.post.controller;
-//
-//import com.reckue.post.generated.controller.PostsApi;
-//import com.reckue.post.generated.controller.dto.PostRequestDto;
-//import com.reckue.post.generated.controller.dto.PostResponseDto;
-//import com.reckue.post.model.Post;
-//import com.reckue.post.service.PostService;
-//import com.reckue.post.util.converter.PostConverter;
-//import com.reckue.post.util.security.CurrentUser;
-//import lombok.RequiredArgsConstructor;
-//import org.springframework.http.HttpStatus;
-//import org.springframework.http.ResponseEntity;
-//import org.springframework.security.access.prepost.PreAuthorize;
-//import org.springframework.web.bind.annotation.*;
-//
-//import javax.validation.Valid;
-//import java.util.List;
-//
-///**
-// * Class PostController represents simple REST-Controller.
-// *
-// * @author Kamila Meshcheryakova
-// */
-//@RestController
-//@RequiredArgsConstructor
-//@CrossOrigin(origins = "*", allowedHeaders = "*")
-//public class PostController implements PostsApi {
-//
-//    private final PostService postService;
-//
-//    @PreAuthorize("hasRole('USER')")
-//    @PostMapping(value = "/posts")
-//    @Override
-//    public ResponseEntity<PostResponseDto> createPost(PostRequestDto postRequestDto) {
-//        Post post = PostConverter.convertToModel(postRequestDto);
-//        post.setUserId(CurrentUser.getId());
-//        Post storedPost = postService.create(post);
-//        return new ResponseEntity<>(PostConverter.convertToDto(storedPost), HttpStatus.CREATED);
-//    }
-//
-//    @Override
-//    public ResponseEntity<PostResponseDto> updatePost(String id, PostRequestDto postRequestDto) {
-//        Post post = PostConverter.convertToModel(postRequestDto);
-//        post.setId(id);
-//        return ResponseEntity.ok(PostConverter.convertToDto(postService.update(post)));
-//    }
-//
-//    @Override
-//    public ResponseEntity<PostResponseDto> getPostById(String id) {
-//        Post post = postService.findById(id);
-//        return ResponseEntity.ok(PostConverter.convertToDto(post));
-//    }
-//
-//    @GetMapping(value = "/posts")
-//    @Override
-//    public ResponseEntity<List<PostResponseDto>> getPosts(@Valid Integer limit, @Valid Integer offset,
-//                                                          @Valid String sort, @Valid Boolean desc) {
-//        List<Post> postLIst = postService.findAll();
-//        return ResponseEntity.ok(PostConverter.convertToDtoList(postLIst));
-//    }
-//
-//    @Override
-//    public ResponseEntity<Void> deletePostById(String id) {
-//        postService.deleteById(id);
-//        return new ResponseEntity<>(HttpStatus.OK);
-//    }
-//}
+package com.reckue.post.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.reckue.post.config.AsyncRequestConfig;
+import com.reckue.post.config.ExportProperties;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.generated.controller.PostsApi;
+import com.reckue.post.generated.controller.dto.CommentResponseDto;
+import com.reckue.post.generated.controller.dto.CommentThreadDto;
+import com.reckue.post.generated.controller.dto.ImportReportDto;
+import com.reckue.post.generated.controller.dto.PostRequestDto;
+import com.reckue.post.generated.controller.dto.PostResponseDto;
+import com.reckue.post.model.Comment;
+import com.reckue.post.model.CommentThread;
+import com.reckue.post.model.EntityVersion;
+import com.reckue.post.model.Post;
+import com.reckue.post.service.CommentService;
+import com.reckue.post.service.PostImportService;
+import com.reckue.post.service.PostService;
+import com.reckue.post.util.converter.CommentConverter;
+import com.reckue.post.util.converter.ImportReportConverter;
+import com.reckue.post.util.converter.PostConverter;
+import com.reckue.post.util.http.ConditionalRequests;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Class PostController represents simple REST-Controller.
+ *
+ * @author Kamila Meshcheryakova
+ */
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class PostController implements PostsApi {
+
+    private static final String EXPAND_NODES = "nodes";
+    private static final String TAG_MATCH_ALL = "all";
+    private static final String TAG_MATCH_ANY = "any";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String PREVIOUS_CURSOR_HEADER = "X-Previous-Cursor";
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final PostService postService;
+    private final CommentService commentService;
+    private final PostImportService postImportService;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping(value = "/posts")
+    @Override
+    public ResponseEntity<PostResponseDto> createPost(PostRequestDto postRequestDto) {
+        Post post = PostConverter.convertToModel(postRequestDto);
+        post.setUserId(CurrentUser.getId());
+        Post storedPost = postService.create(post);
+        return new ResponseEntity<>(PostConverter.convertToDto(storedPost), HttpStatus.CREATED);
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    @Override
+    public ResponseEntity<PostResponseDto> updatePost(String id, PostRequestDto postRequestDto) {
+        Post post = PostConverter.convertToModel(postRequestDto);
+        post.setId(id);
+        return ResponseEntity.ok(PostConverter.convertToDto(postService.update(post)));
+    }
+
+    @Override
+    public ResponseEntity<PostResponseDto> getPostById(String id, String ifNoneMatch, String ifModifiedSince) {
+        return ConditionalRequests.respond(() -> postService.findVersionById(id), ifNoneMatch, ifModifiedSince,
+                () -> postService.findById(id), EntityVersion::forPost, PostConverter::convertToDto);
+    }
+
+    @GetMapping(value = "/posts")
+    @Override
+    public ResponseEntity<List<PostResponseDto>> getPosts(@Valid Integer limit, @Valid Integer offset,
+                                                          @Valid String sort, @Valid Boolean desc,
+                                                          @Valid String expand, @Valid List<String> tag,
+                                                          @Valid String tagMatch, @Valid String cursor) {
+        if (tag != null && !tag.isEmpty()) {
+            return getPostsByTags(tag, isAnyTagMatched(tagMatch), isNodesExpanded(expand), limit, cursor);
+        }
+        if (isNodesExpanded(expand)) {
+            return ResponseEntity.ok(PostConverter.convertToDtoList(postService.findAll(limit, offset, sort, desc)));
+        }
+        List<Post> posts = postService.findAllSummaries(limit, offset, sort, desc);
+        return ResponseEntity.ok(PostConverter.convertToSummaryDtoList(posts));
+    }
+
+    private ResponseEntity<List<PostResponseDto>> getPostsByTags(List<String> tags, boolean matchAny,
+                                                                 boolean nodesExpanded, Integer limit, String cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nodesExpanded) {
+            KeysetPage<Post> page = postService.findAllByTags(tags, matchAny, limit, cursor);
+            Optional.ofNullable(page.getNext()).ifPresent(next -> headers.set(NEXT_CURSOR_HEADER, next));
+            return new ResponseEntity<>(PostConverter.convertToDtoList(page.getContent()), headers, HttpStatus.OK);
+        }
+        KeysetPage<Post> page = postService.findAllSummariesByTags(tags, matchAny, limit, cursor);
+        Optional.ofNullable(page.getNext()).ifPresent(next -> headers.set(NEXT_CURSOR_HEADER, next));
+        return new ResponseEntity<>(PostConverter.convertToSummaryDtoList(page.getContent()), headers, HttpStatus.OK);
+    }
+
+    /**
+     * This method is used to check whether the posts having any of the tags are requested.
+     *
+     * @param tagMatch the value of the tagMatch parameter
+     * @return true if the posts having at least one of the tags are requested
+     */
+    static boolean isAnyTagMatched(String tagMatch) {
+        if (tagMatch == null || TAG_MATCH_ALL.equals(tagMatch)) {
+            return false;
+        }
+        if (!TAG_MATCH_ANY.equals(tagMatch)) {
+            throw new ReckueIllegalArgumentException("Such tag match as " + tagMatch + " doesn't exist");
+        }
+        return true;
+    }
+
+    /**
+     * This method is used to check whether the posts are requested with their nodes.
+     *
+     * @param expand the value of the expand parameter
+     * @return true if the nodes are requested
+     */
+    static boolean isNodesExpanded(String expand) {
+        if (expand == null) {
+            return false;
+        }
+        if (!EXPAND_NODES.equals(expand)) {
+            throw new ReckueIllegalArgumentException("Such expand as " + expand + " doesn't exist");
+        }
+        return true;
+    }
+
+    /**
+     * This method is used to stream all the posts with their nodes as newline-delimited JSON, one post per line,
+     * in the order of their identifiers. The posts are written batch by batch while the database cursor is read,
+     * so the memory doesn't grow with the count of the posts, and a slow client holds back the reading of the cursor.
+     * The interrupted export is resumed by passing the identifier of the last received post.
+     *
+     * @param after the identifier of the last exported post or null to export from the first post
+     * @return the body written by Spring MVC after the request thread is released, within the export timeout
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPosts(@Valid String after) {
+        ObjectWriter writer = objectMapper.writerFor(PostResponseDto.class);
+        StreamingResponseBody body = outputStream -> postService.exportAll(after, posts -> {
+            try {
+                for (Post post : posts) {
+                    outputStream.write(writer.writeValueAsBytes(PostConverter.convertToDto(post)));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        AsyncRequestConfig.setTimeout(exportProperties.getTimeout());
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * This method is used to import the posts with their nodes and tags from newline-delimited JSON
+     * or from one JSON array. The body is read incrementally and written in batches,
+     * the rejected records are reported without stopping the import.
+     *
+     * @param body the body of the request read as it arrives
+     * @return the count of the imported posts and the failures of the rejected records
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Override
+    public ResponseEntity<ImportReportDto> importPosts(@Valid InputStreamResource body) {
+        try (InputStream inputStream = body.getInputStream()) {
+            return ResponseEntity.ok(ImportReportConverter.convertToDto(postImportService.importAll(inputStream)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity<List<CommentResponseDto>> getCommentsByPostId(String id, @Valid Integer limit,
+                                                                       @Valid Boolean desc, @Valid String cursor) {
+        KeysetPage<Comment> page = commentService.findAllByPostId(id, limit, desc, cursor);
+        HttpHeaders headers = new HttpHeaders();
+        Optional.ofNullable(page.getNext()).ifPresent(next -> headers.set(NEXT_CURSOR_HEADER, next));
+        Optional.ofNullable(page.getPrevious()).ifPresent(previous -> headers.set(PREVIOUS_CURSOR_HEADER, previous));
+        return new ResponseEntity<>(CommentConverter.convertToDtoList(page.getContent()), headers, HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<CommentThreadDto>> getCommentThread(String id, @Valid String commentId,
+                                                                   @Valid Integer depth, @Valid Integer limit,
+                                                                   @Valid String cursor) {
+        KeysetPage<CommentThread> page = commentService.findThread(id, commentId, depth, limit, cursor);
+        HttpHeaders headers = new HttpHeaders();
+        Optional.ofNullable(page.getNext()).ifPresent(next -> headers.set(NEXT_CURSOR_HEADER, next));
+        return new ResponseEntity<>(CommentConverter.convertToThreadDtoList(page.getContent()), headers,
+                HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<Void> deletePostById(String id) {
+        postService.deleteById(id);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
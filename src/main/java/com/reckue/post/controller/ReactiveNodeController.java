@@ -0,0 +1,105 @@
+package com.reckue.post.controller;
+
+import com.reckue.post.generated.controller.dto.NodeRequestDto;
+import com.reckue.post.generated.controller.dto.NodeResponseDto;
+import com.reckue.post.model.EntityVersion;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.ReactiveNodeService;
+import com.reckue.post.util.converter.NodeConverter;
+import com.reckue.post.util.http.ConditionalRequests;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Class ReactiveNodeController serves the same endpoints as NodeController in the reactive mode.
+ * The request thread is released until the returned mono is completed by the reactive driver.
+ * It doesn't implement NodesApi, because the generated interface returns the response synchronously.
+ * A node is read by the blocking service on the bounded elastic scheduler, which answers the conditional requests
+ * by the stored version and serves the node from the cache.
+ */
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "reactive")
+public class ReactiveNodeController {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final ReactiveNodeService reactiveNodeService;
+    private final NodeService nodeService;
+
+    @PostMapping(value = "/nodes", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<NodeResponseDto>> createNode(@Valid @RequestBody NodeRequestDto nodeRequestDto) {
+        return reactiveNodeService.create(NodeConverter.convertToModel(nodeRequestDto))
+                .map(node -> ResponseEntity.ok(NodeConverter.convertToDto(node)));
+    }
+
+    @PutMapping(value = "/nodes", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<NodeResponseDto>> updateNode(@Valid @RequestBody NodeRequestDto nodeRequestDto) {
+        return reactiveNodeService.update(NodeConverter.convertToModel(nodeRequestDto))
+                .map(node -> ResponseEntity.ok(NodeConverter.convertToDto(node)));
+    }
+
+    @DeleteMapping("/nodes/{id}")
+    public Mono<ResponseEntity<Void>> deleteNodeById(@PathVariable("id") String nodeId) {
+        return reactiveNodeService.deleteById(nodeId)
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.NO_CONTENT)));
+    }
+
+    @GetMapping(value = "/nodes/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<NodeResponseDto>> getNodeById(
+            @PathVariable("id") String nodeId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        return Mono.fromCallable(() -> ConditionalRequests.respond(() -> nodeService.findVersionById(nodeId),
+                ifNoneMatch, ifModifiedSince, () -> nodeService.findById(nodeId), EntityVersion::forNode,
+                NodeConverter::convertToDto))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping(value = "/nodes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<NodeResponseDto>>> getNodes(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "offset", required = false) Integer offset,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "desc", required = false) Boolean desc,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor == null && offset != null && offset != 0) {
+            return reactiveNodeService.findAll(limit, offset, sort, desc)
+                    .map(NodeConverter::convertToDto)
+                    .collectList()
+                    .map(ResponseEntity::ok);
+        }
+        return reactiveNodeService.findAllByCursor(limit, sort, desc, cursor).map(page -> {
+            HttpHeaders headers = new HttpHeaders();
+            Optional.ofNullable(page.getNext()).ifPresent(next -> headers.set(NEXT_CURSOR_HEADER, next));
+            List<NodeResponseDto> nodes = page.getContent().stream()
+                    .map(NodeConverter::convertToDto)
+                    .collect(Collectors.toList());
+            return new ResponseEntity<>(nodes, headers, HttpStatus.OK);
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.reckue.post.controller;
+
+import com.reckue.post.generated.controller.dto.TagRequestDto;
+import com.reckue.post.generated.controller.dto.TagResponseDto;
+import com.reckue.post.generated.controller.dto.TagUsageDto;
+import com.reckue.post.model.EntityVersion;
+import com.reckue.post.service.ReactiveTagService;
+import com.reckue.post.service.TagCountService;
+import com.reckue.post.service.TagService;
+import com.reckue.post.service.TagSuggestService;
+import com.reckue.post.util.converter.TagConverter;
+import com.reckue.post.util.http.ConditionalRequests;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Class ReactiveTagController serves the same endpoints as TagController in the reactive mode.
+ * The tag cloud, the suggestions and the conditional reads of a tag are served by the blocking services,
+ * so they run on the bounded elastic scheduler instead of the request thread.
+ */
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "reactive")
+public class ReactiveTagController {
+
+    private final ReactiveTagService reactiveTagService;
+    private final TagService tagService;
+    private final TagSuggestService tagSuggestService;
+    private final TagCountService tagCountService;
+
+    @PostMapping(value = "/tags", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TagResponseDto>> createTag(@Valid @RequestBody TagRequestDto tagRequestDto) {
+        return reactiveTagService.create(TagConverter.convertToModel(tagRequestDto))
+                .map(tag -> new ResponseEntity<>(TagConverter.convertToDto(tag), HttpStatus.CREATED));
+    }
+
+    @PutMapping(value = "/tags", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TagResponseDto>> updateTag(@Valid @RequestBody TagRequestDto tagRequestDto) {
+        return reactiveTagService.update(TagConverter.convertToModel(tagRequestDto))
+                .map(tag -> new ResponseEntity<>(TagConverter.convertToDto(tag), HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/tags", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TagResponseDto>>> getAllTags(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "offset", required = false) Integer offset,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "desc", required = false) Boolean desc) {
+        return reactiveTagService.findAll(limit, offset, sort, desc)
+                .map(TagConverter::convertToDto)
+                .collectList()
+                .map(tags -> new ResponseEntity<>(tags, HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/tags/cloud", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TagUsageDto>>> getTagCloud(
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return Mono.fromCallable(() -> TagConverter.convertToUsageDtoList(tagCountService.findMostUsed(limit)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(tags -> new ResponseEntity<>(tags, HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/tags/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TagUsageDto>>> suggestTags(
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return Mono.fromCallable(() -> TagConverter.convertToUsageDtoList(tagSuggestService.suggest(prefix, limit)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(tags -> new ResponseEntity<>(tags, HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/tags/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TagResponseDto>> getTagById(
+            @PathVariable("id") String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        return Mono.fromCallable(() -> ConditionalRequests.respond(() -> tagService.findVersionById(id),
+                ifNoneMatch, ifModifiedSince, () -> tagService.findById(id), EntityVersion::forTag,
+                TagConverter::convertToDto))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @DeleteMapping("/tags/{id}")
+    public Mono<ResponseEntity<Void>> deleteTagById(@PathVariable("id") String id) {
+        return reactiveTagService.deleteById(id)
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.OK)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.reckue.post.controller;
+
+import com.reckue.post.generated.controller.SearchApi;
+import com.reckue.post.generated.controller.dto.CodeSearchResultDto;
+import com.reckue.post.generated.controller.dto.PostSearchFacetsDto;
+import com.reckue.post.generated.controller.dto.PostSearchResultDto;
+import com.reckue.post.generated.controller.dto.SearchIndexDto;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.service.CodeSearchService;
+import com.reckue.post.service.SearchService;
+import com.reckue.post.util.converter.SearchConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Class SearchController represents REST-Controller of the full-text search and the code search.
+ */
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class SearchController implements SearchApi {
+
+    private final SearchService searchService;
+    private final CodeSearchService codeSearchService;
+
+    @Override
+    public ResponseEntity<List<PostSearchResultDto>> searchPosts(@NotNull @Valid String q, @Valid String tag,
+                                                                 @Valid String language, @Valid String status,
+                                                                 @Valid Integer limit, @Valid Integer offset) {
+        PostSearchFilter filter = SearchConverter.convertToModel(tag, language, status);
+        return ResponseEntity.ok(SearchConverter.convertToDtoList(searchService.searchPosts(q, filter, limit, offset)));
+    }
+
+    @Override
+    public ResponseEntity<PostSearchFacetsDto> countPostSearchFacets(@NotNull @Valid String q, @Valid String tag,
+                                                                    @Valid String language, @Valid String status) {
+        PostSearchFilter filter = SearchConverter.convertToModel(tag, language, status);
+        return ResponseEntity.ok(SearchConverter.convertToDto(searchService.countFacets(q, filter)));
+    }
+
+    @Override
+    public ResponseEntity<List<CodeSearchResultDto>> searchCode(@NotNull @Valid String q, @Valid Boolean regex,
+                                                                @Valid String language, @Valid Integer limit,
+                                                                @Valid Integer offset) {
+        return ResponseEntity.ok(SearchConverter.convertToCodeDtoList(codeSearchService.searchCode(q, regex,
+                SearchConverter.convertToLanguage(language), limit, offset)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Override
+    public ResponseEntity<SearchIndexDto> rebuildSearchIndex() {
+        return ResponseEntity.ok(SearchIndexDto.builder()
+                .count(searchService.rebuild())
+                .build());
+    }
+}
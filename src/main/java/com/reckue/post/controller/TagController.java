@@ -3,11 +3,17 @@ package com.reckue.post.controller;
 import com.reckue.post.generated.controller.TagsApi;
 import com.reckue.post.generated.controller.dto.TagRequestDto;
 import com.reckue.post.generated.controller.dto.TagResponseDto;
+import com.reckue.post.generated.controller.dto.TagUsageDto;
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Tag;
+import com.reckue.post.service.TagCountService;
 import com.reckue.post.service.TagService;
+import com.reckue.post.service.TagSuggestService;
 import com.reckue.post.util.converter.TagConverter;
+import com.reckue.post.util.http.ConditionalRequests;
 import io.swagger.annotations.Api;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -24,9 +30,12 @@ import java.util.List;
 @RestController
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*", allowedHeaders = "*")
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "blocking", matchIfMissing = true)
 public class TagController implements TagsApi {
 
     private final TagService tagService;
+    private final TagSuggestService tagSuggestService;
+    private final TagCountService tagCountService;
 
     @Override
     public ResponseEntity<TagResponseDto> createTag(@Valid TagRequestDto tagRequestDto) {
@@ -48,8 +57,21 @@ public class TagController implements TagsApi {
     }
 
     @Override
-    public ResponseEntity<TagResponseDto> getTagById(String id) {
-        return new ResponseEntity<>(TagConverter.convertToDto(tagService.findById(id)), HttpStatus.OK);
+    public ResponseEntity<List<TagUsageDto>> getTagCloud(@Valid Integer limit) {
+        return new ResponseEntity<>(TagConverter.convertToUsageDtoList(tagCountService.findMostUsed(limit)),
+                HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<TagUsageDto>> suggestTags(@Valid String prefix, @Valid Integer limit) {
+        return new ResponseEntity<>(TagConverter.convertToUsageDtoList(tagSuggestService.suggest(prefix, limit)),
+                HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<TagResponseDto> getTagById(String id, String ifNoneMatch, String ifModifiedSince) {
+        return ConditionalRequests.respond(() -> tagService.findVersionById(id), ifNoneMatch, ifModifiedSince,
+                () -> tagService.findById(id), EntityVersion::forTag, TagConverter::convertToDto);
     }
 
     @Override
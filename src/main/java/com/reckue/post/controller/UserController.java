@@ -0,0 +1,36 @@
+package com.reckue.post.controller;
+
+import com.reckue.post.generated.controller.UsersApi;
+import com.reckue.post.generated.controller.dto.PostResponseDto;
+import com.reckue.post.model.Post;
+import com.reckue.post.service.PostService;
+import com.reckue.post.util.converter.PostConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Class UserController represents REST-Controller of the content of the users.
+ */
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class UserController implements UsersApi {
+
+    private final PostService postService;
+
+    @Override
+    public ResponseEntity<List<PostResponseDto>> getPostsByUserId(String userId, @Valid Integer limit,
+                                                                  @Valid Integer offset, @Valid String expand) {
+        if (PostController.isNodesExpanded(expand)) {
+            List<Post> posts = postService.findAllByUserId(userId, limit, offset);
+            return ResponseEntity.ok(PostConverter.convertToDtoList(posts));
+        }
+        List<Post> posts = postService.findAllSummariesByUserId(userId, limit, offset);
+        return ResponseEntity.ok(PostConverter.convertToSummaryDtoList(posts));
+    }
+}
@@ -0,0 +1,16 @@
+package com.reckue.post.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Class EntityInvalidatedEvent is published when the cached entity is changed by another replica of the service.
+ * It carries the name of the cache and the identifier of the entity, or null if the whole cache is stale.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EntityInvalidatedEvent {
+
+    private final String cacheName;
+    private final String id;
+}
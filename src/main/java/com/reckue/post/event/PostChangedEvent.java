@@ -0,0 +1,25 @@
+package com.reckue.post.event;
+
+import com.reckue.post.model.Post;
+import lombok.Getter;
+
+/**
+ * Class PostChangedEvent is published when the post or one of its nodes is created, updated or deleted.
+ * It carries the post with its nodes when the publisher has already read them, otherwise only the id.
+ */
+@Getter
+public class PostChangedEvent {
+
+    private final String postId;
+    private final Post post;
+
+    public PostChangedEvent(Post post) {
+        this.postId = post.getId();
+        this.post = post;
+    }
+
+    public PostChangedEvent(String postId) {
+        this.postId = postId;
+        this.post = null;
+    }
+}
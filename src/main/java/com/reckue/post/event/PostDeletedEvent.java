@@ -0,0 +1,14 @@
+package com.reckue.post.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Class PostDeletedEvent is published when the post is deleted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PostDeletedEvent {
+
+    private final String postId;
+}
@@ -0,0 +1,44 @@
+package com.reckue.post.event;
+
+import com.reckue.post.model.Post;
+import com.reckue.post.model.type.PostStatusType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Class PostTagsChangedEvent is published when the post is created, updated or deleted.
+ * It carries the distinct tags counted for the post before and after the change,
+ * the tags of a missing or deleted post are not counted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PostTagsChangedEvent {
+
+    private final Set<String> oldTags;
+    private final Set<String> newTags;
+
+    /**
+     * This method is used to create the event of the change of the post.
+     *
+     * @param oldPost the post before the change or null if it is created
+     * @param newPost the post after the change or null if it is deleted
+     * @return the object of class PostTagsChangedEvent
+     */
+    public static PostTagsChangedEvent of(Post oldPost, Post newPost) {
+        return new PostTagsChangedEvent(countedTags(oldPost), countedTags(newPost));
+    }
+
+    private static Set<String> countedTags(Post post) {
+        if (post == null || post.getStatus() == PostStatusType.DELETED) {
+            return Set.of();
+        }
+        Set<String> tags = new HashSet<>(Optional.ofNullable(post.getTags()).orElse(List.of()));
+        tags.remove(null);
+        return tags;
+    }
+}
@@ -0,0 +1,15 @@
+package com.reckue.post.event;
+
+import com.reckue.post.model.Tag;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Class TagChangedEvent is published when the tag is created or updated.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TagChangedEvent {
+
+    private final Tag tag;
+}
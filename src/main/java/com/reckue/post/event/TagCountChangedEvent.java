@@ -0,0 +1,15 @@
+package com.reckue.post.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Class TagCountChangedEvent is published when the count of the posts using the tag is changed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TagCountChangedEvent {
+
+    private final String name;
+    private final long count;
+}
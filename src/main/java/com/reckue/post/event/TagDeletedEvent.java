@@ -0,0 +1,14 @@
+package com.reckue.post.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Class TagDeletedEvent is published when the tag is deleted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TagDeletedEvent {
+
+    private final String tagId;
+}
@@ -0,0 +1,110 @@
+package com.reckue.post.job;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.reckue.post.config.NodeArchivalProperties;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.StatusType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Class DeletedNodesArchivalJob moves the nodes deleted long enough ago from the collection of nodes
+ * to the archive, so that they neither bloat the collection and its indexes nor are read by the queries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeletedNodesArchivalJob {
+
+    public static final String ARCHIVE_COLLECTION = "nodeArchive";
+
+    private static final String ID = "_id";
+    private static final String STATUS = "status";
+    private static final String MODIFICATION_DATE = "modificationDate";
+    private static final String DELETED = StatusType.DELETED.name();
+
+    private final MongoTemplate mongoTemplate;
+    private final NodeArchivalProperties properties;
+
+    /**
+     * This method is used to move the deleted nodes to the archive in bounded batches with a pause between them.
+     * Every batch is copied to the archive before it is removed, so the job interrupted at any moment
+     * only copies the same nodes again on the next run, and it can run on several instances of the service.
+     */
+    @Scheduled(initialDelayString = "${post.nodes.archival.initial-delay:300000}",
+            fixedDelayString = "${post.nodes.archival.delay:3600000}")
+    public void archive() {
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(properties.getRetention());
+        int archived = 0;
+        for (int batch = 0; batch < properties.getMaxBatches(); batch++) {
+            int count = archiveBatch(deletedBefore);
+            archived += count;
+            if (count < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+        log.info("{} deleted nodes are moved to the archive", archived);
+    }
+
+    /**
+     * This method is used to move one batch of the nodes deleted before the given time to the archive.
+     * The nodes restored while the batch is moved stay in the collection of nodes and are removed from the archive.
+     *
+     * @param deletedBefore the time the nodes were deleted before
+     * @return the count of the nodes read to be moved
+     */
+    int archiveBatch(LocalDateTime deletedBefore) {
+        String collection = mongoTemplate.getCollectionName(Node.class);
+        Query query = Query.query(Criteria.where(STATUS).is(DELETED).and(MODIFICATION_DATE).lt(deletedBefore))
+                .with(Sort.by(MODIFICATION_DATE))
+                .limit(properties.getBatchSize());
+        List<Document> nodes = mongoTemplate.find(query, Document.class, collection);
+        if (nodes.isEmpty()) {
+            return 0;
+        }
+
+        Date archivedDate = new Date();
+        mongoTemplate.getCollection(ARCHIVE_COLLECTION).bulkWrite(nodes.stream()
+                .map(node -> new ReplaceOneModel<>(Filters.eq(ID, node.get(ID)),
+                        node.append("archivedDate", archivedDate), new ReplaceOptions().upsert(true)))
+                .collect(Collectors.toList()), new BulkWriteOptions().ordered(false));
+
+        List<Object> ids = nodes.stream().map(node -> node.get(ID)).collect(Collectors.toList());
+        Query archived = Query.query(Criteria.where(ID).in(ids).and(STATUS).is(DELETED));
+        long removed = mongoTemplate.remove(archived, collection).getDeletedCount();
+        if (removed < ids.size()) {
+            Query restored = Query.query(Criteria.where(ID).in(ids));
+            restored.fields().include(ID);
+            List<Object> restoredIds = mongoTemplate.find(restored, Document.class, collection).stream()
+                    .map(node -> node.get(ID))
+                    .collect(Collectors.toList());
+            mongoTemplate.remove(Query.query(Criteria.where(ID).in(restoredIds)), ARCHIVE_COLLECTION);
+        }
+        return nodes.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
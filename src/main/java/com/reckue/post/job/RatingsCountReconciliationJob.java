@@ -0,0 +1,192 @@
+package com.reckue.post.job;
+
+import com.reckue.post.cache.ReadThroughCache;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Rating;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class RatingsCountReconciliationJob repairs the count of ratings stored in the posts,
+ * when it differs from the count of the rating documents.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RatingsCountReconciliationJob {
+
+    private static final String RATINGS_COUNT = "ratingsCount";
+    private static final int BATCH_SIZE = 1000;
+    private static final int REPAIR_ATTEMPTS = 3;
+    private static final Duration SETTLE_DELAY = Duration.ofMillis(100);
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+
+    /**
+     * This method is used to compare the stored count of ratings of every post with the count of its ratings.
+     * The counts of ratings are streamed in the order of the post identifiers and compared in batches,
+     * so the memory used by the job doesn't grow with the number of the rated posts.
+     * The count of a drifted post is recalculated and set only if it wasn't changed meanwhile,
+     * and checked again after a pause, so the job can run concurrently with rating
+     * and on several instances of the service.
+     */
+    @Scheduled(initialDelayString = "${post.ratings-count.reconciliation.initial-delay:60000}",
+            fixedDelayString = "${post.ratings-count.reconciliation.delay:21600000}")
+    public void reconcile() {
+        int repaired = reconcileRatedPosts() + reconcileUnratedPosts();
+        log.info("Count of ratings is repaired in {} posts", repaired);
+    }
+
+    /**
+     * This method is used to compare the stored counts of the posts, which have at least one rating.
+     *
+     * @return the count of the repaired posts
+     */
+    private int reconcileRatedPosts() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("postId").count().as("count"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+        int repaired = 0;
+        try (CloseableIterator<Document> groups = mongoTemplate.aggregateStream(aggregation,
+                mongoTemplate.getCollectionName(Rating.class), Document.class)) {
+            Map<String, Integer> counts = new HashMap<>(BATCH_SIZE);
+            while (groups.hasNext()) {
+                Document group = groups.next();
+                if (group.getString("_id") != null) {
+                    counts.put(group.getString("_id"), group.getInteger("count"));
+                }
+                if (counts.size() == BATCH_SIZE || !groups.hasNext() && !counts.isEmpty()) {
+                    repaired += reconcileBatch(Criteria.where("id").in(counts.keySet()), counts);
+                    counts.clear();
+                }
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * This method is used to compare the stored counts of the posts, which have no ratings at all,
+     * i.e. which aren't returned by the aggregation of the ratings.
+     *
+     * @return the count of the repaired posts
+     */
+    private int reconcileUnratedPosts() {
+        Query query = Query.query(Criteria.where(RATINGS_COUNT).nin(0, null)).with(Sort.by("id"));
+        query.fields().include("id");
+
+        int repaired = 0;
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            Set<String> postIds = new HashSet<>(BATCH_SIZE);
+            while (posts.hasNext()) {
+                postIds.add(posts.next().getId());
+                if (postIds.size() == BATCH_SIZE || !posts.hasNext() && !postIds.isEmpty()) {
+                    postIds.removeAll(mongoTemplate.findDistinct(Query.query(Criteria.where("postId").in(postIds)),
+                            "postId", Rating.class, String.class));
+                    if (!postIds.isEmpty()) {
+                        repaired += reconcileBatch(Criteria.where("id").in(postIds), Collections.emptyMap());
+                    }
+                    postIds.clear();
+                }
+            }
+        }
+        return repaired;
+    }
+
+    private int reconcileBatch(Criteria batch, Map<String, Integer> counts) {
+        Query query = Query.query(batch);
+        query.fields().include(RATINGS_COUNT);
+
+        int repaired = 0;
+        for (Post post : mongoTemplate.find(query, Post.class)) {
+            if (post.getRatingsCount() != counts.getOrDefault(post.getId(), 0) && repair(post)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * This method is used to set the stored count of the post to the count of its ratings,
+     * if the stored count wasn't changed meanwhile. The rating inserted before the counting, whose increment
+     * is applied after the setting, would be counted twice, so the counts are compared again after a pause
+     * and the repair is repeated while they differ. The increment delayed for longer than all the attempts
+     * is left to the next run of the job.
+     *
+     * @param post the post with the drifted count
+     * @return true if the stored count is set
+     */
+    private boolean repair(Post post) {
+        boolean repaired = false;
+        int storedCount = post.getRatingsCount();
+        for (int attempt = 0; attempt < REPAIR_ATTEMPTS; attempt++) {
+            if (!setCount(post.getId(), storedCount, countRatings(post.getId()))) {
+                return repaired;
+            }
+            repaired = true;
+            if (!pause()) {
+                return true;
+            }
+            Query query = Query.query(Criteria.where("id").is(post.getId()));
+            query.fields().include(RATINGS_COUNT);
+            Post current = mongoTemplate.findOne(query, Post.class);
+            if (current == null || current.getRatingsCount() == countRatings(post.getId())) {
+                return true;
+            }
+            storedCount = current.getRatingsCount();
+        }
+        return repaired;
+    }
+
+    private long countRatings(String postId) {
+        return mongoTemplate.count(Query.query(Criteria.where("postId").is(postId)), Rating.class);
+    }
+
+    private boolean setCount(String postId, int storedCount, long count) {
+        Criteria stored = Criteria.where("id").is(postId).and(RATINGS_COUNT);
+        if (storedCount == 0) {
+            // the posts created before the counter was introduced don't have the field
+            stored.in(Arrays.asList(0, null));
+        } else {
+            stored.is(storedCount);
+        }
+        Update update = Update.update(RATINGS_COUNT, (int) count);
+        if (mongoTemplate.updateFirst(Query.query(stored), update, Post.class).getModifiedCount() == 0) {
+            return false;
+        }
+        ReadThroughCache.evict(cacheManager, CacheConfig.POSTS, postId);
+        return true;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(SETTLE_DELAY.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.reckue.post.migration;
+
+import com.reckue.post.config.NodeStorageProperties;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.type.NodeStorageType;
+import com.reckue.post.service.NodeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Class EmbeddedNodesMigration folds the stored nodes of the posts into the post documents
+ * when the embedded storage of nodes is enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmbeddedNodesMigration {
+
+    private static final String NODES_EMBEDDED = "nodesEmbedded";
+
+    private final MongoTemplate mongoTemplate;
+    private final NodeService nodeService;
+    private final NodeStorageProperties nodeStorageProperties;
+
+    /**
+     * This method is used to embed the nodes of every post stored in the referenced layout
+     * once the context is refreshed, before the web server is started, so no request changes the nodes
+     * of a post between their reading and their embedding. The posts whose nodes are larger than
+     * the configured maximum size stay in the referenced layout, so the migration can be repeated on every start.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void migrate() {
+        if (nodeStorageProperties.getStorage() != NodeStorageType.EMBEDDED) {
+            return;
+        }
+        Query query = Query.query(Criteria.where(NODES_EMBEDDED).ne(true));
+        query.fields().include("id");
+
+        int embedded = 0;
+        int skipped = 0;
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            while (posts.hasNext()) {
+                if (embed(posts.next().getId())) {
+                    embedded++;
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        log.info("Nodes are embedded into {} posts, {} posts are left in the referenced layout", embedded, skipped);
+    }
+
+    private boolean embed(String postId) {
+        List<Node> nodes = nodeService.findAllByParentId(postId);
+        if (!nodeService.isEmbeddable(nodes)) {
+            return false;
+        }
+        Query post = Query.query(Criteria.where("id").is(postId).and(NODES_EMBEDDED).ne(true));
+        Update update = new Update().set("nodes", nodes).set(NODES_EMBEDDED, true);
+        if (mongoTemplate.updateFirst(post, update, Post.class).getModifiedCount() == 0) {
+            return false;
+        }
+        List<String> nodeIds = nodes.stream().map(Node::getId).collect(Collectors.toList());
+        mongoTemplate.remove(Query.query(Criteria.where("id").in(nodeIds)), Node.class);
+        return true;
+    }
+}
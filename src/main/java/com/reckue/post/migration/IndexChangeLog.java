@@ -0,0 +1,273 @@
+package com.reckue.post.migration;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import com.reckue.post.migration.index.RequiredIndex;
+import com.reckue.post.model.Comment;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.PostText;
+import com.reckue.post.model.Rating;
+import com.reckue.post.model.TagCount;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.model.type.StatusType;
+import com.reckue.post.util.search.NodeTextExtractor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Class IndexChangeLog creates the indexes of the collections.
+ * Every changeset creates the indexes of its version from RequiredIndex.
+ */
+@ChangeLog(order = "2")
+@SuppressWarnings("unused")
+public class IndexChangeLog {
+
+    private static final int ORPHANED_NODES_BATCH_SIZE = 1000;
+    private static final String OBSOLETE_NODE_PARENT_ID_CREATED_DATE = "parentId_createdDate";
+    private static final String OBSOLETE_POST_USER_ID_CREATED_DATE = "userId_createdDate";
+
+    @ChangeSet(id = "2", author = "reckue", order = "1")
+    public void createIndexesVersion1(MongoTemplate mongoTemplate) {
+        removeDuplicateRatings(mongoTemplate);
+        RequiredIndex.ofVersion(1).forEach(index -> index.ensure(mongoTemplate));
+    }
+
+    @ChangeSet(id = "3", author = "reckue", order = "2")
+    public void createIndexesVersion2(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(2).forEach(index -> index.ensure(mongoTemplate));
+    }
+
+    @ChangeSet(id = "4", author = "reckue", order = "3")
+    public void createIndexesVersion3(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(3).forEach(index -> index.ensure(mongoTemplate));
+    }
+
+    @ChangeSet(id = "5", author = "reckue", order = "4")
+    public void createIndexesVersion4(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(4).forEach(index -> index.ensure(mongoTemplate));
+        writePostTexts(mongoTemplate);
+    }
+
+    @ChangeSet(id = "6", author = "reckue", order = "5")
+    public void indexPostTextFacets(MongoTemplate mongoTemplate) {
+        // the tags, the languages and the status of the posts are added to their texts
+        writePostTexts(mongoTemplate);
+    }
+
+    @ChangeSet(id = "7", author = "reckue", order = "6")
+    public void createIndexesVersion5(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(5).forEach(index -> index.ensure(mongoTemplate));
+        countTags(mongoTemplate);
+    }
+
+    @ChangeSet(id = "8", author = "reckue", order = "7")
+    public void createIndexesVersion6(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(6).forEach(index -> index.ensure(mongoTemplate));
+    }
+
+    @ChangeSet(id = "9", author = "reckue", order = "8")
+    public void createIndexesVersion7(MongoTemplate mongoTemplate) {
+        materializeCommentPaths(mongoTemplate);
+        RequiredIndex.ofVersion(7).forEach(index -> index.ensure(mongoTemplate));
+    }
+
+    @ChangeSet(id = "10", author = "reckue", order = "9")
+    public void createIndexesVersion8(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(8).forEach(index -> index.ensure(mongoTemplate));
+    }
+
+    @ChangeSet(id = "11", author = "reckue", order = "10")
+    public void createIndexesVersion9(MongoTemplate mongoTemplate) {
+        // the nodes of the posts and the comments deleted before are archived by DeletedNodesArchivalJob
+        markOrphanedNodesDeleted(mongoTemplate, ParentType.POST, Post.class, Post::getId);
+        markOrphanedNodesDeleted(mongoTemplate, ParentType.COMMENT, Comment.class, Comment::getId);
+        RequiredIndex.ofVersion(9).forEach(index -> index.ensure(mongoTemplate));
+        // the nodes are read by the partial index of the active ones, which replaces the index of the version 1
+        dropIndex(mongoTemplate, Node.class, OBSOLETE_NODE_PARENT_ID_CREATED_DATE);
+    }
+
+    @ChangeSet(id = "12", author = "reckue", order = "11")
+    public void createIndexesVersion10(MongoTemplate mongoTemplate) {
+        RequiredIndex.ofVersion(10).forEach(index -> index.ensure(mongoTemplate));
+        // the posts of a user are sorted by the id after the created date, so the index without it is replaced
+        dropIndex(mongoTemplate, Post.class, OBSOLETE_POST_USER_ID_CREATED_DATE);
+    }
+
+    /**
+     * This method is used to drop the index if it exists,
+     * the databases created after the index was removed from RequiredIndex don't have it.
+     *
+     * @param mongoTemplate the template of the database
+     * @param entityClass   the class of the collection
+     * @param name          the name of the index
+     */
+    private void dropIndex(MongoTemplate mongoTemplate, Class<?> entityClass, String name) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(entityClass);
+        if (indexOperations.getIndexInfo().stream().anyMatch(index -> name.equals(index.getName()))) {
+            indexOperations.dropIndex(name);
+        }
+    }
+
+    /**
+     * This method is used to write the searchable texts of all the posts.
+     * The changesets keep their own copy of the indexing, so they don't change with the search services
+     * and don't depend on the search engine selected by the application.
+     *
+     * @param mongoTemplate the template of the database
+     */
+    private void writePostTexts(MongoTemplate mongoTemplate) {
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(new Query(), Post.class)) {
+            while (posts.hasNext()) {
+                Post post = posts.next();
+                Query activeNodes = Query.query(Criteria.where("parentId").is(post.getId())
+                        .and("status").is(StatusType.ACTIVE));
+                List<Node> nodes = post.isNodesEmbedded()
+                        ? Optional.ofNullable(post.getNodes()).orElse(List.of())
+                        : mongoTemplate.find(activeNodes, Node.class);
+                mongoTemplate.save(PostText.builder()
+                        .id(post.getId())
+                        .title(post.getTitle())
+                        .content(NodeTextExtractor.extractText(mongoTemplate.getConverter(), nodes))
+                        .tags(post.getTags())
+                        .languages(NodeTextExtractor.extractLanguages(mongoTemplate.getConverter(), nodes))
+                        .status(post.getStatus())
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * This method is used to count the distinct tags of the posts which are not deleted
+     * and to replace the collection of the counters with the result.
+     *
+     * @param mongoTemplate the template of the database
+     */
+    private void countTags(MongoTemplate mongoTemplate) {
+        mongoTemplate.aggregate(Aggregation.newAggregation(Post.class,
+                Aggregation.match(Criteria.where("status").ne(PostStatusType.DELETED.name())),
+                Aggregation.unwind("tags"),
+                // the post is grouped with every tag once, so a repeated tag is counted once
+                Aggregation.group("id", "tags"),
+                Aggregation.group("tags").count().as("count"),
+                Aggregation.out(mongoTemplate.getCollectionName(TagCount.class))), TagCount.class);
+    }
+
+    /**
+     * This method is used to set the paths and the depths of the stored comments post by post.
+     * The identifier of a deleted parent stays in the paths of its replies, so they keep their depth.
+     *
+     * @param mongoTemplate the template of the database
+     */
+    private void materializeCommentPaths(MongoTemplate mongoTemplate) {
+        for (String postId : mongoTemplate.findDistinct(new Query(), "postId", Comment.class, String.class)) {
+            Query query = Query.query(Criteria.where("postId").is(postId));
+            query.fields().include("commentId");
+            Map<String, String> parents = new HashMap<>();
+            mongoTemplate.find(query, Comment.class).forEach(comment ->
+                    parents.put(comment.getId(), comment.getCommentId()));
+            if (parents.isEmpty()) {
+                continue;
+            }
+
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+            parents.keySet().forEach(id -> {
+                Deque<String> path = new ArrayDeque<>();
+                for (String ancestor = id; ancestor != null && !path.contains(ancestor);
+                     ancestor = parents.get(ancestor)) {
+                    path.addFirst(ancestor);
+                }
+                bulkOperations.updateOne(Query.query(Criteria.where("id").is(id)), new Update()
+                        .set("path", String.join("/", path))
+                        .set("depth", path.size() - 1));
+            });
+            bulkOperations.execute();
+        }
+    }
+
+    /**
+     * This method is used to mark the active nodes of the deleted parents as deleted.
+     * The identifiers of the parents are streamed from the database and checked batch by batch,
+     * so neither the memory nor the size of a query depends on the count of the parents.
+     *
+     * @param mongoTemplate the template of the database
+     * @param parentType    the type of the parents
+     * @param parentClass   the class of the parents
+     * @param parentId      the function getting the identifier of the parent
+     * @param <T>           the type of the parents
+     */
+    private <T> void markOrphanedNodesDeleted(MongoTemplate mongoTemplate, ParentType parentType,
+                                              Class<T> parentClass, Function<T, String> parentId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("parentType").is(parentType).and("status").is(StatusType.ACTIVE)),
+                Aggregation.group("parentId"))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+        try (CloseableIterator<Document> groups = mongoTemplate.aggregateStream(aggregation,
+                mongoTemplate.getCollectionName(Node.class), Document.class)) {
+            Set<String> parentIds = new HashSet<>(ORPHANED_NODES_BATCH_SIZE);
+            while (groups.hasNext()) {
+                String id = groups.next().getString("_id");
+                if (id != null) {
+                    parentIds.add(id);
+                }
+                if (parentIds.size() == ORPHANED_NODES_BATCH_SIZE || !groups.hasNext() && !parentIds.isEmpty()) {
+                    markOrphanedNodesDeleted(mongoTemplate, parentIds, parentClass, parentId);
+                    parentIds.clear();
+                }
+            }
+        }
+    }
+
+    private <T> void markOrphanedNodesDeleted(MongoTemplate mongoTemplate, Set<String> parentIds,
+                                              Class<T> parentClass, Function<T, String> parentId) {
+        Query parents = Query.query(Criteria.where("id").in(parentIds));
+        parents.fields().include("id");
+        mongoTemplate.find(parents, parentClass).forEach(parent -> parentIds.remove(parentId.apply(parent)));
+        if (!parentIds.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("parentId").in(parentIds).and("status")
+                    .is(StatusType.ACTIVE)), new Update()
+                    .set("status", StatusType.DELETED)
+                    .set("modificationDate", LocalDateTime.now()), Node.class);
+        }
+    }
+
+    /**
+     * This method is used to keep only the earliest rating of the user for the post,
+     * so that the unique index of ratings can be created.
+     *
+     * @param mongoTemplate the template of the database
+     */
+    private void removeDuplicateRatings(MongoTemplate mongoTemplate) {
+        String collection = mongoTemplate.getCollectionName(Rating.class);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.group("userId", "postId").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+
+        mongoTemplate.aggregate(aggregation, collection, Document.class).forEach(duplicates -> {
+            List<Object> ids = duplicates.getList("ids", Object.class);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids.subList(1, ids.size()))), collection);
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.reckue.post.migration.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Class IndexHealthIndicator reports the missing indexes through the health endpoint of actuator.
+ * A missing index slows the queries down but doesn't break them, so the service stays UP.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexHealthIndicator extends AbstractHealthIndicator {
+
+    private final IndexVerifier indexVerifier;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        List<String> missing = indexVerifier.findMissing().stream()
+                .map(RequiredIndex::name)
+                .collect(Collectors.toList());
+        builder.up();
+        if (!missing.isEmpty()) {
+            builder.withDetail("missing", missing);
+        }
+    }
+}
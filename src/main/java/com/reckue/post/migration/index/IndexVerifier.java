@@ -0,0 +1,49 @@
+package com.reckue.post.migration.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Class IndexVerifier checks that the required indexes exist in the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexVerifier {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * This method is used to get the required indexes which don't exist in the database.
+     *
+     * @return list of the missing indexes
+     */
+    public List<RequiredIndex> findMissing() {
+        Map<Class<?>, List<IndexInfo>> existingIndexes = new HashMap<>();
+        return Arrays.stream(RequiredIndex.values())
+                .filter(index -> !index.isPresentIn(existingIndexes.computeIfAbsent(index.getEntityClass(),
+                        entityClass -> mongoTemplate.indexOps(entityClass).getIndexInfo())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method is used to report the missing indexes once the application is started
+     * and the changesets are executed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        findMissing().forEach(index -> log.warn("Index '{}' of collection '{}' is missing", index.getName(),
+                mongoTemplate.getCollectionName(index.getEntityClass())));
+    }
+}
@@ -0,0 +1,151 @@
+package com.reckue.post.migration.index;
+
+import com.reckue.post.model.Comment;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.PostText;
+import com.reckue.post.model.Rating;
+import com.reckue.post.model.TagCount;
+import com.reckue.post.model.type.StatusType;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Enum RequiredIndex represents the indexes which the queries of the service rely on.
+ * Every index belongs to the version of the index changeset which creates it,
+ * so a new index is added here together with a new changeset in IndexChangeLog.
+ */
+@Getter
+public enum RequiredIndex {
+
+    RATING_USER_ID_POST_ID(1, Rating.class, new Index()
+            .on("userId", Sort.Direction.ASC)
+            .on("postId", Sort.Direction.ASC)
+            .named("userId_postId")
+            .unique()),
+    POST_TITLE(1, Post.class, new Index()
+            .on("title", Sort.Direction.ASC)
+            .named("title")),
+    RATING_POST_ID(2, Rating.class, new Index()
+            .on("postId", Sort.Direction.ASC)
+            .named("postId")),
+    RATING_USER_ID_CREATED_DATE(3, Rating.class, new Index()
+            .on("userId", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("userId_createdDate")),
+    POST_TEXT_TITLE_CONTENT(4, PostText.class, new TextIndexDefinition.TextIndexDefinitionBuilder()
+            .onField("title", 10F)
+            .onField("content")
+            .withDefaultLanguage("none")
+            .named("title_content_text")
+            .build()),
+    TAG_COUNT_COUNT(5, TagCount.class, new Index()
+            .on("count", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.ASC)
+            .named("count__id")),
+    POST_TAGS_CREATED_DATE(6, Post.class, new Index()
+            .on("tags", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("tags_createdDate__id")),
+    COMMENT_POST_ID_PATH(7, Comment.class, new Index()
+            .on("postId", Sort.Direction.ASC)
+            .on("path", Sort.Direction.ASC)
+            .named("postId_path")),
+    COMMENT_POST_ID_CREATED_DATE(8, Comment.class, new Index()
+            .on("postId", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.ASC)
+            .on("_id", Sort.Direction.ASC)
+            .named("postId_createdDate__id")),
+    COMMENT_USER_ID_CREATED_DATE(8, Comment.class, new Index()
+            .on("userId", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("userId_createdDate__id")),
+    NODE_PARENT_ID_CREATED_DATE_ACTIVE(9, Node.class, new Index()
+            .on("parentId", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.ASC)
+            .on("_id", Sort.Direction.ASC)
+            .named("parentId_createdDate__id_active")
+            .partial(PartialIndexFilter.of(Criteria.where("status").is(StatusType.ACTIVE.name())))),
+    NODE_MODIFICATION_DATE_DELETED(9, Node.class, new Index()
+            .on("modificationDate", Sort.Direction.ASC)
+            .named("modificationDate_deleted")
+            .partial(PartialIndexFilter.of(Criteria.where("status").is(StatusType.DELETED.name())))),
+    POST_USER_ID_CREATED_DATE(10, Post.class, new Index()
+            .on("userId", Sort.Direction.ASC)
+            .on("createdDate", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("userId_createdDate__id"));
+
+    private final int version;
+    private final Class<?> entityClass;
+    private final IndexDefinition definition;
+
+    RequiredIndex(int version, Class<?> entityClass, Index definition) {
+        this.version = version;
+        this.entityClass = entityClass;
+        this.definition = definition.background();
+    }
+
+    RequiredIndex(int version, Class<?> entityClass, TextIndexDefinition definition) {
+        this.version = version;
+        this.entityClass = entityClass;
+        this.definition = definition;
+    }
+
+    /**
+     * This method is used to get the indexes created by the given version of the index changeset.
+     *
+     * @param version the version of the index changeset
+     * @return list of the indexes
+     */
+    public static List<RequiredIndex> ofVersion(int version) {
+        return Arrays.stream(values())
+                .filter(index -> index.getVersion() == version)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method is used to get the name of the index in the collection.
+     *
+     * @return the name of the index
+     */
+    public String getName() {
+        return definition.getIndexOptions().getString("name");
+    }
+
+    /**
+     * This method is used to create the index in the background if it doesn't exist yet.
+     *
+     * @param mongoTemplate the template of the database to create the index in
+     */
+    public void ensure(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps(entityClass).ensureIndex(definition);
+    }
+
+    /**
+     * This method is used to check whether the index is among the existing indexes of the collection.
+     * The index is looked up by name, a unique index must also be unique in the collection.
+     *
+     * @param indexes the existing indexes of the collection
+     * @return true if the index exists
+     */
+    public boolean isPresentIn(List<IndexInfo> indexes) {
+        boolean unique = Boolean.TRUE.equals(definition.getIndexOptions().get("unique"));
+        return indexes.stream()
+                .anyMatch(index -> getName().equals(index.getName()) && (!unique || index.isUnique()));
+    }
+}
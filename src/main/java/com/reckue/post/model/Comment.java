@@ -33,6 +33,17 @@ public class Comment implements Serializable {
     private String commentId;
     private List<Node> nodes;
 
+    /**
+     * The identifiers of the ancestors of the comment and of the comment itself separated by slashes,
+     * so that a thread or a subtree of it is read by one range query over the index on the post and the path.
+     */
+    private String path;
+
+    /**
+     * The count of the ancestors of the comment, zero for the comments on the post itself.
+     */
+    private int depth;
+
     @CreatedDate
     private LocalDateTime createdDate;
     @LastModifiedDate
@@ -0,0 +1,48 @@
+package com.reckue.post.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class CommentThread represents a comment together with the tree of its replies.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThread {
+
+    private Comment comment;
+    private List<CommentThread> replies;
+
+    /**
+     * This method is used to assemble the trees of the comments in linear time.
+     * The comments whose parents are not among the given ones become the roots of the trees,
+     * the replies keep the order of the given comments.
+     *
+     * @param comments list of objects of class Comment
+     * @return list of the trees of the comments
+     */
+    public static List<CommentThread> assemble(List<Comment> comments) {
+        Map<String, CommentThread> threads = new HashMap<>(comments.size() * 2);
+        comments.forEach(comment -> threads.put(comment.getId(), new CommentThread(comment, new ArrayList<>())));
+
+        List<CommentThread> roots = new ArrayList<>();
+        for (Comment comment : comments) {
+            CommentThread parent = comment.getCommentId() == null ? null : threads.get(comment.getCommentId());
+            if (parent == null) {
+                roots.add(threads.get(comment.getId()));
+            } else {
+                parent.getReplies().add(threads.get(comment.getId()));
+            }
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,126 @@
+package com.reckue.post.model;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class EntityVersion represents the version of the entity:
+ * the strong entity tag and the date of the last modification.
+ * The version is either read by the projection queries of the stored entity or computed from the loaded entity,
+ * and both give the same tag for the same state, so the tag changes whenever the representation changes.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class EntityVersion {
+
+    private final String tag;
+    private final LocalDateTime modificationDate;
+
+    /**
+     * This method is used to create the version from the modification date of the entity
+     * and the values changed without it, e.g. the counters.
+     *
+     * @param modificationDate the date of the last modification or null for the legacy entities
+     * @param values           the values changed without the modification date
+     * @return the object of class EntityVersion
+     */
+    public static EntityVersion of(LocalDateTime modificationDate, Object... values) {
+        String tag = Stream.concat(Stream.of(Long.toHexString(toEpochMilli(modificationDate))), Arrays.stream(values))
+                .map(String::valueOf)
+                .collect(Collectors.joining("-"));
+        return new EntityVersion(tag, modificationDate);
+    }
+
+    /**
+     * This method is used to get the version of the post. The count of ratings is changed without
+     * the modification date, and the nodes stored in their own collection are changed without the post,
+     * so they are the parts of the version too.
+     *
+     * @param post the post with its nodes
+     * @return the object of class EntityVersion
+     */
+    public static EntityVersion forPost(Post post) {
+        EntityVersion version = of(post.getModificationDate(), post.getRatingsCount());
+        if (post.isNodesEmbedded()) {
+            return version;
+        }
+        // a created or an updated node is the newest active one, a deleted node changes their count
+        List<Node> nodes = Optional.ofNullable(post.getNodes()).orElse(List.of());
+        LocalDateTime newestNodeDate = nodes.stream()
+                .map(Node::getModificationDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return version.and(of(newestNodeDate, nodes.size()));
+    }
+
+    /**
+     * This method is used to get the version of the node.
+     *
+     * @param node object of class Node
+     * @return the object of class EntityVersion
+     */
+    public static EntityVersion forNode(Node node) {
+        return of(node.getModificationDate());
+    }
+
+    /**
+     * This method is used to get the version of the tag.
+     *
+     * @param tag object of class Tag
+     * @return the object of class EntityVersion
+     */
+    public static EntityVersion forTag(Tag tag) {
+        return of(tag.getModificationDate());
+    }
+
+    /**
+     * This method is used to combine the version of the entity with the version of its parts stored separately,
+     * e.g. the post with its nodes.
+     *
+     * @param other the version of the parts
+     * @return the object of class EntityVersion changing with both versions
+     */
+    public EntityVersion and(EntityVersion other) {
+        LocalDateTime date = modificationDate == null || other.modificationDate != null
+                && other.modificationDate.isAfter(modificationDate) ? other.modificationDate : modificationDate;
+        return new EntityVersion(tag + "." + other.tag, date);
+    }
+
+    /**
+     * This method is used to get the value of the ETag header.
+     *
+     * @return the quoted tag
+     */
+    public String getEntityTag() {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * This method is used to get the value of the Last-Modified header.
+     *
+     * @return the epoch milliseconds of the modification date or -1 if it is unknown
+     */
+    public long getLastModified() {
+        return modificationDate == null ? -1 : toEpochMilli(modificationDate);
+    }
+
+    private static long toEpochMilli(LocalDateTime date) {
+        return date == null ? 0 : date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,57 @@
+package com.reckue.post.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class ImportReport represents the result of the bulk import: the count of the imported records
+ * and the failures of the rejected ones. Only the first failures are kept, the others are counted.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+
+    public static final int MAX_REPORTED_FAILURES = 1000;
+
+    private long imported;
+    private long failed;
+    private List<Failure> failures = new ArrayList<>();
+
+    /**
+     * This method is used to add the imported records to the report.
+     *
+     * @param count count of the imported records
+     */
+    public void succeed(long count) {
+        imported += count;
+    }
+
+    /**
+     * This method is used to add the rejected record to the report.
+     *
+     * @param record  the number of the record in the body starting from 1
+     * @param message the reason of the failure
+     */
+    public void fail(long record, String message) {
+        failed++;
+        if (failures.size() < MAX_REPORTED_FAILURES) {
+            failures.add(new Failure(record, message));
+        }
+    }
+
+    /**
+     * Class Failure represents the rejected record.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+
+        private long record;
+        private String message;
+    }
+}
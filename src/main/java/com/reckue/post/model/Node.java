@@ -1,6 +1,7 @@
 package com.reckue.post.model;
 
 import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.ParentType;
 import com.reckue.post.model.type.StatusType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -39,6 +40,10 @@ public class Node implements Serializable {
 
     private StatusType status;
 
+    private String parentId;
+
+    private ParentType parentType;
+
     @LastModifiedDate
     private LocalDateTime modificationDate;
 
@@ -35,6 +35,8 @@ public class Post implements Serializable {
     private String userId;
     private List<String> tags;
     private PostStatusType status;
+    private int ratingsCount;
+    private boolean nodesEmbedded;
 
     @LastModifiedDate
     private LocalDateTime modificationDate;
@@ -0,0 +1,43 @@
+package com.reckue.post.model;
+
+import com.reckue.post.model.type.PostStatusType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Class PostText represents the searchable text of a post: its title and the text of its nodes,
+ * together with the values the found posts are filtered and counted by.
+ * It is stored under the id of the post in its own collection covered by the text index,
+ * so that the nodes are searched in both the referenced and the embedded storage layouts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class PostText implements Serializable {
+
+    @Id
+    private String id;
+
+    private String title;
+
+    private List<String> content;
+
+    private List<String> tags;
+
+    private List<String> languages;
+
+    private PostStatusType status;
+
+    @TextScore
+    private Float score;
+}
@@ -5,9 +5,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 
 /**
  * Class Tag is responsible for model that works with tags.
@@ -25,4 +27,7 @@ public class Tag implements Serializable {
     private String id;
 
     private String name;
+
+    @LastModifiedDate
+    private LocalDateTime modificationDate;
 }
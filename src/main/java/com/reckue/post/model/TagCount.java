@@ -0,0 +1,27 @@
+package com.reckue.post.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+
+/**
+ * Class TagCount represents the count of the posts which are not deleted and use the tag.
+ * It is stored under the name of the tag, as the posts refer to the tags by name.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class TagCount implements Serializable {
+
+    @Id
+    private String name;
+
+    private long count;
+}
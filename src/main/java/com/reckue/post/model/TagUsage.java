@@ -0,0 +1,20 @@
+package com.reckue.post.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class TagUsage represents the tag together with the count of the posts it is used in.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagUsage {
+
+    private String id;
+    private String name;
+    private long count;
+}
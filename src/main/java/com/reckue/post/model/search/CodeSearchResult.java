@@ -0,0 +1,24 @@
+package com.reckue.post.model.search;
+
+import com.reckue.post.model.type.LangType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class CodeSearchResult represents the code node found by the code search
+ * together with the first of its lines matching the search query.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodeSearchResult {
+
+    private String postId;
+    private String nodeId;
+    private LangType language;
+    private int lineNumber;
+    private String line;
+}
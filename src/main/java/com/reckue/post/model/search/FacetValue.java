@@ -0,0 +1,19 @@
+package com.reckue.post.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class FacetValue represents the value of a facet and the count of the found posts having it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetValue {
+
+    private String value;
+    private long count;
+}
@@ -0,0 +1,20 @@
+package com.reckue.post.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class Highlight represents the position of the matched word in the text of the snippet:
+ * the index of its first character and the index after its last character.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Highlight {
+
+    private int start;
+    private int end;
+}
@@ -0,0 +1,22 @@
+package com.reckue.post.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Class PostSearchFacets represents the counts of the found posts per tag, language of code and status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchFacets {
+
+    private List<FacetValue> tags;
+    private List<FacetValue> languages;
+    private List<FacetValue> statuses;
+}
@@ -0,0 +1,23 @@
+package com.reckue.post.model.search;
+
+import com.reckue.post.model.type.LangType;
+import com.reckue.post.model.type.PostStatusType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class PostSearchFilter represents the optional conditions the found posts must meet:
+ * the tag of the post, the language of its code nodes and its status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchFilter {
+
+    private String tag;
+    private LangType language;
+    private PostStatusType status;
+}
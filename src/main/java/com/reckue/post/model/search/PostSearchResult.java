@@ -0,0 +1,24 @@
+package com.reckue.post.model.search;
+
+import com.reckue.post.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Class PostSearchResult represents the post found by the text search
+ * together with its relevance and the fragments of its text matching the search query.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchResult {
+
+    private Post post;
+    private float score;
+    private List<Snippet> snippets;
+}
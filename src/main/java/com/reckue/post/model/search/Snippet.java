@@ -0,0 +1,21 @@
+package com.reckue.post.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Class Snippet represents the fragment of the searched text with the positions of the matched words.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Snippet {
+
+    private String text;
+    private List<Highlight> highlights;
+}
@@ -0,0 +1,17 @@
+package com.reckue.post.model.type;
+
+/**
+ * Enum ExecutionModeType represents enumeration of the modes the requests to the nodes and the tags are executed in.
+ */
+public enum ExecutionModeType {
+
+    /**
+     * The request thread waits for the database.
+     */
+    BLOCKING,
+
+    /**
+     * The request thread is released while the database is queried by the reactive driver.
+     */
+    REACTIVE
+}
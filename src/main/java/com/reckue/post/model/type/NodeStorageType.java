@@ -0,0 +1,17 @@
+package com.reckue.post.model.type;
+
+/**
+ * Enum NodeStorageType represents enumeration of the layouts in which the nodes of posts are stored.
+ */
+public enum NodeStorageType {
+
+    /**
+     * The nodes are stored in the collection of nodes and reference the post by parentId.
+     */
+    REFERENCED,
+
+    /**
+     * The nodes are stored inside the post document, so the post is read with its nodes by one query.
+     */
+    EMBEDDED
+}
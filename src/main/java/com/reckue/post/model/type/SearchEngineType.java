@@ -0,0 +1,17 @@
+package com.reckue.post.model.type;
+
+/**
+ * Enum SearchEngineType represents enumeration of the engines serving the full-text search of posts.
+ */
+public enum SearchEngineType {
+
+    /**
+     * The text index of the database.
+     */
+    MONGO,
+
+    /**
+     * The Lucene index stored in the local directory of every instance of the service.
+     */
+    LUCENE
+}
@@ -0,0 +1,34 @@
+package com.reckue.post.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Class QueryPlanHealthIndicator reports the indexes chosen for the watched queries through the health endpoint
+ * of actuator. The queries scanning the whole collection are listed, but they don't make the service down:
+ * the planner scans a small collection or a collection with a cold index as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryPlanHealthIndicator extends AbstractHealthIndicator {
+
+    private final QueryPlanRecorder queryPlanRecorder;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Map<String, List<String>> plans = queryPlanRecorder.explainAll();
+        List<String> collectionScans = plans.entrySet().stream()
+                .filter(plan -> plan.getValue().contains(QueryPlanRecorder.COLLECTION_SCAN))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        builder.up()
+                .withDetail("plans", plans)
+                .withDetail("collectionScans", collectionScans);
+    }
+}
@@ -0,0 +1,137 @@
+package com.reckue.post.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class QueryPlanRecorder keeps the last executed query of every watched kind
+ * and explains them on demand, so that the indexes chosen for them are reported without executing them again.
+ * The query is explained once per its shape, i.e. the fields, the operators and the sort without the values,
+ * so the repeated reports don't load the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryPlanRecorder {
+
+    public static final String COLLECTION_SCAN = "COLLSCAN";
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, RecordedQuery> queries = new ConcurrentHashMap<>();
+
+    /**
+     * This method is used to remember the query as the last one of its kind.
+     *
+     * @param name        the name of the kind of the query
+     * @param query       the executed query
+     * @param entityClass the class of the queried model
+     */
+    public void record(String name, Query query, Class<?> entityClass) {
+        Document shape = new Document("filter", shape(query.getQueryObject()))
+                .append("sort", query.getSortObject())
+                .append("limited", query.getLimit() > 0);
+        queries.compute(name, (key, recorded) -> recorded != null && recorded.shape.equals(shape)
+                ? recorded
+                : new RecordedQuery(query, entityClass, shape));
+    }
+
+    /**
+     * This method is used to replace the values of the query with their types,
+     * so that the queries differing by the values only have the same plan.
+     *
+     * @param value the query document or its value
+     * @return the shape of the value
+     */
+    private static Object shape(Object value) {
+        if (value instanceof Document) {
+            Document shape = new Document();
+            ((Document) value).forEach((key, nested) -> shape.append(key, shape(nested)));
+            return shape;
+        }
+        if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            return values.isEmpty() ? List.of() : List.of(shape(values.get(0)));
+        }
+        return value == null ? null : value.getClass().getSimpleName();
+    }
+
+    /**
+     * This method is used to get the plans of the last query of every kind.
+     * Only the queries of a new shape are explained, the plans of the others are reused.
+     *
+     * @return the names of the scanned indexes or COLLSCAN by the names of the kinds of the queries
+     */
+    public Map<String, List<String>> explainAll() {
+        Map<String, List<String>> plans = new TreeMap<>();
+        queries.forEach((name, recorded) -> {
+            if (recorded.plan == null) {
+                recorded.plan = explain(recorded.query, recorded.entityClass);
+            }
+            plans.put(name, recorded.plan);
+        });
+        return plans;
+    }
+
+    /**
+     * This method is used to get the scans of the plan the database chooses for the query.
+     *
+     * @param query       the query
+     * @param entityClass the class of the queried model
+     * @return the names of the scanned indexes or COLLSCAN if the whole collection is scanned
+     */
+    public List<String> explain(Query query, Class<?> entityClass) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getPersistentEntity(entityClass);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document find = new Document("find", mongoTemplate.getCollectionName(entityClass))
+                .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", queryMapper.getMappedSort(query.getSortObject(), entity));
+        if (query.getLimit() > 0) {
+            find.append("limit", query.getLimit());
+        }
+        Document explain = mongoTemplate.getDb()
+                .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+
+        List<String> scans = new ArrayList<>();
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        collectScans(queryPlanner == null ? null : queryPlanner.get("winningPlan", Document.class), scans);
+        return scans;
+    }
+
+    private void collectScans(Document stage, List<String> scans) {
+        if (stage == null) {
+            return;
+        }
+        if ("IXSCAN".equals(stage.getString("stage"))) {
+            scans.add(stage.getString("indexName"));
+        } else if (COLLECTION_SCAN.equals(stage.getString("stage"))) {
+            scans.add(COLLECTION_SCAN);
+        }
+        collectScans(stage.get("inputStage", Document.class), scans);
+        stage.getList("inputStages", Document.class, List.of()).forEach(input -> collectScans(input, scans));
+    }
+
+    private static class RecordedQuery {
+
+        private final Query query;
+        private final Class<?> entityClass;
+        private final Document shape;
+        private volatile List<String> plan;
+
+        private RecordedQuery(Query query, Class<?> entityClass, Document shape) {
+            this.query = query;
+            this.entityClass = entityClass;
+            this.shape = shape;
+        }
+    }
+}
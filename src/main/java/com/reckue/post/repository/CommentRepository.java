@@ -1,6 +1,7 @@
 package com.reckue.post.repository;
 
 import com.reckue.post.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +15,15 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends MongoRepository<Comment, String> {
 
+    /**
+     * This method is used to get one page of objects sorted, skipped and limited by the database
+     * without counting the whole collection.
+     *
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Comment
+     */
+    List<Comment> findAllBy(Pageable pageable);
+
     /**
      * This method is used to get a list of comments by user id.
      *
@@ -21,4 +31,13 @@ public interface CommentRepository extends MongoRepository<Comment, String> {
      * @return list of objects of class Comment
      */
     List<Comment> findAllByUserId(String userId);
+
+    /**
+     * This method is used to get one page of comments by user id.
+     *
+     * @param userId   user identificator
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Comment
+     */
+    List<Comment> findAllByUserId(String userId, Pageable pageable);
 }
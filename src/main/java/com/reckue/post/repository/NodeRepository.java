@@ -1,10 +1,45 @@
 package com.reckue.post.repository;
 
 import com.reckue.post.model.Node;
+import com.reckue.post.model.type.StatusType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface NodeRepository extends PagingAndSortingRepository<Node, String> {
 
+    /**
+     * This method is used to get one page of the nodes with the status.
+     *
+     * @param status   the status of the nodes
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Node
+     */
+    List<Node> findAllByStatus(StatusType status, Pageable pageable);
+
+    /**
+     * This method is used to get the nodes of the parent entity with the status.
+     *
+     * @param parentId the identifier of the post or the comment
+     * @param status   the status of the nodes
+     * @param sort     the sort order of the nodes
+     * @return list of objects of class Node
+     */
+    List<Node> findAllByParentIdAndStatus(String parentId, StatusType status, Sort sort);
+
+    /**
+     * This method is used to get the nodes of several parent entities with the status with one query.
+     *
+     * @param parentIds the identifiers of the posts or the comments
+     * @param status    the status of the nodes
+     * @param sort      the sort order of the nodes
+     * @return list of objects of class Node
+     */
+    List<Node> findAllByParentIdInAndStatus(Collection<String> parentIds, StatusType status, Sort sort);
+
 }
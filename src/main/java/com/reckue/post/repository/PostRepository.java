@@ -1,6 +1,7 @@
 package com.reckue.post.repository;
 
 import com.reckue.post.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +15,15 @@ import java.util.List;
 @Repository
 public interface PostRepository extends MongoRepository<Post, String> {
 
+    /**
+     * This method is used to get one page of objects sorted, skipped and limited by the database
+     * without counting the whole collection.
+     *
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Post
+     */
+    List<Post> findAllBy(Pageable pageable);
+
     /**
      * This method is used to get the objects by title.
      *
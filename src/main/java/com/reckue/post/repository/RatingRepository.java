@@ -1,6 +1,7 @@
 package com.reckue.post.repository;
 
 import com.reckue.post.model.Rating;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -71,4 +72,22 @@ public interface RatingRepository extends MongoRepository<Rating, String> {
      * @return list of objects of class Rating
      */
     List<Rating> findAllByUserId(String userId);
+
+    /**
+     * This method is used to get one page of ratings by user id.
+     *
+     * @param userId   the user identifier
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Rating
+     */
+    List<Rating> findAllByUserId(String userId, Pageable pageable);
+
+    /**
+     * This method is used to get one page of objects sorted, skipped and limited by the database
+     * without counting the whole collection.
+     *
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Rating
+     */
+    List<Rating> findAllBy(Pageable pageable);
 }
@@ -0,0 +1,25 @@
+package com.reckue.post.repository;
+
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.StatusType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Interface ReactiveNodeRepository is responsible for connecting to MongoDB through the reactive driver.
+ */
+@Repository
+public interface ReactiveNodeRepository extends ReactiveMongoRepository<Node, String> {
+
+    /**
+     * This method is used to get one page of the nodes with the given status
+     * sorted, skipped and limited by the database.
+     *
+     * @param status   the status of the nodes
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return flux of objects of class Node
+     */
+    Flux<Node> findAllByStatus(StatusType status, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package com.reckue.post.repository;
+
+import com.reckue.post.model.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Interface ReactiveTagRepository is responsible for connecting to MongoDB through the reactive driver.
+ */
+@Repository
+public interface ReactiveTagRepository extends ReactiveMongoRepository<Tag, String> {
+
+    /**
+     * This method is used to get one page of objects sorted, skipped and limited by the database
+     * without counting the whole collection.
+     *
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return flux of objects of class Tag
+     */
+    Flux<Tag> findAllBy(Pageable pageable);
+}
@@ -1,9 +1,12 @@
 package com.reckue.post.repository;
 
 import com.reckue.post.model.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Interface TagRepository is responsible for connecting to MongoDB.
  *
@@ -11,4 +14,13 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface TagRepository extends MongoRepository<Tag, String> {
+
+    /**
+     * This method is used to get one page of objects sorted, skipped and limited by the database
+     * without counting the whole collection.
+     *
+     * @param pageable the sort order, the offset and the limit of the page
+     * @return list of objects of class Tag
+     */
+    List<Tag> findAllBy(Pageable pageable);
 }
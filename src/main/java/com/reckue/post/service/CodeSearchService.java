@@ -0,0 +1,46 @@
+package com.reckue.post.service;
+
+import com.reckue.post.model.Post;
+import com.reckue.post.model.search.CodeSearchResult;
+import com.reckue.post.model.type.LangType;
+
+import java.util.List;
+
+/**
+ * Interface CodeSearchService represents the search of the snippets inside the content of the code nodes.
+ */
+public interface CodeSearchService {
+
+    /**
+     * This method is used to store the code of the post with its nodes set.
+     *
+     * @param post object of class Post
+     */
+    void index(Post post);
+
+    /**
+     * This method is used to remove the code of the post.
+     *
+     * @param postId the identifier of the post
+     */
+    void remove(String postId);
+
+    /**
+     * This method is used to store the code of all the posts anew.
+     *
+     * @return count of the indexed code nodes
+     */
+    long rebuild();
+
+    /**
+     * This method is used to find the code nodes containing the string or matching the regular expression.
+     *
+     * @param query    the searched string or the regular expression
+     * @param regex    flag of the regular expression
+     * @param language the language of the found code or null to search the code of all the languages
+     * @param limit    maximum count of the code nodes on the page
+     * @param offset   count of the code nodes to skip
+     * @return list of the found code nodes with their first matching lines
+     */
+    List<CodeSearchResult> searchCode(String query, Boolean regex, LangType language, Integer limit, Integer offset);
+}
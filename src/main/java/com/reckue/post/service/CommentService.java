@@ -1,6 +1,8 @@
 package com.reckue.post.service;
 
 import com.reckue.post.model.Comment;
+import com.reckue.post.model.CommentThread;
+import com.reckue.post.util.pagination.KeysetPage;
 
 import java.util.List;
 
@@ -13,4 +15,31 @@ public interface CommentService extends BaseService<Comment> {
 
     List<Comment> findAllByUserId(String userId, Integer limit, Integer offset);
 
+    /**
+     * This method is used to get the page of the comments of the post ordered by the creation date.
+     * The page is read by the continuation token, so neither the comments before it are skipped
+     * nor the comments of the post are counted.
+     *
+     * @param postId the identifier of the post
+     * @param limit  maximum count of the comments on the page
+     * @param desc   flag of the descending sort order, ignored if the cursor is set
+     * @param cursor the token of the next or the previous page or null for the first page
+     * @return the page of the comments with the tokens of the next and the previous pages
+     */
+    KeysetPage<Comment> findAllByPostId(String postId, Integer limit, Boolean desc, String cursor);
+
+    /**
+     * This method is used to get the page of the thread of the post assembled into the trees of the comments.
+     * The comments are read by one range query in the order of a depth-first traversal of the thread,
+     * so the next page continues the last tree of the previous one.
+     *
+     * @param postId    the identifier of the post
+     * @param commentId the identifier of the comment to get the subtree of or null to get the whole thread
+     * @param depth     maximum depth of the replies below the root of the thread or null for any depth
+     * @param limit     maximum count of the comments on the page, by default 100
+     * @param cursor    the continuation token of the previous page or null for the first page
+     * @return the page of the trees of the comments with the token of the next page
+     */
+    KeysetPage<CommentThread> findThread(String postId, String commentId, Integer depth, Integer limit, String cursor);
+
 }
@@ -1,20 +1,121 @@
 package com.reckue.post.service;
 
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Node;
-import org.springframework.data.domain.Page;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.util.pagination.KeysetPage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface NodeService {
 
     Node create(Node node);
 
-    Page<Node> findAll();
+    /**
+     * This method is used to validate the new nodes of the post or the comment and fill their fields
+     * without storing them, so that they can be stored by one bulk write or inside the parent document.
+     *
+     * @param parentId   the identifier of the post or the comment
+     * @param parentType the type of the parent entity
+     * @param nodes      list of objects of class Node
+     * @return the same list of nodes
+     */
+    List<Node> prepareAll(String parentId, ParentType parentType, List<Node> nodes);
+
+    /**
+     * This method is used to store the prepared nodes with one bulk write.
+     * The nodes keep their order, the nodes with an identifier replace the stored ones.
+     *
+     * @param nodes list of the prepared nodes
+     * @return the same list of nodes
+     */
+    List<Node> saveAll(List<Node> nodes);
+
+    /**
+     * This method is used to create the nodes of the post or the comment with one bulk write.
+     *
+     * @param parentId   the identifier of the post or the comment
+     * @param parentType the type of the parent entity
+     * @param nodes      list of objects of class Node
+     * @return list of the stored nodes
+     */
+    List<Node> createAll(String parentId, ParentType parentType, List<Node> nodes);
+
+    /**
+     * This method is used to check whether the nodes are to be stored inside the parent document:
+     * the embedded storage is enabled and the nodes are not larger than the configured maximum size.
+     *
+     * @param nodes list of objects of class Node
+     * @return true if the nodes are to be embedded
+     */
+    boolean isEmbeddable(List<Node> nodes);
+
+    List<Node> findAll();
+
+    List<Node> findAll(Integer limit, Integer offset, String sort, Boolean desc);
 
-    Page<Node> findAll(Integer limit, Integer offset, String sort, Boolean desc);
+    /**
+     * This method is used to get the page of nodes following the continuation token.
+     * The sort field and the sort order of the token take precedence over the given ones.
+     * Only the nodes sorted by id are continued by the token, the first page sorted by another field
+     * is returned without it and the next ones are read by the offset.
+     *
+     * @param limit  maximum count of nodes on the page
+     * @param sort   the sort field of the first page
+     * @param desc   flag of the descending sort order of the first page
+     * @param cursor the continuation token of the previous page or null for the first page
+     * @return the page of nodes with the continuation token of the next page
+     */
+    KeysetPage<Node> findAllByCursor(Integer limit, String sort, Boolean desc, String cursor);
 
     Node findById(String id);
 
+    /**
+     * This method is used to get the active nodes of the post or the comment in the order of their creation.
+     *
+     * @param parentId the identifier of the post or the comment
+     * @return list of objects of class Node
+     */
+    List<Node> findAllByParentId(String parentId);
+
+    /**
+     * This method is used to get the active nodes of a page of posts or comments with one query,
+     * so that the count of queries does not depend on the size of the page.
+     *
+     * @param parentIds the identifiers of the posts or the comments
+     * @return map of the parent identifier to its nodes in the order of their creation
+     */
+    Map<String, List<Node>> findAllByParentIds(Collection<String> parentIds);
+
+    /**
+     * This method is used to get the version of the stored node by the projection of its modification date.
+     *
+     * @param id the identifier of the node
+     * @return the object of class EntityVersion
+     */
+    EntityVersion findVersionById(String id);
+
+    /**
+     * This method is used to get the version of the active nodes of the post or the comment with one aggregation,
+     * without reading the nodes: their newest modification date and their count.
+     *
+     * @param parentId the identifier of the post or the comment
+     * @return the object of class EntityVersion
+     */
+    EntityVersion findVersionByParentId(String parentId);
+
     Node update(Node node);
 
     void deleteById(String id);
 
+    /**
+     * This method is used to mark the nodes of the deleted post or comment as deleted,
+     * so that they are archived together with the other deleted nodes.
+     *
+     * @param parentId the identifier of the post or the comment
+     */
+    void deleteAllByParentId(String parentId);
+
 }
@@ -0,0 +1,21 @@
+package com.reckue.post.service;
+
+import com.reckue.post.model.ImportReport;
+
+import java.io.InputStream;
+
+/**
+ * Interface PostImportService represents the bulk import of the posts with their nodes and tags.
+ */
+public interface PostImportService {
+
+    /**
+     * This method is used to import the posts read one by one from the body containing
+     * either newline-delimited JSON objects or one JSON array of them.
+     * The posts are validated and written in batches, the rejected records don't stop the import.
+     *
+     * @param inputStream the body of the request
+     * @return the count of the imported posts and the failures of the rejected ones
+     */
+    ImportReport importAll(InputStream inputStream);
+}
@@ -1,8 +1,12 @@
 package com.reckue.post.service;
 
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Post;
+import com.reckue.post.util.pagination.KeysetPage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface PostService extends base auth interface with CRUD-operations and add own methods.
@@ -13,6 +17,77 @@ public interface PostService extends BaseService<Post> {
 
     List<Post> findAllByTitle(String title);
 
+    /**
+     * This method is used to get the version of the stored post by the projection queries, past the cache
+     * and without reading the post and its nodes, so the unchanged post is answered with 304 Not Modified cheaply.
+     *
+     * @param id the identifier of the post
+     * @return the version changing with the post, its counters and its nodes
+     */
+    EntityVersion findVersionById(String id);
+
     List<Post> findAllByUserId(String userId, Integer limit, Integer offset);
 
+    /**
+     * This method is used to get the page of the posts without their nodes,
+     * so that the nodes are neither read from the database nor deserialized.
+     *
+     * @param limit  maximum count of the posts on the page
+     * @param offset count of the posts to skip
+     * @param sort   name of the sort field
+     * @param desc   flag of the descending sort order
+     * @return list of the summaries of the posts
+     */
+    List<Post> findAllSummaries(Integer limit, Integer offset, String sort, Boolean desc);
+
+    /**
+     * This method is used to get the page of the posts of the user without their nodes, the newest first.
+     *
+     * @param userId the identifier of the user
+     * @param limit  maximum count of the posts on the page
+     * @param offset count of the posts to skip
+     * @return list of the summaries of the posts
+     */
+    List<Post> findAllSummariesByUserId(String userId, Integer limit, Integer offset);
+
+    /**
+     * This method is used to get the posts by their identifiers without their nodes.
+     * The posts are returned in no particular order, the missing ones are skipped.
+     *
+     * @param ids the identifiers of the posts
+     * @return list of the summaries of the posts
+     */
+    List<Post> findAllSummariesByIds(Collection<String> ids);
+
+    /**
+     * This method is used to get the page of the posts having the tags, the newest first.
+     *
+     * @param tags     the tags of the posts
+     * @param matchAny flag to match the posts having at least one of the tags instead of all of them
+     * @param limit    maximum count of the posts on the page
+     * @param cursor   the continuation token of the previous page or null for the first page
+     * @return the page of the posts with the token of the next page
+     */
+    KeysetPage<Post> findAllByTags(List<String> tags, boolean matchAny, Integer limit, String cursor);
+
+    /**
+     * This method is used to get the page of the posts having the tags without their nodes, the newest first.
+     *
+     * @param tags     the tags of the posts
+     * @param matchAny flag to match the posts having at least one of the tags instead of all of them
+     * @param limit    maximum count of the posts on the page
+     * @param cursor   the continuation token of the previous page or null for the first page
+     * @return the page of the summaries of the posts with the token of the next page
+     */
+    KeysetPage<Post> findAllSummariesByTags(List<String> tags, boolean matchAny, Integer limit, String cursor);
+
+    /**
+     * This method is used to read all the posts with their nodes in the order of their identifiers
+     * batch by batch from one database cursor, so that only one batch of the posts is held in memory.
+     *
+     * @param afterId  the identifier of the last post read before or null to read from the first post
+     * @param consumer the consumer of the batches of the posts
+     */
+    void exportAll(String afterId, Consumer<List<Post>> consumer);
+
 }
@@ -16,6 +16,17 @@ public interface RatingService extends BaseService<Rating> {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * This method is used to rate the post by the user or to remove the rating if the post is already rated.
+     * The rating is removed or inserted by one atomic operation and the unique index of the user and the post
+     * guarantees that concurrent requests never create two ratings.
+     *
+     * @param userId the user identifier
+     * @param postId the post identifier
+     * @return the inserted or the removed rating
+     */
+    Rating toggle(String userId, String postId);
+
     int getRatingsCountByPostId(String postId);
 
     List<Post> findAllPostsWithRatingsByUserId(String userId, Integer limit, Integer offset);
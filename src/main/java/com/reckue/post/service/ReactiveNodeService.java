@@ -0,0 +1,36 @@
+package com.reckue.post.service;
+
+import com.reckue.post.model.Node;
+import com.reckue.post.util.pagination.KeysetPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface ReactiveNodeService represents the operations of NodeService executed by the reactive driver,
+ * so that the request thread isn't held while the database is queried.
+ */
+public interface ReactiveNodeService {
+
+    Mono<Node> create(Node node);
+
+    Mono<Node> update(Node node);
+
+    Flux<Node> findAll(Integer limit, Integer offset, String sort, Boolean desc);
+
+    /**
+     * This method is used to get the page of the active nodes following the position of the continuation token.
+     * Only the nodes sorted by id are continued by the token, the first page sorted by another field
+     * is returned without it and the next ones are read by the offset.
+     *
+     * @param limit  the limit of the nodes on the page
+     * @param sort   the sort field, ignored if the token is set
+     * @param desc   flag of the descending sort order, ignored if the token is set
+     * @param cursor the encoded continuation token or null for the first page
+     * @return mono of the page of the nodes
+     */
+    Mono<KeysetPage<Node>> findAllByCursor(Integer limit, String sort, Boolean desc, String cursor);
+
+    Mono<Node> findById(String id);
+
+    Mono<Void> deleteById(String id);
+}
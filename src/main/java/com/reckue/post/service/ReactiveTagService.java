@@ -0,0 +1,22 @@
+package com.reckue.post.service;
+
+import com.reckue.post.model.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface ReactiveTagService represents the operations of TagService executed by the reactive driver,
+ * so that the request thread isn't held while the database is queried.
+ */
+public interface ReactiveTagService {
+
+    Mono<Tag> create(Tag tag);
+
+    Mono<Tag> update(Tag tag);
+
+    Flux<Tag> findAll(Integer limit, Integer offset, String sort, Boolean desc);
+
+    Mono<Tag> findById(String id);
+
+    Mono<Void> deleteById(String id);
+}
@@ -0,0 +1,64 @@
+package com.reckue.post.service;
+
+import com.reckue.post.model.Post;
+import com.reckue.post.model.search.PostSearchFacets;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.model.search.PostSearchResult;
+
+import java.util.List;
+
+/**
+ * Interface SearchService represents the full-text search of posts.
+ */
+public interface SearchService {
+
+    /**
+     * This method is used to store the searchable text of the post with its nodes set.
+     *
+     * @param post object of class Post
+     */
+    void index(Post post);
+
+    /**
+     * This method is used to read the post with its nodes and store its searchable text,
+     * e.g. after a node of the post is changed. The text of a missing post is removed.
+     *
+     * @param postId the identifier of the post
+     */
+    void reindex(String postId);
+
+    /**
+     * This method is used to remove the searchable text of the post.
+     *
+     * @param postId the identifier of the post
+     */
+    void remove(String postId);
+
+    /**
+     * This method is used to store the searchable texts of all the posts anew.
+     *
+     * @return count of the indexed posts
+     */
+    long rebuild();
+
+    /**
+     * This method is used to find the posts by the words of their titles and nodes,
+     * the most relevant first. The found posts are returned without their nodes.
+     *
+     * @param query  the search query
+     * @param filter the conditions the found posts must meet
+     * @param limit  maximum count of the posts on the page
+     * @param offset count of the posts to skip
+     * @return list of the found posts with their snippets
+     */
+    List<PostSearchResult> searchPosts(String query, PostSearchFilter filter, Integer limit, Integer offset);
+
+    /**
+     * This method is used to count the posts found by the search query per tag, language of code and status.
+     *
+     * @param query  the search query
+     * @param filter the conditions the found posts must meet
+     * @return the counts of the found posts
+     */
+    PostSearchFacets countFacets(String query, PostSearchFilter filter);
+}
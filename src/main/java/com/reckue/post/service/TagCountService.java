@@ -0,0 +1,43 @@
+package com.reckue.post.service;
+
+import com.reckue.post.event.PostTagsChangedEvent;
+import com.reckue.post.model.TagUsage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface TagCountService represents the counts of the posts using the tags.
+ */
+public interface TagCountService {
+
+    /**
+     * This method is used to increment the counts of the tags added to the post
+     * and to decrement the counts of the tags removed from it.
+     *
+     * @param event the tags of the post before and after its change
+     */
+    void count(PostTagsChangedEvent event);
+
+    /**
+     * This method is used to count the tags of all the posts anew.
+     *
+     * @return count of the used tags
+     */
+    long rebuild();
+
+    /**
+     * This method is used to get the counts of all the used tags.
+     *
+     * @return the counts of the posts by the names of the tags
+     */
+    Map<String, Long> findAllCounts();
+
+    /**
+     * This method is used to get the most used tags for the tag cloud.
+     *
+     * @param limit maximum count of the tags
+     * @return list of the names of the tags with their counts, the most used first
+     */
+    List<TagUsage> findMostUsed(Integer limit);
+}
@@ -1,5 +1,6 @@
 package com.reckue.post.service;
 
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Tag;
 
 /**
@@ -8,4 +9,12 @@ import com.reckue.post.model.Tag;
  * @author Kamila Meshcheryakova
  */
 public interface TagService extends BaseService<Tag> {
+
+    /**
+     * This method is used to get the version of the stored tag by the projection of its modification date.
+     *
+     * @param id the identifier of the tag
+     * @return the object of class EntityVersion
+     */
+    EntityVersion findVersionById(String id);
 }
@@ -0,0 +1,27 @@
+package com.reckue.post.service;
+
+import com.reckue.post.model.TagUsage;
+
+import java.util.List;
+
+/**
+ * Interface TagSuggestService represents the autocomplete of the tags by the prefix of their names.
+ */
+public interface TagSuggestService {
+
+    /**
+     * This method is used to read all the tags and the counts of their usages anew.
+     *
+     * @return count of the tags
+     */
+    int reload();
+
+    /**
+     * This method is used to find the most used tags starting with the prefix, case-insensitively.
+     *
+     * @param prefix the prefix of the names of the tags, all the tags are ranked if it is empty
+     * @param limit  maximum count of the found tags
+     * @return list of the found tags with the counts of their usages, the most used first
+     */
+    List<TagUsage> suggest(String prefix, Integer limit);
+}
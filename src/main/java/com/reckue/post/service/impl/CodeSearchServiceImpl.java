@@ -0,0 +1,187 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostDeletedEvent;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.search.CodeSearchResult;
+import com.reckue.post.model.type.LangType;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.service.CodeSearchService;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.PostService;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import com.reckue.post.util.search.NodeTextExtractor;
+import com.reckue.post.util.search.trigram.CodeDocument;
+import com.reckue.post.util.search.trigram.TrigramIndex;
+import com.reckue.post.util.search.trigram.TrigramQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Class CodeSearchServiceImpl represents realization of CodeSearchService on the trigram index
+ * kept in the memory of the instance of the service.
+ * The index is updated by the events of the post changes and is built anew periodically,
+ * so that it catches up with the changes served by the other instances of the service.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CodeSearchServiceImpl implements CodeSearchService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final PostService postService;
+    private final NodeService nodeService;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+
+    /**
+     * The index being built and the posts changed since the start of the build,
+     * they are not overwritten by the build as their stream could have read them before the change.
+     */
+    private TrigramIndex rebuiltIndex;
+    private Set<String> changedPostIds;
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getPost() != null) {
+            index(event.getPost());
+            return;
+        }
+        try {
+            index(postService.findById(event.getPostId()));
+        } catch (PostNotFoundException e) {
+            remove(event.getPostId());
+        }
+    }
+
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        remove(event.getPostId());
+    }
+
+    @Override
+    public synchronized void index(Post post) {
+        List<CodeDocument> documents = toDocuments(post);
+        index.replacePost(post.getId(), documents);
+        if (rebuiltIndex != null) {
+            rebuiltIndex.replacePost(post.getId(), documents);
+            changedPostIds.add(post.getId());
+        }
+    }
+
+    @Override
+    public synchronized void remove(String postId) {
+        index.removePost(postId);
+        if (rebuiltIndex != null) {
+            rebuiltIndex.removePost(postId);
+            changedPostIds.add(postId);
+        }
+    }
+
+    /**
+     * This method is used to build the index anew once the application is started and then periodically.
+     * The searches are served by the old index until the new one is built.
+     *
+     * @return count of the indexed code nodes
+     */
+    @Override
+    @Scheduled(initialDelayString = "${post.search.code.rebuild.initial-delay:0}",
+            fixedDelayString = "${post.search.code.rebuild.delay:3600000}")
+    public long rebuild() {
+        synchronized (this) {
+            if (rebuiltIndex != null) {
+                throw new IllegalStateException("Code index is already being rebuilt");
+            }
+            rebuiltIndex = new TrigramIndex();
+            changedPostIds = new HashSet<>();
+        }
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(new BasicQuery("{}"), Post.class)) {
+            List<Post> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            while (posts.hasNext()) {
+                batch.add(posts.next());
+                if (batch.size() == REBUILD_BATCH_SIZE || !posts.hasNext()) {
+                    indexBatch(batch);
+                    batch.clear();
+                }
+            }
+            synchronized (this) {
+                index = rebuiltIndex;
+            }
+        } finally {
+            synchronized (this) {
+                rebuiltIndex = null;
+                changedPostIds = null;
+            }
+        }
+        log.info("Code index is rebuilt from {} code nodes", index.size());
+        return index.size();
+    }
+
+    private void indexBatch(List<Post> posts) {
+        Map<String, List<Node>> nodes = nodeService.findAllByParentIds(posts.stream()
+                .filter(post -> !post.isNodesEmbedded())
+                .map(Post::getId)
+                .collect(Collectors.toList()));
+        posts.stream()
+                .filter(post -> !post.isNodesEmbedded())
+                .forEach(post -> post.setNodes(nodes.getOrDefault(post.getId(), List.of())));
+        synchronized (this) {
+            posts.stream()
+                    .filter(post -> !changedPostIds.contains(post.getId()))
+                    .forEach(post -> rebuiltIndex.replacePost(post.getId(), toDocuments(post)));
+        }
+    }
+
+    @Override
+    public List<CodeSearchResult> searchCode(String query, Boolean regex, LangType language,
+                                             Integer limit, Integer offset) {
+        Pageable pageable = PageRequestResolver.resolve(limit, offset);
+        TrigramQuery trigramQuery = Boolean.TRUE.equals(regex)
+                ? TrigramQuery.regex(query)
+                : TrigramQuery.substring(query);
+        return index.search(trigramQuery, language, pageable.getPageSize(), pageable.getOffset());
+    }
+
+    private List<CodeDocument> toDocuments(Post post) {
+        return Optional.ofNullable(post.getNodes()).orElse(List.of()).stream()
+                .filter(node -> node.getType() == NodeType.CODE)
+                .flatMap(node -> NodeTextExtractor.storedContent(mongoTemplate.getConverter(), node).stream()
+                        .filter(content -> content.get("content") instanceof String)
+                        .map(content -> CodeDocument.builder()
+                                .nodeId(node.getId())
+                                .postId(post.getId())
+                                .language(toLanguage(content))
+                                .content(content.getString("content"))
+                                .build()))
+                .collect(Collectors.toList());
+    }
+
+    private LangType toLanguage(Document content) {
+        String language = content.getString("language");
+        return Arrays.stream(LangType.values())
+                .filter(type -> type.name().equals(language))
+                .findFirst()
+                .orElse(LangType.NONE);
+    }
+}
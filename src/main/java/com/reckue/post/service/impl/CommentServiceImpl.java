@@ -1,229 +1,306 @@
-//package com.reckue.post.service.impl;
-//
-//
-//import com.reckue.post.exception.ReckueAccessDeniedException;
-//import com.reckue.post.exception.ReckueIllegalArgumentException;
-//import com.reckue.post.exception.model.comment.CommentNotFoundException;
-//import com.reckue.post.exception.model.post.PostNotFoundException;
-//import com.reckue.post.model.Comment;
-//import com.reckue.post.model.Node;
-//import com.reckue.post.model.Role;
-//import com.reckue.post.model.type.ParentType;
-//import com.reckue.post.processor.notnull.NotNullArgs;
-//import com.reckue.post.repository.CommentRepository;
-//import com.reckue.post.repository.NodeRepository;
-//import com.reckue.post.repository.PostRepository;
-//import com.reckue.post.service.CommentService;
-//import com.reckue.post.service.NodeService;
-//import com.reckue.post.util.security.CurrentUser;
-//import lombok.RequiredArgsConstructor;
-//import org.apache.commons.lang.SerializationUtils;
-//import org.springframework.stereotype.Service;
-//import org.springframework.transaction.annotation.Transactional;
-//import org.springframework.util.StringUtils;
-//
-//import java.util.*;
-//import java.util.stream.Collectors;
-//
-///**
-// * Class CommentServiceImpl represents realization of CommentService.
-// *
-// * @author Artur Magomedov
-// */
-//@Service
-//@RequiredArgsConstructor
-//public class CommentServiceImpl implements CommentService {
-//
-//    private final CommentRepository commentRepository;
-//    private final NodeRepository nodeRepository;
-//    private final PostRepository postRepository;
-//    private final NodeService nodeService;
-//
-//    @Override
-//    @Transactional
-//    @NotNullArgs
-//    public Comment create(Comment comment) {
-//        comment.setUserId(CurrentUser.getId());
-//        // to set default value as null
-//        if (comment.getCommentId().length() < 7) {
-//            comment.setCommentId(null);
-//        }
-//        validateCreatingComment(comment);
-//
-//        Comment storedComment = (Comment) SerializationUtils.clone(comment);
-//        List<Node> nodeList = null;
-//
-//        if (comment.getNodes() != null) {
-//            nodeList = comment.getNodes();
-//            comment.setNodes(null);
-//            storedComment = commentRepository.save(comment);
-//            final String commentId = storedComment.getId();
-//
-//            nodeList.forEach(node -> {
-//                node.setParentId(commentId);
-//                node.setParentType(ParentType.COMMENT);
-//                nodeService.create(node);
-//            });
-//        }
-//        storedComment.setNodes(nodeList);
-//        return storedComment;
-//    }
-//
-//    public void validateCreatingComment(Comment comment) {
-//        if (!postRepository.existsById(comment.getPostId())) {
-//            throw new PostNotFoundException(comment.getPostId());
-//        }
-//        if (comment.getCommentId() != null && !commentRepository.existsById(comment.getCommentId())) {
-//            throw new CommentNotFoundException(comment.getCommentId());
-//        }
-//    }
-//
-//    @Override
-//    public Comment update(Comment comment) {
-//        if (comment.getId() == null) {
-//            throw new ReckueIllegalArgumentException("The parameter is null");
-//        }
-//        if (!CurrentUser.getId().equals(comment.getUserId()) && !CurrentUser.getRoles().contains(Role.ADMIN)) {
-//            throw new ReckueAccessDeniedException("The operation is forbidden");
-//        }
-//
-//        if (!comment.getNodes().isEmpty()) {
-//            comment.getNodes().forEach(node -> {
-//                node.setParentId(comment.getId());
-//                nodeService.create(node);
-//            });
-//        }
-//
-//        Comment savedComment = commentRepository
-//                .findById(comment.getId())
-//                .orElseThrow(() -> new CommentNotFoundException(comment.getId()));
-//        savedComment.setCommentId(comment.getCommentId().length() > 7 ? comment.getCommentId() : null);
-//        savedComment.setNodes(comment.getNodes());
-//
-//        return commentRepository.save(savedComment);
-//    }
-//
-//    @Override
-//    public List<Comment> findAll() {
-//        List<Comment> comments = commentRepository.findAll();
-//
-//        for (Comment comment : comments) {
-//            List<Node> nodes = nodeRepository.findAllByParentId(comment.getId());
-//            comment.setNodes(nodes);
-//        }
-//        return comments;
-//    }
-//
-//    @Override
-//    public List<Comment> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
-//        if (limit == null) limit = 10;
-//        if (offset == null) offset = 0;
-//        if (StringUtils.isEmpty(sort)) sort = "id";
-//        if (desc == null) desc = false;
-//
-//        if (limit < 0 || offset < 0) {
-//            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-//        }
-//        return findAllByTypeAndDesc(sort, desc).stream()
-//                .limit(limit)
-//                .skip(offset)
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Comment> findAllByTypeAndDesc(String sort, boolean desc) {
-//        if (desc) {
-//            List<Comment> comments = findAllBySortType(sort);
-//            Collections.reverse(comments);
-//            return comments;
-//        }
-//        return findAllBySortType(sort);
-//    }
-//
-//    public List<Comment> findAllBySortType(String sort) {
-//        switch (sort) {
-//            case "id":
-//                return findAllAndSortById();
-//            case "userId":
-//                return findAllAndSortByUserId();
-//            case "postId":
-//                return findAllAndSortByPostId();
-//            case "createdDate":
-//                return findAllAndSortByCreatedDate();
-//            case "modificationDate":
-//                return findAllAndSortByModificationDate();
-//        }
-//        throw new ReckueIllegalArgumentException("Such field as " + sort + " doesn't exist");
-//    }
-//
-//    private List<Comment> findAllAndSortByModificationDate() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Comment::getModificationDate))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Comment> findAllAndSortById() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Comment::getId))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Comment> findAllAndSortByUserId() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Comment::getUserId))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Comment> findAllAndSortByPostId() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Comment::getPostId))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Comment> findAllAndSortByCreatedDate() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Comment::getCreatedDate))
-//                .collect(Collectors.toList());
-//    }
-//
-//    @Override
-//    public Comment findById(String id) {
-//        Optional<Comment> comment = commentRepository.findById(id);
-//        List<Node> nodes = nodeRepository.findAllByParentId(id);
-//        if (comment.isEmpty())
-//            throw new CommentNotFoundException(id);
-//
-//        comment.ifPresent(p -> p.setNodes(nodes));
-//        return comment.get();
-//    }
-//
-//    @Override
-//    // FIXME: correct the realization of this method
-//    public List<Comment> findAllByUserId(String userId, Integer limit, Integer offset) {
-//        if (limit == null) limit = 10;
-//        if (offset == null) offset = 0;
-//        if (limit < 0 || offset < 0) {
-//            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-//        }
-//        return commentRepository.findAllByUserId(userId)
-//                .stream()
-//                .limit(limit)
-//                .skip(offset)
-//                .collect(Collectors.toList());
-//    }
-//
-//    @Override
-//    public void deleteById(String id) {
-//        if (!commentRepository.existsById(id)) {
-//            throw new CommentNotFoundException(id);
-//        }
-//        Optional<Comment> comment = commentRepository.findById(id);
-//        if (comment.isPresent()) {
-//            if (CurrentUser.getId().equals(comment.get().getUserId()) || CurrentUser.getRoles().contains(Role.ADMIN)){
-//                commentRepository.deleteById(id);
-//            } else {
-//                throw new ReckueAccessDeniedException("The operation is forbidden");
-//            }
-//        }
-//    }
-//
-//}
+package com.reckue.post.service.impl;
+
+import com.reckue.post.exception.ReckueAccessDeniedException;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.comment.CommentNotFoundException;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.Comment;
+import com.reckue.post.model.CommentThread;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Role;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.processor.notnull.NotNullArgs;
+import com.reckue.post.repository.CommentRepository;
+import com.reckue.post.repository.PostRepository;
+import com.reckue.post.service.CommentService;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.pagination.KeysetQuery;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import com.reckue.post.util.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Class CommentServiceImpl represents realization of CommentService.
+ *
+ * @author Artur Magomedov
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentServiceImpl implements CommentService {
+
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "userId", "postId", "createdDate", "modificationDate");
+
+    private static final List<String> CREATED_DATE_SORT_FIELDS = List.of("createdDate");
+
+    private static final int THREAD_LIMIT = 100;
+    private static final String PATH_SEPARATOR = "/";
+    private static final String POST_ID = "postId";
+    private static final String PATH = "path";
+    private static final String DEPTH = "depth";
+    private static final String CREATED_DATE = "createdDate";
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final NodeService nodeService;
+
+    @Override
+    @Transactional
+    @NotNullArgs
+    public Comment create(Comment comment) {
+        comment.setUserId(CurrentUser.getId());
+        // to set default value as null
+        if (comment.getCommentId() != null && comment.getCommentId().length() < 7) {
+            comment.setCommentId(null);
+        }
+        validateCreatingComment(comment);
+        materializePath(comment);
+        // the comment with the preset id isn't new for the auditing, so its creation date is set here
+        comment.setCreatedDate(LocalDateTime.now());
+
+        // the nodes are stored in their own collection, so the comment is stored with its path but without them
+        List<Node> nodeList = comment.getNodes();
+        comment.setNodes(null);
+        Comment storedComment = commentRepository.save(comment);
+        if (nodeList != null) {
+            nodeService.createAll(storedComment.getId(), ParentType.COMMENT, nodeList);
+        }
+        storedComment.setNodes(nodeList);
+        return storedComment;
+    }
+
+    public void validateCreatingComment(Comment comment) {
+        if (!postRepository.existsById(comment.getPostId())) {
+            throw new PostNotFoundException(comment.getPostId());
+        }
+        if (comment.getCommentId() != null && !commentRepository.existsById(comment.getCommentId())) {
+            throw new CommentNotFoundException(comment.getCommentId());
+        }
+    }
+
+    @Override
+    public Comment update(Comment comment) {
+        if (comment.getId() == null) {
+            throw new ReckueIllegalArgumentException("The parameter is null");
+        }
+        Comment savedComment = commentRepository
+                .findById(comment.getId())
+                .orElseThrow(() -> new CommentNotFoundException(comment.getId()));
+        if (!CurrentUser.getId().equals(savedComment.getUserId()) && !CurrentUser.getRoles().contains(Role.ADMIN)) {
+            throw new ReckueAccessDeniedException("The operation is forbidden");
+        }
+
+        String parentId = comment.getCommentId() != null && comment.getCommentId().length() > 7
+                ? comment.getCommentId()
+                : null;
+        if (!Objects.equals(parentId, savedComment.getCommentId())) {
+            move(savedComment, parentId);
+        }
+        // the nodes are stored in their own collection, so the comment is stored without them
+        savedComment.setNodes(null);
+        Comment updatedComment = commentRepository.save(savedComment);
+        if (comment.getNodes() != null) {
+            nodeService.createAll(updatedComment.getId(), ParentType.COMMENT, comment.getNodes());
+        }
+        updatedComment.setNodes(nodeService.findAllByParentId(updatedComment.getId()));
+        return updatedComment;
+    }
+
+    /**
+     * This method is used to set the path and the depth of the comment below its parent.
+     *
+     * @param comment the object of class Comment
+     */
+    private void materializePath(Comment comment) {
+        if (comment.getId() == null) {
+            comment.setId(new ObjectId().toString());
+        }
+        if (comment.getCommentId() == null) {
+            comment.setPath(comment.getId());
+            comment.setDepth(0);
+            return;
+        }
+        Comment parent = commentRepository.findById(comment.getCommentId())
+                .orElseThrow(() -> new CommentNotFoundException(comment.getCommentId()));
+        if (!parent.getPostId().equals(comment.getPostId())) {
+            throw new ReckueIllegalArgumentException("The comment can't reply to the comment of another post");
+        }
+        if (comment.getPath() != null && (parent.getId().equals(comment.getId())
+                || parent.getPath().startsWith(comment.getPath() + PATH_SEPARATOR))) {
+            throw new ReckueIllegalArgumentException("The comment can't reply to itself or to its replies");
+        }
+        comment.setPath(parent.getPath() + PATH_SEPARATOR + comment.getId());
+        comment.setDepth(parent.getDepth() + 1);
+    }
+
+    /**
+     * This method is used to move the comment with all its replies below the new parent.
+     *
+     * @param comment  the stored comment
+     * @param parentId the identifier of the new parent or null to move the comment to the post itself
+     */
+    private void move(Comment comment, String parentId) {
+        String path = comment.getPath();
+        int depth = comment.getDepth();
+        comment.setCommentId(parentId);
+        materializePath(comment);
+
+        Query query = Query.query(Criteria.where(POST_ID).is(comment.getPostId())
+                .and(PATH).regex(startsWith(path + PATH_SEPARATOR)));
+        query.fields().include(PATH).include(DEPTH);
+        List<Comment> replies = mongoTemplate.find(query, Comment.class);
+        if (replies.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+        replies.forEach(reply -> bulkOperations.updateOne(Query.query(Criteria.where("id").is(reply.getId())),
+                new Update()
+                        .set(PATH, comment.getPath() + reply.getPath().substring(path.length()))
+                        .set(DEPTH, reply.getDepth() - depth + comment.getDepth())));
+        bulkOperations.execute();
+    }
+
+    @Override
+    public List<Comment> findAll() {
+        return withNodes(commentRepository.findAll());
+    }
+
+    @Override
+    public List<Comment> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
+        return withNodes(commentRepository.findAllBy(
+                PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS)));
+    }
+
+    /**
+     * This method is used to load the nodes of all the comments with one query
+     * instead of one query per comment.
+     *
+     * @param comments list of objects of class Comment
+     * @return the same list of comments with the nodes set
+     */
+    private List<Comment> withNodes(List<Comment> comments) {
+        Map<String, List<Node>> nodes = nodeService.findAllByParentIds(comments.stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList()));
+        comments.forEach(comment -> comment.setNodes(nodes.getOrDefault(comment.getId(), List.of())));
+        return comments;
+    }
+
+    @Override
+    public Comment findById(String id) {
+        Comment comment = commentRepository.findById(id).orElseThrow(() -> new CommentNotFoundException(id));
+        comment.setNodes(nodeService.findAllByParentId(id));
+        return comment;
+    }
+
+    @Override
+    public List<Comment> findAllByUserId(String userId, Integer limit, Integer offset) {
+        return commentRepository.findAllByUserId(userId,
+                PageRequestResolver.resolve(limit, offset, CREATED_DATE, true, CREATED_DATE_SORT_FIELDS));
+    }
+
+    @Override
+    public KeysetPage<Comment> findAllByPostId(String postId, Integer limit, Boolean desc, String cursor) {
+        ContinuationToken token = Optional.ofNullable(cursor).map(ContinuationToken::decode).orElse(null);
+        if (token != null) {
+            if (!CREATED_DATE.equals(token.getSort())) {
+                throw new ReckueIllegalArgumentException("Continuation token is incorrect");
+            }
+            desc = token.isDesc();
+        } else if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException(postId);
+        }
+        Pageable pageable = PageRequestResolver.resolve(limit, 0, CREATED_DATE, desc, CREATED_DATE_SORT_FIELDS);
+        boolean descending = pageable.getSort().iterator().next().isDescending();
+
+        Query query = KeysetQuery.of(pageable, token, Comment.class).addCriteria(Criteria.where(POST_ID).is(postId));
+        KeysetPage<Comment> page = KeysetPage.of(mongoTemplate.find(query, Comment.class), pageable.getPageSize(),
+                token, comment -> ContinuationToken.of(comment, comment.getId(), CREATED_DATE, descending));
+        withNodes(page.getContent());
+        return page;
+    }
+
+    @Override
+    public KeysetPage<CommentThread> findThread(String postId, String commentId, Integer depth, Integer limit,
+                                                String cursor) {
+        if (depth != null && depth < 0) {
+            throw new ReckueIllegalArgumentException("Depth is incorrect");
+        }
+        int pageSize = PageRequestResolver.resolve(limit == null ? THREAD_LIMIT : limit, 0).getPageSize();
+
+        Query query = Query.query(Criteria.where(POST_ID).is(postId));
+        int rootDepth = 0;
+        if (commentId != null) {
+            Comment root = commentRepository.findById(commentId)
+                    .filter(comment -> postId.equals(comment.getPostId()))
+                    .orElseThrow(() -> new CommentNotFoundException(commentId));
+            query.addCriteria(Criteria.where(PATH).regex(startsWith(root.getPath()) + "(/|$)"));
+            rootDepth = root.getDepth();
+        } else if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException(postId);
+        }
+        if (depth != null) {
+            query.addCriteria(Criteria.where(DEPTH).lte(rootDepth + depth));
+        }
+        if (cursor != null) {
+            ContinuationToken token = ContinuationToken.decode(cursor);
+            if (!PATH.equals(token.getSort()) || token.isDesc()) {
+                throw new ReckueIllegalArgumentException("Continuation token is incorrect");
+            }
+            query.addCriteria(KeysetQuery.after(token, Comment.class));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, PATH, "id")).limit(pageSize + 1);
+
+        KeysetPage<Comment> page = KeysetPage.of(mongoTemplate.find(query, Comment.class), pageSize,
+                comment -> ContinuationToken.of(comment, comment.getId(), PATH, false));
+        return new KeysetPage<>(CommentThread.assemble(withNodes(page.getContent())), page.getNext());
+    }
+
+    /**
+     * This method is used to build the regular expression matching the paths starting with the given one.
+     * The literal prefix lets MongoDB read only the range of the index holding such paths.
+     *
+     * @param path the beginning of the paths
+     * @return the regular expression
+     */
+    private static String startsWith(String path) {
+        return "^" + path.replaceAll("[^\\w/]", "\\\\$0");
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (!commentRepository.existsById(id)) {
+            throw new CommentNotFoundException(id);
+        }
+        Optional<Comment> comment = commentRepository.findById(id);
+        if (comment.isPresent()) {
+            if (CurrentUser.getId().equals(comment.get().getUserId()) || CurrentUser.getRoles().contains(Role.ADMIN)){
+                commentRepository.deleteById(id);
+                nodeService.deleteAllByParentId(id);
+            } else {
+                throw new ReckueAccessDeniedException("The operation is forbidden");
+            }
+        }
+    }
+
+}
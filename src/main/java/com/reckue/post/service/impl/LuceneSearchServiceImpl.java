@@ -0,0 +1,447 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.config.SearchProperties;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostDeletedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.search.FacetValue;
+import com.reckue.post.model.search.PostSearchFacets;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.model.search.PostSearchResult;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.PostService;
+import com.reckue.post.service.SearchService;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import com.reckue.post.util.search.NodeTextExtractor;
+import com.reckue.post.util.search.SnippetExtractor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Class LuceneSearchServiceImpl represents realization of SearchService on the Lucene index
+ * stored in the local directory of the instance of the service.
+ * The index is updated by the events of the post changes and is visible to the searches within a second.
+ * Matching, scoring and faceting don't query the database, only the found page of posts is read by id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "post.search.engine", havingValue = "lucene")
+public class LuceneSearchServiceImpl implements SearchService {
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String TAG = "tag";
+    private static final String LANGUAGE = "language";
+    private static final String STATUS = "status";
+    private static final String GENERATION = "generation";
+
+    private static final Map<String, Float> BOOSTS = Map.of(TITLE, 10F, CONTENT, 1F);
+    private static final int SNIPPETS_COUNT = 3;
+    private static final int FACET_VALUES_COUNT = 20;
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final double MAX_STALE_SECONDS = 1.0;
+    private static final double MIN_STALE_SECONDS = 0.1;
+
+    private final MongoTemplate mongoTemplate;
+    private final PostService postService;
+    private final NodeService nodeService;
+    private final SearchProperties searchProperties;
+
+    private final Analyzer analyzer = new StandardAnalyzer(CharArraySet.EMPTY_SET);
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private volatile SortedSetDocValuesReaderState facetsState;
+
+    /**
+     * The documents indexed before the start of the last rebuild have a lower generation,
+     * so they are known to belong to the deleted posts once the rebuild is finished.
+     */
+    private volatile long generation = System.currentTimeMillis();
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(searchProperties.getLucene().getDirectory());
+        Files.createDirectories(path);
+        open(new MMapDirectory(path));
+        log.info("Lucene index is opened in {}", path.toAbsolutePath());
+    }
+
+    /**
+     * This method is used to open the index in the directory, e.g. in the memory for the tests.
+     *
+     * @param directory the directory of the index closed with the service
+     */
+    void open(Directory directory) throws IOException {
+        facetsConfig.setMultiValued(TAG, true);
+        facetsConfig.setMultiValued(LANGUAGE, true);
+
+        this.directory = directory;
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(indexWriter, null);
+        reopenThread = new ControlledRealTimeReopenThread<>(indexWriter, searcherManager,
+                MAX_STALE_SECONDS, MIN_STALE_SECONDS);
+        reopenThread.setName("lucene-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    /**
+     * This method is used to make the indexed changes visible to the searches without waiting for the reopen thread.
+     */
+    void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        try {
+            if (event.getPost() != null) {
+                index(event.getPost());
+            } else {
+                reindex(event.getPostId());
+            }
+        } catch (UncheckedIOException e) {
+            // the post is already stored, so its document is repaired by the next rebuild
+            log.error("Post '{}' is not indexed", event.getPostId(), e);
+        }
+    }
+
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        try {
+            remove(event.getPostId());
+        } catch (UncheckedIOException e) {
+            log.error("Post '{}' is not removed from the index", event.getPostId(), e);
+        }
+    }
+
+    @Override
+    public void index(Post post) {
+        try {
+            indexWriter.updateDocument(new Term(ID, post.getId()), toDocument(post));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void reindex(String postId) {
+        try {
+            index(postService.findById(postId));
+        } catch (PostNotFoundException e) {
+            remove(postId);
+        }
+    }
+
+    @Override
+    public void remove(String postId) {
+        try {
+            indexWriter.deleteDocuments(new Term(ID, postId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is used to index all the posts anew once the application is started and then periodically,
+     * so that the index catches up with the changes served by the other instances of the service.
+     * The documents are replaced one by one, so the searches are served by the old ones meanwhile.
+     *
+     * @return count of the indexed posts
+     */
+    @Override
+    @Scheduled(initialDelayString = "${post.search.lucene.rebuild.initial-delay:0}",
+            fixedDelayString = "${post.search.lucene.rebuild.delay:3600000}")
+    public synchronized long rebuild() {
+        // the generation always grows, even if the rebuild starts in the same millisecond as the previous one
+        generation = Math.max(System.currentTimeMillis(), generation + 1);
+        long count = 0;
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(new BasicQuery("{}"), Post.class)) {
+            List<Post> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            while (posts.hasNext()) {
+                batch.add(posts.next());
+                if (batch.size() == REBUILD_BATCH_SIZE || !posts.hasNext()) {
+                    indexBatch(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            indexWriter.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, generation - 1));
+            indexWriter.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Lucene index is rebuilt from {} posts", count);
+        return count;
+    }
+
+    private void indexBatch(List<Post> posts) {
+        Map<String, List<Node>> nodes = nodeService.findAllByParentIds(posts.stream()
+                .filter(post -> !post.isNodesEmbedded())
+                .map(Post::getId)
+                .collect(Collectors.toList()));
+        posts.stream()
+                .filter(post -> !post.isNodesEmbedded())
+                .forEach(post -> post.setNodes(nodes.getOrDefault(post.getId(), List.of())));
+        posts.forEach(this::index);
+    }
+
+    /**
+     * This method is used to make the changes of the index durable,
+     * the searches see them without a commit.
+     */
+    @Scheduled(fixedDelayString = "${post.search.lucene.commit.delay:60000}")
+    public void commit() {
+        try {
+            indexWriter.commit();
+        } catch (IOException e) {
+            log.error("Lucene index is not committed", e);
+        }
+    }
+
+    @Override
+    public List<PostSearchResult> searchPosts(String query, PostSearchFilter filter, Integer limit, Integer offset) {
+        Pageable pageable = PageRequestResolver.resolve(limit, offset);
+        Query luceneQuery = toQuery(query, filter);
+        IndexSearcher searcher = acquire();
+        List<Document> documents = new ArrayList<>();
+        List<Float> scores = new ArrayList<>();
+        try {
+            ScoreDoc[] hits = searcher.search(luceneQuery, (int) pageable.getOffset() + pageable.getPageSize())
+                    .scoreDocs;
+            for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                documents.add(searcher.doc(hits[i].doc));
+                scores.add(hits[i].score);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Post> posts = postService.findAllSummariesByIds(documents.stream()
+                .map(document -> document.get(ID))
+                .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<PostSearchResult> results = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            Post post = posts.get(documents.get(i).get(ID));
+            // the documents of the posts deleted meanwhile are skipped
+            if (post != null) {
+                results.add(PostSearchResult.builder()
+                        .post(post)
+                        .score(scores.get(i))
+                        .snippets(SnippetExtractor.extract(searchedTexts(documents.get(i)), query, SNIPPETS_COUNT))
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public PostSearchFacets countFacets(String query, PostSearchFilter filter) {
+        Query luceneQuery = toQuery(query, filter);
+        IndexSearcher searcher = acquire();
+        try {
+            FacetsCollector facetsCollector = new FacetsCollector();
+            searcher.search(luceneQuery, facetsCollector);
+            SortedSetDocValuesReaderState state = facetsState(searcher);
+            if (state == null) {
+                return new PostSearchFacets(List.of(), List.of(), List.of());
+            }
+            SortedSetDocValuesFacetCounts facets = new SortedSetDocValuesFacetCounts(state, facetsCollector);
+            return PostSearchFacets.builder()
+                    .tags(facetValues(state, facets, TAG))
+                    .languages(facetValues(state, facets, LANGUAGE))
+                    .statuses(facetValues(state, facets, STATUS))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    private Document toDocument(Post post) throws IOException {
+        List<Node> nodes = Optional.ofNullable(post.getNodes()).orElse(List.of());
+        Document document = new Document();
+        document.add(new StringField(ID, post.getId(), Field.Store.YES));
+        document.add(new LongPoint(GENERATION, generation));
+        Optional.ofNullable(post.getTitle())
+                .ifPresent(title -> document.add(new TextField(TITLE, title, Field.Store.YES)));
+        NodeTextExtractor.extractText(mongoTemplate.getConverter(), nodes)
+                .forEach(text -> document.add(new TextField(CONTENT, text, Field.Store.YES)));
+        Optional.ofNullable(post.getTags()).orElse(List.of()).stream()
+                .filter(StringUtils::hasText)
+                .distinct()
+                .forEach(tag -> addFacet(document, TAG, tag));
+        NodeTextExtractor.extractLanguages(mongoTemplate.getConverter(), nodes)
+                .forEach(language -> addFacet(document, LANGUAGE, language));
+        Optional.ofNullable(post.getStatus()).ifPresent(status -> addFacet(document, STATUS, status.name()));
+        return facetsConfig.build(document);
+    }
+
+    private void addFacet(Document document, String name, String value) {
+        document.add(new StringField(name, value, Field.Store.NO));
+        document.add(new SortedSetDocValuesFacetField(name, value));
+    }
+
+    private Query toQuery(String query, PostSearchFilter filter) {
+        if (!StringUtils.hasText(query)) {
+            throw new ReckueIllegalArgumentException("Search query can't be empty");
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        try {
+            builder.add(new MultiFieldQueryParser(new String[]{TITLE, CONTENT}, analyzer, BOOSTS).parse(query),
+                    BooleanClause.Occur.MUST);
+        } catch (ParseException e) {
+            throw new ReckueIllegalArgumentException("Search query is incorrect");
+        }
+        if (filter != null) {
+            Optional.ofNullable(filter.getTag()).ifPresent(tag -> addFilter(builder, TAG, tag));
+            Optional.ofNullable(filter.getLanguage())
+                    .ifPresent(language -> addFilter(builder, LANGUAGE, language.name()));
+            Optional.ofNullable(filter.getStatus()).ifPresent(status -> addFilter(builder, STATUS, status.name()));
+        }
+        return builder.build();
+    }
+
+    private void addFilter(BooleanQuery.Builder builder, String name, String value) {
+        builder.add(new TermQuery(new Term(name, value)), BooleanClause.Occur.FILTER);
+    }
+
+    /**
+     * This method is used to get the ordinals of the facet values of the current reader,
+     * they are read once per refresh of the index instead of once per search.
+     *
+     * @param searcher the acquired searcher
+     * @return the state of the facets or null if no document has them
+     */
+    private SortedSetDocValuesReaderState facetsState(IndexSearcher searcher) throws IOException {
+        SortedSetDocValuesReaderState state = facetsState;
+        if (state != null && state.getReader() == searcher.getIndexReader()) {
+            return state;
+        }
+        try {
+            state = new DefaultSortedSetDocValuesReaderState(searcher.getIndexReader());
+        } catch (IllegalArgumentException e) {
+            // none of the documents has the facet fields yet
+            return null;
+        }
+        facetsState = state;
+        return state;
+    }
+
+    private List<FacetValue> facetValues(SortedSetDocValuesReaderState state, SortedSetDocValuesFacetCounts facets,
+                                         String name) throws IOException {
+        if (state.getOrdRange(name) == null) {
+            return List.of();
+        }
+        FacetResult result = facets.getTopChildren(FACET_VALUES_COUNT, name);
+        if (result == null) {
+            return List.of();
+        }
+        return Arrays.stream(result.labelValues)
+                .map(value -> new FacetValue(value.label, value.value.longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> searchedTexts(Document document) {
+        List<String> texts = new ArrayList<>();
+        Optional.ofNullable(document.get(TITLE)).ifPresent(texts::add);
+        texts.addAll(Arrays.asList(document.getValues(CONTENT)));
+        return texts;
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.error("Lucene searcher is not released", e);
+        }
+    }
+}
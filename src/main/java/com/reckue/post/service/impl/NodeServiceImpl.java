@@ -1,22 +1,54 @@
 package com.reckue.post.service.impl;
 
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.reckue.post.cache.ReadThroughCache;
+import com.reckue.post.config.NodeStorageProperties;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Node;
+import com.reckue.post.model.type.NodeStorageType;
+import com.reckue.post.model.type.ParentType;
 import com.reckue.post.model.type.StatusType;
 import com.reckue.post.repository.NodeRepository;
 import com.reckue.post.service.NodeService;
 import com.reckue.post.service.impl.validation.NodeValidationServiceImpl;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.pagination.KeysetQuery;
+import com.reckue.post.util.pagination.PageRequestResolver;
 import com.reckue.post.util.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static com.reckue.post.config.CacheConfig.NODES;
 import static com.reckue.post.model.Role.ADMIN;
 import static com.reckue.post.model.Role.MODERATOR;
 
@@ -24,8 +56,20 @@ import static com.reckue.post.model.Role.MODERATOR;
 @RequiredArgsConstructor
 public class NodeServiceImpl implements NodeService {
 
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "type", "userId", "status", "createdDate", "modificationDate");
+    private static final List<String> CURSOR_SORT_FIELDS = List.of("id");
+    private static final Sort CREATION_ORDER = Sort.by("createdDate", "id");
+    private static final String STATUS = "status";
+    private static final String MODIFICATION_DATE = "modificationDate";
+    private static final String COUNT = "count";
+
+    private final MongoTemplate mongoTemplate;
     private final NodeRepository nodeRepository;
     private final NodeValidationServiceImpl nodeValidationService;
+    private final NodeStorageProperties nodeStorageProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Transactional
     @Override
@@ -36,10 +80,80 @@ public class NodeServiceImpl implements NodeService {
             nodeToStore.setStatus(StatusType.ACTIVE);
             nodeToStore.setCreatedDate(LocalDateTime.now());
             nodeToStore.setModificationDate(LocalDateTime.now());
-            return nodeRepository.save(nodeToStore);
+            return publishParentChanged(nodeRepository.save(nodeToStore));
         }).orElseThrow(NoSuchElementException::new);
     }
 
+    /**
+     * This method is used to notify that the post is changed after its node is changed,
+     * e.g. to keep its searchable text up to date.
+     *
+     * @param node the stored node
+     * @return the same node
+     */
+    private Node publishParentChanged(Node node) {
+        if (node.getParentType() == ParentType.POST && node.getParentId() != null) {
+            eventPublisher.publishEvent(new PostChangedEvent(node.getParentId()));
+        }
+        return node;
+    }
+
+    @Override
+    public List<Node> prepareAll(String parentId, ParentType parentType, List<Node> nodes) {
+        nodes.forEach(nodeValidationService::validateNodeStatusOnCreate);
+        String userId = CurrentUser.getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        nodes.forEach(node -> {
+            if (node.getId() == null) {
+                // the identifiers are generated here to keep the order of the nodes with the same created date
+                node.setId(new ObjectId().toString());
+            }
+            node.setParentId(parentId);
+            node.setParentType(parentType);
+            node.setUserId(userId);
+            node.setStatus(StatusType.ACTIVE);
+            node.setCreatedDate(now);
+            node.setModificationDate(now);
+        });
+        return nodes;
+    }
+
+    @Transactional
+    @Override
+    public List<Node> saveAll(List<Node> nodes) {
+        if (nodes.isEmpty()) {
+            return nodes;
+        }
+        // the nodes are replaced as a whole, so the fields cleared since they were read are removed as well
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Node.class)).bulkWrite(nodes.stream()
+                .map(node -> {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(node, document);
+                    return new ReplaceOneModel<>(Filters.eq("_id", document.get("_id")), document,
+                            new ReplaceOptions().upsert(true));
+                })
+                .collect(Collectors.toList()));
+        nodes.forEach(node -> ReadThroughCache.evict(cacheManager, NODES, node.getId()));
+        return nodes;
+    }
+
+    @Override
+    public List<Node> createAll(String parentId, ParentType parentType, List<Node> nodes) {
+        return saveAll(prepareAll(parentId, parentType, nodes));
+    }
+
+    @Override
+    public boolean isEmbeddable(List<Node> nodes) {
+        if (nodeStorageProperties.getStorage() != NodeStorageType.EMBEDDED) {
+            return false;
+        }
+        Document document = new Document("nodes", mongoTemplate.getConverter().convertToMongoType(nodes));
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        new DocumentCodec().encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.getSize() <= nodeStorageProperties.getEmbeddedMaxSize().toBytes();
+    }
+
     @Transactional
     @Override
     public Node update(Node node) {
@@ -50,24 +164,88 @@ public class NodeServiceImpl implements NodeService {
             storedNode.setType(node.getType());
             storedNode.setContent(node.getContent());
             storedNode.setModificationDate(LocalDateTime.now());
-            return nodeRepository.save(storedNode);
+            Node updatedNode = nodeRepository.save(storedNode);
+            ReadThroughCache.evict(cacheManager, NODES, updatedNode.getId());
+            return publishParentChanged(updatedNode);
         }).orElseThrow(NoSuchElementException::new);
     }
 
     @Override
-    public Page<Node> findAll() {
+    public List<Node> findAll() {
         return findAll(10, 0, "id", true);
     }
 
     @Override
-    public Page<Node> findAll(Integer limit, Integer offset, String sortProperty, Boolean isDesc) {
-        Sort sortBy = isDesc ? Sort.by(sortProperty).descending() : Sort.by(sortProperty).ascending();
-        return nodeRepository.findAll(PageRequest.of(offset, limit, sortBy));
+    public List<Node> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
+        return nodeRepository.findAllByStatus(StatusType.ACTIVE,
+                PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
+    }
+
+    @Override
+    public KeysetPage<Node> findAllByCursor(Integer limit, String sort, Boolean desc, String cursor) {
+        ContinuationToken token = Optional.ofNullable(cursor).map(ContinuationToken::decode).orElse(null);
+        if (token != null) {
+            sort = token.getSort();
+            desc = token.isDesc();
+        }
+        Pageable pageable = PageRequestResolver.resolve(limit, 0, sort, desc,
+                token != null ? CURSOR_SORT_FIELDS : SORT_FIELDS);
+        Sort.Order order = pageable.getSort().iterator().next();
+        if (!CURSOR_SORT_FIELDS.contains(order.getProperty())) {
+            // no index serves the range queries by the other fields, so their pages are read by the offset
+            return new KeysetPage<>(nodeRepository.findAllByStatus(StatusType.ACTIVE, pageable), null);
+        }
+
+        Query query = KeysetQuery.of(pageable, token, Node.class)
+                .addCriteria(Criteria.where(STATUS).is(StatusType.ACTIVE));
+        List<Node> nodes = mongoTemplate.find(query, Node.class);
+        return KeysetPage.of(nodes, pageable.getPageSize(),
+                node -> ContinuationToken.of(node, node.getId(), order.getProperty(), order.isDescending()));
     }
 
     @Override
     public Node findById(String nodeId) {
-        return nodeRepository.findById(nodeId).orElseThrow(NoSuchElementException::new);
+        return ReadThroughCache.get(cacheManager, NODES, nodeId,
+                () -> nodeRepository.findById(nodeId).orElseThrow(NoSuchElementException::new));
+    }
+
+    @Override
+    public EntityVersion findVersionById(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include(MODIFICATION_DATE);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Node.class))
+                .map(EntityVersion::forNode)
+                .orElseThrow(NoSuchElementException::new);
+    }
+
+    @Override
+    public EntityVersion findVersionByParentId(String parentId) {
+        // the same nodes as the ones loaded with the post, so the version matches EntityVersion.forPost
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("parentId").is(parentId).and(STATUS).is(StatusType.ACTIVE)),
+                Aggregation.group().max(MODIFICATION_DATE).as(MODIFICATION_DATE).count().as(COUNT));
+        Document nodes = mongoTemplate.aggregate(aggregation, Node.class, Document.class).getUniqueMappedResult();
+        if (nodes == null) {
+            return EntityVersion.of(null, 0);
+        }
+        Date modificationDate = nodes.getDate(MODIFICATION_DATE);
+        return EntityVersion.of(modificationDate == null ? null
+                        : LocalDateTime.ofInstant(modificationDate.toInstant(), ZoneId.systemDefault()),
+                nodes.getInteger(COUNT));
+    }
+
+    @Override
+    public List<Node> findAllByParentId(String parentId) {
+        return nodeRepository.findAllByParentIdAndStatus(parentId, StatusType.ACTIVE, CREATION_ORDER);
+    }
+
+    @Override
+    public Map<String, List<Node>> findAllByParentIds(Collection<String> parentIds) {
+        if (parentIds.isEmpty()) {
+            return Map.of();
+        }
+        return nodeRepository.findAllByParentIdInAndStatus(parentIds, StatusType.ACTIVE, CREATION_ORDER).stream()
+                .collect(Collectors.groupingBy(Node::getParentId));
     }
 
     @Transactional
@@ -80,7 +258,10 @@ public class NodeServiceImpl implements NodeService {
                 if (CurrentUser.getId().equals(nodeToUpdate.getUserId())
                         || (CurrentUser.getRoles().contains(MODERATOR) || CurrentUser.getRoles().contains(ADMIN))) {
                     nodeToUpdate.setStatus(StatusType.DELETED);
-                    nodeRepository.save(nodeToUpdate);
+                    nodeToUpdate.setModificationDate(LocalDateTime.now());
+                    Node deletedNode = nodeRepository.save(nodeToUpdate);
+                    ReadThroughCache.evict(cacheManager, NODES, nodeId);
+                    publishParentChanged(deletedNode);
                 }
             });
         } else {
@@ -88,4 +269,14 @@ public class NodeServiceImpl implements NodeService {
         }
     }
 
+    @Override
+    public void deleteAllByParentId(String parentId) {
+        Query query = Query.query(Criteria.where("parentId").is(parentId).and(STATUS).is(StatusType.ACTIVE));
+        Update update = new Update()
+                .set(STATUS, StatusType.DELETED)
+                .set(MODIFICATION_DATE, LocalDateTime.now());
+        mongoTemplate.updateMulti(query, update, Node.class);
+        // the identifiers of the deleted nodes aren't read, so all the cached nodes are reloaded
+        ReadThroughCache.clear(cacheManager, NODES);
+    }
 }
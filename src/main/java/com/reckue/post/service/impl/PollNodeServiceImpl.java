@@ -6,14 +6,11 @@ import com.reckue.post.model.node.PollNode;
 import com.reckue.post.processor.notnull.NotNullArgs;
 import com.reckue.post.repository.PollNodeRepository;
 import com.reckue.post.service.PollNodeService;
+import com.reckue.post.util.pagination.PageRequestResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Class PollNodeServiceImpl represents realization of PollNodeService.
@@ -24,6 +21,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PollNodeServiceImpl implements PollNodeService {
 
+    private static final List<String> SORT_FIELDS = List.of("id", "title");
+
     private final PollNodeRepository pollNodeRepository;
 
     @Override
@@ -52,50 +51,7 @@ public class PollNodeServiceImpl implements PollNodeService {
 
     @Override
     public List<PollNode> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
-        if (limit == null) limit = 10;
-        if (offset == null) offset = 0;
-        if (StringUtils.isEmpty(sort)) sort = "id";
-        if (desc == null) desc = false;
-
-        if (limit < 0 || offset < 0) {
-            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-        }
-        return findAllByTypeAndDesc(sort, desc).stream()
-                .limit(limit)
-                .skip(offset)
-                .collect(Collectors.toList());
-    }
-
-    public List<PollNode> findAllByTypeAndDesc(String sort, boolean desc) {
-        if (desc) {
-            List<PollNode> node = findAllBySortType(sort);
-            Collections.reverse(node);
-            return node;
-        }
-        return findAllBySortType(sort);
-    }
-
-    public List<PollNode> findAllBySortType(String sort) {
-
-        switch (sort) {
-            case "title":
-                return findAllAndSortByTitle();
-            case "id":
-                return findAllAndSortById();
-        }
-        throw new ReckueIllegalArgumentException("Such field as " + sort + " doesn't exist");
-    }
-
-    public List<PollNode> findAllAndSortById() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(PollNode::getId))
-                .collect(Collectors.toList());
-    }
-
-    public List<PollNode> findAllAndSortByTitle() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(PollNode::getTitle))
-                .collect(Collectors.toList());
+        return pollNodeRepository.findAllBy(PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
     }
 
     @Override
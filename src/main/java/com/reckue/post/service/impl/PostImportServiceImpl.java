@@ -0,0 +1,252 @@
+package com.reckue.post.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostTagsChangedEvent;
+import com.reckue.post.generated.controller.dto.PostRequestDto;
+import com.reckue.post.model.ImportReport;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.PostImportService;
+import com.reckue.post.util.converter.PostConverter;
+import com.reckue.post.util.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Class PostImportServiceImpl represents realization of PostImportService.
+ * The body is parsed incrementally, so only one batch of the records is held in memory.
+ * The titles of a batch are checked by one query, and the posts and the nodes of a batch
+ * are inserted by one unordered bulk write each, so a rejected document doesn't stop the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostImportServiceImpl implements PostImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String TITLE = "title";
+
+    private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
+    private final NodeService nodeService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public ImportReport importAll(InputStream inputStream) {
+        ImportReport report = new ImportReport();
+        String userId = CurrentUser.getId();
+        List<ImportRecord> batch = new ArrayList<>(BATCH_SIZE);
+        long record = 1;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                readRecord(parser.readValueAsTree(), record, batch, report);
+                if (batch.size() == BATCH_SIZE) {
+                    importBatch(batch, userId, report);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+                record++;
+                token = parser.nextToken();
+            }
+        } catch (IOException e) {
+            // the malformed body can't be read further, the records read before it are still imported
+            report.fail(record, "The body is malformed: " + e.getMessage());
+        }
+        importBatch(batch, userId, report);
+        log.info("{} posts are imported, {} records are rejected", report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private void readRecord(JsonNode tree, long record, List<ImportRecord> batch, ImportReport report) {
+        try {
+            Post post = PostConverter.convertToModel(objectMapper.treeToValue(tree, PostRequestDto.class));
+            if (post.getTitle() == null) {
+                report.fail(record, "Title cannot be empty");
+                return;
+            }
+            batch.add(new ImportRecord(record, post));
+        } catch (JsonProcessingException e) {
+            report.fail(record, e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            report.fail(record, e.getMessage());
+        }
+    }
+
+    /**
+     * This method is used to validate, prepare and insert the posts of the batch with their nodes.
+     *
+     * @param batch  the records read from the body
+     * @param userId the identifier of the importing user
+     * @param report the report the results are added to
+     */
+    private void importBatch(List<ImportRecord> batch, String userId, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ImportRecord> records = withUniqueTitles(batch, report).stream()
+                .filter(importRecord -> prepare(importRecord, userId, report))
+                .collect(Collectors.toList());
+        if (records.isEmpty()) {
+            return;
+        }
+        List<ImportRecord> storedRecords = insertNodes(insertPosts(records, report), report);
+        storedRecords.forEach(importRecord -> {
+            eventPublisher.publishEvent(new PostChangedEvent(importRecord.post));
+            eventPublisher.publishEvent(PostTagsChangedEvent.of(null, importRecord.post));
+        });
+        report.succeed(storedRecords.size());
+    }
+
+    /**
+     * This method is used to reject the records whose titles are already stored or repeated in the batch,
+     * the stored titles of the whole batch are read by one query on the index of the titles.
+     *
+     * @param batch  the records read from the body
+     * @param report the report the failures are added to
+     * @return the records with the unique titles
+     */
+    private List<ImportRecord> withUniqueTitles(List<ImportRecord> batch, ImportReport report) {
+        Query query = Query.query(Criteria.where(TITLE).in(batch.stream()
+                .map(importRecord -> importRecord.post.getTitle())
+                .collect(Collectors.toSet())));
+        query.fields().include(TITLE);
+        Set<String> titles = mongoTemplate.find(query, Post.class).stream()
+                .map(Post::getTitle)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<ImportRecord> records = new ArrayList<>(batch.size());
+        batch.forEach(importRecord -> {
+            if (titles.add(importRecord.post.getTitle())) {
+                records.add(importRecord);
+            } else {
+                report.fail(importRecord.number, "Post with the same title already exists");
+            }
+        });
+        return records;
+    }
+
+    private boolean prepare(ImportRecord importRecord, String userId, ImportReport report) {
+        Post post = importRecord.post;
+        try {
+            post.setId(new ObjectId().toString());
+            List<Node> nodes = nodeService.prepareAll(post.getId(), ParentType.POST,
+                    Optional.ofNullable(post.getNodes()).orElse(List.of()));
+            LocalDateTime now = LocalDateTime.now();
+            post.setUserId(userId);
+            post.setStatus(PostStatusType.DRAFT);
+            post.setCreatedDate(now);
+            post.setModificationDate(now);
+            post.setNodesEmbedded(nodeService.isEmbeddable(nodes));
+            // the nodes which can't be embedded are stored in the collection of the nodes
+            post.setNodes(post.isNodesEmbedded() ? nodes : null);
+            importRecord.nodes = nodes;
+            return true;
+        } catch (RuntimeException e) {
+            report.fail(importRecord.number, e.getMessage());
+            return false;
+        }
+    }
+
+    private List<ImportRecord> insertPosts(List<ImportRecord> records, ImportReport report) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        records.forEach(importRecord -> bulkOperations.insert(importRecord.post));
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> {
+                failedIndexes.add(error.getIndex());
+                report.fail(records.get(error.getIndex()).number, error.getMessage());
+            });
+        }
+        List<ImportRecord> storedRecords = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                storedRecords.add(records.get(i));
+            }
+        }
+        return storedRecords;
+    }
+
+    /**
+     * This method is used to insert the referenced nodes of the stored posts.
+     * The post whose node isn't stored is removed with its stored nodes and its record is reported,
+     * so a post is never imported without a part of its nodes.
+     *
+     * @param storedRecords the records of the stored posts
+     * @param report        the report the failures are added to
+     * @return the records of the posts stored with all their nodes
+     */
+    private List<ImportRecord> insertNodes(List<ImportRecord> storedRecords, ImportReport report) {
+        Map<String, Long> numbers = new HashMap<>();
+        List<Node> nodes = new ArrayList<>();
+        storedRecords.stream()
+                .filter(importRecord -> !importRecord.post.isNodesEmbedded())
+                .forEach(importRecord -> {
+                    numbers.put(importRecord.post.getId(), importRecord.number);
+                    nodes.addAll(importRecord.nodes);
+                    importRecord.post.setNodes(importRecord.nodes);
+                });
+        if (nodes.isEmpty()) {
+            return storedRecords;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Node.class);
+        bulkOperations.insert(nodes);
+        try {
+            bulkOperations.execute();
+            return storedRecords;
+        } catch (BulkOperationException e) {
+            Set<String> failedPostIds = e.getErrors().stream()
+                    .map(error -> nodes.get(error.getIndex()))
+                    .map(Node::getParentId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            mongoTemplate.remove(Query.query(Criteria.where("parentId").in(failedPostIds)), Node.class);
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(failedPostIds)), Post.class);
+            failedPostIds.forEach(postId -> report.fail(numbers.get(postId), "Nodes of the post are not stored"));
+            return storedRecords.stream()
+                    .filter(importRecord -> !failedPostIds.contains(importRecord.post.getId()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class ImportRecord {
+
+        private final long number;
+        private final Post post;
+        private List<Node> nodes;
+    }
+}
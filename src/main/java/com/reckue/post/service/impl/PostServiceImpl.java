@@ -1,272 +1,355 @@
-//package com.reckue.post.service.impl;
-//
-//import com.reckue.post.exception.ReckueAccessDeniedException;
-//import com.reckue.post.exception.ReckueIllegalArgumentException;
-//import com.reckue.post.exception.model.post.PostNotFoundException;
-//import com.reckue.post.model.Node;
-//import com.reckue.post.model.Post;
-//import com.reckue.post.model.Role;
-//import com.reckue.post.model.type.ParentType;
-//import com.reckue.post.model.type.PostStatusType;
-//import com.reckue.post.processor.notnull.NotNullArgs;
-//import com.reckue.post.repository.NodeRepository;
-//import com.reckue.post.repository.PostRepository;
-//import com.reckue.post.service.NodeService;
-//import com.reckue.post.service.PostService;
-//import com.reckue.post.service.validation.PostValidationService;
-//import com.reckue.post.util.security.CurrentUser;
-//import lombok.RequiredArgsConstructor;
-//import org.springframework.data.mongodb.core.MongoTemplate;
-//import org.springframework.stereotype.Service;
-//import org.springframework.transaction.annotation.Transactional;
-//import org.springframework.util.StringUtils;
-//
-//import java.time.LocalDateTime;
-//import java.util.*;
-//import java.util.stream.Collectors;
-//
-///**
-// * Class PostServiceImpl represents realization of PostService.
-// *
-// * @author Kamila Meshcheryakova
-// */
-//@Service
-//@RequiredArgsConstructor
-//public class PostServiceImpl implements PostService {
-//
-//    private final MongoTemplate mongoTemplate;
-//    private final PostRepository postRepository;
-//    private final NodeRepository nodeRepository;
-//    private final NodeService nodeService;
-//    private final PostValidationService postValidationService;
-//
-//    @Override
-//    @Transactional
-//    public Post create(Post post) {
-//        return Optional.ofNullable(post).map(p -> {
-//            postValidationService.validateStatusOnCreate(p);
-//            p.setUserId(CurrentUser.getId());
-//            p.setStatus(PostStatusType.DRAFT);
-//            p.setCreatedDate(LocalDateTime.now());
-//            p.setModificationDate(LocalDateTime.now());
-//
-//            Post storedPost = mongoTemplate.save(p);
-//
-//            Optional.ofNullable(p.getNodes()).orElse(List.of()).forEach(node -> {
-//                node.setParentId(storedPost.getId());
-//                node.setParentType(ParentType.POST);
-//                nodeService.create(node);
-//            });
-//            return storedPost;
-//        }).orElseThrow(NoSuchElementException::new);
-//    }
-//
-//    @Override
-//    @Transactional
-//    public Post update(Post post) {
-//        return Optional.ofNullable(post).map(p -> {
-//            Optional.ofNullable(post.getId()).orElseThrow(() ->
-//                    new RuntimeException("Parameter 'post.id' can't be empty on update"));
-//
-//            Optional.ofNullable(p.getNodes()).orElse(List.of()).forEach(node -> {
-//                node.setParentId(post.getId());
-//                node.setParentType(ParentType.POST);
-//                nodeService.create(node);
-//            });
-//            return Optional.ofNullable(mongoTemplate.findById(post.getId(), Post.class)).map(storedPost -> {
-//                storedPost.setModificationDate(LocalDateTime.now());
-//                storedPost.setTitle(p.getTitle());
-//                storedPost.setSource(p.getSource());
-//                storedPost.setUserId(CurrentUser.getId());
-//                storedPost.setTags(p.getTags());
-//                storedPost.setStatus(p.getStatus());
-//
-//                return postRepository.save(storedPost);
-//            }).orElse(null);
-//        }).orElseThrow(NoSuchElementException::new);
-//    }
-//
-//    @NotNullArgs
-//    private void validateOnUpdateStatus(Post post) {
-//        if (post.getStatus() == null) {
-//            return;
-//        }
-//        if (post.getStatus() == PostStatusType.DRAFT) {
-//            postRepository.findById(post.getId()).ifPresent(p -> p.setStatus(PostStatusType.DRAFT));
-//            return;
-//        }
-//        if (post.getStatus() == PostStatusType.PUBLISHED) {
-//            postRepository.findById(post.getId()).ifPresent(p -> p.setStatus(PostStatusType.PUBLISHED));
-//            return;
-//        }
-//        if (post.getStatus() == PostStatusType.DELETED) {
-//            postRepository.findById(post.getId()).ifPresent(p -> p.setStatus(PostStatusType.DELETED));
-//            return;
-//        }
-//        if (post.getStatus() == PostStatusType.BANNED) {
-//            throw new RuntimeException("Only for admin");
-//        }
-//        if (post.getStatus() == PostStatusType.PUBLISHED && post.getNodes() == null) {
-//            throw new RuntimeException("Nodes are null");
-//        }
-//        if (post.getStatus() == PostStatusType.PENDING) {
-//            if (postRepository.findById(post.getId()).isEmpty()) {
-//                throw new RuntimeException();
-//            }
-//            Post currentPost = postRepository.findById(post.getId()).get();
-//            if (currentPost.getStatus() == PostStatusType.PUBLISHED) {
-//                currentPost.setStatus(PostStatusType.PENDING);
-//            } else {
-//                throw new RuntimeException();
-//            }
-//        }
-//    }
-//
-//    @Override
-//    public List<Post> findAll() {
-//        List<Post> posts = postRepository.findAll();
-//        for (Post post : posts) {
-//            List<Node> nodes = nodeRepository.findAllByParentId(post.getId());
-//            post.setNodes(nodes);
-//        }
-//        return posts;
-//    }
-//
-//    @Override
-//    public List<Post> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
-//        if (limit == null) limit = 10;
-//        if (offset == null) offset = 0;
-//        if (StringUtils.isEmpty(sort)) sort = "id";
-//        if (desc == null) desc = false;
-//
-//        if (limit < 0 || offset < 0) {
-//            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-//        }
-//        return findAllByTypeAndDesc(sort, desc).stream()
-//                .limit(limit)
-//                .skip(offset)
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllByTypeAndDesc(String sort, boolean desc) {
-//        if (desc) {
-//            List<Post> posts = findAllBySortType(sort);
-//            Collections.reverse(posts);
-//            return posts;
-//        }
-//        return findAllBySortType(sort);
-//    }
-//
-//    public List<Post> findAllBySortType(String sort) {
-//        switch (sort) {
-//            case "title":
-//                return findAllAndSortByTitle();
-//            case "source":
-//                return findAllAndSortBySource();
-//            case "createdDate":
-//                return findAllAndSortByCreatedDate();
-//            case "modificationDate":
-//                return findAllAndSortByModificationDate();
-//            case "status":
-//                return findAllAndSortByStatus();
-//            case "id":
-//                return findAllAndSortById();
-//            case "userId":
-//                return findAllAndSortByUserId();
-//            default:
-//                throw new ReckueIllegalArgumentException("Such field as " + sort + " doesn't exist");
-//        }
-//    }
-//
-//    public List<Post> findAllAndSortById() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getId))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllAndSortByTitle() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getTitle))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllAndSortByUserId() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getUserId))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllAndSortBySource() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getSource))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllAndSortByCreatedDate() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getCreatedDate))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllAndSortByModificationDate() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getModificationDate))
-//                .collect(Collectors.toList());
-//    }
-//
-//    public List<Post> findAllAndSortByStatus() {
-//        return findAll().stream()
-//                .sorted(Comparator.comparing(Post::getStatus))
-//                .collect(Collectors.toList());
-//    }
-//
-//    @Override
-//    @NotNullArgs
-//    public Post findById(String id) {
-//        Optional<Post> post = postRepository.findById(id);
-//        List<Node> nodes = nodeRepository.findAllByParentId(id);
-//        if (post.isEmpty())
-//            throw new PostNotFoundException(id);
-//
-//        post.ifPresent(p -> p.setNodes(nodes));
-//        return post.get();
-//    }
-//
-//    @Override
-//    public List<Post> findAllByUserId(String userId, Integer limit, Integer offset) {
-//        if (limit == null) limit = 10;
-//        if (offset == null) offset = 0;
-//        if (limit < 0 || offset < 0) {
-//            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-//        }
-//        return postRepository.findAllByUserId(userId)
-//                .stream()
-//                .limit(limit)
-//                .skip(offset)
-//                .collect(Collectors.toList());
-//    }
-//
-//    @Override
-//    @NotNullArgs
-//    public void deleteById(String id) {
-//        if (!postRepository.existsById(id)) {
-//            throw new PostNotFoundException(id);
-//        }
-//        Optional<Post> post = postRepository.findById(id);
-//        if (post.isPresent()) {
-//            String postUser = post.get().getUserId();
-//            if (CurrentUser.getId().equals(postUser) || CurrentUser.getRoles().contains(Role.ADMIN)) {
-//                postRepository.deleteById(id);
-//            } else {
-//                throw new ReckueAccessDeniedException("The operation is forbidden");
-//            }
-//        }
-//    }
-//
-//    @Override
-//    @NotNullArgs
-//    public List<Post> findAllByTitle(String title) {
-//        return postRepository.findAllByTitle(title);
-//    }
-//
-//}
+package com.reckue.post.service.impl;
+
+import com.reckue.post.cache.ReadThroughCache;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostDeletedEvent;
+import com.reckue.post.event.PostTagsChangedEvent;
+import com.reckue.post.exception.ReckueAccessDeniedException;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.EntityVersion;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Role;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.monitoring.QueryPlanRecorder;
+import com.reckue.post.processor.notnull.NotNullArgs;
+import com.reckue.post.repository.PostRepository;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.PostService;
+import com.reckue.post.service.validation.PostValidationService;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.pagination.KeysetQuery;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import com.reckue.post.util.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Class PostServiceImpl represents realization of PostService.
+ *
+ * @author Kamila Meshcheryakova
+ */
+@Service
+@RequiredArgsConstructor
+public class PostServiceImpl implements PostService {
+
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "title", "source", "userId", "status", "createdDate", "modificationDate");
+
+    private static final List<String> USER_POSTS_SORT_FIELDS = List.of("createdDate");
+    private static final String NODES = "nodes";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String MODIFICATION_DATE = "modificationDate";
+    private static final int EXPORT_BATCH_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final PostRepository postRepository;
+    private final NodeService nodeService;
+    private final PostValidationService postValidationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QueryPlanRecorder queryPlanRecorder;
+    private final CacheManager cacheManager;
+
+    @Override
+    @Transactional
+    public Post create(Post post) {
+        return Optional.ofNullable(post).map(p -> {
+            postValidationService.validateStatusOnCreate(p);
+            if (p.getId() == null) {
+                p.setId(new ObjectId().toString());
+            }
+            p.setUserId(CurrentUser.getId());
+            p.setStatus(PostStatusType.DRAFT);
+            p.setCreatedDate(LocalDateTime.now());
+            p.setModificationDate(LocalDateTime.now());
+
+            List<Node> nodes = nodeService.prepareAll(p.getId(), ParentType.POST,
+                    Optional.ofNullable(p.getNodes()).orElse(List.of()));
+            Post storedPost;
+            if (nodeService.isEmbeddable(nodes)) {
+                p.setNodesEmbedded(true);
+                storedPost = mongoTemplate.save(p);
+            } else {
+                p.setNodes(null);
+                p.setNodesEmbedded(false);
+                storedPost = mongoTemplate.save(p);
+                storedPost.setNodes(nodeService.saveAll(nodes));
+            }
+            eventPublisher.publishEvent(new PostChangedEvent(storedPost));
+            eventPublisher.publishEvent(PostTagsChangedEvent.of(null, storedPost));
+            return storedPost;
+        }).orElseThrow(NoSuchElementException::new);
+    }
+
+    @Override
+    @Transactional
+    public Post update(Post post) {
+        return Optional.ofNullable(post).map(p -> {
+            Optional.ofNullable(post.getId()).orElseThrow(() ->
+                    new RuntimeException("Parameter 'post.id' can't be empty on update"));
+            Post storedPost = postRepository.findById(post.getId())
+                    .orElseThrow(() -> new PostNotFoundException(post.getId()));
+            if (!CurrentUser.getId().equals(storedPost.getUserId()) && !CurrentUser.getRoles().contains(Role.ADMIN)) {
+                throw new ReckueAccessDeniedException("The operation is forbidden");
+            }
+
+            List<Node> nodes = nodeService.prepareAll(post.getId(), ParentType.POST,
+                    Optional.ofNullable(p.getNodes()).orElse(List.of()));
+            Update update = new Update()
+                    .set(MODIFICATION_DATE, LocalDateTime.now())
+                    .set("title", p.getTitle())
+                    .set("source", p.getSource())
+                    .set("tags", p.getTags())
+                    .set("status", p.getStatus());
+            if (storedPost.isNodesEmbedded()) {
+                List<Node> mergedNodes = merge(storedPost.getNodes(), nodes);
+                if (nodeService.isEmbeddable(mergedNodes)) {
+                    update.set(NODES, mergedNodes);
+                } else {
+                    // the post has outgrown the embedded layout, so its nodes are moved to the collection of nodes
+                    nodeService.saveAll(mergedNodes);
+                    update.unset(NODES).set("nodesEmbedded", false);
+                }
+            } else {
+                nodeService.saveAll(nodes);
+            }
+
+            // only the edited fields are set, so the counters changed concurrently are not overwritten
+            Post updatedPost = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(post.getId())), update,
+                    FindAndModifyOptions.options().returnNew(true), Post.class);
+            eventPublisher.publishEvent(new PostChangedEvent(withNodes(updatedPost)));
+            eventPublisher.publishEvent(PostTagsChangedEvent.of(storedPost, updatedPost));
+            return updatedPost;
+        }).orElseThrow(NoSuchElementException::new);
+    }
+
+    /**
+     * This method is used to merge the new nodes into the embedded ones:
+     * the nodes with a stored identifier replace the stored ones in place, the others are appended.
+     *
+     * @param storedNodes the embedded nodes
+     * @param nodes       the new nodes
+     * @return list of the merged nodes
+     */
+    private List<Node> merge(List<Node> storedNodes, List<Node> nodes) {
+        Map<String, Node> mergedNodes = new LinkedHashMap<>();
+        Optional.ofNullable(storedNodes).orElse(List.of()).forEach(node -> mergedNodes.put(node.getId(), node));
+        nodes.forEach(node -> mergedNodes.put(node.getId(), node));
+        return new ArrayList<>(mergedNodes.values());
+    }
+
+    @Override
+    public List<Post> findAll() {
+        return withNodes(postRepository.findAll());
+    }
+
+    @Override
+    public List<Post> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
+        return withNodes(postRepository.findAllBy(PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS)));
+    }
+
+    /**
+     * This method is used to load the nodes of all the posts with one query
+     * instead of one query per post. The posts with the embedded nodes are read as is.
+     *
+     * @param posts list of objects of class Post
+     * @return the same list of posts with the nodes set
+     */
+    private List<Post> withNodes(List<Post> posts) {
+        List<Post> referencedPosts = posts.stream()
+                .filter(post -> !post.isNodesEmbedded())
+                .collect(Collectors.toList());
+        if (referencedPosts.isEmpty()) {
+            return posts;
+        }
+        Map<String, List<Node>> nodes = nodeService.findAllByParentIds(referencedPosts.stream()
+                .map(Post::getId)
+                .collect(Collectors.toList()));
+        referencedPosts.forEach(post -> post.setNodes(nodes.getOrDefault(post.getId(), List.of())));
+        return posts;
+    }
+
+    /**
+     * This method is used to load the nodes of the post unless they are embedded into it,
+     * so that the post with the embedded nodes is served by a single document read.
+     *
+     * @param post object of class Post
+     * @return the same post with the nodes set
+     */
+    private Post withNodes(Post post) {
+        if (post != null && !post.isNodesEmbedded()) {
+            post.setNodes(nodeService.findAllByParentId(post.getId()));
+        }
+        return post;
+    }
+
+    @Override
+    @NotNullArgs
+    public Post findById(String id) {
+        return ReadThroughCache.get(cacheManager, CacheConfig.POSTS, id,
+                () -> withNodes(postRepository.findById(id).orElseThrow(() -> new PostNotFoundException(id))));
+    }
+
+    @Override
+    @NotNullArgs
+    public EntityVersion findVersionById(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include(MODIFICATION_DATE).include("ratingsCount").include("nodesEmbedded");
+        Post post = Optional.ofNullable(mongoTemplate.findOne(query, Post.class))
+                .orElseThrow(() -> new PostNotFoundException(id));
+        EntityVersion version = EntityVersion.of(post.getModificationDate(), post.getRatingsCount());
+        // the embedded nodes are changed together with the post, the referenced ones by their own writes
+        return post.isNodesEmbedded() ? version : version.and(nodeService.findVersionByParentId(id));
+    }
+
+    @Override
+    public List<Post> findAllByUserId(String userId, Integer limit, Integer offset) {
+        return withNodes(mongoTemplate.find(byUserId(userId, limit, offset), Post.class));
+    }
+
+    @Override
+    public List<Post> findAllSummaries(Integer limit, Integer offset, String sort, Boolean desc) {
+        Query query = new Query().with(PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
+        query.fields().exclude(NODES);
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    @Override
+    public List<Post> findAllSummariesByUserId(String userId, Integer limit, Integer offset) {
+        Query query = byUserId(userId, limit, offset);
+        query.fields().exclude(NODES);
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    @Override
+    public List<Post> findAllSummariesByIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().exclude(NODES);
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    private Query byUserId(String userId, Integer limit, Integer offset) {
+        return Query.query(Criteria.where("userId").is(userId))
+                .with(PageRequestResolver.resolve(limit, offset, "createdDate", true, USER_POSTS_SORT_FIELDS));
+    }
+
+    @Override
+    public KeysetPage<Post> findAllByTags(List<String> tags, boolean matchAny, Integer limit, String cursor) {
+        Query query = byTags(tags, matchAny, limit, cursor);
+        KeysetPage<Post> page = KeysetPage.of(mongoTemplate.find(query, Post.class), query.getLimit() - 1,
+                post -> ContinuationToken.of(post, post.getId(), CREATED_DATE, true));
+        withNodes(page.getContent());
+        return page;
+    }
+
+    @Override
+    public KeysetPage<Post> findAllSummariesByTags(List<String> tags, boolean matchAny, Integer limit, String cursor) {
+        Query query = byTags(tags, matchAny, limit, cursor);
+        query.fields().exclude(NODES);
+        return KeysetPage.of(mongoTemplate.find(query, Post.class), query.getLimit() - 1,
+                post -> ContinuationToken.of(post, post.getId(), CREATED_DATE, true));
+    }
+
+    /**
+     * This method is used to build the query of the page of the posts having the tags, the newest first.
+     * The order matches the index on the tags and the creation date, so the page is read from the index
+     * without sorting, and the plan chosen for the query is reported by QueryPlanRecorder.
+     *
+     * @param tags     the tags of the posts
+     * @param matchAny flag to match the posts having at least one of the tags instead of all of them
+     * @param limit    maximum count of the posts on the page
+     * @param cursor   the continuation token of the previous page or null for the first page
+     * @return the object of class Query requesting one extra post
+     */
+    private Query byTags(List<String> tags, boolean matchAny, Integer limit, String cursor) {
+        if (tags == null || tags.isEmpty()) {
+            throw new ReckueIllegalArgumentException("Tags can't be empty");
+        }
+        int pageSize = PageRequestResolver.resolve(limit, 0).getPageSize();
+        Query query = Query.query(matchAny ? Criteria.where("tags").in(tags) : Criteria.where("tags").all(tags))
+                .with(Sort.by(Sort.Direction.DESC, CREATED_DATE, "id"))
+                .limit(pageSize + 1);
+        if (cursor != null) {
+            ContinuationToken token = ContinuationToken.decode(cursor);
+            if (!CREATED_DATE.equals(token.getSort()) || !token.isDesc()) {
+                throw new ReckueIllegalArgumentException("Continuation token is incorrect");
+            }
+            query.addCriteria(KeysetQuery.after(token, Post.class));
+        }
+        queryPlanRecorder.record(matchAny ? "postsByAnyTag" : "postsByAllTags", query, Post.class);
+        return query;
+    }
+
+    @Override
+    public void exportAll(String afterId, Consumer<List<Post>> consumer) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            List<Post> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            while (posts.hasNext()) {
+                batch.add(posts.next());
+                if (batch.size() == EXPORT_BATCH_SIZE || !posts.hasNext()) {
+                    consumer.accept(withNodes(batch));
+                    batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+                }
+            }
+        }
+    }
+
+    @Override
+    @NotNullArgs
+    public void deleteById(String id) {
+        if (!postRepository.existsById(id)) {
+            throw new PostNotFoundException(id);
+        }
+        Optional<Post> post = postRepository.findById(id);
+        if (post.isPresent()) {
+            String postUser = post.get().getUserId();
+            if (CurrentUser.getId().equals(postUser) || CurrentUser.getRoles().contains(Role.ADMIN)) {
+                postRepository.deleteById(id);
+                nodeService.deleteAllByParentId(id);
+                eventPublisher.publishEvent(new PostDeletedEvent(id));
+                eventPublisher.publishEvent(PostTagsChangedEvent.of(post.get(), null));
+            } else {
+                throw new ReckueAccessDeniedException("The operation is forbidden");
+            }
+        }
+    }
+
+    @Override
+    @NotNullArgs
+    public List<Post> findAllByTitle(String title) {
+        return postRepository.findAllByTitle(title);
+    }
+
+}
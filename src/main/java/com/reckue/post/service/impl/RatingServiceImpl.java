@@ -1,5 +1,7 @@
 package com.reckue.post.service.impl;
 
+import com.reckue.post.cache.ReadThroughCache;
+import com.reckue.post.config.CacheConfig;
 import com.reckue.post.exception.ReckueAccessDeniedException;
 import com.reckue.post.exception.ReckueIllegalArgumentException;
 import com.reckue.post.exception.model.post.PostNotFoundException;
@@ -12,9 +14,16 @@ import com.reckue.post.processor.notnull.NotNullArgs;
 import com.reckue.post.repository.PostRepository;
 import com.reckue.post.repository.RatingRepository;
 import com.reckue.post.service.RatingService;
+import com.reckue.post.util.pagination.PageRequestResolver;
 import com.reckue.post.util.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -29,28 +38,58 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RatingServiceImpl implements RatingService {
 
+    private static final List<String> SORT_FIELDS = List.of("id", "createdDate", "modificationDate");
+    private static final List<String> USER_RATINGS_SORT_FIELDS = List.of("createdDate");
+    private static final String RATINGS_COUNT = "ratingsCount";
+
+    private final MongoTemplate mongoTemplate;
     private final RatingRepository ratingRepository;
     private final PostRepository postRepository;
+    private final CacheManager cacheManager;
 
     @Override
     @NotNullArgs
     public Rating create(Rating rating) {
-        rating.setUserId(CurrentUser.getId());
-        validateCreatingRating(rating);
+        return toggle(CurrentUser.getId(), rating.getPostId());
+    }
 
-        if (ratingRepository.existsByUserIdAndPostId(rating.getUserId(), rating.getPostId())) {
-            Rating existRating = ratingRepository.findByUserIdAndPostId(rating.getUserId(), rating.getPostId());
-            ratingRepository.deleteById(existRating.getId());
-            return existRating;
+    @Override
+    public Rating toggle(String userId, String postId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("postId").is(postId));
+        Rating removedRating = mongoTemplate.findAndRemove(query, Rating.class);
+        if (removedRating != null) {
+            changeRatingsCount(postId, -1);
+            return removedRating;
         }
 
-        return ratingRepository.save(rating);
+        Rating rating = Rating.builder().userId(userId).postId(postId).build();
+        try {
+            mongoTemplate.insert(rating);
+        } catch (DuplicateKeyException e) {
+            // the concurrent request of the same user has just rated the post, so the post stays rated
+            return Optional.ofNullable(mongoTemplate.findOne(query, Rating.class)).orElse(rating);
+        }
+        if (!changeRatingsCount(postId, 1)) {
+            mongoTemplate.remove(rating);
+            throw new PostNotFoundException(postId);
+        }
+        return rating;
     }
 
-    public void validateCreatingRating(Rating rating) {
-        if (!postRepository.existsById(rating.getPostId())) {
-            throw new PostNotFoundException(rating.getPostId());
-        }
+    /**
+     * This method is used to atomically change the count of ratings stored in the post.
+     * The cached post is evicted, so that its count and its version don't diverge.
+     *
+     * @param postId the post identifier
+     * @param delta  1 when the rating is added, -1 when the rating is removed
+     * @return false if the post doesn't exist
+     */
+    private boolean changeRatingsCount(String postId, int delta) {
+        Query query = Query.query(Criteria.where("id").is(postId));
+        boolean changed = mongoTemplate.updateFirst(query, new Update().inc(RATINGS_COUNT, delta), Post.class)
+                .getMatchedCount() > 0;
+        ReadThroughCache.evict(cacheManager, CacheConfig.POSTS, postId);
+        return changed;
     }
 
     @Override
@@ -77,110 +116,48 @@ public class RatingServiceImpl implements RatingService {
 
     @Override
     public List<Rating> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
-        if (limit == null) limit = 10;
-        if (offset == null) offset = 0;
-        if (StringUtils.isEmpty(sort)) sort = "id";
-        if (desc == null) desc = false;
-
-        if (limit < 0 || offset < 0) {
-            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-        }
-        return findAllByTypeAndDesc(sort, desc).stream()
-                .limit(limit)
-                .skip(offset)
-                .collect(Collectors.toList());
-    }
-
-    public List<Rating> findAllByTypeAndDesc(String sort, boolean desc) {
-        if (desc) {
-            List<Rating> ratings = findAllBySortType(sort);
-            Collections.reverse(ratings);
-            return ratings;
-        }
-        return findAllBySortType(sort);
-    }
-
-    public List<Rating> findAllBySortType(String sort) {
-
-        switch (sort) {
-            case "createdDate":
-                return findAllAndSortByCreatedDate();
-            case "modificationDate":
-                return findAllAndSortByModificationDate();
-            case "id":
-                return findAllAndSortById();
-            default:
-                throw new ReckueIllegalArgumentException("Such field as " + sort + " doesn't exist");
-        }
-    }
-
-    public List<Rating> findAllAndSortById() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(Rating::getId))
-                .collect(Collectors.toList());
-    }
-
-    public List<Rating> findAllAndSortByCreatedDate() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(Rating::getCreatedDate))
-                .collect(Collectors.toList());
-    }
-
-    public List<Rating> findAllAndSortByModificationDate() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(Rating::getModificationDate))
-                .collect(Collectors.toList());
+        return ratingRepository.findAllBy(PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
     }
 
     @Override
     public void deleteById(String id) {
-        if (!ratingRepository.existsById(id)) {
-            throw new RatingNotFoundException(id);
+        Rating rating = ratingRepository.findById(id).orElseThrow(() -> new RatingNotFoundException(id));
+        if (!CurrentUser.getId().equals(rating.getUserId()) && !CurrentUser.getRoles().contains(Role.ADMIN)) {
+            throw new ReckueAccessDeniedException("The operation is forbidden");
         }
-        Optional<Rating> rating = ratingRepository.findById(id);
-        if (rating.isPresent()) {
-            if (CurrentUser.getId().equals(rating.get().getUserId()) || CurrentUser.getRoles().contains(Role.ADMIN)) {
-                ratingRepository.deleteById(id);
-            } else {
-                throw new ReckueAccessDeniedException("The operation is forbidden");
-            }
+        // only the call which has removed the rating decrements the count,
+        // so the concurrent deletes and toggles of the same rating don't make it drift
+        Rating removedRating = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Rating.class);
+        if (removedRating != null) {
+            changeRatingsCount(removedRating.getPostId(), -1);
         }
     }
 
     @Override
     public int getRatingsCountByPostId(String postId) {
-        if (!postRepository.existsById(postId)) {
-            throw new PostNotFoundException(postId);
-        }
-        if (postRepository.existsById(postId) && !ratingRepository.existsByPostId(postId)) {
-            return 0;
-        }
-        List<Rating> ratings = ratingRepository.findByPostId(postId);
-        return ratings.size();
+        Query query = Query.query(Criteria.where("id").is(postId));
+        query.fields().include(RATINGS_COUNT);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Post.class))
+                .map(Post::getRatingsCount)
+                .orElseThrow(() -> new PostNotFoundException(postId));
     }
 
     @Override
     public List<Post> findAllPostsWithRatingsByUserId(String userId, Integer limit, Integer offset) {
-        if (!ratingRepository.existsByUserId(userId)) {
+        Pageable pageable = PageRequestResolver.resolve(limit, offset, "createdDate", true, USER_RATINGS_SORT_FIELDS);
+        List<Rating> ratings = ratingRepository.findAllByUserId(userId, pageable);
+        if (ratings.isEmpty() && !ratingRepository.existsByUserId(userId)) {
             throw new UserNotFoundException(userId);
         }
-        List<Rating> ratings = ratingRepository.findByUserId(userId);
-        if (limit == null) limit = 10;
-        if (offset == null) offset = 0;
 
-        if (limit < 0 || offset < 0) {
-            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-        }
-        List<Post> posts = new ArrayList<>();
-        for (Rating rating : ratings) {
-            Post post = postRepository.findById(rating.getPostId())
-                    .orElseThrow(PostNotFoundException::new);
-            posts.add(post);
-        }
+        Map<String, Post> posts = new HashMap<>();
+        postRepository.findAllById(ratings.stream().map(Rating::getPostId).collect(Collectors.toList()))
+                .forEach(post -> posts.put(post.getId(), post));
 
-        return posts.stream()
-                .limit(limit)
-                .skip(offset)
+        // the posts are returned in the order of the ratings, the removed posts are skipped
+        return ratings.stream()
+                .map(rating -> posts.get(rating.getPostId()))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
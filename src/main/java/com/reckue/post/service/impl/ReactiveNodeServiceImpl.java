@@ -0,0 +1,166 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.cache.ReadThroughCache;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Role;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.StatusType;
+import com.reckue.post.repository.ReactiveNodeRepository;
+import com.reckue.post.service.ReactiveNodeService;
+import com.reckue.post.service.impl.validation.NodeValidationServiceImpl;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.pagination.KeysetQuery;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import com.reckue.post.util.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.reckue.post.config.CacheConfig.NODES;
+import static com.reckue.post.model.Role.ADMIN;
+import static com.reckue.post.model.Role.MODERATOR;
+
+/**
+ * Class ReactiveNodeServiceImpl represents realization of ReactiveNodeService.
+ * The current user is read and the arguments are validated on the request thread before subscribing,
+ * the events are published on the bounded elastic scheduler, because their listeners block.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "reactive")
+public class ReactiveNodeServiceImpl implements ReactiveNodeService {
+
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "type", "userId", "status", "createdDate", "modificationDate");
+    private static final List<String> CURSOR_SORT_FIELDS = List.of("id");
+    private static final String STATUS = "status";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReactiveNodeRepository reactiveNodeRepository;
+    private final NodeValidationServiceImpl nodeValidationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+
+    @Override
+    public Mono<Node> create(Node node) {
+        nodeValidationService.validateNodeStatusOnCreate(node);
+        LocalDateTime now = LocalDateTime.now();
+        node.setUserId(CurrentUser.getId());
+        node.setStatus(StatusType.ACTIVE);
+        node.setCreatedDate(now);
+        node.setModificationDate(now);
+        return publishParentChanged(reactiveNodeRepository.save(node));
+    }
+
+    @Override
+    public Mono<Node> update(Node node) {
+        nodeValidationService.validateNodeStatusOnUpdate(node, node.getStatus());
+        String userId = CurrentUser.getId();
+        return reactiveNodeRepository.findById(node.getId())
+                .switchIfEmpty(Mono.error(NoSuchElementException::new))
+                .flatMap(storedNode -> {
+                    storedNode.setStatus(node.getStatus());
+                    storedNode.setUserId(userId);
+                    storedNode.setType(node.getType());
+                    storedNode.setContent(node.getContent());
+                    storedNode.setModificationDate(LocalDateTime.now());
+                    return publishParentChanged(evict(reactiveNodeRepository.save(storedNode)));
+                });
+    }
+
+    /**
+     * This method is used to remove the stored node from the cache of the nodes read by the blocking services.
+     *
+     * @param storedNode mono of the stored node
+     * @return mono of the same node
+     */
+    private Mono<Node> evict(Mono<Node> storedNode) {
+        return storedNode.doOnNext(node -> ReadThroughCache.evict(cacheManager, NODES, node.getId()));
+    }
+
+    /**
+     * This method is used to notify that the post is changed after its node is changed,
+     * e.g. to keep its searchable text up to date.
+     *
+     * @param storedNode mono of the stored node
+     * @return mono of the same node
+     */
+    private Mono<Node> publishParentChanged(Mono<Node> storedNode) {
+        return storedNode
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(node -> {
+                    if (node.getParentType() == ParentType.POST && node.getParentId() != null) {
+                        eventPublisher.publishEvent(new PostChangedEvent(node.getParentId()));
+                    }
+                });
+    }
+
+    @Override
+    public Flux<Node> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
+        return reactiveNodeRepository.findAllByStatus(StatusType.ACTIVE,
+                PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
+    }
+
+    @Override
+    public Mono<KeysetPage<Node>> findAllByCursor(Integer limit, String sort, Boolean desc, String cursor) {
+        ContinuationToken token = Optional.ofNullable(cursor).map(ContinuationToken::decode).orElse(null);
+        if (token != null) {
+            sort = token.getSort();
+            desc = token.isDesc();
+        }
+        Pageable pageable = PageRequestResolver.resolve(limit, 0, sort, desc,
+                token != null ? CURSOR_SORT_FIELDS : SORT_FIELDS);
+        Sort.Order order = pageable.getSort().iterator().next();
+        if (!CURSOR_SORT_FIELDS.contains(order.getProperty())) {
+            // no index serves the range queries by the other fields, so their pages are read by the offset
+            return reactiveNodeRepository.findAllByStatus(StatusType.ACTIVE, pageable)
+                    .collectList()
+                    .map(nodes -> new KeysetPage<>(nodes, null));
+        }
+
+        Query query = KeysetQuery.of(pageable, token, Node.class)
+                .addCriteria(Criteria.where(STATUS).is(StatusType.ACTIVE));
+        return reactiveMongoTemplate.find(query, Node.class)
+                .collectList()
+                .map(nodes -> KeysetPage.of(nodes, pageable.getPageSize(),
+                        node -> ContinuationToken.of(node, node.getId(), order.getProperty(), order.isDescending())));
+    }
+
+    @Override
+    public Mono<Node> findById(String nodeId) {
+        return reactiveNodeRepository.findById(nodeId).switchIfEmpty(Mono.error(NoSuchElementException::new));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String nodeId) {
+        String userId = CurrentUser.getId();
+        Set<Role> roles = Optional.ofNullable(CurrentUser.getRoles()).orElse(Set.of());
+        return reactiveNodeRepository.findById(nodeId)
+                .switchIfEmpty(Mono.error(NoSuchElementException::new))
+                .filter(node -> userId.equals(node.getUserId()) || roles.contains(MODERATOR) || roles.contains(ADMIN))
+                .flatMap(node -> {
+                    node.setStatus(StatusType.DELETED);
+                    node.setModificationDate(LocalDateTime.now());
+                    return publishParentChanged(evict(reactiveNodeRepository.save(node)));
+                })
+                .then();
+    }
+}
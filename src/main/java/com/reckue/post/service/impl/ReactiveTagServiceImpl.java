@@ -0,0 +1,81 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.event.TagChangedEvent;
+import com.reckue.post.event.TagDeletedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.tag.TagNotFoundException;
+import com.reckue.post.model.Tag;
+import com.reckue.post.processor.notnull.NotNullArgs;
+import com.reckue.post.repository.ReactiveTagRepository;
+import com.reckue.post.service.ReactiveTagService;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Class ReactiveTagServiceImpl represents realization of ReactiveTagService.
+ * The events are published on the bounded elastic scheduler, because their listeners block.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "post.execution.mode", havingValue = "reactive")
+public class ReactiveTagServiceImpl implements ReactiveTagService {
+
+    private static final List<String> SORT_FIELDS = List.of("id", "name");
+
+    private final ReactiveTagRepository reactiveTagRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @NotNullArgs
+    public Mono<Tag> create(Tag tag) {
+        tag.setModificationDate(LocalDateTime.now());
+        return reactiveTagRepository.save(tag)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(storedTag -> eventPublisher.publishEvent(new TagChangedEvent(storedTag)));
+    }
+
+    @Override
+    public Mono<Tag> update(Tag tag) {
+        if (tag.getId() == null) {
+            throw new ReckueIllegalArgumentException("The parameter is null");
+        }
+        return findById(tag.getId())
+                .flatMap(savedTag -> {
+                    savedTag.setName(tag.getName());
+                    savedTag.setModificationDate(LocalDateTime.now());
+                    return reactiveTagRepository.save(savedTag);
+                })
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(storedTag -> eventPublisher.publishEvent(new TagChangedEvent(storedTag)));
+    }
+
+    @Override
+    public Flux<Tag> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
+        return reactiveTagRepository.findAllBy(PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
+    }
+
+    @Override
+    public Mono<Tag> findById(String id) {
+        return reactiveTagRepository.findById(id).switchIfEmpty(Mono.error(() -> new TagNotFoundException(id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return reactiveTagRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? reactiveTagRepository.deleteById(id).thenReturn(id)
+                        : Mono.error(new TagNotFoundException(id)))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(deletedId -> eventPublisher.publishEvent(new TagDeletedEvent(deletedId)))
+                .then();
+    }
+}
@@ -0,0 +1,200 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostDeletedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.PostText;
+import com.reckue.post.model.search.FacetValue;
+import com.reckue.post.model.search.PostSearchFacets;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.model.search.PostSearchResult;
+import com.reckue.post.model.type.StatusType;
+import com.reckue.post.service.SearchService;
+import com.reckue.post.util.pagination.PageRequestResolver;
+import com.reckue.post.util.search.NodeTextExtractor;
+import com.reckue.post.util.search.SnippetExtractor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Class SearchServiceImpl represents realization of SearchService on the text index of the post texts.
+ * It is the default engine and is not created with the other one, so the post texts aren't maintained
+ * by the writes when they are never searched.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "post.search.engine", havingValue = "mongo", matchIfMissing = true)
+public class SearchServiceImpl implements SearchService {
+
+    private static final int SNIPPETS_COUNT = 3;
+    private static final int FACET_VALUES_COUNT = 20;
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getPost() != null) {
+            index(event.getPost());
+        } else {
+            reindex(event.getPostId());
+        }
+    }
+
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        remove(event.getPostId());
+    }
+
+    @Override
+    public void index(Post post) {
+        List<Node> nodes = Optional.ofNullable(post.getNodes()).orElse(List.of());
+        mongoTemplate.save(PostText.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(NodeTextExtractor.extractText(mongoTemplate.getConverter(), nodes))
+                .tags(post.getTags())
+                .languages(NodeTextExtractor.extractLanguages(mongoTemplate.getConverter(), nodes))
+                .status(post.getStatus())
+                .build());
+    }
+
+    @Override
+    public void reindex(String postId) {
+        Post post = mongoTemplate.findById(postId, Post.class);
+        if (post == null) {
+            remove(postId);
+            return;
+        }
+        if (!post.isNodesEmbedded()) {
+            // the deleted nodes keep their content, so they are not loaded to stay out of the index and the snippets
+            post.setNodes(mongoTemplate.find(Query.query(Criteria.where("parentId").is(postId)
+                    .and("status").is(StatusType.ACTIVE)), Node.class));
+        }
+        index(post);
+    }
+
+    @Override
+    public void remove(String postId) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(postId)), PostText.class);
+    }
+
+    @Override
+    public long rebuild() {
+        Query query = new Query();
+        query.fields().include("id");
+        long count = 0;
+        try (CloseableIterator<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            while (posts.hasNext()) {
+                reindex(posts.next().getId());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<PostSearchResult> searchPosts(String query, PostSearchFilter filter, Integer limit, Integer offset) {
+        Query textQuery = TextQuery.queryText(textCriteria(query))
+                .sortByScore()
+                .with(PageRequestResolver.resolve(limit, offset));
+        filterCriteria(filter).ifPresent(textQuery::addCriteria);
+        List<PostText> texts = mongoTemplate.find(textQuery, PostText.class);
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+
+        Query postQuery = Query.query(Criteria.where("id").in(texts.stream()
+                .map(PostText::getId)
+                .collect(Collectors.toList())));
+        postQuery.fields().exclude("nodes");
+        Map<String, Post> posts = mongoTemplate.find(postQuery, Post.class).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // the texts of the posts deleted meanwhile are skipped
+        return texts.stream()
+                .filter(text -> posts.containsKey(text.getId()))
+                .map(text -> PostSearchResult.builder()
+                        .post(posts.get(text.getId()))
+                        .score(Optional.ofNullable(text.getScore()).orElse(0F))
+                        .snippets(SnippetExtractor.extract(searchedTexts(text), query, SNIPPETS_COUNT))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public PostSearchFacets countFacets(String query, PostSearchFilter filter) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        // the text search must be the first stage of the pipeline
+        operations.add(Aggregation.match(textCriteria(query)));
+        filterCriteria(filter).ifPresent(criteria -> operations.add(Aggregation.match(criteria)));
+        operations.add(Aggregation
+                .facet(Aggregation.unwind("tags"), Aggregation.sortByCount("tags"),
+                        Aggregation.limit(FACET_VALUES_COUNT)).as("tags")
+                .and(Aggregation.unwind("languages"), Aggregation.sortByCount("languages")).as("languages")
+                .and(Aggregation.sortByCount("status")).as("statuses"));
+
+        Document facets = Optional.ofNullable(mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+                PostText.class, Document.class).getUniqueMappedResult()).orElse(new Document());
+        return PostSearchFacets.builder()
+                .tags(facetValues(facets, "tags"))
+                .languages(facetValues(facets, "languages"))
+                .statuses(facetValues(facets, "statuses"))
+                .build();
+    }
+
+    private TextCriteria textCriteria(String query) {
+        if (!StringUtils.hasText(query)) {
+            throw new ReckueIllegalArgumentException("Search query can't be empty");
+        }
+        return TextCriteria.forDefaultLanguage().matching(query);
+    }
+
+    private Optional<Criteria> filterCriteria(PostSearchFilter filter) {
+        if (filter == null) {
+            return Optional.empty();
+        }
+        List<Criteria> criteria = new ArrayList<>();
+        Optional.ofNullable(filter.getTag()).ifPresent(tag -> criteria.add(Criteria.where("tags").is(tag)));
+        Optional.ofNullable(filter.getLanguage())
+                .ifPresent(language -> criteria.add(Criteria.where("languages").is(language.name())));
+        Optional.ofNullable(filter.getStatus()).ifPresent(status -> criteria.add(Criteria.where("status").is(status)));
+        return criteria.isEmpty()
+                ? Optional.empty()
+                : Optional.of(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+    }
+
+    private List<FacetValue> facetValues(Document facets, String name) {
+        return facets.getList(name, Document.class, List.of()).stream()
+                .filter(value -> value.get("_id") != null)
+                .map(value -> new FacetValue(value.get("_id").toString(), value.get("count", Number.class).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> searchedTexts(PostText text) {
+        List<String> texts = new ArrayList<>();
+        texts.add(text.getTitle());
+        texts.addAll(Optional.ofNullable(text.getContent()).orElse(List.of()));
+        return texts;
+    }
+}
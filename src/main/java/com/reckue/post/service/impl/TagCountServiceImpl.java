@@ -0,0 +1,146 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.event.PostTagsChangedEvent;
+import com.reckue.post.event.TagCountChangedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.TagCount;
+import com.reckue.post.model.TagUsage;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.service.TagCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Class TagCountServiceImpl represents realization of TagCountService on the collection of the counters.
+ * The counters are incremented and decremented atomically by the changes of the posts
+ * and are counted anew from the posts nightly, which repairs the drift of the failed or concurrent changes.
+ * The most used tags are cached for a few seconds, so the tag cloud doesn't query the database per request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagCountServiceImpl implements TagCountService {
+
+    private static final String COUNT = "count";
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 100;
+    private static final Duration CACHE_TIME_TO_LIVE = Duration.ofSeconds(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile MostUsedTags mostUsedTags;
+
+    @Override
+    @EventListener
+    public void count(PostTagsChangedEvent event) {
+        increment(difference(event.getNewTags(), event.getOldTags()), 1);
+        increment(difference(event.getOldTags(), event.getNewTags()), -1);
+    }
+
+    private Set<String> difference(Set<String> tags, Set<String> subtractedTags) {
+        return tags.stream()
+                .filter(tag -> !subtractedTags.contains(tag))
+                .collect(Collectors.toSet());
+    }
+
+    private void increment(Set<String> tags, int delta) {
+        tags.forEach(tag -> {
+            Query byName = Query.query(Criteria.where("name").is(tag));
+            TagCount tagCount = mongoTemplate.findAndModify(byName, new Update().inc(COUNT, delta),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), TagCount.class);
+            long count = tagCount == null ? 0 : tagCount.getCount();
+            if (count <= 0) {
+                // the counter is removed only if it has not been incremented meanwhile
+                mongoTemplate.remove(Query.query(Criteria.where("name").is(tag).and(COUNT).lte(0)), TagCount.class);
+            }
+            eventPublisher.publishEvent(new TagCountChangedEvent(tag, Math.max(count, 0)));
+        });
+    }
+
+    /**
+     * This method is used to count the distinct tags of the posts which are not deleted
+     * and to replace all the counters with the result at once.
+     *
+     * @return count of the used tags
+     */
+    @Override
+    @Scheduled(cron = "${post.tags.count.rebuild.cron:0 30 3 * * *}")
+    public long rebuild() {
+        TypedAggregation<Post> aggregation = Aggregation.newAggregation(Post.class,
+                Aggregation.match(Criteria.where("status").ne(PostStatusType.DELETED.name())),
+                Aggregation.unwind("tags"),
+                // the post is grouped with every tag once, so a repeated tag is counted once
+                Aggregation.group("id", "tags"),
+                Aggregation.group("tags").count().as(COUNT),
+                Aggregation.out(mongoTemplate.getCollectionName(TagCount.class)));
+        long count = mongoTemplate.aggregate(aggregation, TagCount.class).getMappedResults().size();
+        mostUsedTags = null;
+        log.info("Tag counts are rebuilt for {} tags", count);
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> findAllCounts() {
+        return mongoTemplate.findAll(TagCount.class).stream()
+                .collect(Collectors.toMap(TagCount::getName, TagCount::getCount));
+    }
+
+    @Override
+    public List<TagUsage> findMostUsed(Integer limit) {
+        if (limit == null) {
+            limit = DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ReckueIllegalArgumentException("Limit is incorrect");
+        }
+        MostUsedTags cached = mostUsedTags;
+        if (cached == null || cached.loadedAt + CACHE_TIME_TO_LIVE.toMillis() < System.currentTimeMillis()) {
+            cached = new MostUsedTags(loadMostUsed(), System.currentTimeMillis());
+            mostUsedTags = cached;
+        }
+        return cached.tags.subList(0, Math.min(limit, cached.tags.size()));
+    }
+
+    private List<TagUsage> loadMostUsed() {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, COUNT).and(Sort.by(Sort.Direction.ASC, "name")))
+                .limit(MAX_LIMIT);
+        return mongoTemplate.find(query, TagCount.class).stream()
+                .map(tagCount -> TagUsage.builder()
+                        .name(tagCount.getName())
+                        .count(tagCount.getCount())
+                        .build())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static class MostUsedTags {
+
+        private final List<TagUsage> tags;
+        private final long loadedAt;
+
+        private MostUsedTags(List<TagUsage> tags, long loadedAt) {
+            this.tags = tags;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package com.reckue.post.service.impl;
 
+import com.reckue.post.cache.ReadThroughCache;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.event.TagChangedEvent;
+import com.reckue.post.event.TagDeletedEvent;
 import com.reckue.post.exception.ReckueIllegalArgumentException;
 import com.reckue.post.exception.model.tag.TagNotFoundException;
+import com.reckue.post.model.EntityVersion;
 import com.reckue.post.model.Tag;
 import com.reckue.post.processor.notnull.NotNullArgs;
 import com.reckue.post.repository.TagRepository;
 import com.reckue.post.service.TagService;
+import com.reckue.post.util.pagination.PageRequestResolver;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Class TagServiceImpl represents realization of TagService.
@@ -24,12 +33,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TagServiceImpl implements TagService {
 
+    private static final List<String> SORT_FIELDS = List.of("id", "name");
+
     private final TagRepository tagRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Override
     @NotNullArgs
     public Tag create(Tag tag) {
-        return tagRepository.save(tag);
+        tag.setModificationDate(LocalDateTime.now());
+        Tag storedTag = tagRepository.save(tag);
+        eventPublisher.publishEvent(new TagChangedEvent(storedTag));
+        return storedTag;
     }
 
     @Override
@@ -41,7 +58,10 @@ public class TagServiceImpl implements TagService {
                 .findById(tag.getId())
                 .orElseThrow(() -> new TagNotFoundException(tag.getId()));
         savedTag.setName(tag.getName());
-        return tagRepository.save(savedTag);
+        savedTag.setModificationDate(LocalDateTime.now());
+        Tag storedTag = tagRepository.save(savedTag);
+        eventPublisher.publishEvent(new TagChangedEvent(storedTag));
+        return storedTag;
     }
 
     @Override
@@ -51,62 +71,29 @@ public class TagServiceImpl implements TagService {
 
     @Override
     public List<Tag> findAll(Integer limit, Integer offset, String sort, Boolean desc) {
-        if (limit == null) limit = 10;
-        if (offset == null) offset = 0;
-        if (StringUtils.isEmpty(sort)) sort = "id";
-        if (desc == null) desc = false;
-
-        if (limit < 0 || offset < 0) {
-            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
-        }
-        return findAllByTypeAndDesc(sort, desc).stream()
-                .limit(limit)
-                .skip(offset)
-                .collect(Collectors.toList());
-    }
-
-    public List<Tag> findAllByTypeAndDesc(String sort, boolean desc) {
-        if (desc) {
-            List<Tag> tags = findAllBySortType(sort);
-            Collections.reverse(tags);
-            return tags;
-        }
-        return findAllBySortType(sort);
-    }
-
-    public List<Tag> findAllBySortType(String sort) {
-        switch (sort) {
-            case "name":
-                return findAllAndSortByName();
-            case "id":
-                return findAllAndSortById();
-            default:
-                throw new ReckueIllegalArgumentException("Such field as " + sort + " doesn't exist");
-        }
-    }
-
-    public List<Tag> findAllAndSortById() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(Tag::getId))
-                .collect(Collectors.toList());
+        return tagRepository.findAllBy(PageRequestResolver.resolve(limit, offset, sort, desc, SORT_FIELDS));
     }
 
-    public List<Tag> findAllAndSortByName() {
-        return findAll().stream()
-                .sorted(Comparator.comparing(Tag::getName))
-                .collect(Collectors.toList());
+    @Override
+    public Tag findById(String id) {
+        return ReadThroughCache.get(cacheManager, CacheConfig.TAGS, id,
+                () -> tagRepository.findById(id).orElseThrow(() -> new TagNotFoundException(id)));
     }
 
     @Override
-    public Tag findById(String id) {
-        return tagRepository.findById(id).orElseThrow(
-                () -> new TagNotFoundException(id));
+    public EntityVersion findVersionById(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("modificationDate");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Tag.class))
+                .map(EntityVersion::forTag)
+                .orElseThrow(() -> new TagNotFoundException(id));
     }
 
     @Override
     public void deleteById(String id) {
         if (tagRepository.existsById(id)) {
             tagRepository.deleteById(id);
+            eventPublisher.publishEvent(new TagDeletedEvent(id));
         } else {
             throw new TagNotFoundException(id);
         }
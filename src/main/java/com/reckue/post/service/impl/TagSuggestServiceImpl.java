@@ -0,0 +1,72 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.event.TagChangedEvent;
+import com.reckue.post.event.TagCountChangedEvent;
+import com.reckue.post.event.TagDeletedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.TagUsage;
+import com.reckue.post.repository.TagRepository;
+import com.reckue.post.service.TagCountService;
+import com.reckue.post.service.TagSuggestService;
+import com.reckue.post.util.search.TagSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Class TagSuggestServiceImpl represents realization of TagSuggestService on the index of the tags
+ * kept in the memory of the instance of the service, so the suggestions don't query the database.
+ * The index is updated by the events of the changes of the tags and their counts and is read anew periodically,
+ * so that it catches up with the changes served by the other instances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagSuggestServiceImpl implements TagSuggestService {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final TagRepository tagRepository;
+    private final TagCountService tagCountService;
+
+    private final TagSuggestIndex index = new TagSuggestIndex();
+
+    @EventListener
+    public void onTagChanged(TagChangedEvent event) {
+        index.put(event.getTag());
+    }
+
+    @EventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        index.remove(event.getTagId());
+    }
+
+    @EventListener
+    public void onTagCountChanged(TagCountChangedEvent event) {
+        index.setCount(event.getName(), event.getCount());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${post.tags.suggest.reload.initial-delay:0}",
+            fixedDelayString = "${post.tags.suggest.reload.delay:600000}")
+    public int reload() {
+        index.replaceAll(tagRepository.findAll(), tagCountService.findAllCounts());
+        log.info("Tag suggestions are reloaded from {} tags", index.size());
+        return index.size();
+    }
+
+    @Override
+    public List<TagUsage> suggest(String prefix, Integer limit) {
+        if (limit == null) {
+            limit = DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ReckueIllegalArgumentException("Limit is incorrect");
+        }
+        return index.suggest(prefix, limit);
+    }
+}
@@ -3,7 +3,9 @@ package com.reckue.post.util.converter;
 import com.reckue.post.exception.ReckueIllegalArgumentException;
 import com.reckue.post.generated.controller.dto.CommentRequestDto;
 import com.reckue.post.generated.controller.dto.CommentResponseDto;
+import com.reckue.post.generated.controller.dto.CommentThreadDto;
 import com.reckue.post.model.Comment;
+import com.reckue.post.model.CommentThread;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -59,6 +61,8 @@ public class CommentConverter {
                         .map(NodeConverter::convertToDto)
                         .collect(Collectors.toList()))
                 .commentId(comment.getCommentId())
+                .path(comment.getPath())
+                .depth(comment.getDepth())
 //                .createdDate(comment.getCreatedDate()
 //                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
 //                .modificationDate(comment.getModificationDate()
@@ -66,6 +70,30 @@ public class CommentConverter {
                 .build();
     }
 
+    /**
+     * Converts from CommentThread to CommentThreadDto.
+     *
+     * @param thread the object of class CommentThread
+     * @return the object of class CommentThreadDto
+     */
+    public static CommentThreadDto convertToDto(CommentThread thread) {
+        if (Objects.isNull(thread)) {
+            throw new ReckueIllegalArgumentException("Null parameters are not allowed");
+        }
+
+        return CommentThreadDto.builder()
+                .comment(convertToDto(thread.getComment()))
+                .replies(convertToThreadDtoList(thread.getReplies()))
+                .build();
+    }
+
+    public static List<CommentThreadDto> convertToThreadDtoList(List<CommentThread> threads) {
+        return Optional.ofNullable(threads)
+                .orElse(List.of()).stream()
+                .map(CommentConverter::convertToDto)
+                .collect(Collectors.toList());
+    }
+
     public static List<CommentResponseDto> convertToDtoList(List<Comment> comments) {
         return Optional.ofNullable(comments)
                 .orElse(List.of()).stream()
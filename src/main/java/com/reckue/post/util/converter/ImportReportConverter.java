@@ -0,0 +1,38 @@
+package com.reckue.post.util.converter;
+
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.generated.controller.dto.ImportFailureDto;
+import com.reckue.post.generated.controller.dto.ImportReportDto;
+import com.reckue.post.model.ImportReport;
+
+import java.util.stream.Collectors;
+
+/**
+ * Class ImportReportConverter converts the result of the bulk import to the object of the response.
+ */
+public class ImportReportConverter {
+
+    /**
+     * This method is used to convert from the object of class ImportReport
+     * to the object of class ImportReportDto.
+     *
+     * @param report the object of class ImportReport
+     * @return the object of class ImportReportDto
+     */
+    public static ImportReportDto convertToDto(ImportReport report) {
+        if (report == null) {
+            throw new ReckueIllegalArgumentException("Null parameters are not allowed");
+        }
+
+        return ImportReportDto.builder()
+                .imported(report.getImported())
+                .failed(report.getFailed())
+                .failures(report.getFailures().stream()
+                        .map(failure -> ImportFailureDto.builder()
+                                .record(failure.getRecord())
+                                .message(failure.getMessage())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -65,12 +65,33 @@ public class PostConverter {
                         .map(NodeConverter::convertToDto)
                         .collect(Collectors.toList()))
                 .tags(post.getTags())
+                .ratingsCount(post.getRatingsCount())
                 .createdDate(post.getCreatedDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
                 .modificationDate(post.getModificationDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
                 .status(Converter.convert(post.getStatus(), PostStatusTypeDto.class))
                 .build();
     }
 
+    /**
+     * This method is used to convert from the object of class Post read without the nodes
+     * to the summary of the post, which is the object of class PostResponse without the nodes.
+     *
+     * @param post the object of class Post
+     * @return the object of class PostResponse
+     */
+    public static PostResponseDto convertToSummaryDto(Post post) {
+        PostResponseDto postResponse = convertToDto(post);
+        postResponse.setNodes(null);
+        return postResponse;
+    }
+
+    public static List<PostResponseDto> convertToSummaryDtoList(List<Post> posts) {
+        return Optional.ofNullable(posts)
+                .orElse(List.of()).stream()
+                .map(PostConverter::convertToSummaryDto)
+                .collect(Collectors.toList());
+    }
+
     public static List<PostResponseDto> convertToDtoList(List<Post> posts) {
         return Optional.ofNullable(posts)
                 .orElse(List.of()).stream()
@@ -0,0 +1,162 @@
+package com.reckue.post.util.converter;
+
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.generated.controller.dto.CodeSearchResultDto;
+import com.reckue.post.generated.controller.dto.FacetValueDto;
+import com.reckue.post.generated.controller.dto.LanguageTypeDto;
+import com.reckue.post.generated.controller.dto.PostSearchFacetsDto;
+import com.reckue.post.generated.controller.dto.PostSearchResultDto;
+import com.reckue.post.generated.controller.dto.SearchHighlightDto;
+import com.reckue.post.generated.controller.dto.SearchSnippetDto;
+import com.reckue.post.model.search.CodeSearchResult;
+import com.reckue.post.model.search.FacetValue;
+import com.reckue.post.model.search.PostSearchFacets;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.model.search.PostSearchResult;
+import com.reckue.post.model.search.Snippet;
+import com.reckue.post.model.type.LangType;
+import com.reckue.post.model.type.PostStatusType;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Class SearchConverter converts the results of the search to the objects of the responses.
+ */
+public class SearchConverter {
+
+    /**
+     * This method is used to convert from the object of class PostSearchResult
+     * to the object of class PostSearchResultDto with the summary of the post.
+     *
+     * @param result the object of class PostSearchResult
+     * @return the object of class PostSearchResultDto
+     */
+    public static PostSearchResultDto convertToDto(PostSearchResult result) {
+        if (result == null) {
+            throw new ReckueIllegalArgumentException("Null parameters are not allowed");
+        }
+
+        return PostSearchResultDto.builder()
+                .post(PostConverter.convertToSummaryDto(result.getPost()))
+                .score(result.getScore())
+                .snippets(convertToDtoList(result.getSnippets(), SearchConverter::convertToDto))
+                .build();
+    }
+
+    /**
+     * This method is used to convert from the object of class CodeSearchResult
+     * to the object of class CodeSearchResultDto.
+     *
+     * @param result the object of class CodeSearchResult
+     * @return the object of class CodeSearchResultDto
+     */
+    public static CodeSearchResultDto convertToDto(CodeSearchResult result) {
+        if (result == null) {
+            throw new ReckueIllegalArgumentException("Null parameters are not allowed");
+        }
+
+        return CodeSearchResultDto.builder()
+                .postId(result.getPostId())
+                .nodeId(result.getNodeId())
+                .language(Optional.ofNullable(result.getLanguage())
+                        .map(language -> LanguageTypeDto.fromValue(language.name()))
+                        .orElse(null))
+                .lineNumber(result.getLineNumber())
+                .line(result.getLine())
+                .build();
+    }
+
+    /**
+     * This method is used to convert the name of the language of code to the object of enum LangType.
+     *
+     * @param language the name of the language of code
+     * @return the object of enum LangType or null if the name is null
+     */
+    public static LangType convertToLanguage(String language) {
+        return toEnum(LangType.class, language);
+    }
+
+    /**
+     * This method is used to convert the filter parameters of the search request
+     * to the object of class PostSearchFilter.
+     *
+     * @param tag      the tag of the found posts
+     * @param language the name of the language of code of the found posts
+     * @param status   the name of the status of the found posts
+     * @return the object of class PostSearchFilter
+     */
+    public static PostSearchFilter convertToModel(String tag, String language, String status) {
+        return PostSearchFilter.builder()
+                .tag(tag)
+                .language(toEnum(LangType.class, language))
+                .status(toEnum(PostStatusType.class, status))
+                .build();
+    }
+
+    /**
+     * This method is used to convert from the object of class PostSearchFacets
+     * to the object of class PostSearchFacetsDto.
+     *
+     * @param facets the object of class PostSearchFacets
+     * @return the object of class PostSearchFacetsDto
+     */
+    public static PostSearchFacetsDto convertToDto(PostSearchFacets facets) {
+        if (facets == null) {
+            throw new ReckueIllegalArgumentException("Null parameters are not allowed");
+        }
+
+        return PostSearchFacetsDto.builder()
+                .tags(convertToDtoList(facets.getTags(), SearchConverter::convertToDto))
+                .languages(convertToDtoList(facets.getLanguages(), SearchConverter::convertToDto))
+                .statuses(convertToDtoList(facets.getStatuses(), SearchConverter::convertToDto))
+                .build();
+    }
+
+    private static FacetValueDto convertToDto(FacetValue value) {
+        return FacetValueDto.builder()
+                .value(value.getValue())
+                .count(value.getCount())
+                .build();
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> enumClass, String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(enumClass, name);
+        } catch (IllegalArgumentException e) {
+            throw new ReckueIllegalArgumentException("Such value as " + name + " doesn't exist");
+        }
+    }
+
+    private static <S, T> List<T> convertToDtoList(List<S> list, Function<S, T> converter) {
+        return Optional.ofNullable(list)
+                .orElse(List.of()).stream()
+                .map(converter)
+                .collect(Collectors.toList());
+    }
+
+    private static SearchSnippetDto convertToDto(Snippet snippet) {
+        return SearchSnippetDto.builder()
+                .text(snippet.getText())
+                .highlights(snippet.getHighlights().stream()
+                        .map(highlight -> SearchHighlightDto.builder()
+                                .start(highlight.getStart())
+                                .end(highlight.getEnd())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    public static List<PostSearchResultDto> convertToDtoList(List<PostSearchResult> results) {
+        return convertToDtoList(results, SearchConverter::convertToDto);
+    }
+
+    public static List<CodeSearchResultDto> convertToCodeDtoList(List<CodeSearchResult> results) {
+        return convertToDtoList(results, SearchConverter::convertToDto);
+    }
+}
@@ -3,7 +3,9 @@ package com.reckue.post.util.converter;
 import com.reckue.post.exception.ReckueIllegalArgumentException;
 import com.reckue.post.generated.controller.dto.TagRequestDto;
 import com.reckue.post.generated.controller.dto.TagResponseDto;
+import com.reckue.post.generated.controller.dto.TagUsageDto;
 import com.reckue.post.model.Tag;
+import com.reckue.post.model.TagUsage;
 
 import java.util.List;
 import java.util.Optional;
@@ -62,4 +64,28 @@ public class TagConverter {
                 .map(TagConverter::convertToDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Converts from TagUsage to TagUsageDto.
+     *
+     * @param usage the object of class TagUsage
+     * @return the object of class TagUsageDto
+     */
+    public static TagUsageDto convertToDto(TagUsage usage) {
+        if (usage == null) {
+            throw new ReckueIllegalArgumentException("Null parameters are not allowed");
+        }
+        return TagUsageDto.builder()
+                .id(usage.getId())
+                .name(usage.getName())
+                .count(usage.getCount())
+                .build();
+    }
+
+    public static List<TagUsageDto> convertToUsageDtoList(List<TagUsage> usages) {
+        return Optional.ofNullable(usages)
+                .orElse(List.of()).stream()
+                .map(TagConverter::convertToDto)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,106 @@
+package com.reckue.post.util.http;
+
+import com.reckue.post.model.EntityVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Class ConditionalRequests answers the conditional GET requests by the version of the entity,
+ * so that the client having the current representation gets 304 Not Modified without the entity being loaded.
+ */
+public final class ConditionalRequests {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * This method is used to build the response of the entity unless the client has its current version.
+     * If-None-Match takes precedence over If-Modified-Since, as required by RFC 7232.
+     * The response is allowed to be stored, but it is validated on every use.
+     *
+     * @param version         the current version of the entity
+     * @param ifNoneMatch     the value of the If-None-Match header or null
+     * @param ifModifiedSince the value of the If-Modified-Since header or null
+     * @param body            the supplier of the representation of the entity called for 200 OK only
+     * @param <T>             the type of the representation
+     * @return 304 Not Modified or 200 OK with the representation, both with the ETag and Last-Modified headers
+     */
+    public static <T> ResponseEntity<T> respond(EntityVersion version, String ifNoneMatch, String ifModifiedSince,
+                                                Supplier<T> body) {
+        if (isNotModified(version, ifNoneMatch, ifModifiedSince)) {
+            return response(HttpStatus.NOT_MODIFIED, version).build();
+        }
+        return response(HttpStatus.OK, version).body(body.get());
+    }
+
+    /**
+     * This method is used to build the response of the entity unless the client has its current version,
+     * checking the preconditions against the stored version read by a projection query, e.g. past the cache.
+     * The entity is loaded only when the preconditions fail, and the headers of 200 OK are built
+     * from the loaded entity, so the ETag always describes the representation it is sent with.
+     *
+     * @param storedVersion   the supplier of the stored version called for the conditional requests only
+     * @param ifNoneMatch     the value of the If-None-Match header or null
+     * @param ifModifiedSince the value of the If-Modified-Since header or null
+     * @param entity          the supplier of the entity called for 200 OK only
+     * @param version         the function computing the version of the loaded entity
+     * @param converter       the function converting the loaded entity to its representation
+     * @param <E>             the type of the entity
+     * @param <T>             the type of the representation
+     * @return 304 Not Modified or 200 OK with the representation, both with the ETag and Last-Modified headers
+     */
+    public static <E, T> ResponseEntity<T> respond(Supplier<EntityVersion> storedVersion, String ifNoneMatch,
+                                                   String ifModifiedSince, Supplier<E> entity,
+                                                   Function<E, EntityVersion> version, Function<E, T> converter) {
+        if (ifNoneMatch != null || ifModifiedSince != null) {
+            EntityVersion stored = storedVersion.get();
+            if (isNotModified(stored, ifNoneMatch, ifModifiedSince)) {
+                return response(HttpStatus.NOT_MODIFIED, stored).build();
+            }
+        }
+        E loadedEntity = entity.get();
+        return response(HttpStatus.OK, version.apply(loadedEntity)).body(converter.apply(loadedEntity));
+    }
+
+    private static ResponseEntity.BodyBuilder response(HttpStatus status, EntityVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .eTag(version.getEntityTag())
+                .cacheControl(CacheControl.noCache());
+        if (version.getLastModified() >= 0) {
+            response.lastModified(version.getLastModified());
+        }
+        return response;
+    }
+
+    static boolean isNotModified(EntityVersion version, String ifNoneMatch, String ifModifiedSince) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            List<String> entityTags = headers.getIfNoneMatch();
+            // the weak comparison is used, so the weak tags added by the proxies still match
+            return entityTags.stream()
+                    .map(tag -> tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                    .anyMatch(tag -> ANY.equals(tag) || version.getEntityTag().equals(tag));
+        }
+        if (ifModifiedSince != null && version.getLastModified() >= 0) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+            try {
+                // the HTTP dates have the precision of seconds
+                return version.getLastModified() / 1000 <= headers.getIfModifiedSince() / 1000;
+            } catch (IllegalArgumentException e) {
+                // the invalid date is ignored
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package com.reckue.post.util.pagination;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Class ContinuationToken represents the position of the last element of a page:
+ * the sort field, the sort order, the value of the sort field and the id of the element.
+ * The backward token represents the position of the first element of a page and points to the previous page.
+ * It is passed to the client as an opaque url-safe string.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContinuationToken {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String sort;
+    private boolean desc;
+    private String value;
+    private String id;
+    private boolean backward;
+
+    /**
+     * This method is used to create the token pointing to the given element.
+     *
+     * @param element the last element of the page
+     * @param id      the identifier of the element
+     * @param sort    the sort field
+     * @param desc    flag of the descending sort order
+     * @return the object of class ContinuationToken
+     */
+    public static ContinuationToken of(Object element, String id, String sort, boolean desc) {
+        Object value = new BeanWrapperImpl(element).getPropertyValue(sort);
+        return ContinuationToken.builder()
+                .sort(sort)
+                .desc(desc)
+                .value(value instanceof Enum ? ((Enum<?>) value).name() : value == null ? null : value.toString())
+                .id(id)
+                .build();
+    }
+
+    /**
+     * This method is used to restore the token from the string received from the client.
+     *
+     * @param token the encoded token
+     * @return the object of class ContinuationToken
+     */
+    public static ContinuationToken decode(String token) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            ContinuationToken continuationToken = objectMapper.readValue(json, ContinuationToken.class);
+            if (continuationToken.getSort() == null || continuationToken.getId() == null) {
+                throw new ReckueIllegalArgumentException("Continuation token is incorrect");
+            }
+            return continuationToken;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new ReckueIllegalArgumentException("Continuation token is incorrect");
+        }
+    }
+
+    /**
+     * This method is used to get the token pointing to the page before the element instead of the page after it.
+     *
+     * @return the object of class ContinuationToken
+     */
+    public ContinuationToken toBackward() {
+        return new ContinuationToken(sort, desc, value, id, true);
+    }
+
+    /**
+     * This method is used to get the sort order the documents are read from the database in,
+     * the pages before the element are read in the reversed order starting from the element.
+     *
+     * @return true if the documents are read in the descending order
+     */
+    @JsonIgnore
+    public boolean isReadDescending() {
+        return desc != backward;
+    }
+
+    /**
+     * This method is used to convert the token to the string passed to the client.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * This method is used to get the value of the sort field converted to the type of the model property,
+     * so that it is compared by MongoDB in the same way as the stored one.
+     *
+     * @param modelClass the class of the paged model
+     * @return the typed value of the sort field
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object typedValue(Class<?> modelClass) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(modelClass, sort);
+        if (value == null || descriptor == null) {
+            return value;
+        }
+        Class<?> type = descriptor.getPropertyType();
+        try {
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+            if (LocalDateTime.class.equals(type)) {
+                return LocalDateTime.parse(value);
+            }
+        } catch (RuntimeException e) {
+            throw new ReckueIllegalArgumentException("Continuation token is incorrect");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,83 @@
+package com.reckue.post.util.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Class KeysetPage represents a page of elements loaded by the continuation token
+ * together with the tokens of the next and the previous pages.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private final List<T> content;
+
+    /**
+     * The encoded token of the next page or null if the page is the last one.
+     */
+    private final String next;
+
+    /**
+     * The encoded backward token of the previous page or null if the page is the first one
+     * or the pages are only listed forward.
+     */
+    private final String previous;
+
+    public KeysetPage(List<T> content, String next) {
+        this(content, next, null);
+    }
+
+    /**
+     * This method is used to build the page from the elements loaded with the limit increased by one,
+     * the extra element only tells that the next page exists and is not returned.
+     *
+     * @param elements     the loaded elements
+     * @param limit        the requested count of the elements on the page
+     * @param tokenFactory the function creating the token pointing to the element
+     * @param <T>          the type of the elements
+     * @return the object of class KeysetPage
+     */
+    public static <T> KeysetPage<T> of(List<T> elements, int limit, Function<T, ContinuationToken> tokenFactory) {
+        if (elements.size() <= limit) {
+            return new KeysetPage<>(elements, null);
+        }
+        List<T> content = elements.subList(0, limit);
+        return new KeysetPage<>(content, tokenFactory.apply(content.get(limit - 1)).encode());
+    }
+
+    /**
+     * This method is used to build the page loaded in either direction from the token
+     * with the limit increased by one, the extra element only tells that one more page exists in that direction.
+     * The elements loaded before the backward token come in the reversed order and are put back in order.
+     *
+     * @param elements     the loaded elements
+     * @param limit        the requested count of the elements on the page
+     * @param token        the token the page is loaded from or null for the first page
+     * @param tokenFactory the function creating the token pointing to the element
+     * @param <T>          the type of the elements
+     * @return the object of class KeysetPage
+     */
+    public static <T> KeysetPage<T> of(List<T> elements, int limit, ContinuationToken token,
+                                       Function<T, ContinuationToken> tokenFactory) {
+        boolean backward = token != null && token.isBackward();
+        boolean more = elements.size() > limit;
+        List<T> content = new ArrayList<>(more ? elements.subList(0, limit) : elements);
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null);
+        }
+        if (backward) {
+            Collections.reverse(content);
+        }
+        boolean hasNext = backward || more;
+        boolean hasPrevious = backward ? more : token != null;
+        return new KeysetPage<>(content,
+                hasNext ? tokenFactory.apply(content.get(content.size() - 1)).encode() : null,
+                hasPrevious ? tokenFactory.apply(content.get(0)).toBackward().encode() : null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.reckue.post.util.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.stream.Collectors;
+
+import static com.reckue.post.util.pagination.PageRequestResolver.DEFAULT_SORT;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Class KeysetQuery builds range queries which continue the sorted listing after the continuation token.
+ * Such queries neither skip nor count documents, so their cost doesn't depend on the depth of the page.
+ */
+public class KeysetQuery {
+
+    /**
+     * This method is used to build the query of the page following the token.
+     * One extra document is requested to find out whether the next page exists.
+     * The page before the backward token is read in the reversed sort order.
+     *
+     * @param pageable   the sort order and the limit of the page, the offset is ignored
+     * @param token      the token of the previous page or null for the first page
+     * @param modelClass the class of the paged model
+     * @return the object of class Query
+     */
+    public static Query of(Pageable pageable, ContinuationToken token, Class<?> modelClass) {
+        Query query = new Query()
+                .with(token != null && token.isBackward() ? reverse(pageable.getSort()) : pageable.getSort())
+                .limit(pageable.getPageSize() + 1);
+        if (token != null) {
+            query.addCriteria(after(token, modelClass));
+        }
+        return query;
+    }
+
+    /**
+     * This method is used to build the criteria matching the documents placed after the token.
+     * The id breaks ties between the documents with equal values of the sort field.
+     * MongoDB orders missing and null values before any other value.
+     * The backward token matches the documents placed before it.
+     *
+     * @param token      the token of the previous page
+     * @param modelClass the class of the paged model
+     * @return the object of class Criteria
+     */
+    public static Criteria after(ContinuationToken token, Class<?> modelClass) {
+        String sort = token.getSort();
+        String id = token.getId();
+        boolean desc = token.isReadDescending();
+
+        if (DEFAULT_SORT.equals(sort)) {
+            return desc ? where(DEFAULT_SORT).lt(id) : where(DEFAULT_SORT).gt(id);
+        }
+
+        Object value = token.typedValue(modelClass);
+        Criteria sameValue = desc
+                ? where(sort).is(value).and(DEFAULT_SORT).lt(id)
+                : where(sort).is(value).and(DEFAULT_SORT).gt(id);
+
+        if (value == null) {
+            return desc ? sameValue : new Criteria().orOperator(where(sort).ne(null), sameValue);
+        }
+        return desc
+                ? new Criteria().orOperator(where(sort).lt(value), where(sort).is(null), sameValue)
+                : new Criteria().orOperator(where(sort).gt(value), sameValue);
+    }
+
+    /**
+     * This method is used to reverse the direction of every order of the sort.
+     *
+     * @param sort the object of class Sort
+     * @return the reversed object of class Sort
+     */
+    public static Sort reverse(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.with(order.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.reckue.post.util.pagination;
+
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+
+/**
+ * Class PageRequestResolver translates the paging parameters of the REST API
+ * to the pageable request executed by MongoDB.
+ */
+public class PageRequestResolver {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int DEFAULT_OFFSET = 0;
+    public static final String DEFAULT_SORT = "id";
+
+    /**
+     * This method is used to validate the paging parameters and build the pageable request,
+     * so that sorting, skipping and limiting are done by the database and only one page is loaded.
+     * Documents with equal values of the sort field are ordered by id to keep the pages stable.
+     *
+     * @param limit      maximum count of the documents on the page, at least 1, by default 10
+     * @param offset     count of the documents to skip, by default 0
+     * @param sort       name of the sort field, by default id
+     * @param desc       flag of the descending sort order, by default false
+     * @param sortFields names of the fields allowed for sorting
+     * @return the object of class Pageable
+     */
+    public static Pageable resolve(Integer limit, Integer offset, String sort, Boolean desc,
+                                   Collection<String> sortFields) {
+        if (StringUtils.isEmpty(sort)) sort = DEFAULT_SORT;
+        if (desc == null) desc = false;
+
+        Pageable pageable = resolve(limit, offset);
+        if (!sortFields.contains(sort)) {
+            throw new ReckueIllegalArgumentException("Such field as " + sort + " doesn't exist");
+        }
+        return new OffsetPageRequest(pageable.getOffset(), pageable.getPageSize(), resolveSort(sort, desc));
+    }
+
+    /**
+     * This method is used to validate the paging parameters and build the unsorted pageable request
+     * for the queries ordered by something other than a field, e.g. by the relevance of the text search.
+     *
+     * @param limit  maximum count of the documents on the page, at least 1, by default 10
+     * @param offset count of the documents to skip, by default 0
+     * @return the object of class Pageable
+     */
+    public static Pageable resolve(Integer limit, Integer offset) {
+        if (limit == null) limit = DEFAULT_LIMIT;
+        if (offset == null) offset = DEFAULT_OFFSET;
+
+        if (limit < 1 || offset < 0) {
+            throw new ReckueIllegalArgumentException("Limit or offset is incorrect");
+        }
+        return new OffsetPageRequest(offset, limit, Sort.unsorted());
+    }
+
+    /**
+     * This method is used to build the sort order by the field with id as a tiebreaker.
+     *
+     * @param sort name of the sort field
+     * @param desc flag of the descending sort order
+     * @return the object of class Sort
+     */
+    public static Sort resolveSort(String sort, boolean desc) {
+        Sort.Direction direction = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sortBy = Sort.by(direction, sort);
+        return DEFAULT_SORT.equals(sort) ? sortBy : sortBy.and(Sort.by(direction, DEFAULT_SORT));
+    }
+}
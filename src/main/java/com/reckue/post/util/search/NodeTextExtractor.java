@@ -0,0 +1,109 @@
+package com.reckue.post.util.search;
+
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.StatusType;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class NodeTextExtractor reads the searchable values of the nodes which are not deleted.
+ * The content is read as stored, so it doesn't matter which class it is deserialized to.
+ */
+public class NodeTextExtractor {
+
+    /**
+     * This method is used to get the text of the text-bearing nodes:
+     * the value of the text nodes, the content of the code nodes and the items of the list nodes.
+     *
+     * @param converter the converter of the content to the stored document
+     * @param nodes     list of objects of class Node
+     * @return list of the texts of the nodes
+     */
+    public static List<String> extractText(MongoConverter converter, List<Node> nodes) {
+        return contents(converter, nodes)
+                .flatMap(content -> {
+                    switch (content.type) {
+                        case TEXT:
+                            return strings(content.document.get("value"));
+                        case CODE:
+                        case LIST:
+                            return strings(content.document.get("content"));
+                        default:
+                            return Stream.empty();
+                    }
+                })
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method is used to get the distinct languages of the code nodes.
+     *
+     * @param converter the converter of the content to the stored document
+     * @param nodes     list of objects of class Node
+     * @return list of the names of the languages
+     */
+    public static List<String> extractLanguages(MongoConverter converter, List<Node> nodes) {
+        return contents(converter, nodes)
+                .filter(content -> content.type == NodeType.CODE)
+                .flatMap(content -> strings(content.document.get("language")))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method is used to get the content of the node as it is stored,
+     * so that its fields are read whichever class it is deserialized to.
+     *
+     * @param converter the converter of the content to the stored document
+     * @param node      object of class Node
+     * @return the stored content or empty if the node is deleted or has no content
+     */
+    public static Optional<Document> storedContent(MongoConverter converter, Node node) {
+        if (node.getStatus() == StatusType.DELETED || node.getType() == null || node.getContent() == null) {
+            return Optional.empty();
+        }
+        Object content = converter.convertToMongoType(node.getContent());
+        return content instanceof Document ? Optional.of((Document) content) : Optional.empty();
+    }
+
+    private static Stream<Content> contents(MongoConverter converter, List<Node> nodes) {
+        return nodes.stream()
+                .map(node -> storedContent(converter, node)
+                        .map(content -> new Content(node.getType(), content))
+                        .orElse(null))
+                .filter(Objects::nonNull);
+    }
+
+    private static Stream<String> strings(Object value) {
+        if (value instanceof String) {
+            return Stream.of((String) value);
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream()
+                    .filter(Objects::nonNull)
+                    .map(Object::toString);
+        }
+        return Stream.empty();
+    }
+
+    private static class Content {
+
+        private final NodeType type;
+        private final Document document;
+
+        private Content(NodeType type, Document document) {
+            this.type = type;
+            this.document = document;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.reckue.post.util.search;
+
+import com.reckue.post.model.search.Highlight;
+import com.reckue.post.model.search.Snippet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Class SnippetExtractor cuts the fragments of the found text around the words of the search query.
+ * The words are matched as a whole and case-insensitively, as the text index without a language does.
+ */
+public class SnippetExtractor {
+
+    private static final int CONTEXT_LENGTH = 60;
+    private static final int SNIPPET_LENGTH = 160;
+
+    /**
+     * This method is used to get the snippets of the texts containing the words of the search query.
+     * Every text gives at most one snippet, the negated words and the quotes of the query are ignored.
+     *
+     * @param texts list of the searched texts in the order of their importance
+     * @param query the search query
+     * @param count maximum count of the snippets
+     * @return list of the snippets
+     */
+    public static List<Snippet> extract(List<String> texts, String query, int count) {
+        Pattern pattern = toPattern(query);
+        if (pattern == null) {
+            return List.of();
+        }
+        List<Snippet> snippets = new ArrayList<>();
+        for (String text : texts) {
+            if (snippets.size() == count) {
+                break;
+            }
+            if (text != null) {
+                extract(text, pattern).ifPresent(snippets::add);
+            }
+        }
+        return snippets;
+    }
+
+    private static Optional<Snippet> extract(String text, Pattern pattern) {
+        Matcher matcher = pattern.matcher(text);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        int start = Math.max(0, matcher.start() - CONTEXT_LENGTH);
+        while (start > 0 && start < matcher.start() && !Character.isWhitespace(text.charAt(start - 1))) {
+            start++;
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        while (end < text.length() && end > matcher.end() && !Character.isWhitespace(text.charAt(end))) {
+            end--;
+        }
+
+        List<Highlight> highlights = new ArrayList<>();
+        matcher.useTransparentBounds(true).region(start, end);
+        while (matcher.find()) {
+            highlights.add(new Highlight(matcher.start() - start, matcher.end() - start));
+        }
+        return Optional.of(new Snippet(text.substring(start, end), highlights));
+    }
+
+    private static Pattern toPattern(String query) {
+        List<String> words = Arrays.stream(query.split("\\s+"))
+                .filter(word -> !word.startsWith("-"))
+                .map(word -> word.replace("\"", ""))
+                .filter(word -> !word.isEmpty())
+                .map(Pattern::quote)
+                .distinct()
+                .collect(Collectors.toList());
+        if (words.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile("(?<![\\p{L}\\p{N}])(" + String.join("|", words) + ")(?![\\p{L}\\p{N}])",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+}
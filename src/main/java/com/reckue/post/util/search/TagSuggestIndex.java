@@ -0,0 +1,176 @@
+package com.reckue.post.util.search;
+
+import com.reckue.post.model.Tag;
+import com.reckue.post.model.TagUsage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Class TagSuggestIndex represents the tags sorted by their names in lower case,
+ * so the tags starting with a prefix are found by the binary search and ranked by the count of their usages.
+ * The searches read the immutable array of the tags without locking,
+ * the changes of the tags replace it with a copy, the changes of the counts are applied in place.
+ */
+public class TagSuggestIndex {
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing((Entry entry) -> entry.key)
+            .thenComparing(entry -> entry.id);
+
+    private static final Comparator<TagUsage> BY_RANK = Comparator.comparingLong(TagUsage::getCount)
+            .reversed()
+            .thenComparing(usage -> usage.getName().toLowerCase(Locale.ROOT))
+            .thenComparing(TagUsage::getId);
+
+    private volatile Entry[] entries = new Entry[0];
+
+    /**
+     * This method is used to replace all the tags.
+     *
+     * @param tags   list of objects of class Tag
+     * @param counts the counts of the usages by the names of the tags
+     */
+    public synchronized void replaceAll(Collection<Tag> tags, Map<String, Long> counts) {
+        entries = tags.stream()
+                .filter(tag -> tag.getId() != null && tag.getName() != null)
+                .map(tag -> new Entry(tag.getId(), tag.getName(), counts.getOrDefault(tag.getName(), 0L)))
+                .sorted(BY_KEY)
+                .toArray(Entry[]::new);
+    }
+
+    /**
+     * This method is used to add the tag or to replace the stored tag with the same identifier.
+     * The count of the usages of the replaced tag is kept if its name is not changed.
+     *
+     * @param tag object of class Tag
+     */
+    public synchronized void put(Tag tag) {
+        if (tag.getId() == null || tag.getName() == null) {
+            return;
+        }
+        Entry stored = find(tag.getId());
+        long count = stored != null && stored.name.equals(tag.getName()) ? stored.count : 0;
+        List<Entry> changed = new ArrayList<>(Arrays.asList(entries));
+        changed.remove(stored);
+        Entry entry = new Entry(tag.getId(), tag.getName(), count);
+        int position = Collections.binarySearch(changed, entry, BY_KEY);
+        changed.add(-position - 1, entry);
+        entries = changed.toArray(new Entry[0]);
+    }
+
+    /**
+     * This method is used to remove the tag.
+     *
+     * @param tagId the identifier of the tag
+     */
+    public synchronized void remove(String tagId) {
+        Entry stored = find(tagId);
+        if (stored != null) {
+            entries = Arrays.stream(entries)
+                    .filter(entry -> entry != stored)
+                    .toArray(Entry[]::new);
+        }
+    }
+
+    /**
+     * This method is used to set the count of the usages of the tags with the name.
+     *
+     * @param name  the name of the tag
+     * @param count the count of the posts the tag is used in
+     */
+    public void setCount(String name, long count) {
+        for (Entry entry : range(name.toLowerCase(Locale.ROOT))) {
+            if (entry.name.equals(name)) {
+                entry.count = count;
+            }
+        }
+    }
+
+    /**
+     * This method is used to find the most used tags starting with the prefix, case-insensitively.
+     *
+     * @param prefix the prefix of the names of the tags
+     * @param limit  maximum count of the found tags
+     * @return list of the found tags with the counts of their usages, the most used first
+     */
+    public List<TagUsage> suggest(String prefix, int limit) {
+        // the counts are read once, so they don't change while the tags are ranked
+        List<TagUsage> usages = range(Objects.requireNonNullElse(prefix, "").toLowerCase(Locale.ROOT)).stream()
+                .map(entry -> new TagUsage(entry.id, entry.name, entry.count))
+                .collect(Collectors.toList());
+        if (usages.size() > limit) {
+            // only the best tags are kept, so the range is not sorted as a whole
+            PriorityQueue<TagUsage> best = new PriorityQueue<>(limit + 1, BY_RANK.reversed());
+            for (TagUsage usage : usages) {
+                best.add(usage);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            usages = new ArrayList<>(best);
+        }
+        usages.sort(BY_RANK);
+        return usages;
+    }
+
+    /**
+     * This method is used to get the count of the tags.
+     *
+     * @return count of the tags
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    private List<Entry> range(String prefix) {
+        Entry[] snapshot = entries;
+        int from = lowerBound(snapshot, prefix);
+        int to = lowerBound(snapshot, prefix + Character.MAX_VALUE);
+        return Arrays.asList(snapshot).subList(from, Math.max(from, to));
+    }
+
+    private static int lowerBound(Entry[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle].key.compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Entry find(String tagId) {
+        return Arrays.stream(entries)
+                .filter(entry -> entry.id.equals(tagId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static class Entry {
+
+        private final String id;
+        private final String name;
+        private final String key;
+        private volatile long count;
+
+        private Entry(String id, String name, long count) {
+            this.id = id;
+            this.name = name;
+            this.key = name.toLowerCase(Locale.ROOT);
+            this.count = count;
+        }
+    }
+}
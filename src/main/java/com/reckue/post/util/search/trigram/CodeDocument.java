@@ -0,0 +1,22 @@
+package com.reckue.post.util.search.trigram;
+
+import com.reckue.post.model.type.LangType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class CodeDocument represents the content of the code node stored in the trigram index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodeDocument {
+
+    private String nodeId;
+    private String postId;
+    private LangType language;
+    private String content;
+}
@@ -0,0 +1,169 @@
+package com.reckue.post.util.search.trigram;
+
+import java.util.Arrays;
+
+/**
+ * Class PostingList represents the ascending identifiers of the documents containing a trigram.
+ * The identifiers are stored as the gaps between them encoded by a variable number of bytes,
+ * so a list of close identifiers takes about one byte per identifier instead of four.
+ * Every 64th identifier is also stored with its position, so the cursor skips the identifiers it doesn't need.
+ */
+public class PostingList {
+
+    /**
+     * The identifier returned by the cursor after the last one, it is greater than every stored identifier.
+     */
+    public static final int END = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int SKIP_INTERVAL = 64;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    private int[] skipDocIds = new int[0];
+    private int[] skipPositions = new int[0];
+    private int skipCount;
+
+    /**
+     * This method is used to append the identifier of the document,
+     * it must be greater than the identifiers appended before.
+     *
+     * @param docId the identifier of the document
+     */
+    public void add(int docId) {
+        if (docId <= last || docId == END) {
+            throw new IllegalArgumentException("Document " + docId + " can't follow " + last);
+        }
+        if (size > 0 && size % SKIP_INTERVAL == 0) {
+            addSkip();
+        }
+        int gap = docId - last;
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((gap & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        bytes[length++] = (byte) gap;
+        last = docId;
+        size++;
+    }
+
+    private void addSkip() {
+        if (skipCount == skipDocIds.length) {
+            skipDocIds = Arrays.copyOf(skipDocIds, Math.max(INITIAL_CAPACITY, skipCount * 2));
+            skipPositions = Arrays.copyOf(skipPositions, skipDocIds.length);
+        }
+        // the skip points to the identifier being appended and keeps the one preceding it
+        skipDocIds[skipCount] = last;
+        skipPositions[skipCount] = length;
+        skipCount++;
+    }
+
+    /**
+     * This method is used to get the count of the identifiers.
+     *
+     * @return the count of the identifiers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method is used to get the count of the bytes taken by the encoded identifiers.
+     *
+     * @return the count of the bytes
+     */
+    public int sizeInBytes() {
+        return length;
+    }
+
+    /**
+     * This method is used to decode all the identifiers.
+     *
+     * @return the ascending identifiers
+     */
+    public int[] toArray() {
+        int[] docIds = new int[size];
+        Cursor cursor = cursor();
+        for (int i = 0; i < size; i++) {
+            docIds[i] = cursor.next();
+        }
+        return docIds;
+    }
+
+    /**
+     * This method is used to start reading the identifiers.
+     *
+     * @return the cursor before the first identifier
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Class Cursor reads the identifiers of the list in the ascending order.
+     */
+    public class Cursor {
+
+        private int position;
+        private int index;
+        private int docId = -1;
+
+        /**
+         * This method is used to read the next identifier.
+         *
+         * @return the identifier or END if all of them are read
+         */
+        public int next() {
+            if (index == size) {
+                docId = END;
+                return END;
+            }
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            index++;
+            docId += gap;
+            return docId;
+        }
+
+        /**
+         * This method is used to read the first identifier not less than the target one.
+         *
+         * @param target the identifier to advance to
+         * @return the identifier or END if all of them are less than the target
+         */
+        public int advance(int target) {
+            if (docId >= target) {
+                return docId;
+            }
+            if (target == END) {
+                index = size;
+                docId = END;
+                return END;
+            }
+            int skip = Arrays.binarySearch(skipDocIds, 0, skipCount, target);
+            // the last skip keeping an identifier less than the target
+            skip = skip >= 0 ? skip - 1 : -skip - 2;
+            if (skip >= 0 && (skip + 1) * SKIP_INTERVAL > index) {
+                position = skipPositions[skip];
+                index = (skip + 1) * SKIP_INTERVAL;
+                docId = skipDocIds[skip];
+            }
+            while (docId < target) {
+                next();
+            }
+            return docId;
+        }
+    }
+}
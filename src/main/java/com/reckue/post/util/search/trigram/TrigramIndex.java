@@ -0,0 +1,343 @@
+package com.reckue.post.util.search.trigram;
+
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.search.CodeSearchResult;
+import com.reckue.post.model.type.LangType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+
+/**
+ * Class TrigramIndex represents the inverted index of the code by the sequences of three characters.
+ * The index is partitioned by the language of the code, every partition maps a trigram
+ * to the compressed list of the documents containing it. The trigrams are case-insensitive.
+ * The search intersects the lists of the trigrams of the query and matches only the documents found in all of them,
+ * so the cost of the search depends on the count of the candidates rather than on the size of the index.
+ */
+public class TrigramIndex {
+
+    private static final int MIN_COMPACTED_COUNT = 1024;
+    private static final int MIN_MATCH_STEPS = 100_000;
+    private static final int MATCH_STEPS_PER_CHAR = 100;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<LangType, Partition> partitions = new EnumMap<>(LangType.class);
+
+    /**
+     * The documents by their identifiers, the removed documents are replaced with null
+     * until the index is compacted, so the posting lists are never rewritten on removal.
+     */
+    private List<CodeDocument> documents = new ArrayList<>();
+    private Map<String, Integer> docIdsByNodeId = new HashMap<>();
+    private Map<String, List<Integer>> docIdsByPostId = new HashMap<>();
+    private int removedCount;
+
+    /**
+     * This method is used to replace the code of the post with the given one.
+     *
+     * @param postId    the identifier of the post
+     * @param documents list of the code of the nodes of the post
+     */
+    public void replacePost(String postId, List<CodeDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            removePostDocuments(postId);
+            documents.forEach(this::addDocument);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to remove the code of the post.
+     *
+     * @param postId the identifier of the post
+     */
+    public void removePost(String postId) {
+        lock.writeLock().lock();
+        try {
+            removePostDocuments(postId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to get the count of the stored code nodes.
+     *
+     * @return count of the code nodes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size() - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method is used to find the code nodes matching the query
+     * in the order of their languages and then in the order they were indexed.
+     * The candidates are matched lazily, so the search stops once the page is filled.
+     *
+     * @param query    the query of the code search
+     * @param language the language of the found code or null to search the code of all the languages
+     * @param limit    maximum count of the code nodes on the page
+     * @param offset   count of the code nodes to skip
+     * @return list of the found code nodes with their first matching lines
+     */
+    public List<CodeSearchResult> search(TrigramQuery query, LangType language, int limit, long offset) {
+        Set<Long> trigrams = query.getLiterals().stream()
+                .flatMap(literal -> trigrams(literal).stream())
+                .collect(Collectors.toSet());
+        List<CodeSearchResult> results = new ArrayList<>();
+        long[] skipped = {0};
+
+        lock.readLock().lock();
+        try {
+            for (Partition partition : searched(language)) {
+                boolean filled = !partition.forEachCandidate(trigrams, docId -> {
+                    CodeDocument document = documents.get(docId);
+                    int position = document == null ? -1 : find(query, document.getContent());
+                    if (position >= 0 && skipped[0]++ >= offset) {
+                        results.add(toResult(document, position));
+                    }
+                    return results.size() < limit;
+                });
+                if (filled) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    private Collection<Partition> searched(LangType language) {
+        if (language == null) {
+            return partitions.values();
+        }
+        return Optional.ofNullable(partitions.get(language)).map(List::of).orElse(List.of());
+    }
+
+    private int find(TrigramQuery query, String content) {
+        if (query.getSubstring() != null) {
+            return content.indexOf(query.getSubstring());
+        }
+        int budget = Math.max(MIN_MATCH_STEPS, content.length() * MATCH_STEPS_PER_CHAR);
+        Matcher matcher = query.getPattern().matcher(new BudgetedCharSequence(content, budget));
+        try {
+            return matcher.find() ? matcher.start() : -1;
+        } catch (MatchBudgetExceededException e) {
+            throw new ReckueIllegalArgumentException("Regular expression is too complex");
+        }
+    }
+
+    private CodeSearchResult toResult(CodeDocument document, int position) {
+        String content = document.getContent();
+        int lineStart = content.lastIndexOf('\n', position - 1) + 1;
+        int lineEnd = content.indexOf('\n', position);
+        if (lineEnd < 0) {
+            lineEnd = content.length();
+        }
+        if (lineEnd > lineStart && content.charAt(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        int lineNumber = 1;
+        for (int i = 0; i < lineStart; i++) {
+            if (content.charAt(i) == '\n') {
+                lineNumber++;
+            }
+        }
+        return CodeSearchResult.builder()
+                .postId(document.getPostId())
+                .nodeId(document.getNodeId())
+                .language(document.getLanguage())
+                .lineNumber(lineNumber)
+                .line(content.substring(lineStart, Math.max(lineStart, lineEnd)))
+                .build();
+    }
+
+    private void addDocument(CodeDocument document) {
+        if (document.getContent() == null) {
+            return;
+        }
+        Integer storedDocId = docIdsByNodeId.get(document.getNodeId());
+        if (storedDocId != null) {
+            removeDocument(storedDocId);
+        }
+        int docId = documents.size();
+        documents.add(document);
+        docIdsByNodeId.put(document.getNodeId(), docId);
+        docIdsByPostId.computeIfAbsent(document.getPostId(), postId -> new ArrayList<>()).add(docId);
+        LangType language = Optional.ofNullable(document.getLanguage()).orElse(LangType.NONE);
+        partitions.computeIfAbsent(language, l -> new Partition()).add(docId, trigrams(document.getContent()));
+    }
+
+    private void removePostDocuments(String postId) {
+        Optional.ofNullable(docIdsByPostId.remove(postId)).orElse(List.of()).forEach(this::removeDocument);
+    }
+
+    private void removeDocument(int docId) {
+        CodeDocument document = documents.get(docId);
+        if (document == null) {
+            return;
+        }
+        documents.set(docId, null);
+        docIdsByNodeId.remove(document.getNodeId(), docId);
+        removedCount++;
+    }
+
+    /**
+     * This method is used to index the stored documents anew once most of them are removed,
+     * so that the posting lists don't grow with the identifiers of the removed documents.
+     */
+    private void compactIfNeeded() {
+        if (removedCount < MIN_COMPACTED_COUNT || removedCount < documents.size() - removedCount) {
+            return;
+        }
+        List<CodeDocument> storedDocuments = documents;
+        partitions = new EnumMap<>(LangType.class);
+        documents = new ArrayList<>(storedDocuments.size() - removedCount);
+        docIdsByNodeId = new HashMap<>();
+        docIdsByPostId = new HashMap<>();
+        removedCount = 0;
+        storedDocuments.stream()
+                .filter(Objects::nonNull)
+                .forEach(this::addDocument);
+    }
+
+    /**
+     * This method is used to get the distinct trigrams of the text in lower case.
+     *
+     * @param text the text
+     * @return set of the trigrams packed into longs
+     */
+    static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 2 < text.length(); i++) {
+            trigrams.add(((long) Character.toLowerCase(text.charAt(i)) << 32)
+                    | ((long) Character.toLowerCase(text.charAt(i + 1)) << 16)
+                    | Character.toLowerCase(text.charAt(i + 2)));
+        }
+        return trigrams;
+    }
+
+    private static class Partition {
+
+        private final Map<Long, PostingList> postings = new HashMap<>();
+        private final PostingList all = new PostingList();
+
+        private void add(int docId, Set<Long> trigrams) {
+            all.add(docId);
+            trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, t -> new PostingList()).add(docId));
+        }
+
+        /**
+         * This method is used to pass the documents containing all the trigrams to the action
+         * by the leapfrog intersection of their posting lists, the shortest list leads.
+         *
+         * @param trigrams the trigrams of the query or empty set to pass all the documents
+         * @param action   the action returning false to stop
+         * @return false if the action has stopped
+         */
+        private boolean forEachCandidate(Set<Long> trigrams, IntPredicate action) {
+            List<PostingList> lists = new ArrayList<>();
+            for (Long trigram : trigrams) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return true;
+                }
+                lists.add(list);
+            }
+            if (lists.isEmpty()) {
+                lists.add(all);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            PostingList.Cursor[] cursors = lists.stream()
+                    .map(PostingList::cursor)
+                    .toArray(PostingList.Cursor[]::new);
+
+            int docId = cursors[0].next();
+            while (docId != PostingList.END) {
+                int nextDocId = docId;
+                for (int i = 1; i < cursors.length && nextDocId == docId; i++) {
+                    nextDocId = cursors[i].advance(docId);
+                }
+                if (nextDocId != docId) {
+                    docId = cursors[0].advance(nextDocId);
+                    continue;
+                }
+                if (!action.test(docId)) {
+                    return false;
+                }
+                docId = cursors[0].next();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Class BudgetedCharSequence counts the characters read by the matcher
+     * and stops the match which backtracks too much.
+     */
+    private static class BudgetedCharSequence implements CharSequence {
+
+        private final String content;
+        private int budget;
+
+        private BudgetedCharSequence(String content, int budget) {
+            this.content = content;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return content.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--budget < 0) {
+                throw new MatchBudgetExceededException();
+            }
+            return content.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return content.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return content;
+        }
+    }
+
+    private static class MatchBudgetExceededException extends RuntimeException {
+
+        private MatchBudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.reckue.post.util.search.trigram;
+
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Class TrigramQuery represents the query of the code search: the pattern every found code must match
+ * and the literals every found code must contain, which are used to choose the candidates by the trigrams.
+ */
+public class TrigramQuery {
+
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z-]*x");
+
+    private final Pattern pattern;
+    private final String substring;
+    private final List<String> literals;
+
+    private TrigramQuery(Pattern pattern, String substring, List<String> literals) {
+        this.pattern = pattern;
+        this.substring = substring;
+        this.literals = literals;
+    }
+
+    /**
+     * This method is used to create the query matching the code containing the string as is.
+     *
+     * @param query the searched string
+     * @return the object of class TrigramQuery
+     */
+    public static TrigramQuery substring(String query) {
+        if (!StringUtils.hasLength(query)) {
+            throw new ReckueIllegalArgumentException("Search query can't be empty");
+        }
+        return new TrigramQuery(null, query, List.of(query));
+    }
+
+    /**
+     * This method is used to create the query matching the code by the regular expression.
+     * Only the literals the expression can't match without are used to choose the candidates,
+     * so the expression without such literals is matched against all the code.
+     *
+     * @param query the regular expression
+     * @return the object of class TrigramQuery
+     */
+    public static TrigramQuery regex(String query) {
+        if (!StringUtils.hasLength(query)) {
+            throw new ReckueIllegalArgumentException("Search query can't be empty");
+        }
+        try {
+            return new TrigramQuery(Pattern.compile(query, Pattern.MULTILINE), null, requiredLiterals(query));
+        } catch (PatternSyntaxException e) {
+            throw new ReckueIllegalArgumentException("Regular expression is incorrect");
+        }
+    }
+
+    /**
+     * This method is used to get the runs of the plain characters outside of the groups, classes and alternatives.
+     * The character followed by an optional quantifier is not a part of the run.
+     *
+     * @param regex the regular expression
+     * @return list of the literals every match contains
+     */
+    static List<String> requiredLiterals(String regex) {
+        List<String> literals = new ArrayList<>();
+        if (regex.indexOf('|') >= 0 || COMMENTS_FLAG.matcher(regex).find()) {
+            return literals;
+        }
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == regex.length()) {
+                    break;
+                }
+                char escaped = regex.charAt(++i);
+                if (escaped == 'Q' || escaped == 'E') {
+                    // the quoted part is not parsed, so only the literals before it are used
+                    break;
+                }
+                int end = endOfEscape(regex, i);
+                if (end < 0) {
+                    // the digits following the back reference may belong to it, so only the literals before it are used
+                    break;
+                }
+                if (depth == 0 && end == i && !Character.isLetterOrDigit(escaped)) {
+                    run.append(escaped);
+                } else {
+                    flush(run, literals);
+                }
+                i = end;
+                continue;
+            }
+            if (depth > 0) {
+                if (c == '[') {
+                    i = endOfClass(regex, i);
+                } else {
+                    depth += c == '(' ? 1 : c == ')' ? -1 : 0;
+                }
+                continue;
+            }
+            switch (c) {
+                case '*':
+                case '?':
+                case '{':
+                    dropLast(run);
+                    flush(run, literals);
+                    if (c == '{') {
+                        i = Math.max(i, regex.indexOf('}', i));
+                    }
+                    break;
+                case '(':
+                    flush(run, literals);
+                    depth++;
+                    break;
+                case '[':
+                    flush(run, literals);
+                    i = endOfClass(regex, i);
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                case ')':
+                    flush(run, literals);
+                    break;
+                default:
+                    run.append(c);
+            }
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    private static void dropLast(StringBuilder run) {
+        if (run.length() > 0) {
+            run.setLength(run.length() - 1);
+        }
+        if (run.length() > 0 && Character.isHighSurrogate(run.charAt(run.length() - 1))) {
+            run.setLength(run.length() - 1);
+        }
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() > 0) {
+            literals.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    /**
+     * This method is used to find the end of the escape, so that the arguments of the hexadecimal,
+     * unicode and octal escapes or of the escapes like \cA and \p{Lu} are not taken for the plain characters.
+     *
+     * @param regex the regular expression
+     * @param start the index of the escaped character
+     * @return the index of the last character of the escape or -1 if the escape is a back reference
+     */
+    private static int endOfEscape(String regex, int start) {
+        char escaped = regex.charAt(start);
+        switch (escaped) {
+            case 'x':
+                return regex.startsWith("{", start + 1) ? indexOrEnd(regex, '}', start + 1) : start + 2;
+            case 'u':
+                return start + 4;
+            case 'c':
+                return start + 1;
+            case '0':
+                // \0n, \0nn or \0mnn where m is at most 3
+                int digits = start + 1 < regex.length() && regex.charAt(start + 1) <= '3' ? 3 : 2;
+                int end = start;
+                while (end - start < digits && end + 1 < regex.length() && isOctalDigit(regex.charAt(end + 1))) {
+                    end++;
+                }
+                return end;
+            case 'p':
+            case 'P':
+            case 'N':
+                return regex.startsWith("{", start + 1) ? indexOrEnd(regex, '}', start + 1) : start + 1;
+            case 'k':
+                return indexOrEnd(regex, '>', start + 1);
+            default:
+                return escaped >= '1' && escaped <= '9' ? -1 : start;
+        }
+    }
+
+    private static int indexOrEnd(String regex, char c, int from) {
+        int index = regex.indexOf(c, from);
+        return index < 0 ? regex.length() : index;
+    }
+
+    private static boolean isOctalDigit(char c) {
+        return c >= '0' && c <= '7';
+    }
+
+    /**
+     * This method is used to find the bracket closing the character class.
+     * The class containing a nested one is not parsed, so the rest of the expression is skipped.
+     *
+     * @param regex the regular expression
+     * @param start the index of the bracket opening the class
+     * @return the index of the closing bracket
+     */
+    private static int endOfClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            // the bracket at the beginning of the class is a plain character
+            i++;
+        }
+        for (; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                return regex.length();
+            } else if (c == ']') {
+                return i;
+            }
+        }
+        return regex.length();
+    }
+
+    /**
+     * This method is used to get the pattern of the regular expression.
+     *
+     * @return the pattern or null if the query is a substring
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * This method is used to get the searched string.
+     *
+     * @return the string or null if the query is a regular expression
+     */
+    public String getSubstring() {
+        return substring;
+    }
+
+    /**
+     * This method is used to get the literals every found code contains.
+     *
+     * @return list of the literals
+     */
+    public List<String> getLiterals() {
+        return literals;
+    }
+}
@@ -0,0 +1,156 @@
+package com.reckue.post.cache;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.config.EntityCacheProperties;
+import com.reckue.post.event.EntityInvalidatedEvent;
+import com.reckue.post.model.Post;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Class ChangeStreamCacheInvalidatorReplicaSetTest allows to test the invalidation against a real change stream.
+ * The change streams require MongoDB running as a replica set, so the test runs only when
+ * POST_TEST_REPLICA_SET_URI is set, e.g. for a local single-node replica set started by
+ * {@code mongod --replSet rs0} and {@code rs.initiate()}:
+ * {@code POST_TEST_REPLICA_SET_URI=mongodb://localhost:27017/?replicaSet=rs0 ./gradlew test}.
+ * It works in its own database, which is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "POST_TEST_REPLICA_SET_URI", matches = ".+")
+class ChangeStreamCacheInvalidatorReplicaSetTest {
+
+    private static final String DATABASE = "post-cache-invalidation-test";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final BlockingQueue<EntityInvalidatedEvent> events = new LinkedBlockingQueue<>();
+    private final CacheManager cacheManager = new CaffeineCacheManager(CacheConfig.POSTS, CacheConfig.NODES,
+            CacheConfig.TAGS);
+    private final EntityCacheEvictionListener listener = new EntityCacheEvictionListener(cacheManager);
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private EntityCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(System.getenv("POST_TEST_REPLICA_SET_URI"));
+        mongoTemplate = new MongoTemplate(mongoClient, DATABASE);
+        mongoTemplate.getDb().drop();
+        properties = new EntityCacheProperties();
+        properties.getInvalidation().setReplicaId("replica-set-test");
+        properties.getInvalidation().setRetryDelay(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        mongoClient.close();
+    }
+
+    @Test
+    void updateOfPostEvictsCachedPost() throws InterruptedException {
+        String id = insertPost();
+        ChangeStreamCacheInvalidator invalidator = start();
+        try {
+            cacheManager.getCache(CacheConfig.POSTS).put(id, "cached post");
+
+            updatePost(id);
+
+            awaitInvalidation(id);
+            assertNull(cacheManager.getCache(CacheConfig.POSTS).get(id));
+        } finally {
+            invalidator.stop();
+        }
+    }
+
+    @Test
+    void changesMadeWhileStoppedAreReplayedAfterRestart() throws InterruptedException {
+        String id = insertPost();
+        ChangeStreamCacheInvalidator invalidator = start();
+        invalidator.stop();
+        assertNotNull(mongoTemplate.getCollection(ChangeStreamCacheInvalidator.TOKENS_COLLECTION)
+                .find().first(), "The position in the change stream is stored on stop");
+
+        updatePost(id);
+        cacheManager.getCache(CacheConfig.POSTS).put(id, "cached post");
+        ChangeStreamCacheInvalidator restartedInvalidator = newInvalidator();
+        restartedInvalidator.start();
+        try {
+            awaitInvalidation(id);
+            assertNull(cacheManager.getCache(CacheConfig.POSTS).get(id));
+        } finally {
+            restartedInvalidator.stop();
+        }
+    }
+
+    /**
+     * This method is used to start the invalidator and to wait until its change stream is opened.
+     * The stream is opened on the background thread, so the changes are made until the first one is seen.
+     *
+     * @return the started invalidator
+     */
+    private ChangeStreamCacheInvalidator start() throws InterruptedException {
+        ChangeStreamCacheInvalidator invalidator = newInvalidator();
+        invalidator.start();
+        String probeId = insertPost();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            updatePost(probeId);
+            EntityInvalidatedEvent event = events.poll(200, TimeUnit.MILLISECONDS);
+            if (event != null && probeId.equals(event.getId())) {
+                events.clear();
+                return invalidator;
+            }
+        }
+        invalidator.stop();
+        return fail("The change stream isn't opened in " + TIMEOUT_SECONDS + " seconds");
+    }
+
+    private ChangeStreamCacheInvalidator newInvalidator() {
+        return new ChangeStreamCacheInvalidator(mongoTemplate, event -> {
+            EntityInvalidatedEvent invalidatedEvent = (EntityInvalidatedEvent) event;
+            listener.onEntityInvalidated(invalidatedEvent);
+            events.add(invalidatedEvent);
+        }, properties, new SimpleMeterRegistry());
+    }
+
+    private void awaitInvalidation(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            EntityInvalidatedEvent event = events.poll(200, TimeUnit.MILLISECONDS);
+            if (event != null && CacheConfig.POSTS.equals(event.getCacheName()) && id.equals(event.getId())) {
+                return;
+            }
+        }
+        fail("The post " + id + " isn't invalidated in " + TIMEOUT_SECONDS + " seconds");
+    }
+
+    private String insertPost() {
+        return mongoTemplate.insert(Post.builder().id(new ObjectId().toHexString()).title("post").build()).getId();
+    }
+
+    private void updatePost(String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)),
+                Update.update("title", "updated " + System.nanoTime()), Post.class);
+    }
+}
@@ -0,0 +1,132 @@
+package com.reckue.post.cache;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.config.EntityCacheProperties;
+import com.reckue.post.event.EntityInvalidatedEvent;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Tag;
+import com.reckue.post.model.type.ParentType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class ChangeStreamCacheInvalidatorTest allows to test the eviction of the entities changed by the other replicas.
+ */
+class ChangeStreamCacheInvalidatorTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ChangeStreamCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(Post.class)).thenReturn("post");
+        when(mongoTemplate.getCollectionName(Node.class)).thenReturn("node");
+        when(mongoTemplate.getCollectionName(Tag.class)).thenReturn("tag");
+        invalidator = new ChangeStreamCacheInvalidator(mongoTemplate, eventPublisher, new EntityCacheProperties(),
+                meterRegistry);
+    }
+
+    @Test
+    void handleUpdateOfPostEvictsPost() {
+        ObjectId id = new ObjectId();
+
+        invalidator.handle(change(OperationType.UPDATE, "post", new BsonObjectId(id), null));
+
+        List<EntityInvalidatedEvent> events = publishedEvents(1);
+        assertEquals(CacheConfig.POSTS, events.get(0).getCacheName());
+        assertEquals(id.toHexString(), events.get(0).getId());
+        assertEquals(1, meterRegistry.timer("post.cache.invalidation.lag").count());
+    }
+
+    @Test
+    void handleChangeOfNodeEvictsNodeAndItsPost() {
+        Document node = new Document("parentId", "post1").append("parentType", ParentType.POST.name());
+
+        invalidator.handle(change(OperationType.REPLACE, "node", new BsonString("node1"), node));
+
+        List<EntityInvalidatedEvent> events = publishedEvents(2);
+        assertEquals(CacheConfig.NODES, events.get(0).getCacheName());
+        assertEquals("node1", events.get(0).getId());
+        assertEquals(CacheConfig.POSTS, events.get(1).getCacheName());
+        assertEquals("post1", events.get(1).getId());
+    }
+
+    @Test
+    void handleDeleteOfTagEvictsTag() {
+        invalidator.handle(change(OperationType.DELETE, "tag", new BsonString("tag1"), null));
+
+        List<EntityInvalidatedEvent> events = publishedEvents(1);
+        assertEquals(CacheConfig.TAGS, events.get(0).getCacheName());
+        assertEquals("tag1", events.get(0).getId());
+    }
+
+    @Test
+    void handleDropOfCollectionClearsAllCaches() {
+        invalidator.handle(change(OperationType.DROP, "post", null, null));
+
+        List<EntityInvalidatedEvent> events = publishedEvents(3);
+        assertTrue(events.stream().allMatch(event -> event.getId() == null));
+        assertEquals(List.of(CacheConfig.NODES, CacheConfig.POSTS, CacheConfig.TAGS), events.stream()
+                .map(EntityInvalidatedEvent::getCacheName)
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void handleChangeOfNodeOfCommentDoesNotEvictPost() {
+        Document node = new Document("parentId", "comment1").append("parentType", ParentType.COMMENT.name());
+
+        invalidator.handle(change(OperationType.INSERT, "node", new BsonString("node1"), node));
+
+        List<EntityInvalidatedEvent> events = publishedEvents(1);
+        assertEquals(CacheConfig.NODES, events.get(0).getCacheName());
+    }
+
+    private List<EntityInvalidatedEvent> publishedEvents(int count) {
+        ArgumentCaptor<EntityInvalidatedEvent> captor = ArgumentCaptor.forClass(EntityInvalidatedEvent.class);
+        verify(eventPublisher, times(count)).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static ChangeStreamDocument<Document> change(OperationType operationType, String collection,
+                                                         BsonValue id, Document fullDocument) {
+        BsonDocument namespace = new BsonDocument("db", new BsonString("post")).append("coll",
+                new BsonString(collection));
+        BsonDocument documentKey = id == null ? null : new BsonDocument("_id", id);
+        BsonTimestamp clusterTime = new BsonTimestamp((int) (System.currentTimeMillis() / 1000), 1);
+        return new ChangeStreamDocument<>(operationType, new BsonDocument(), namespace, null, fullDocument,
+                documentKey, clusterTime, null);
+    }
+}
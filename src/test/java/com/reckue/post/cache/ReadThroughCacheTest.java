@@ -0,0 +1,102 @@
+package com.reckue.post.cache;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.TagDeletedEvent;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.Post;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Class ReadThroughCacheTest allows to test the reading of the entities through the caches and their eviction.
+ */
+class ReadThroughCacheTest extends PostServiceApplicationTests {
+
+    private final CacheManager cacheManager = new CaffeineCacheManager("posts", "tags");
+
+    @Test
+    void getLoadsEntityOnMissOnly() {
+        AtomicInteger loads = new AtomicInteger();
+        Post post = Post.builder().id("1").build();
+
+        assertEquals(post, ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post)));
+        assertEquals(post, ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getReturnsCopyOfCachedEntity() {
+        AtomicInteger loads = new AtomicInteger();
+        Post post = Post.builder().id("1").title("post").build();
+
+        Post loadedPost = ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post));
+        loadedPost.setTitle("changed");
+        Post cachedPost = ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post));
+        cachedPost.setRatingsCount(5);
+
+        assertEquals("post", ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post)).getTitle());
+        assertEquals(0, ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post)).getRatingsCount());
+        assertNotSame(cachedPost, ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getRethrowsExceptionOfLoaderWithoutCaching() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThrows(PostNotFoundException.class, () -> ReadThroughCache.get(cacheManager, "posts", "1",
+                () -> load(loads, null)));
+        assertThrows(PostNotFoundException.class, () -> ReadThroughCache.get(cacheManager, "posts", "1",
+                () -> load(loads, null)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getWithDisabledCacheLoadsEveryTime() {
+        AtomicInteger loads = new AtomicInteger();
+        Post post = Post.builder().id("1").build();
+        CacheManager noOpCacheManager = new NoOpCacheManager();
+
+        // the loaded entity itself is returned, so it isn't serialized and copied for nothing
+        assertSame(post, ReadThroughCache.get(noOpCacheManager, "posts", "1", () -> load(loads, post)));
+        assertSame(post, ReadThroughCache.get(noOpCacheManager, "posts", "1", () -> load(loads, post)));
+        assertThrows(PostNotFoundException.class, () -> ReadThroughCache.get(noOpCacheManager, "posts", "1",
+                () -> load(loads, null)));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void changedEntitiesAreEvictedByEvents() {
+        AtomicInteger loads = new AtomicInteger();
+        Post post = Post.builder().id("1").build();
+        EntityCacheEvictionListener listener = new EntityCacheEvictionListener(cacheManager);
+        ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post));
+        cacheManager.getCache("tags").put("2", "tag");
+
+        listener.onPostChanged(new PostChangedEvent("1"));
+        listener.onTagDeleted(new TagDeletedEvent("2"));
+
+        ReadThroughCache.get(cacheManager, "posts", "1", () -> load(loads, post));
+        assertEquals(2, loads.get());
+        assertNull(cacheManager.getCache("tags").get("2"));
+    }
+
+    private static Post load(AtomicInteger loads, Post post) {
+        loads.incrementAndGet();
+        if (post == null) {
+            throw new PostNotFoundException("1");
+        }
+        return post;
+    }
+}
@@ -1,271 +1,163 @@
-//package com.reckue.post.controllers;
-//
-//import com.fasterxml.jackson.core.type.TypeReference;
-//import com.fasterxml.jackson.databind.ObjectMapper;
-//import com.reckue.post.PostServiceApplicationTests;
-//import com.reckue.post.models.Node;
-//import com.reckue.post.models.types.NodeType;
-//import com.reckue.post.models.types.StatusType;
-//import com.reckue.post.repositories.NodeRepository;
-//import com.reckue.post.transfers.NodeRequest;
-//import com.reckue.post.transfers.NodeResponse;
-//import com.reckue.post.transfers.nodes.poll.PollNodeRequest;
-//import com.reckue.post.utils.converters.NodeConverter;
-//import org.junit.jupiter.api.Assertions;
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Test;
-//import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-//import org.springframework.http.MediaType;
-//import org.springframework.test.web.servlet.MockMvc;
-//import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
-//
-//import java.util.Comparator;
-//import java.util.List;
-//import java.util.stream.Collectors;
-//
-//import static org.assertj.core.api.Assertions.assertThat;
-//import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-//import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-//import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-//
-///**
-// * Class NodeControllerIntTest is the integration type of test.
-// *
-// * @author Viktor Grigoriev
-// */
-//@AutoConfigureMockMvc
-//public class NodeControllerIntTest extends PostServiceApplicationTests {
-//
-//    @Autowired
-//    private MockMvc mockMvc;
-//
-//    @Autowired
-//    private PostController nodeController;
-//
-//    @Autowired
-//    private NodeRepository nodeRepository;
-//
-//    @Autowired
-//    private ObjectMapper objectMapper;
-//
-//    @BeforeEach
-//    public void setUp() {
-//        nodeRepository.deleteAll();
-//
-//        nodeRepository.save(Node.builder()
-//                .id("1")
-//                .username("Alex")
-//                .build());
-//        nodeRepository.save(Node.builder()
-//                .id("2")
-//                .username("Sam")
-//                .build());
-//        nodeRepository.save(Node.builder()
-//                .id("3")
-//                .username("Bill")
-//                .build());
-//    }
-//
-//    @Test
-//    public void load() {
-//        assertThat(nodeController).isNotNull();
-//        System.out.println(nodeRepository.findAll().size());
-//    }
-//
-//    @Test
-//    public void findAllSortedByIdDesc() throws Exception {
-//        List<NodeResponse<?>> expected = nodeRepository.findAll().stream()
-//                .map(NodeConverter::convert)
-//                .sorted(Comparator.comparing(NodeResponse::getId).reversed())
-//                .limit(2)
-//                .collect(Collectors.toList());
-//
-//        List<NodeResponse<?>> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/nodes?desc=true&limit=2&offset=0&sort=id"))
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), new TypeReference<>() {
-//        });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findAllSortedByIdAsc() throws Exception {
-//        List<NodeResponse<?>> expected = nodeRepository.findAll().stream()
-//                .map(NodeConverter::convert)
-//                .limit(3)
-//                .collect(Collectors.toList());
-//
-//        List<NodeResponse<?>> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/nodes?desc=false&limit=3&offset=0&sort=id"))
-//                .andDo(print()).andExpect(status()
-//                        .isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), new TypeReference<>() {
-//        });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findAllSortedByUsernameAsc() throws Exception {
-//        List<NodeResponse<?>> expected = nodeRepository.findAll().stream()
-//                .map(NodeConverter::convert)
-//                .sorted(Comparator.comparing(NodeResponse::getUsername))
-//                .limit(2)
-//                .collect(Collectors.toList());
-//
-//        List<NodeResponse<?>> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/nodes?desc=false&limit=2&offset=0&sort=username"))
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), new TypeReference<>() {
-//        });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findAllSortedByUsernameDesc() throws Exception {
-//        List<NodeResponse<?>> expected = nodeRepository.findAll().stream()
-//                .map(NodeConverter::convert)
-//                .sorted(Comparator.comparing(NodeResponse::getUsername).reversed())
-//                .limit(2)
-//                .collect(Collectors.toList());
-//
-//        List<NodeResponse<?>> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/nodes?desc=true&limit=2&offset=0&sort=username"))
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), new TypeReference<>() {
-//        });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findById() throws Exception {
-//        NodeResponse<?> expected = NodeConverter.convert(nodeRepository.findAll().get(0));
-//
-//        NodeResponse<?> actual = objectMapper.readValue(this.mockMvc.perform(get("/nodes/" + expected.getId()))
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), NodeResponse.class);
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void update() throws Exception {
-//        NodeResponse<?> expected = NodeConverter.convert(Node.builder()
-//                .id(nodeRepository.findAll().get(0).getId())
-//                .source("source")
-//                .type(NodeType.TEXT)
-//                .status(StatusType.ACTIVE)
-//                .build());
-//
-//        String json = objectMapper.writeValueAsString(NodeRequest.builder()
-//                .source("source")
-//                .type(NodeType.TEXT)
-//                .status(StatusType.ACTIVE)
-//                .build());
-//
-//        MockHttpServletRequestBuilder builder = put("/nodes/" + nodeRepository.findAll().get(0).getId())
-//                .contentType(MediaType.APPLICATION_JSON_VALUE)
-//                .accept(MediaType.APPLICATION_JSON)
-//                .characterEncoding("UTF-8")
-//                .content(json);
-//
-//        NodeResponse<?> actual = objectMapper.readValue(this.mockMvc.perform(builder)
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), NodeResponse.class);
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void save() throws Exception {
-//        String json = objectMapper.writeValueAsString(NodeRequest.builder()
-//                .source("source")
-//                .type(NodeType.TEXT)
-//                .status(StatusType.ACTIVE)
-//                .build());
-//
-//        MockHttpServletRequestBuilder builder = post("/nodes")
-//                .contentType(MediaType.APPLICATION_JSON_VALUE)
-//                .accept(MediaType.APPLICATION_JSON)
-//                .characterEncoding("UTF-8")
-//                .content(json);
-//
-//        NodeResponse<?> actual = objectMapper.readValue(this.mockMvc.perform(builder)
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), NodeResponse.class);
-//
-//        NodeResponse<?> expected = NodeConverter.convert(Node.builder()
-//                .id(actual.getId())
-//                .source("source")
-//                .type(NodeType.TEXT)
-//                .status(StatusType.ACTIVE)
-//                .build());
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void saveWithPollNode() throws Exception {
-//        String json = objectMapper.writeValueAsString(NodeRequest.builder()
-//                .node(PollNodeRequest.builder()
-//                        .title("title")
-//                        .items(List.of("Katya", "Olya"))
-//                .build())
-//                .source("source")
-//                .type(NodeType.TEXT)
-//                .status(StatusType.ACTIVE)
-//                .build());
-//
-//        MockHttpServletRequestBuilder builder = post("/nodes")
-//                .contentType(MediaType.APPLICATION_JSON_VALUE)
-//                .accept(MediaType.APPLICATION_JSON)
-//                .characterEncoding("UTF-8")
-//                .content(json);
-//
-//        NodeResponse<?> actual = objectMapper.readValue(this.mockMvc.perform(builder)
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), NodeResponse.class);
-//
-//        NodeResponse<?> expected = NodeConverter.convert(Node.builder()
-//                .id(actual.getId())
-//                .node(PollNodeRequest.builder()
-//                        .title("title")
-//                        .items(List.of("Katya", "Olya"))
-//                        .build())
-//                .source("source")
-//                .type(NodeType.TEXT)
-//                .status(StatusType.ACTIVE)
-//                .build());
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void deleteById() throws Exception {
-//        String id = nodeRepository.findAll().get(0).getId();
-//        this.mockMvc.perform(delete("/nodes/" + id))
-//                .andDo(print())
-//                .andExpect(status().isOk());
-//
-//        Assertions.assertEquals(nodeRepository.findAll().size(), 2);
-//    }
-//}
+package com.reckue.post.controller;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.node.TextNode;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.StatusType;
+import com.reckue.post.repository.NodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Class NodeControllerIntTest is the integration type of test of the nodes endpoints.
+ * The same tests run against NodeController and ReactiveNodeController, one subclass per execution mode.
+ */
+@AutoConfigureMockMvc
+abstract class NodeControllerIntTest extends PostServiceApplicationTests {
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @BeforeEach
+    public void setUp() {
+        nodeRepository.deleteAll();
+        for (int i = 1; i <= 3; i++) {
+            nodeRepository.save(Node.builder()
+                    .id(String.valueOf(i))
+                    .type(NodeType.TEXT)
+                    .content(TextNode.builder().value("text " + i).build())
+                    .status(StatusType.ACTIVE)
+                    .parentId("post")
+                    .parentType(ParentType.POST)
+                    .createdDate(LocalDateTime.of(2020, 10, 1, 12, i))
+                    .modificationDate(LocalDateTime.of(2020, 10, 1, 12, i))
+                    .build());
+        }
+    }
+
+    @Test
+    public void getNodeById() throws Exception {
+        perform(get("/nodes/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("2"))
+                .andExpect(jsonPath("$.type").value("TEXT"))
+                .andExpect(jsonPath("$.status").value("ACTIVE"));
+    }
+
+    @Test
+    public void getNodesByCursor() throws Exception {
+        MvcResult firstPage = perform(get("/nodes?limit=2&sort=id&desc=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains("3", "2")))
+                .andReturn();
+        String cursor = firstPage.getResponse().getHeader(NEXT_CURSOR_HEADER);
+
+        perform(get("/nodes").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains("1")))
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void getNodesSortedByCreatedDateWithoutCursor() throws Exception {
+        perform(get("/nodes?limit=2&sort=createdDate&desc=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains("3", "2")))
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void getNodesByOffset() throws Exception {
+        perform(get("/nodes?limit=2&offset=1&sort=id&desc=false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains("2", "3")));
+    }
+
+    @Test
+    public void deletedNodeIsNotListed() throws Exception {
+        Node node = nodeRepository.findById("1").orElseThrow();
+        node.setStatus(StatusType.DELETED);
+        nodeRepository.save(node);
+
+        perform(get("/nodes?limit=10&sort=id&desc=false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains("2", "3")));
+        assertEquals(3, nodeRepository.count());
+    }
+
+    @Test
+    public void getNodeByIdWithCurrentEntityTag() throws Exception {
+        String entityTag = perform(get("/nodes/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        perform(get("/nodes/2").header(HttpHeaders.IF_NONE_MATCH, entityTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag));
+    }
+
+    @Test
+    public void getNodeByIdWithStaleEntityTag() throws Exception {
+        perform(get("/nodes/2").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.id").value("2"));
+    }
+
+    @Test
+    public void getNodeByIdNotModifiedSince() throws Exception {
+        String lastModified = perform(get("/nodes/2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        perform(get("/nodes/2").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * This method is used to perform the request and to wait for its result,
+     * which the reactive controller completes asynchronously.
+     *
+     * @param request the request to perform
+     * @return the actions on the completed request
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+
+    @TestPropertySource(properties = "post.execution.mode=blocking")
+    static class BlockingNodeControllerIntTest extends NodeControllerIntTest {
+    }
+
+    @TestPropertySource(properties = "post.execution.mode=reactive")
+    static class ReactiveNodeControllerIntTest extends NodeControllerIntTest {
+    }
+}
@@ -1,223 +1,154 @@
-//package com.reckue.post.controller;
-//
-//import com.fasterxml.jackson.core.type.TypeReference;
-//import com.fasterxml.jackson.databind.ObjectMapper;
-//import com.reckue.post.PostServiceApplicationTests;
-//import com.reckue.post.generated.models.TagRequest;
-//import com.reckue.post.generated.models.TagResponse;
-//import com.reckue.post.model.Tag;
-//import com.reckue.post.repository.TagRepository;
-//import com.reckue.post.util.converter.TagConverter;
-//import org.junit.jupiter.api.Assertions;
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Test;
-//import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-//import org.springframework.http.MediaType;
-//import org.springframework.test.web.servlet.MockMvc;
-//import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
-//
-//import java.util.Arrays;
-//import java.util.Comparator;
-//import java.util.List;
-//import java.util.stream.Collectors;
-//
-//import static org.assertj.core.api.Assertions.assertThat;
-//import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-//import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-//import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-//
-///**
-// * Class TagControllerIntTest is the integration type of test.
-// *
-// * @author Daria Smirnova
-// */
-//@AutoConfigureMockMvc
-//public class TagControllerIntTest extends PostServiceApplicationTests {
-//
-//    @Autowired
-//    private MockMvc mockMvc;
-//
-//    @Autowired
-//    private TagController tagController;
-//
-//    @Autowired
-//    private TagRepository tagRepository;
-//
-//    @Autowired
-//    private ObjectMapper objectMapper;
-//
-//    @BeforeEach
-//    public void setUp() {
-//        tagRepository.deleteAll();
-//
-//        tagRepository.save(Tag.builder()
-//                .id("1")
-//                .name("Alex")
-//                .build());
-//        tagRepository.save(Tag.builder()
-//                .id("2")
-//                .name("Sam")
-//                .build());
-//        tagRepository.save(Tag.builder()
-//                .id("3")
-//                .name("Bill")
-//                .build());
-//    }
-//
-//    @Test
-//    public void load() {
-//        assertThat(tagController).isNotNull();
-//        System.out.println(tagRepository.findAll().size());
-//    }
-//
-//    @Test
-//    public void findAllSortedByIdDesc() throws Exception {
-//        List<TagResponse> expected = tagRepository.findAll().stream()
-//                .map(TagConverter::convert)
-//                .sorted(Comparator.comparing(TagResponse::getId).reversed())
-//                .limit(2)
-//                .collect(Collectors.toList());
-//
-//        List<TagResponse> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/tags?desc=true&limit=2&offset=0&sort=id"))
-//                        .andDo(print())
-//                        .andExpect(status().isOk())
-//                        .andReturn()
-//                        .getResponse().getContentAsString(), new TypeReference<>() {
-//                });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findAllSortedByIdAsc() throws Exception {
-//        List<TagResponse> expected = tagRepository.findAll().stream()
-//                .map(TagConverter::convert)
-//                .limit(3)
-//                .collect(Collectors.toList());
-//
-//        List<TagResponse> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/tags?desc=false&limit=3&offset=0&sort=id"))
-//                        .andDo(print()).andExpect(status()
-//                                .isOk())
-//                        .andReturn()
-//                        .getResponse().getContentAsString(), new TypeReference<>() {
-//                });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findAllSortedByNameAsc() throws Exception {
-//        List<TagResponse> expected = tagRepository.findAll().stream()
-//                .map(TagConverter::convert)
-//                .sorted(Comparator.comparing(TagResponse::getName))
-//                .limit(2)
-//                .collect(Collectors.toList());
-//
-//        List<TagResponse> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/tags?desc=false&limit=2&offset=0&sort=name"))
-//                        .andDo(print())
-//                        .andExpect(status().isOk())
-//                        .andReturn()
-//                        .getResponse().getContentAsString(), new TypeReference<>() {
-//                });
-//
-//        Assertions.assertTrue(Arrays.deepEquals(expected.toArray(), actual.toArray()));
-//    }
-//
-//    @Test
-//    public void findAllSortedByNameDesc() throws Exception {
-//        List<TagResponse> expected = tagRepository.findAll().stream()
-//                .map(TagConverter::convert)
-//                .sorted(Comparator.comparing(TagResponse::getName).reversed())
-//                .limit(2)
-//                .collect(Collectors.toList());
-//
-//        List<TagResponse> actual = objectMapper
-//                .readValue(this.mockMvc.perform(get("/tags?desc=true&limit=2&offset=0&sort=name"))
-//                        .andDo(print())
-//                        .andExpect(status().isOk())
-//                        .andReturn()
-//                        .getResponse().getContentAsString(), new TypeReference<>() {
-//                });
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    public void findById() throws Exception {
-//        TagResponse expected = TagConverter.convert(tagRepository.findAll().get(0));
-//
-//        TagResponse actual = objectMapper.readValue(this.mockMvc.perform(get("/tags/" + expected.getId()))
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), TagResponse.class);
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void update() throws Exception {
-//        TagResponse expected = TagConverter.convert(Tag.builder()
-//                .id(tagRepository.findAll().get(0).getId())
-//                .name("Alex")
-//                .build());
-//
-//        String json = objectMapper.writeValueAsString(TagRequest.builder()
-//                .name("Alex")
-//                .build());
-//
-//        MockHttpServletRequestBuilder builder = put("/tags/" + tagRepository.findAll().get(0).getId())
-//                .contentType(MediaType.APPLICATION_JSON_VALUE)
-//                .accept(MediaType.APPLICATION_JSON)
-//                .characterEncoding("UTF-8")
-//                .content(json);
-//
-//        TagResponse actual = objectMapper.readValue(this.mockMvc.perform(builder)
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), TagResponse.class);
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void save() throws Exception {
-//        String json = objectMapper.writeValueAsString(TagRequest.builder()
-//                .name("Alex")
-//                .build());
-//
-//        MockHttpServletRequestBuilder builder = post("/tags")
-//                .contentType(MediaType.APPLICATION_JSON_VALUE)
-//                .accept(MediaType.APPLICATION_JSON)
-//                .characterEncoding("UTF-8")
-//                .content(json);
-//
-//        TagResponse actual = objectMapper.readValue(this.mockMvc.perform(builder)
-//                .andDo(print())
-//                .andExpect(status().isOk())
-//                .andReturn()
-//                .getResponse().getContentAsString(), TagResponse.class);
-//
-//        TagResponse expected = TagConverter.convert(Tag.builder()
-//                .id(actual.getId())
-//                .name("Alex")
-//                .build());
-//
-//        Assertions.assertEquals(expected, actual);
-//    }
-//
-//    @Test
-//    void deleteById() throws Exception {
-//        String id = tagRepository.findAll().get(0).getId();
-//        this.mockMvc.perform(delete("/tags/" + id))
-//                .andDo(print())
-//                .andExpect(status().isOk());
-//
-//        Assertions.assertEquals(tagRepository.findAll().size(), 2);
-//    }
-//}
+package com.reckue.post.controller;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.Tag;
+import com.reckue.post.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Class TagControllerIntTest is the integration type of test of the tags endpoints.
+ * The same tests run against TagController and ReactiveTagController, one subclass per execution mode.
+ */
+@AutoConfigureMockMvc
+abstract class TagControllerIntTest extends PostServiceApplicationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @BeforeEach
+    public void setUp() {
+        tagRepository.deleteAll();
+        tagRepository.save(Tag.builder().id("1").name("java").modificationDate(LocalDateTime.now()).build());
+        tagRepository.save(Tag.builder().id("2").name("spring").modificationDate(LocalDateTime.now()).build());
+        tagRepository.save(Tag.builder().id("3").name("mongo").modificationDate(LocalDateTime.now()).build());
+    }
+
+    @Test
+    public void getTagById() throws Exception {
+        perform(get("/tags/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("2"))
+                .andExpect(jsonPath("$.name").value("spring"));
+    }
+
+    @Test
+    public void getTagByIdWithException() throws Exception {
+        perform(get("/tags/4"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getTagsSortedByName() throws Exception {
+        perform(get("/tags?limit=2&offset=0&sort=name&desc=false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("java", "mongo")));
+    }
+
+    @Test
+    public void createTag() throws Exception {
+        perform(post("/tags")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"gradle\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("gradle"));
+
+        assertEquals(4, tagRepository.count());
+    }
+
+    @Test
+    public void updateTag() throws Exception {
+        perform(put("/tags")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"1\",\"name\":\"kotlin\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("kotlin"));
+
+        assertEquals("kotlin", tagRepository.findById("1").orElseThrow().getName());
+    }
+
+    @Test
+    public void deleteTagById() throws Exception {
+        perform(delete("/tags/3"))
+                .andExpect(status().is2xxSuccessful());
+
+        assertFalse(tagRepository.existsById("3"));
+    }
+
+    @Test
+    public void getTagByIdWithCurrentEntityTag() throws Exception {
+        String entityTag = perform(get("/tags/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        perform(get("/tags/2").header(HttpHeaders.IF_NONE_MATCH, entityTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag));
+    }
+
+    @Test
+    public void getTagByIdWithStaleEntityTag() throws Exception {
+        perform(get("/tags/2").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.id").value("2"));
+    }
+
+    @Test
+    public void getTagByIdNotModifiedSince() throws Exception {
+        String lastModified = perform(get("/tags/2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        perform(get("/tags/2").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * This method is used to perform the request and to wait for its result,
+     * which the reactive controller completes asynchronously.
+     *
+     * @param request the request to perform
+     * @return the actions on the completed request
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+
+    @TestPropertySource(properties = "post.execution.mode=blocking")
+    static class BlockingTagControllerIntTest extends TagControllerIntTest {
+    }
+
+    @TestPropertySource(properties = "post.execution.mode=reactive")
+    static class ReactiveTagControllerIntTest extends TagControllerIntTest {
+    }
+}
@@ -0,0 +1,110 @@
+package com.reckue.post.job;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.result.DeleteResult;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.config.NodeArchivalProperties;
+import com.reckue.post.model.Node;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class DeletedNodesArchivalJobTest allows to test the moving of the deleted nodes to the archive.
+ */
+class DeletedNodesArchivalJobTest extends PostServiceApplicationTests {
+
+    private static final LocalDateTime DELETED_BEFORE = LocalDateTime.of(2020, 10, 1, 12, 30);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> archive;
+
+    private NodeArchivalProperties properties;
+    private DeletedNodesArchivalJob job;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new NodeArchivalProperties();
+        properties.setBatchSize(2);
+        properties.setMaxBatches(3);
+        properties.setPause(Duration.ZERO);
+        job = new DeletedNodesArchivalJob(mongoTemplate, properties);
+        when(mongoTemplate.getCollectionName(Node.class)).thenReturn("node");
+        when(mongoTemplate.getCollection(DeletedNodesArchivalJob.ARCHIVE_COLLECTION)).thenReturn(archive);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void archiveBatchCopiesNodesBeforeRemovingThem() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("node")))
+                .thenReturn(List.of(new Document("_id", "1"), new Document("_id", "2")));
+        when(mongoTemplate.remove(any(Query.class), eq("node"))).thenReturn(DeleteResult.acknowledged(2));
+
+        assertEquals(2, job.archiveBatch(DELETED_BEFORE));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq("node"));
+        assertEquals(new Document("status", "DELETED").append("modificationDate", new Document("$lt", DELETED_BEFORE)),
+                query.getValue().getQueryObject());
+        assertEquals(new Document("modificationDate", 1), query.getValue().getSortObject());
+        assertEquals(2, query.getValue().getLimit());
+
+        ArgumentCaptor<List<ReplaceOneModel<Document>>> replacements = ArgumentCaptor.forClass(List.class);
+        verify(archive).bulkWrite(replacements.capture(), any(BulkWriteOptions.class));
+        assertEquals(2, replacements.getValue().size());
+        assertEquals("1", replacements.getValue().get(0).getReplacement().get("_id"));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq("node"));
+        assertEquals(new Document("_id", new Document("$in", List.of("1", "2"))).append("status", "DELETED"),
+                removed.getValue().getQueryObject());
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(DeletedNodesArchivalJob.ARCHIVE_COLLECTION));
+    }
+
+    @Test
+    public void archiveBatchRemovesRestoredNodesFromArchive() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("node")))
+                .thenReturn(List.of(new Document("_id", "1"), new Document("_id", "2")))
+                .thenReturn(List.of(new Document("_id", "2")));
+        when(mongoTemplate.remove(any(Query.class), eq("node"))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(2, job.archiveBatch(DELETED_BEFORE));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(DeletedNodesArchivalJob.ARCHIVE_COLLECTION));
+        assertEquals(new Document("_id", new Document("$in", List.of("2"))), removed.getValue().getQueryObject());
+    }
+
+    @Test
+    public void archiveStopsAfterMaxBatches() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("node")))
+                .thenReturn(List.of(new Document("_id", "1"), new Document("_id", "2")));
+        when(mongoTemplate.remove(any(Query.class), eq("node"))).thenReturn(DeleteResult.acknowledged(2));
+
+        job.archive();
+
+        verify(archive, times(3)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+}
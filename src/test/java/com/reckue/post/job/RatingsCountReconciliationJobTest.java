@@ -0,0 +1,124 @@
+package com.reckue.post.job;
+
+import com.mongodb.client.result.UpdateResult;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Rating;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class RatingsCountReconciliationJobTest allows to test the repair of the drifted counts of ratings.
+ */
+class RatingsCountReconciliationJobTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache posts;
+
+    private RatingsCountReconciliationJob job;
+
+    @BeforeEach
+    public void setUp() {
+        job = new RatingsCountReconciliationJob(mongoTemplate, cacheManager);
+        when(mongoTemplate.getCollectionName(Rating.class)).thenReturn("rating");
+        when(cacheManager.getCache("posts")).thenReturn(posts);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Post.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reconcileRepairsRatedAndUnratedPosts() {
+        CloseableIterator<Document> groups = cursor(List.of(
+                new Document("_id", "1").append("count", 3),
+                new Document("_id", "2").append("count", 1)));
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("rating"), eq(Document.class)))
+                .thenReturn(groups);
+        CloseableIterator<Post> countedPosts = cursor(List.of(Post.builder().id("3").build()));
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenReturn(countedPosts);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("postId"), eq(Rating.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(
+                List.of(Post.builder().id("1").ratingsCount(2).build(), Post.builder().id("2").ratingsCount(1).build()),
+                List.of(Post.builder().id("3").ratingsCount(4).build()));
+        // every count is read again after the repair
+        when(mongoTemplate.count(any(Query.class), eq(Rating.class))).thenReturn(3L, 3L, 0L, 0L);
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(
+                Post.builder().id("1").ratingsCount(3).build(), Post.builder().id("3").ratingsCount(0).build());
+
+        job.reconcile();
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregateStream(aggregation.capture(), eq("rating"), eq(Document.class));
+        assertEquals(new Document("$sort", new Document("_id", 1)),
+                aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(1));
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(Update.update("ratingsCount", 3)), eq(Post.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(Update.update("ratingsCount", 0)), eq(Post.class));
+        verify(posts).evict("1");
+        verify(posts).evict("3");
+        verify(posts, never()).evict("2");
+        verify(groups).close();
+        verify(countedPosts).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reconcileRepeatsRepairWhenIncrementIsAppliedAfterIt() {
+        CloseableIterator<Document> groups = cursor(List.of(new Document("_id", "1").append("count", 3)));
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("rating"), eq(Document.class)))
+                .thenReturn(groups);
+        CloseableIterator<Post> countedPosts = cursor(List.of());
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenReturn(countedPosts);
+        when(mongoTemplate.find(any(Query.class), eq(Post.class)))
+                .thenReturn(List.of(Post.builder().id("1").ratingsCount(2).build()));
+        when(mongoTemplate.count(any(Query.class), eq(Rating.class))).thenReturn(3L);
+        // the increment of the third rating is applied after the count is set to 3
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(
+                Post.builder().id("1").ratingsCount(4).build(), Post.builder().id("1").ratingsCount(3).build());
+
+        job.reconcile();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).updateFirst(queries.capture(), eq(Update.update("ratingsCount", 3)),
+                eq(Post.class));
+        assertEquals(2, queries.getAllValues().get(0).getQueryObject().get("ratingsCount"));
+        assertEquals(4, queries.getAllValues().get(1).getQueryObject().get("ratingsCount"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CloseableIterator<T> cursor(List<T> elements) {
+        Iterator<T> iterator = elements.iterator();
+        CloseableIterator<T> cursor = mock(CloseableIterator.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.reckue.post.migration.index;
+
+import com.reckue.post.PostServiceApplicationTests;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class RequiredIndexTest allows to test the lookup of the required indexes among the existing ones.
+ */
+class RequiredIndexTest extends PostServiceApplicationTests {
+
+    private static final IndexInfo ID_INDEX =
+            new IndexInfo(List.of(IndexField.create("_id", Sort.Direction.ASC)), "_id_", false, false, null);
+
+    @Test
+    void getIndexesOfVersion() {
+        assertEquals(List.of(RequiredIndex.RATING_USER_ID_POST_ID, RequiredIndex.POST_TITLE),
+                RequiredIndex.ofVersion(1));
+        assertEquals(List.of(RequiredIndex.POST_USER_ID_CREATED_DATE), RequiredIndex.ofVersion(10));
+        assertTrue(RequiredIndex.ofVersion(0).isEmpty());
+    }
+
+    @Test
+    void findExistingIndex() {
+        IndexInfo title = new IndexInfo(List.of(IndexField.create("title", Sort.Direction.ASC)),
+                "title", false, false, null);
+
+        assertTrue(RequiredIndex.POST_TITLE.isPresentIn(List.of(ID_INDEX, title)));
+    }
+
+    @Test
+    void findMissingIndex() {
+        assertFalse(RequiredIndex.POST_TITLE.isPresentIn(List.of(ID_INDEX)));
+    }
+
+    @Test
+    void findNotUniqueIndex() {
+        List<IndexField> fields = List.of(IndexField.create("userId", Sort.Direction.ASC),
+                IndexField.create("postId", Sort.Direction.ASC));
+
+        assertFalse(RequiredIndex.RATING_USER_ID_POST_ID.isPresentIn(
+                List.of(ID_INDEX, new IndexInfo(fields, "userId_postId", false, false, null))));
+        assertTrue(RequiredIndex.RATING_USER_ID_POST_ID.isPresentIn(
+                List.of(ID_INDEX, new IndexInfo(fields, "userId_postId", true, false, null))));
+    }
+}
@@ -0,0 +1,51 @@
+package com.reckue.post.model;
+
+import com.reckue.post.PostServiceApplicationTests;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Class CommentThreadTest allows to test the assembly of the trees of comments.
+ */
+class CommentThreadTest extends PostServiceApplicationTests {
+
+    @Test
+    public void assembleBuildsTreesInTraversalOrder() {
+        Comment first = comment("1", null);
+        Comment reply = comment("2", "1");
+        Comment nestedReply = comment("3", "2");
+        Comment secondReply = comment("4", "1");
+        Comment second = comment("5", null);
+
+        List<CommentThread> threads = CommentThread.assemble(List.of(first, reply, nestedReply, secondReply, second));
+        assertEquals(2, threads.size());
+        assertEquals(first, threads.get(0).getComment());
+        assertEquals(second, threads.get(1).getComment());
+        assertTrue(threads.get(1).getReplies().isEmpty());
+
+        List<CommentThread> replies = threads.get(0).getReplies();
+        assertEquals(List.of(reply, secondReply), List.of(replies.get(0).getComment(), replies.get(1).getComment()));
+        assertEquals(nestedReply, replies.get(0).getReplies().get(0).getComment());
+    }
+
+    @Test
+    public void assembleMakesRepliesWithMissingParentsRoots() {
+        Comment reply = comment("3", "2");
+        Comment nestedReply = comment("4", "3");
+        Comment otherReply = comment("5", "1");
+
+        List<CommentThread> threads = CommentThread.assemble(List.of(reply, nestedReply, otherReply));
+        assertEquals(2, threads.size());
+        assertEquals(reply, threads.get(0).getComment());
+        assertEquals(nestedReply, threads.get(0).getReplies().get(0).getComment());
+        assertEquals(otherReply, threads.get(1).getComment());
+    }
+
+    private Comment comment(String id, String commentId) {
+        return Comment.builder().id(id).commentId(commentId).build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.reckue.post.model;
+
+import com.reckue.post.PostServiceApplicationTests;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Class EntityVersionTest allows to test the versions of the served entities.
+ */
+class EntityVersionTest extends PostServiceApplicationTests {
+
+    private static final LocalDateTime MODIFICATION_DATE = LocalDateTime.of(2020, 9, 16, 10, 30);
+
+    @Test
+    public void postVersionChangesWithRatingsCount() {
+        Post post = Post.builder().id("1").nodesEmbedded(true).modificationDate(MODIFICATION_DATE).build();
+        EntityVersion version = EntityVersion.forPost(post);
+
+        post.setRatingsCount(1);
+
+        assertNotEquals(version, EntityVersion.forPost(post));
+        assertEquals(MODIFICATION_DATE, EntityVersion.forPost(post).getModificationDate());
+    }
+
+    @Test
+    public void postVersionChangesWithReferencedNodes() {
+        List<Node> nodes = new ArrayList<>(List.of(node("11", MODIFICATION_DATE.plusMinutes(1)),
+                node("12", MODIFICATION_DATE.plusMinutes(2))));
+        Post post = Post.builder().id("1").nodes(nodes).modificationDate(MODIFICATION_DATE).build();
+        EntityVersion version = EntityVersion.forPost(post);
+        assertEquals(MODIFICATION_DATE.plusMinutes(2), version.getModificationDate());
+
+        nodes.get(0).setModificationDate(MODIFICATION_DATE.plusMinutes(3));
+        EntityVersion updatedVersion = EntityVersion.forPost(post);
+        assertNotEquals(version, updatedVersion);
+        assertEquals(MODIFICATION_DATE.plusMinutes(3), updatedVersion.getModificationDate());
+
+        nodes.remove(1);
+        assertNotEquals(updatedVersion, EntityVersion.forPost(post));
+    }
+
+    @Test
+    public void sameEntityHasSameVersion() {
+        Post post = Post.builder().id("1").nodes(List.of(node("11", MODIFICATION_DATE)))
+                .modificationDate(MODIFICATION_DATE).build();
+
+        assertEquals(EntityVersion.forPost(post), EntityVersion.forPost(post));
+        assertEquals(EntityVersion.forNode(post.getNodes().get(0)).getEntityTag(),
+                EntityVersion.forTag(Tag.builder().modificationDate(MODIFICATION_DATE).build()).getEntityTag());
+    }
+
+    private static Node node(String id, LocalDateTime modificationDate) {
+        return Node.builder().id(id).parentId("1").modificationDate(modificationDate).build();
+    }
+}
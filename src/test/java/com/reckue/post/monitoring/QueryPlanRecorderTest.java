@@ -0,0 +1,107 @@
+package com.reckue.post.monitoring;
+
+import com.mongodb.client.MongoDatabase;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.Post;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryPlanRecorderTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoDatabase database;
+
+    @InjectMocks
+    private QueryPlanRecorder queryPlanRecorder;
+
+    @BeforeEach
+    public void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE,
+                new MongoMappingContext());
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Post.class)).thenReturn("post");
+        when(mongoTemplate.getDb()).thenReturn(database);
+    }
+
+    @Test
+    public void explainReportsScannedIndexes() {
+        Document winningPlan = new Document("stage", "LIMIT")
+                .append("inputStage", new Document("stage", "SORT_MERGE")
+                        .append("inputStages", List.of(
+                                new Document("stage", "FETCH").append("inputStage",
+                                        new Document("stage", "IXSCAN").append("indexName", "tags_createdDate__id")),
+                                new Document("stage", "IXSCAN").append("indexName", "userId_createdDate"))));
+        when(database.runCommand(any(Document.class)))
+                .thenReturn(new Document("queryPlanner", new Document("winningPlan", winningPlan)));
+
+        Query query = Query.query(Criteria.where("tags").all(List.of("java")))
+                .with(Sort.by(Sort.Direction.DESC, "createdDate", "id"))
+                .limit(11);
+        assertEquals(List.of("tags_createdDate__id", "userId_createdDate"),
+                queryPlanRecorder.explain(query, Post.class));
+
+        ArgumentCaptor<Document> command = ArgumentCaptor.forClass(Document.class);
+        verify(database).runCommand(command.capture());
+        Document find = command.getValue().get("explain", Document.class);
+        assertEquals("post", find.get("find"));
+        assertEquals(new Document("tags", new Document("$all", List.of("java"))), find.get("filter"));
+        assertEquals(new Document("createdDate", -1).append("_id", -1), find.get("sort"));
+        assertEquals(11, find.get("limit"));
+        assertEquals("queryPlanner", command.getValue().get("verbosity"));
+    }
+
+    @Test
+    public void explainAllReportsCollectionScans() {
+        when(database.runCommand(any(Document.class))).thenReturn(new Document("queryPlanner",
+                new Document("winningPlan", new Document("stage", "COLLSCAN"))));
+
+        queryPlanRecorder.record("postsByAllTags", Query.query(Criteria.where("tags").all(List.of("java"))),
+                Post.class);
+        Map<String, List<String>> plans = queryPlanRecorder.explainAll();
+        assertEquals(Map.of("postsByAllTags", List.of(QueryPlanRecorder.COLLECTION_SCAN)), plans);
+        assertTrue(queryPlanRecorder.explainAll().get("postsByAllTags").contains("COLLSCAN"));
+    }
+
+    @Test
+    public void explainAllExplainsQueryOncePerShape() {
+        when(database.runCommand(any(Document.class))).thenReturn(new Document("queryPlanner",
+                new Document("winningPlan", new Document("stage", "COLLSCAN"))));
+
+        queryPlanRecorder.record("postsByAllTags", Query.query(Criteria.where("tags").all(List.of("java"))),
+                Post.class);
+        queryPlanRecorder.explainAll();
+        queryPlanRecorder.record("postsByAllTags", Query.query(Criteria.where("tags").all(List.of("kotlin"))),
+                Post.class);
+        queryPlanRecorder.explainAll();
+        verify(database, times(1)).runCommand(any(Document.class));
+
+        queryPlanRecorder.record("postsByAllTags", Query.query(Criteria.where("tags").all(List.of("java")))
+                .with(Sort.by(Sort.Direction.DESC, "createdDate")), Post.class);
+        queryPlanRecorder.explainAll();
+        verify(database, times(2)).runCommand(any(Document.class));
+    }
+}
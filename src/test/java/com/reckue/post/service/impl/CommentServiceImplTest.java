@@ -1,340 +1,366 @@
-//package com.reckue.post.service.impl;
-//
-//import com.reckue.post.PostServiceApplicationTests;
-//import com.reckue.post.exception.ReckueIllegalArgumentException;
-//import com.reckue.post.exception.model.comment.CommentNotFoundException;
-//import com.reckue.post.model.Comment;
-//import com.reckue.post.repository.CommentRepository;
-//import com.reckue.post.repository.NodeRepository;
-//import com.reckue.post.repository.PostRepository;
-//import org.junit.jupiter.api.Assertions;
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Disabled;
-//import org.junit.jupiter.api.Test;
-//import org.mockito.InjectMocks;
-//import org.mockito.Mock;
-//import org.mockito.Mockito;
-//
-//import java.time.Instant;
-//import java.time.LocalDateTime;
-//import java.util.*;
-//import java.util.stream.Collectors;
-//import java.util.stream.Stream;
-//
-//import static org.junit.jupiter.api.Assertions.*;
-//import static org.mockito.Mockito.*;
-//
-///**
-// * Class CommentServiceImplTest represents test for CommentService class.
-// *
-// * @author Artur Magomedov
-// */
-//@SuppressWarnings("unused")
-//public class CommentServiceImplTest extends PostServiceApplicationTests {
-//    private Comment comment;
-//    private Comment comment2;
-//    private Comment comment3;
-//
-//    @Mock
-//    private CommentRepository commentRepository;
-//
-//    @Mock
-//    private PostRepository postRepository;
-//
-//    @Mock
-//    private NodeRepository nodeRepository;
-//
-//    @InjectMocks
-//    private CommentServiceImpl commentService;
-//
-//    @BeforeEach
-//    void createComments() {
-//        comment = Comment.builder()
-//                .id("javascript")
-//                .userId("vlad")
-//                .postId("007")
-//                .nodes(new ArrayList<>())
-//                .createdDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(404L), TimeZone.getDefault().toZoneId()))
-//                .build();
-//
-//        comment2 = Comment.builder()
-//                .id("html")
-//                .userId("ivery")
-//                .postId("911")
-//                .nodes(new ArrayList<>())
-//                .createdDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(500L), TimeZone.getDefault().toZoneId()))
-//                .build();
-//
-//        comment3 = Comment.builder()
-//                .id("java")
-//                .userId("sherzod")
-//                .postId("666")
-//                .nodes(new ArrayList<>())
-//                .createdDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(200L), TimeZone.getDefault().toZoneId())).
-//                        build();
-//    }
-//
-//    @Disabled
-//    public void create() {
-//        when(commentRepository.save(comment)).thenReturn(comment);
-//        doReturn(true).when(postRepository).existsById(Mockito.anyString());
-//        doReturn(true).when(commentRepository).existsById(Mockito.isNull());
-//
-//        assertEquals(comment, commentService.create(comment, new HashMap<>()));
-//    }
-//
-//    @Disabled
-//    public void update() {
-//        Comment commentRequest = Comment.builder()
-//                .id("1")
-//                .userId("2")
-//                .postId("3")
-//                .build();
-//
-//        Comment comment = Comment.builder()
-//                .id("1")
-//                .userId("2jjjj")
-//                .postId("4ijkml")
-//                .build();
-//        when(commentRepository.findById(commentRequest.getId())).thenReturn(Optional.of(comment));
-//        when(commentRepository.save(comment)).thenReturn(comment);
-//
-//        commentService.update(commentRequest, new HashMap<>());
-//
-//        Assertions.assertAll(
-//                () -> assertEquals(commentRequest.getUserId(), comment.getUserId()),
-//                () -> assertEquals(commentRequest.getPostId(), comment.getPostId())
-//        );
-//    }
-//
-//    @Test
-//    public void updateCommentWithNullId() {
-//        Comment nullableComm = Comment.builder().build();
-//
-//        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
-//                () -> commentService.update(nullableComm, new HashMap<>()));
-//        assertEquals("The parameter is null", exception.getMessage());
-//    }
-//
-//    @Test
-//    public void updateCommentIfNotExistId() {
-//        when(commentRepository.existsById(comment.getId())).thenReturn(false);
-//
-//        Exception exception = assertThrows(CommentNotFoundException.class,
-//                () -> commentService.update(comment, new HashMap<>()));
-//        assertEquals("Comment by id '" + comment.getId() + "' is not found", exception.getMessage());
-//    }
-//
-//    @Test
-//    public void findById() {
-//        doReturn(Optional.of(comment)).when(commentRepository).findById(Mockito.anyString());
-//
-//        assertEquals(comment, commentService.findById(comment.getId()));
-//    }
-//
-//    @Test
-//    public void findByIdIfNotExist() {
-//        Exception exception = assertThrows(CommentNotFoundException.class,
-//                () -> commentService.findById(comment.getId()));
-//        assertEquals("Comment by id '" + comment.getId() + "' is not found", exception.getMessage());
-//    }
-//
-//    @Test
-//    public void findAll() {
-//        List<Comment> comments = Stream.of(comment, comment2).collect(Collectors.toList());
-//
-//        when(commentRepository.findById(comment.getId())).thenReturn(Optional.ofNullable(comment));
-//        when(commentRepository.findById(comment2.getId())).thenReturn(Optional.ofNullable(comment2));
-//
-//        when(commentRepository.findAll()).thenReturn(comments);
-//        assertEquals(comments, commentService.findAll());
-//    }
-//
-//    @Test
-//    public void findAllAndSortById() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> expected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getId))
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertNotEquals(comments, commentService.findAllAndSortById());
-//        assertEquals(expected, commentService.findAllAndSortById());
-//    }
-//
-//    @Test
-//    public void findAllAndSortByUserId() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> expected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getUserId))
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertEquals(expected, commentService.findAllAndSortByUserId());
-//    }
-//
-//    @Test
-//    public void findAllAndSortByPostId() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> expected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getPostId))
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertEquals(expected, commentService.findAllAndSortByPostId());
-//    }
-//
-//    @Test
-//    public void findAllAndSortByPublished() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> expected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getCreatedDate))
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertEquals(expected, commentService.findAllAndSortByCreatedDate());
-//    }
-//
-//    @Test
-//    public void findAllBySortType() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> sortedByIdExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getId))
-//                .collect(Collectors.toList());
-//
-//        List<Comment> sortedByUserIdExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getUserId))
-//                .collect(Collectors.toList());
-//
-//        List<Comment> sortedByPostIdExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getPostId))
-//                .collect(Collectors.toList());
-//
-//        List<Comment> sortedByPublishedExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getCreatedDate))
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertEquals(sortedByIdExpected, commentService.findAllBySortType("id"));
-//        assertEquals(sortedByUserIdExpected, commentService.findAllBySortType("userId"));
-//        assertEquals(sortedByPostIdExpected, commentService.findAllBySortType("postId"));
-//        assertEquals(sortedByPublishedExpected, commentService.findAllBySortType("createdDate"));
-//    }
-//
-//    @Test
-//    public void findAllBySortTypeAndDesc() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> sortByIdAndDescExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getId).reversed())
-//                .collect(Collectors.toList());
-//
-//        List<Comment> sortByUserIdAndDescExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getUserId).reversed())
-//                .collect(Collectors.toList());
-//
-//        List<Comment> sortByPostIdAndDescExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getPostId).reversed())
-//                .collect(Collectors.toList());
-//
-//        List<Comment> sortByPublishedAndDescExpected = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getCreatedDate).reversed())
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertEquals(sortByIdAndDescExpected, commentService.findAllByTypeAndDesc("id", true));
-//        assertEquals(sortByUserIdAndDescExpected, commentService.findAllByTypeAndDesc("userId", true));
-//        assertEquals(sortByPostIdAndDescExpected, commentService.findAllByTypeAndDesc("postId", true));
-//        assertEquals(sortByPublishedAndDescExpected, commentService.findAllByTypeAndDesc("createdDate", true));
-//    }
-//
-//    @Test
-//    public void findAllWithLimitOffsetSortAndDesc() {
-//        List<Comment> comments = Stream.of(comment, comment2, comment3).collect(Collectors.toList());
-//        when(commentRepository.findAll()).thenReturn(comments);
-//
-//        List<Comment> test1 = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getId))
-//                .limit(2)
-//                .skip(1)
-//                .collect(Collectors.toList());
-//
-//        List<Comment> test3 = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getUserId))
-//                .limit(1)
-//                .skip(2)
-//                .collect(Collectors.toList());
-//
-//        List<Comment> test4 = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getPostId))
-//                .limit(2)
-//                .skip(1)
-//                .collect(Collectors.toList());
-//
-//        List<Comment> test5 = comments.stream()
-//                .sorted(Comparator.comparing(Comment::getCreatedDate).reversed())
-//                .limit(2)
-//                .skip(1)
-//                .collect(Collectors.toList());
-//
-//        for (Comment comment : comments) {
-//            doReturn(Optional.of(comment)).when(commentRepository).findById(comment.getId());
-//        }
-//
-//        assertEquals(test1, commentService.findAll(2, 1, "id", false));
-//        assertEquals(test3, commentService.findAll(1, 2, "userId", false));
-//        assertEquals(test4, commentService.findAll(2, 1, "postId", false));
-//        assertEquals(test5, commentService.findAll(2, 1, "createdDate", true));
-//    }
-//
-//    @Test
-//    public void deleteById() {
-//        List<Comment> comments = new ArrayList<>();
-//        comments.add(comment);
-//
-//        when(commentRepository.existsById(comment.getId())).thenReturn(true);
-//        doAnswer(invocation -> {
-//            comments.remove(comment);
-//            return null;
-//        }).when(commentRepository).deleteById(comment.getId());
-//        commentRepository.deleteById(comment.getId());
-//
-//        assertEquals(0, comments.size());
-//    }
-//
-//    @Test
-//    public void deleteByIdWithException() {
-//        Exception exception = assertThrows(CommentNotFoundException.class,
-//                () -> commentService.deleteById(comment.getId(), new HashMap<>()));
-//        assertEquals("Comment by id '" + comment.getId() + "' is not found", exception.getMessage());
-//    }
-//}
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.exception.ReckueAccessDeniedException;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.comment.CommentNotFoundException;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.Comment;
+import com.reckue.post.model.CommentThread;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.repository.CommentRepository;
+import com.reckue.post.repository.PostRepository;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.pagination.OffsetPageRequest;
+import com.reckue.post.util.security.TestSecurity;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class CommentServiceImplTest represents test for CommentService class.
+ *
+ * @author Artur Magomedov
+ */
+public class CommentServiceImplTest extends PostServiceApplicationTests {
+
+    private static final String USER_ID = "comment-test-user";
+    private static final String POST_ID = "post";
+    private static final LocalDateTime CREATED_DATE = LocalDateTime.of(2020, 10, 1, 12, 30);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private NodeService nodeService;
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void createStoresCommentWithoutNodes() {
+        TestSecurity.authenticate(USER_ID, "USER");
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Comment comment = commentService.create(Comment.builder().postId(POST_ID).commentId("").build());
+
+        verify(commentRepository).save(comment);
+        assertEquals(USER_ID, comment.getUserId());
+        assertEquals(comment.getId(), comment.getPath());
+        assertEquals(0, comment.getDepth());
+        assertNull(comment.getNodes());
+        verify(nodeService, never()).createAll(anyString(), any(), any());
+    }
+
+    @Test
+    public void createStoresReplyWithNodes() {
+        TestSecurity.authenticate(USER_ID, "USER");
+        Comment parent = comment("parent-comment", 0);
+        List<Node> nodes = List.of(Node.builder().build());
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
+        when(commentRepository.existsById(parent.getId())).thenReturn(true);
+        when(commentRepository.findById(parent.getId())).thenReturn(Optional.of(parent));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Comment comment = commentService.create(Comment.builder().postId(POST_ID).commentId(parent.getId())
+                .nodes(nodes).build());
+
+        verify(commentRepository).save(comment);
+        assertEquals("parent-comment/" + comment.getId(), comment.getPath());
+        assertEquals(1, comment.getDepth());
+        assertEquals(nodes, comment.getNodes());
+        verify(nodeService).createAll(comment.getId(), ParentType.COMMENT, nodes);
+    }
+
+    @Test
+    public void updateStoresCommentWithoutNodes() {
+        TestSecurity.authenticate(USER_ID, "USER");
+        Comment storedComment = comment("comment-one", 0);
+        List<Node> nodes = List.of(Node.builder().id("11").build());
+        when(commentRepository.findById(storedComment.getId())).thenReturn(Optional.of(storedComment));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
+            Comment savedComment = invocation.getArgument(0);
+            assertNull(savedComment.getNodes());
+            return savedComment;
+        });
+        when(nodeService.findAllByParentId(storedComment.getId())).thenReturn(nodes);
+
+        Comment comment = commentService.update(Comment.builder().id(storedComment.getId()).userId("forged")
+                .nodes(nodes).build());
+        assertEquals(USER_ID, comment.getUserId());
+        assertEquals(nodes, comment.getNodes());
+        verify(nodeService).createAll(storedComment.getId(), ParentType.COMMENT, nodes);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    public void updateByAdminWithoutNodes() {
+        TestSecurity.authenticate("admin", "ADMIN");
+        Comment storedComment = comment("comment-one", 0);
+        List<Node> nodes = List.of(Node.builder().id("11").build());
+        when(commentRepository.findById(storedComment.getId())).thenReturn(Optional.of(storedComment));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(nodeService.findAllByParentId(storedComment.getId())).thenReturn(nodes);
+
+        Comment comment = commentService.update(Comment.builder().id(storedComment.getId()).build());
+        assertEquals(USER_ID, comment.getUserId());
+        assertEquals(nodes, comment.getNodes());
+        verify(nodeService, never()).createAll(anyString(), any(), any());
+    }
+
+    @Test
+    public void updateMovesCommentBelowNewParent() {
+        TestSecurity.authenticate(USER_ID, "USER");
+        Comment parent = comment("parent-comment", 0);
+        Comment storedComment = comment("comment-one", 1);
+        when(commentRepository.findById(parent.getId())).thenReturn(Optional.of(parent));
+        when(commentRepository.findById(storedComment.getId())).thenReturn(Optional.of(storedComment));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Comment comment = commentService.update(Comment.builder().id(storedComment.getId())
+                .commentId(parent.getId()).build());
+        assertEquals(parent.getId(), comment.getCommentId());
+        assertEquals("parent-comment/comment-one", comment.getPath());
+        assertEquals(1, comment.getDepth());
+    }
+
+    @Test
+    public void updateByAnotherUserIsForbidden() {
+        TestSecurity.authenticate("intruder", "USER");
+        Comment storedComment = comment("comment-one", 0);
+        when(commentRepository.findById(storedComment.getId())).thenReturn(Optional.of(storedComment));
+
+        assertThrows(ReckueAccessDeniedException.class, () -> commentService.update(Comment.builder()
+                .id(storedComment.getId()).userId("intruder").nodes(List.of(Node.builder().build())).build()));
+        verify(commentRepository, never()).save(any());
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void updateCommentWithNullId() {
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> commentService.update(Comment.builder().build()));
+        assertEquals("The parameter is null", exception.getMessage());
+    }
+
+    @Test
+    public void updateCommentIfNotExistId() {
+        when(commentRepository.findById("comment-one")).thenReturn(Optional.empty());
+
+        assertThrows(CommentNotFoundException.class,
+                () -> commentService.update(Comment.builder().id("comment-one").nodes(List.of()).build()));
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void findById() {
+        Comment comment = comment("comment-one", 0);
+        List<Node> nodes = List.of(Node.builder().id("11").build());
+        when(commentRepository.findById(comment.getId())).thenReturn(Optional.of(comment));
+        when(nodeService.findAllByParentId(comment.getId())).thenReturn(nodes);
+
+        assertEquals(comment, commentService.findById(comment.getId()));
+        assertEquals(nodes, comment.getNodes());
+    }
+
+    @Test
+    public void findByIdIfNotExist() {
+        when(commentRepository.findById("comment-one")).thenReturn(Optional.empty());
+
+        assertThrows(CommentNotFoundException.class, () -> commentService.findById("comment-one"));
+    }
+
+    @Test
+    public void findAllByPostIdReadsFirstPageOnly() {
+        Comment first = comment("1", 0);
+        Comment second = comment("2", 1);
+        Comment third = comment("3", 2);
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of(first, second, third));
+        when(nodeService.findAllByParentIds(List.of("1", "2"))).thenReturn(Map.of());
+
+        KeysetPage<Comment> page = commentService.findAllByPostId(POST_ID, 2, null, null);
+        assertEquals(List.of(first, second), page.getContent());
+        assertEquals(ContinuationToken.of(second, "2", "createdDate", false), ContinuationToken.decode(page.getNext()));
+        assertNull(page.getPrevious());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        assertEquals(new Document("postId", POST_ID), query.getValue().getQueryObject());
+        assertEquals(new Document("createdDate", 1).append("id", 1), query.getValue().getSortObject());
+        assertEquals(3, query.getValue().getLimit());
+        assertEquals(0, query.getValue().getSkip());
+    }
+
+    @Test
+    public void findAllByPostIdReadsPreviousPageBackward() {
+        Comment first = comment("1", 0);
+        Comment second = comment("2", 1);
+        String cursor = ContinuationToken.of(comment("3", 2), "3", "createdDate", true).toBackward().encode();
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of(first, second));
+        when(nodeService.findAllByParentIds(List.of("2", "1"))).thenReturn(Map.of());
+
+        KeysetPage<Comment> page = commentService.findAllByPostId(POST_ID, 5, false, cursor);
+        assertEquals(List.of(second, first), page.getContent());
+        assertEquals("1", ContinuationToken.decode(page.getNext()).getId());
+        assertNull(page.getPrevious());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        assertEquals(new Document("createdDate", 1).append("id", 1), query.getValue().getSortObject());
+        assertEquals(new Document("createdDate", CREATED_DATE.plusMinutes(2)).append("id", new Document("$gt", "3")),
+                query.getValue().getQueryObject().getList("$or", Document.class).get(1));
+        verify(postRepository, never()).existsById(any());
+    }
+
+    @Test
+    public void findAllByPostIdWithIncorrectArguments() {
+        String cursor = ContinuationToken.builder().sort("path").value("1").id("1").build().encode();
+
+        assertThrows(ReckueIllegalArgumentException.class,
+                () -> commentService.findAllByPostId(POST_ID, 10, false, cursor));
+        assertThrows(PostNotFoundException.class, () -> commentService.findAllByPostId(POST_ID, 10, false, null));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    public void findAllByUserIdIsPagedByDatabase() {
+        when(commentRepository.findAllByUserId(any(), any(OffsetPageRequest.class))).thenReturn(List.of());
+
+        assertEquals(List.of(), commentService.findAllByUserId("user", 5, 10));
+        verify(commentRepository).findAllByUserId("user",
+                new OffsetPageRequest(10, 5, Sort.by(Sort.Direction.DESC, "createdDate", "id")));
+    }
+
+    @Test
+    public void findThreadReadsWholeThreadByPath() {
+        Comment first = comment("a", 0);
+        Comment reply = comment("a/b", 1);
+        Comment second = comment("c", 2);
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of(first, reply, second));
+        when(nodeService.findAllByParentIds(List.of("a", "b"))).thenReturn(Map.of());
+
+        KeysetPage<CommentThread> page = commentService.findThread(POST_ID, null, null, 2, null);
+        assertEquals(1, page.getContent().size());
+        assertEquals(first, page.getContent().get(0).getComment());
+        assertEquals(reply, page.getContent().get(0).getReplies().get(0).getComment());
+        assertEquals(ContinuationToken.of(reply, "b", "path", false), ContinuationToken.decode(page.getNext()));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        assertEquals(new Document("postId", POST_ID), query.getValue().getQueryObject());
+        assertEquals(new Document("path", 1).append("id", 1), query.getValue().getSortObject());
+        assertEquals(3, query.getValue().getLimit());
+    }
+
+    @Test
+    public void findThreadReadsSubtreeWithDepthAfterToken() {
+        Comment root = comment("a/b", 0);
+        String cursor = ContinuationToken.of(comment("a/b/d", 1), "d", "path", false).encode();
+        when(commentRepository.findById("b")).thenReturn(Optional.of(root));
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of());
+        when(nodeService.findAllByParentIds(List.of())).thenReturn(Map.of());
+
+        KeysetPage<CommentThread> page = commentService.findThread(POST_ID, "b", 1, null, cursor);
+        assertEquals(List.of(), page.getContent());
+        assertNull(page.getNext());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        Document queryObject = query.getValue().getQueryObject();
+        assertEquals("^a/b(/|$)", ((Pattern) queryObject.get("path")).pattern());
+        assertEquals(new Document("$lte", 2), queryObject.get("depth"));
+        assertEquals(List.of(new Document("path", new Document("$gt", "a/b/d")),
+                new Document("path", "a/b/d").append("id", new Document("$gt", "d"))), queryObject.get("$or"));
+        assertEquals(101, query.getValue().getLimit());
+    }
+
+    @Test
+    public void findThreadWithIncorrectArguments() {
+        when(commentRepository.findById("b")).thenReturn(Optional.of(comment("b", 0)));
+        String cursor = ContinuationToken.builder().sort("createdDate").value("2020-10-01T12:30").id("b").build()
+                .encode();
+
+        assertThrows(CommentNotFoundException.class, () -> commentService.findThread("other", "b", null, null, null));
+        assertThrows(ReckueIllegalArgumentException.class,
+                () -> commentService.findThread(POST_ID, "b", -1, null, null));
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> commentService.findThread(POST_ID, "b", null, null, cursor));
+        assertEquals("Continuation token is incorrect", exception.getMessage());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    public void deleteById() {
+        TestSecurity.authenticate(USER_ID, "USER");
+        Comment comment = comment("comment-one", 0);
+        when(commentRepository.existsById(comment.getId())).thenReturn(true);
+        when(commentRepository.findById(comment.getId())).thenReturn(Optional.of(comment));
+
+        commentService.deleteById(comment.getId());
+        verify(commentRepository).deleteById(comment.getId());
+        verify(nodeService).deleteAllByParentId(comment.getId());
+    }
+
+    @Test
+    public void deleteByIdWithException() {
+        when(commentRepository.existsById("comment-one")).thenReturn(false);
+
+        assertThrows(CommentNotFoundException.class, () -> commentService.deleteById("comment-one"));
+    }
+
+    /**
+     * This method is used to build the comment of the test post by its path,
+     * the last identifier of the path is the identifier of the comment and the previous one is its parent.
+     *
+     * @param path    the identifiers of the ancestors of the comment and of the comment separated by slashes
+     * @param minutes the minutes the comment is created after the first comment
+     * @return the object of class Comment
+     */
+    private static Comment comment(String path, int minutes) {
+        String[] ids = path.split("/");
+        return Comment.builder()
+                .id(ids[ids.length - 1])
+                .userId(USER_ID)
+                .postId(POST_ID)
+                .commentId(ids.length > 1 ? ids[ids.length - 2] : null)
+                .path(path)
+                .depth(ids.length - 1)
+                .createdDate(CREATED_DATE.plusMinutes(minutes))
+                .build();
+    }
+}
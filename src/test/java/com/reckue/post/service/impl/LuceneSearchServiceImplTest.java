@@ -0,0 +1,182 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.config.SearchProperties;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.node.TextNode;
+import com.reckue.post.model.search.FacetValue;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.model.search.PostSearchResult;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.PostService;
+import com.reckue.post.service.SearchService;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class LuceneSearchServiceImplTest allows to test the search of posts on the Lucene index kept in memory.
+ */
+class LuceneSearchServiceImplTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private NodeService nodeService;
+
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+
+    @InjectMocks
+    private LuceneSearchServiceImpl luceneSearchService;
+
+    private final Map<String, Post> storedPosts = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(postService.findAllSummariesByIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .filter(storedPosts::containsKey)
+                        .map(storedPosts::get)
+                        .collect(Collectors.toList()));
+        luceneSearchService.open(new ByteBuffersDirectory());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        luceneSearchService.close();
+    }
+
+    @Test
+    public void searchPostsInOrderOfRelevance() throws IOException {
+        index(post("1", "Streams in Java", "java", "How the collectors group the elements"));
+        index(post("2", "Collections", "kotlin", "The streams of Java are lazy"));
+        index(post("3", "Coroutines", "kotlin", "Suspending functions"));
+        luceneSearchService.refresh();
+
+        List<PostSearchResult> results = luceneSearchService.searchPosts("streams", null, 10, 0);
+
+        assertEquals(List.of("1", "2"), ids(results));
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertTrue(results.get(1).getSnippets().stream()
+                .anyMatch(snippet -> snippet.getText().contains("streams")));
+    }
+
+    @Test
+    public void searchPostsAndCountFacetsWithFilter() throws IOException {
+        index(post("1", "Streams in Java", "java", "Collectors"));
+        index(post("2", "Streams in Kotlin", "kotlin", "Sequences"));
+        luceneSearchService.refresh();
+
+        PostSearchFilter filter = PostSearchFilter.builder().tag("kotlin").build();
+        assertEquals(List.of("2"), ids(luceneSearchService.searchPosts("streams", filter, 10, 0)));
+        assertEquals(List.of(new FacetValue("java", 1), new FacetValue("kotlin", 1)),
+                luceneSearchService.countFacets("streams", null).getTags().stream()
+                        .sorted(Comparator.comparing(FacetValue::getValue))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void rebuildRemovesDocumentsOfDeletedPosts() throws IOException {
+        index(post("1", "Deleted streams", "java", "Removed from the database"));
+        storedPosts.remove("1");
+        Post post = post("2", "Stored streams", "java", "Read from the database");
+        storedPosts.put(post.getId(), post);
+        CloseableIterator<Post> cursor = mock(CloseableIterator.class);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(post);
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenReturn(cursor);
+        when(nodeService.findAllByParentIds(anyCollection())).thenReturn(Map.of());
+
+        assertEquals(1, luceneSearchService.rebuild());
+        luceneSearchService.refresh();
+
+        assertEquals(List.of("2"), ids(luceneSearchService.searchPosts("streams", null, 10, 0)));
+        assertEquals(List.of(new FacetValue("java", 1)),
+                luceneSearchService.countFacets("streams", null).getTags());
+    }
+
+    @Test
+    public void luceneEngineReplacesMongoSearch(@TempDir Path directory) {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+                .withUserConfiguration(SearchProperties.class, SearchServiceImpl.class,
+                        LuceneSearchServiceImpl.class)
+                .withBean(MongoTemplate.class, () -> mongoTemplate)
+                .withBean(PostService.class, () -> mock(PostService.class))
+                .withBean(NodeService.class, () -> mock(NodeService.class))
+                .withPropertyValues("post.search.lucene.directory=" + directory);
+
+        contextRunner.run(context -> assertTrue(context.getBean(SearchService.class) instanceof SearchServiceImpl));
+        contextRunner.withPropertyValues("post.search.engine=mongo").run(context ->
+                assertTrue(context.getBean(SearchService.class) instanceof SearchServiceImpl));
+        // the mongo engine isn't created at all, so its listeners don't maintain the post texts
+        contextRunner.withPropertyValues("post.search.engine=lucene").run(context -> {
+            assertTrue(context.getBean(SearchService.class) instanceof LuceneSearchServiceImpl);
+            assertTrue(context.getBeansOfType(SearchServiceImpl.class).isEmpty());
+        });
+    }
+
+    private void index(Post post) {
+        storedPosts.put(post.getId(), post);
+        luceneSearchService.index(post);
+    }
+
+    private static Post post(String id, String title, String tag, String text) {
+        return Post.builder()
+                .id(id)
+                .title(title)
+                .tags(List.of(tag))
+                .status(PostStatusType.PUBLISHED)
+                .nodesEmbedded(true)
+                .nodes(List.of(Node.builder().type(NodeType.TEXT)
+                        .content(TextNode.builder().value(text).build()).build()))
+                .build();
+    }
+
+    private static List<String> ids(List<PostSearchResult> results) {
+        return results.stream()
+                .map(result -> result.getPost().getId())
+                .collect(Collectors.toList());
+    }
+}
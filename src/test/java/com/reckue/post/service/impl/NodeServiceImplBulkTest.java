@@ -0,0 +1,126 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.repository.NodeRepository;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.util.security.TestSecurity;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Class NodeServiceImplBulkTest compares the creation of the nodes of a large post one by one
+ * with the creation of all the nodes by one bulk write.
+ */
+@Slf4j
+class NodeServiceImplBulkTest extends PostServiceApplicationTests {
+
+    private static final int NODES = 200;
+    private static final int WARM_UP_NODES = 20;
+    private static final String USER_ID = "bulk-test-user";
+
+    @Autowired
+    private NodeService nodeService;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final String parentId = new ObjectId().toString();
+
+    @BeforeEach
+    void authenticate() {
+        TestSecurity.authenticate(USER_ID, "USER");
+    }
+
+    @AfterEach
+    void removeNodes() {
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(USER_ID)), Node.class);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createNodesOfLargePost() {
+        // the first writes pay for the connections and the collection, so both ways are warmed up first
+        String warmUpParentId = new ObjectId().toString();
+        createOneByOne(warmUpParentId, WARM_UP_NODES);
+        nodeService.createAll(warmUpParentId, ParentType.POST, createNodes(WARM_UP_NODES));
+
+        long startTime = System.nanoTime();
+        List<Node> nodesOneByOne = createOneByOne(parentId, NODES);
+        long oneByOneMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        List<Node> nodes = createNodes(NODES);
+        startTime = System.nanoTime();
+        nodeService.createAll(parentId, ParentType.POST, nodes);
+        long bulkMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        log.info("{} nodes are created one by one in {} ms, by one bulk write in {} ms",
+                NODES, oneByOneMillis, bulkMillis);
+
+        List<Node> storedNodes = nodeService.findAllByParentId(parentId);
+        assertEquals(Stream.concat(nodesOneByOne.stream(), nodes.stream()).map(Node::getId)
+                        .collect(Collectors.toList()),
+                storedNodes.stream().map(Node::getId).collect(Collectors.toList()));
+        storedNodes.forEach(node -> {
+            assertEquals(USER_ID, node.getUserId());
+            assertEquals(ParentType.POST, node.getParentType());
+        });
+    }
+
+    @Test
+    void saveAllRemovesClearedFields() {
+        Node node = Node.builder().type(NodeType.TEXT).content("paragraph").source("source").build();
+        nodeService.createAll(parentId, ParentType.POST, List.of(node));
+
+        node.setSource(null);
+        nodeService.saveAll(List.of(node));
+
+        Node storedNode = mongoTemplate.findById(node.getId(), Node.class);
+        assertNotNull(storedNode);
+        assertNull(storedNode.getSource());
+        assertEquals("paragraph", storedNode.getContent());
+    }
+
+    /**
+     * This method is used to create the nodes of one post by a write per node.
+     * The nodes are prepared as createAll prepares them and no event is published on either way,
+     * so the two ways differ only in the writes.
+     *
+     * @param parentId the identifier of the post
+     * @param count    count of the nodes
+     * @return the created nodes
+     */
+    private List<Node> createOneByOne(String parentId, int count) {
+        List<Node> nodes = nodeService.prepareAll(parentId, ParentType.POST, createNodes(count));
+        nodes.forEach(nodeRepository::save);
+        return nodes;
+    }
+
+    private List<Node> createNodes(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Node.builder().type(NodeType.TEXT).content("paragraph " + i).build())
+                .collect(Collectors.toList());
+    }
+}
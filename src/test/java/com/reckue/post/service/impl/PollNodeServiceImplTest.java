@@ -5,11 +5,14 @@ import com.reckue.post.exception.ReckueIllegalArgumentException;
 import com.reckue.post.exception.model.node.pollnode.PollNodeNotFoundException;
 import com.reckue.post.model.node.PollNode;
 import com.reckue.post.repository.PollNodeRepository;
+import com.reckue.post.util.pagination.OffsetPageRequest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -109,135 +112,30 @@ public class PollNodeServiceImplTest extends PostServiceApplicationTests {
     }
 
     @Test
-    public void findAllAndSortByName() {
-        PollNode nodeOne = PollNode.builder().id("b1").title("titleOne").build();
-        PollNode nodeTwo = PollNode.builder().id("10").title("titleTwo").build();
-        PollNode nodeThree = PollNode.builder().id("999").title("titleThree").build();
-
-        List<PollNode> nodes = Stream.of(nodeOne, nodeTwo, nodeThree).collect(Collectors.toList());
-        when(pollNodeRepository.findAll()).thenReturn(nodes);
-
-        List<PollNode> expected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getTitle))
-                .collect(Collectors.toList());
-
-        assertNotEquals(nodes, pollNodeService.findAllAndSortByTitle());
-        assertEquals(expected, pollNodeService.findAllAndSortByTitle());
-    }
-
-    @Test
-    public void findAllAndSortById() {
-        PollNode nodeOne = PollNode.builder().id("b2").title("titleOne").build();
-        PollNode nodeTwo = PollNode.builder().id("7up").title("titleTwo").build();
-        PollNode nodeThree = PollNode.builder().id("777").title("titleThree").build();
-
-        List<PollNode> nodes = Stream.of(nodeOne, nodeTwo, nodeThree).collect(Collectors.toList());
-        when(pollNodeRepository.findAll()).thenReturn(nodes);
-
-        List<PollNode> expected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId))
-                .collect(Collectors.toList());
-
-        assertNotEquals(nodes, pollNodeService.findAllAndSortById());
-        assertEquals(expected, pollNodeService.findAllAndSortById());
-    }
-
-    @Test
-    public void findAllBySortType() {
-        PollNode nodeOne = PollNode.builder().id("xxx").title("titleOne").build();
-        PollNode nodeTwo = PollNode.builder().id("11").title("titleTwo").build();
-        PollNode nodeThree = PollNode.builder().id("woodoo").title("titleThree").build();
-
-        List<PollNode> nodes = Stream.of(nodeOne, nodeTwo, nodeThree).collect(Collectors.toList());
-        when(pollNodeRepository.findAll()).thenReturn(nodes);
-
-        List<PollNode> sortedByNameExpected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getTitle))
-                .collect(Collectors.toList());
+    public void findAllWithLimitOffsetSortAndDesc() {
+        PollNode nodeOne = PollNode.builder().id("3").title("a").build();
+        PollNode nodeTwo = PollNode.builder().id("1").title("c").build();
 
-        List<PollNode> sortedByIdExpected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId))
-                .collect(Collectors.toList());
+        List<PollNode> page = Stream.of(nodeTwo, nodeOne).collect(Collectors.toList());
+        when(pollNodeRepository.findAllBy(any(Pageable.class))).thenReturn(page);
 
-        assertEquals(sortedByNameExpected, pollNodeService.findAllBySortType("title"));
-        assertEquals(sortedByIdExpected, pollNodeService.findAllBySortType("id"));
+        assertEquals(page, pollNodeService.findAll(2, 1, "title", true));
+        verify(pollNodeRepository).findAllBy(new OffsetPageRequest(1, 2, Sort.by(Sort.Direction.DESC, "title", "id")));
     }
 
     @Test
-    public void findAllByTypeAndDesc() {
-        PollNode nodeOne = PollNode.builder().id("eleven").title("titleOne").build();
-        PollNode nodeTwo = PollNode.builder().id("112358").title("titleTwo").build();
-        PollNode nodeThree = PollNode.builder().id("b8").title("titleThree").build();
-
-        List<PollNode> nodes = Stream.of(nodeOne, nodeTwo, nodeThree).collect(Collectors.toList());
-        when(pollNodeRepository.findAll()).thenReturn(nodes);
-
-        List<PollNode> sortedByNameExpected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getTitle))
-                .collect(Collectors.toList());
-
-        List<PollNode> sortedByIdExpected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId))
-                .collect(Collectors.toList());
+    public void findAllWithDefaultParameters() {
+        pollNodeService.findAll(null, null, null, null);
 
-        List<PollNode> sortedByNameDescExpected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getTitle).reversed())
-                .collect(Collectors.toList());
-
-        List<PollNode> sortedByIdDescExpected = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId).reversed())
-                .collect(Collectors.toList());
-
-        assertEquals(sortedByNameExpected, pollNodeService.findAllByTypeAndDesc("title", false));
-        assertEquals(sortedByIdExpected, pollNodeService.findAllByTypeAndDesc("id", false));
-        assertEquals(sortedByNameDescExpected, pollNodeService.findAllByTypeAndDesc("title", true));
-        assertEquals(sortedByIdDescExpected, pollNodeService.findAllByTypeAndDesc("id", true));
+        verify(pollNodeRepository).findAllBy(new OffsetPageRequest(0, 10, Sort.by(Sort.Direction.ASC, "id")));
     }
 
     @Test
-    public void findAllWithLimitOffsetSortAndDesc() {
-        PollNode nodeOne = PollNode.builder().id("3").title("a").build();
-        PollNode nodeTwo = PollNode.builder().id("1").title("c").build();
-        PollNode nodeThree = PollNode.builder().id("4").title("b").build();
-        PollNode nodeFour = PollNode.builder().id("2").title("d").build();
-
-        List<PollNode> nodes = Stream.of(nodeOne, nodeTwo, nodeThree, nodeFour).collect(Collectors.toList());
-        when(pollNodeRepository.findAll()).thenReturn(nodes);
-
-        List<PollNode> test1 = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getTitle))
-                .limit(2)
-                .skip(1)
-                .collect(Collectors.toList());
-
-        List<PollNode> test2 = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getTitle).reversed())
-                .limit(3)
-                .collect(Collectors.toList());
-
-        List<PollNode> test3 = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId))
-                .limit(1)
-                .skip(2)
-                .collect(Collectors.toList());
-
-        List<PollNode> test4 = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId))
-                .limit(2)
-                .skip(1)
-                .collect(Collectors.toList());
-
-        List<PollNode> test5 = nodes.stream()
-                .sorted(Comparator.comparing(PollNode::getId).reversed())
-                .limit(2)
-                .skip(1)
-                .collect(Collectors.toList());
-
-        assertEquals(test1, pollNodeService.findAll(2, 1, "title", false));
-        assertEquals(test2, pollNodeService.findAll(3, 0, "title", true));
-        assertEquals(test3, pollNodeService.findAll(1, 2, "id", false));
-        assertEquals(test4, pollNodeService.findAll(2, 1, "id", false));
-        assertEquals(test5, pollNodeService.findAll(2, 1, "id", true));
+    public void findAllWithUnknownSortField() {
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> pollNodeService.findAll(10, 0, "color", false));
+        assertEquals("Such field as color doesn't exist", exception.getMessage());
+        verify(pollNodeRepository, never()).findAllBy(any(Pageable.class));
     }
 
     @Test
@@ -0,0 +1,180 @@
+package com.reckue.post.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostTagsChangedEvent;
+import com.reckue.post.model.ImportReport;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.util.security.TestSecurity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class PostImportServiceImplTest allows to test the bulk import of the posts.
+ */
+class PostImportServiceImplTest extends PostServiceApplicationTests {
+
+    private static final String USER_ID = "import-test-user";
+
+    @Spy
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private NodeService nodeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BulkOperations postBulkOperations;
+
+    @Mock
+    private BulkOperations nodeBulkOperations;
+
+    @Captor
+    private ArgumentCaptor<List<Node>> insertedNodes;
+
+    @InjectMocks
+    private PostImportServiceImpl postImportService;
+
+    @BeforeEach
+    void authenticate() {
+        TestSecurity.authenticate(USER_ID, "ADMIN");
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(postBulkOperations);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Node.class)).thenReturn(nodeBulkOperations);
+        when(nodeService.prepareAll(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void importAllReportsRejectedRecordsWithoutStopping() {
+        when(mongoTemplate.find(any(Query.class), eq(Post.class)))
+                .thenReturn(List.of(Post.builder().title("stored").build()));
+        when(nodeService.isEmbeddable(any())).thenReturn(true);
+        String body = "{\"title\":\"first\",\"tags\":[\"java\"]}\n"
+                + "{\"title\":\"stored\"}\n"
+                + "{\"source\":\"untitled\"}\n"
+                + "{\"title\":\"status\",\"status\":\"unknown\"}\n"
+                + "{\"title\":\"first\"}\n"
+                + "{\"title\":\"second\"}\n";
+
+        ImportReport report = postImportService.importAll(stream(body));
+
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L), report.getFailures().stream()
+                .map(ImportReport.Failure::getRecord)
+                .sorted()
+                .collect(Collectors.toList()));
+
+        ArgumentCaptor<Post> post = ArgumentCaptor.forClass(Post.class);
+        verify(postBulkOperations, times(2)).insert(post.capture());
+        assertEquals(List.of("first", "second"),
+                post.getAllValues().stream().map(Post::getTitle).collect(Collectors.toList()));
+        assertEquals(USER_ID, post.getValue().getUserId());
+        verify(postBulkOperations).execute();
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Post.class));
+        verify(eventPublisher, times(2)).publishEvent(any(PostTagsChangedEvent.class));
+        verifyNoInteractions(nodeBulkOperations);
+    }
+
+    @Test
+    void importAllStoresReferencedNodesAndBulkFailures() {
+        when(nodeService.isEmbeddable(any())).thenReturn(false);
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BasicDBObject(), 0);
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(error));
+        when(postBulkOperations.execute()).thenThrow(exception);
+        String body = "[{\"title\":\"first\",\"nodes\":[{\"type\":\"TEXT\"}]},"
+                + "{\"title\":\"second\",\"nodes\":[{\"type\":\"TEXT\"}]}]";
+
+        ImportReport report = postImportService.importAll(stream(body));
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(new ImportReport.Failure(1, "duplicate key")), report.getFailures());
+        verify(nodeBulkOperations).insert(insertedNodes.capture());
+        assertEquals(1, insertedNodes.getValue().size());
+        verify(nodeBulkOperations).execute();
+    }
+
+    @Test
+    void importAllRemovesPostsWhoseNodesAreNotStored() {
+        when(nodeService.isEmbeddable(any())).thenReturn(false);
+        when(nodeService.prepareAll(any(), any(), any())).thenAnswer(invocation -> {
+            List<Node> nodes = invocation.getArgument(2);
+            nodes.forEach(node -> node.setParentId(invocation.getArgument(0)));
+            return nodes;
+        });
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BasicDBObject(), 1);
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(error));
+        when(nodeBulkOperations.execute()).thenThrow(exception);
+        String body = "{\"title\":\"first\",\"nodes\":[{\"type\":\"TEXT\"}]}\n"
+                + "{\"title\":\"second\",\"nodes\":[{\"type\":\"TEXT\"}]}\n";
+
+        ImportReport report = postImportService.importAll(stream(body));
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(new ImportReport.Failure(2, "Nodes of the post are not stored")),
+                report.getFailures());
+        ArgumentCaptor<Post> posts = ArgumentCaptor.forClass(Post.class);
+        verify(postBulkOperations, times(2)).insert(posts.capture());
+        Set<String> failedPostIds = Set.of(posts.getAllValues().get(1).getId());
+        verify(mongoTemplate).remove(Query.query(Criteria.where("id").in(failedPostIds)), Post.class);
+        verify(mongoTemplate).remove(Query.query(Criteria.where("parentId").in(failedPostIds)), Node.class);
+        verify(eventPublisher).publishEvent((Object) any(PostChangedEvent.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof PostChangedEvent
+                && "first".equals(((PostChangedEvent) event).getPost().getTitle())));
+    }
+
+    @Test
+    void importAllKeepsRecordsReadBeforeMalformedBody() {
+        when(nodeService.isEmbeddable(any())).thenReturn(true);
+
+        ImportReport report = postImportService.importAll(stream("{\"title\":\"first\"}\n{\"title\":"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getFailures().get(0).getRecord());
+        verify(postBulkOperations).insert(any(Post.class));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
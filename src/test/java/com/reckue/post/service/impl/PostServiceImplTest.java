@@ -1,384 +1,474 @@
-//package com.reckue.post.service.impl;
-//
-//import com.reckue.post.PostServiceApplicationTests;
-//import com.reckue.post.exception.ReckueIllegalArgumentException;
-//import com.reckue.post.exception.model.post.PostNotFoundException;
-//import com.reckue.post.model.Node;
-//import com.reckue.post.model.Post;
-//import com.reckue.post.model.Tag;
-//import com.reckue.post.model.type.PostStatusType;
-//import com.reckue.post.repository.NodeRepository;
-//import com.reckue.post.repository.PostRepository;
-//import org.junit.jupiter.api.Assertions;
-//import org.junit.jupiter.api.Disabled;
-//import org.junit.jupiter.api.Test;
-//import org.mockito.InjectMocks;
-//import org.mockito.Mock;
-//
-//import java.time.Instant;
-//import java.time.LocalDateTime;
-//import java.util.*;
-//import java.util.stream.Collectors;
-//
-//import static org.junit.jupiter.api.Assertions.assertEquals;
-//import static org.junit.jupiter.api.Assertions.assertThrows;
-//import static org.mockito.Mockito.*;
-//
-///**
-// * Class PostServiceImplTest represents test for PostService class.
-// *
-// * @author Viktor Grigoriev
-// */
-//@SuppressWarnings("unused")
-//class PostServiceImplTest extends PostServiceApplicationTests {
-//
-//    @Mock
-//    private PostRepository postRepository;
-//
-//    @Mock
-//    private NodeRepository nodeRepository;
-//
-//    @InjectMocks
-//    private PostServiceImpl postService;
-//
-//    @Disabled
-//    public void create() {
-//        Post post = Post.builder()
-//                .id("1")
-//                .title("post")
-//                .build();
-//        when(postRepository.save(post)).thenReturn(post);
-//
-//        assertEquals(post, postService.create(post, new HashMap<>()));
-//    }
-//
-//    @Disabled
-//    public void update() {
-//        Node node = mock(Node.class);
-//        Tag tag = mock(Tag.class);
-//        Post postRequest = Post.builder()
-//                .id("1")
-//                .title("newTitle")
-//                .nodes(Collections.singletonList(node))
-//                .source("newSource")
-//                .userId("1")
-//                .status(PostStatusType.DRAFT)
-//                .tags(Collections.singletonList(tag))
-//                .build();
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .build();
-//        when(postRepository.findById(postRequest.getId())).thenReturn(Optional.of(postOne));
-//        when(postRepository.save(postOne)).thenReturn(postOne);
-//
-//        postService.update(postRequest, new HashMap<>());
-//
-//        Assertions.assertAll(
-//                () -> assertEquals(postRequest.getTitle(), postOne.getTitle()),
-//                () -> assertEquals(postRequest.getNodes(), postOne.getNodes()),
-//                () -> assertEquals(postRequest.getSource(), postOne.getSource()),
-//                () -> assertEquals(postRequest.getUserId(), postOne.getUserId()),
-//                () -> assertEquals(postRequest.getStatus(), postOne.getStatus()),
-//                () -> assertEquals(postRequest.getTags(), postOne.getTags())
-//        );
-//    }
-//
-//    @Test
-//    public void updateWithNullId() {
-//        Post postOne = Post.builder()
-//                .title("postOne")
-//                .build();
-//
-//        assertThrows(ReckueIllegalArgumentException.class, () -> postService.update(postOne, new HashMap<>()));
-//    }
-//
-//    @Test
-//    public void updateWithExistId() {
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .nodes(new ArrayList<>())
-//                .build();
-//        when(postRepository.existsById(postOne.getId())).thenReturn(false);
-//        when(postRepository.save(postOne)).thenReturn(postOne);
-//
-//        assertThrows(PostNotFoundException.class, () -> postService.update(postOne, new HashMap<>()));
-//    }
-//
-//    @Test
-//    public void findById() {
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .build();
-//        when(postRepository.findById(postOne.getId())).thenReturn(Optional.of(postOne));
-//
-//        assertEquals(postOne, postService.findById(postOne.getId()));
-//    }
-//
-//    @Test
-//    public void findByIdWithException() {
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .build();
-//        when(postRepository.findById(postOne.getId())).thenReturn(Optional.empty());
-//
-//        assertThrows(PostNotFoundException.class, () -> postService.findById(postOne.getId()));
-//    }
-//
-//    @Test
-//    public void findAll() {
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .build();
-//        Post postTwo = Post.builder()
-//                .id("2")
-//                .title("postTwo")
-//                .build();
-//        List<Post> posts = List.of(postOne, postTwo);
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(posts, postService.findAll());
-//    }
-//
-//    @Test
-//    public void findAllSortById() {
-//        Post postOne = Post.builder().id("1").build();
-//        Post postTwo = Post.builder().id("2").build();
-//        Post postThree = Post.builder().id("3").build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getId))
-//                .collect(Collectors.toList());
-//
-//        assertEquals(expected, postService.findAllAndSortById());
-//    }
-//
-//    @Test
-//    public void findAllSortByTitle() {
-//        Post postOne = Post.builder().title("postOne").nodes(Collections.emptyList()).build();
-//        Post postTwo = Post.builder().title("postTwo").nodes(Collections.emptyList()).build();
-//        Post postThree = Post.builder().title("postThree").nodes(Collections.emptyList()).build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-////        for (Post post : posts) {
-////            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-////        }
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getTitle))
-//                .collect(Collectors.toList());
-//
-//        assertEquals(expected, postService.findAllAndSortByTitle());
-//    }
-//
-//    @Test
-//    public void findAllSortBySource() {
-//        Post postOne = Post.builder().source("sourceOne").build();
-//        Post postTwo = Post.builder().source("sourceTwo").build();
-//        Post postThree = Post.builder().source("sourceThree").build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getSource))
-//                .collect(Collectors.toList());
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(expected, postService.findAllAndSortBySource());
-//    }
-//
-//    @Test
-//    public void findAllSortByUserId() {
-//        Post postOne = Post.builder().userId("Max").build();
-//        Post postTwo = Post.builder().userId("Will").build();
-//        Post postThree = Post.builder().userId("Arny").build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getUserId))
-//                .collect(Collectors.toList());
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(expected, postService.findAllAndSortByUserId());
-//    }
-//
-//    @Test
-//    public void findAllSortByPublished() {
-//        Post postOne = Post.builder()
-//                .createdDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(1), TimeZone.getDefault().toZoneId()))
-//                .build();
-//        Post postTwo = Post.builder()
-//                .createdDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(2), TimeZone.getDefault().toZoneId()))
-//                .build();
-//        Post postThree = Post.builder()
-//                .createdDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(3), TimeZone.getDefault().toZoneId()))
-//                .build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getCreatedDate))
-//                .collect(Collectors.toList());
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(expected, postService.findAllAndSortByCreatedDate());
-//    }
-//
-//    @Test
-//    public void findAllSortByChanged() {
-//        Post postOne = Post.builder()
-//                .modificationDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(1), TimeZone.getDefault().toZoneId()))
-//                .build();
-//        Post postTwo = Post.builder()
-//                .modificationDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(2), TimeZone.getDefault().toZoneId()))
-//                .build();
-//        Post postThree = Post.builder()
-//                .modificationDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(3), TimeZone.getDefault().toZoneId()))
-//                .build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getModificationDate))
-//                .collect(Collectors.toList());
-//
-//        assertEquals(expected, postService.findAllAndSortByModificationDate());
-//    }
-//
-//    @Test
-//    public void findAllSortByStatus() {
-//        Post postOne = Post.builder().status(PostStatusType.DRAFT).build();
-//        Post postTwo = Post.builder().status(PostStatusType.BANNED).build();
-//        Post postThree = Post.builder().status(PostStatusType.DELETED).build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getStatus))
-//                .collect(Collectors.toList());
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(expected, postService.findAllAndSortByStatus());
-//    }
-//
-//    @Test
-//    public void findAllSortByTypeAndDesc() {
-//        Post postOne = Post.builder().userId("Max").build();
-//        Post postTwo = Post.builder().userId("Will").build();
-//        Post postThree = Post.builder().userId("Arny").build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getUserId).reversed())
-//                .collect(Collectors.toList());
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(expected, postService.findAllByTypeAndDesc("userId", true));
-//    }
-//
-//    @Test
-//    public void findAllWithArgs() {
-//        Post postOne = Post.builder().userId("Max").build();
-//        Post postTwo = Post.builder().userId("Will").build();
-//        Post postThree = Post.builder().userId("Arny").build();
-//        List<Post> posts = List.of(postOne, postTwo, postThree);
-//
-//        when(postRepository.findAll()).thenReturn(posts);
-//
-//        List<Post> expected = posts.stream()
-//                .sorted(Comparator.comparing(Post::getUserId).reversed())
-//                .limit(3)
-//                .skip(1)
-//                .collect(Collectors.toList());
-//
-//        for (Post post : posts) {
-//            doReturn(Optional.of(post)).when(postRepository).findById(post.getId());
-//        }
-//
-//        assertEquals(expected, postService.findAll(3, 1, "userId", true));
-//    }
-//
-//    @Test
-//    public void findAllWithIllegalArgLimit() {
-//        assertThrows(ReckueIllegalArgumentException.class,
-//                () -> postService.findAll(-1, 1, "name", true));
-//    }
-//
-//    @Test
-//    public void findAllWithIllegalArgOffset() {
-//        assertThrows(ReckueIllegalArgumentException.class,
-//                () -> postService.findAll(1, -1, "name", true));
-//    }
-//
-//    @Disabled
-//    public void deleteById() {
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .build();
-//        List<Post> posts = new ArrayList<>();
-//        posts.add(postOne);
-//        when(postRepository.existsById(postOne.getId())).thenReturn(true);
-//        doAnswer(invocation -> {
-//            posts.remove(postOne);
-//            return null;
-//        }).when(postRepository).deleteById(postOne.getId());
-//        postService.deleteById(postOne.getId(), new HashMap<>());
-//
-//        assertEquals(0, posts.size());
-//    }
-//
-//    @Test
-//    public void deleteByIdWithNotFoundException() {
-//        Post postOne = Post.builder()
-//                .id("1")
-//                .title("postOne")
-//                .build();
-//        when(postRepository.existsById(postOne.getId())).thenReturn(false);
-//
-//        assertThrows(PostNotFoundException.class, () -> postService.deleteById(postOne.getId(), new HashMap<>()));
-//    }
-//}
+package com.reckue.post.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.event.PostDeletedEvent;
+import com.reckue.post.exception.ReckueAccessDeniedException;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.model.EntityVersion;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.monitoring.QueryPlanRecorder;
+import com.reckue.post.repository.PostRepository;
+import com.reckue.post.service.NodeService;
+import com.reckue.post.service.validation.PostValidationService;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.pagination.OffsetPageRequest;
+import com.reckue.post.util.security.TestSecurity;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class PostServiceImplTest represents test for PostService class.
+ *
+ * @author Viktor Grigoriev
+ */
+class PostServiceImplTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private NodeService nodeService;
+
+    @Mock
+    private QueryPlanRecorder queryPlanRecorder;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PostValidationService postValidationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PostServiceImpl postService;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void createStoresNodesInTheirCollection() {
+        TestSecurity.authenticate("user", "USER");
+        List<Node> nodes = List.of(Node.builder().id("11").build());
+        Post post = Post.builder().title("post").userId("other").nodes(nodes).build();
+        when(nodeService.prepareAll(any(), eq(ParentType.POST), eq(nodes))).thenReturn(nodes);
+        when(nodeService.isEmbeddable(nodes)).thenReturn(false);
+        when(mongoTemplate.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(nodeService.saveAll(nodes)).thenReturn(nodes);
+
+        Post storedPost = postService.create(post);
+        assertEquals("user", storedPost.getUserId());
+        assertEquals(PostStatusType.DRAFT, storedPost.getStatus());
+        assertEquals(nodes, storedPost.getNodes());
+        assertFalse(storedPost.isNodesEmbedded());
+        verify(nodeService).saveAll(nodes);
+        verify(eventPublisher).publishEvent(any(PostChangedEvent.class));
+    }
+
+    @Test
+    public void createEmbedsNodes() {
+        TestSecurity.authenticate("user", "USER");
+        List<Node> nodes = List.of(Node.builder().id("11").build());
+        when(nodeService.prepareAll(any(), eq(ParentType.POST), eq(nodes))).thenReturn(nodes);
+        when(nodeService.isEmbeddable(nodes)).thenReturn(true);
+        when(mongoTemplate.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Post storedPost = postService.create(Post.builder().title("post").nodes(nodes).build());
+        assertEquals(nodes, storedPost.getNodes());
+        assertTrue(storedPost.isNodesEmbedded());
+        verify(nodeService, never()).saveAll(any());
+    }
+
+    @Test
+    public void updateKeepsOwner() {
+        TestSecurity.authenticate("user", "USER");
+        Post storedPost = Post.builder().id("1").title("post").userId("user").build();
+        Post updatedPost = Post.builder().id("1").title("new title").userId("user").build();
+        when(postRepository.findById("1")).thenReturn(Optional.of(storedPost));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Post.class))).thenReturn(updatedPost);
+
+        assertEquals(updatedPost, postService.update(Post.builder().id("1").title("new title").build()));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(Post.class));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("new title", set.get("title"));
+        assertFalse(set.containsKey("userId"));
+        verify(eventPublisher).publishEvent(any(PostChangedEvent.class));
+    }
+
+    @Test
+    public void updateByAdmin() {
+        TestSecurity.authenticate("admin", "ADMIN");
+        Post storedPost = Post.builder().id("1").userId("user").build();
+        when(postRepository.findById("1")).thenReturn(Optional.of(storedPost));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Post.class))).thenReturn(storedPost);
+
+        assertEquals(storedPost, postService.update(Post.builder().id("1").build()));
+    }
+
+    @Test
+    public void updateByAnotherUserIsForbidden() {
+        TestSecurity.authenticate("intruder", "USER");
+        when(postRepository.findById("1")).thenReturn(Optional.of(Post.builder().id("1").userId("user").build()));
+
+        assertThrows(ReckueAccessDeniedException.class,
+                () -> postService.update(Post.builder().id("1").title("new title").build()));
+        verifyNoInteractions(mongoTemplate, nodeService, eventPublisher);
+    }
+
+    @Test
+    public void updateWithNotFoundException() {
+        when(postRepository.findById("1")).thenReturn(Optional.empty());
+
+        assertThrows(PostNotFoundException.class, () -> postService.update(Post.builder().id("1").build()));
+        verifyNoInteractions(mongoTemplate, nodeService);
+    }
+
+    @Test
+    public void findById() {
+        Post post = Post.builder().id("1").title("post").build();
+        List<Node> nodes = List.of(Node.builder().id("11").parentId("1").build());
+        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        when(nodeService.findAllByParentId(post.getId())).thenReturn(nodes);
+
+        assertEquals(post, postService.findById(post.getId()));
+        assertEquals(nodes, post.getNodes());
+    }
+
+    @Test
+    public void findByIdReadsCachedPost() {
+        Post post = Post.builder().id("1").title("post").build();
+        when(cacheManager.getCache("posts")).thenReturn(new CaffeineCache("posts", Caffeine.newBuilder().build()));
+        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        when(nodeService.findAllByParentId(post.getId())).thenReturn(List.of());
+
+        assertEquals(post, postService.findById(post.getId()));
+        assertEquals(post, postService.findById(post.getId()));
+        verify(postRepository, times(1)).findById(post.getId());
+        verify(nodeService, times(1)).findAllByParentId(post.getId());
+    }
+
+    @Test
+    public void findByIdWithEmbeddedNodes() {
+        List<Node> nodes = List.of(Node.builder().id("11").parentId("1").build());
+        Post post = Post.builder().id("1").nodes(nodes).nodesEmbedded(true).build();
+        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+
+        assertEquals(post, postService.findById(post.getId()));
+        assertEquals(nodes, post.getNodes());
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void findByIdWithException() {
+        when(postRepository.findById("1")).thenReturn(Optional.empty());
+
+        assertThrows(PostNotFoundException.class, () -> postService.findById("1"));
+        verify(nodeService, never()).findAllByParentId(anyString());
+    }
+
+    @Test
+    public void findVersionByIdWithoutReadingNodes() {
+        LocalDateTime modificationDate = LocalDateTime.of(2020, 9, 16, 10, 30);
+        Post post = Post.builder().id("1").ratingsCount(3).modificationDate(modificationDate).build();
+        EntityVersion nodesVersion = EntityVersion.of(modificationDate.plusMinutes(1), 2);
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(post);
+        when(nodeService.findVersionByParentId(post.getId())).thenReturn(nodesVersion);
+
+        EntityVersion version = postService.findVersionById(post.getId());
+
+        assertEquals(EntityVersion.of(modificationDate, 3).and(nodesVersion), version);
+        assertEquals(nodesVersion.getModificationDate(), version.getModificationDate());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Post.class));
+        assertEquals(new Document("modificationDate", 1).append("ratingsCount", 1).append("nodesEmbedded", 1),
+                query.getValue().getFieldsObject());
+        verify(postRepository, never()).findById(anyString());
+        verify(nodeService, never()).findAllByParentId(anyString());
+    }
+
+    @Test
+    public void findVersionByIdMatchesVersionOfLoadedPost() {
+        LocalDateTime modificationDate = LocalDateTime.of(2020, 9, 16, 10, 30);
+        Node node = Node.builder().id("11").parentId("1").modificationDate(modificationDate.plusMinutes(1)).build();
+        Post post = Post.builder().id("1").ratingsCount(3).modificationDate(modificationDate).build();
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(post);
+        when(nodeService.findVersionByParentId(post.getId()))
+                .thenReturn(EntityVersion.of(node.getModificationDate(), 1));
+
+        EntityVersion version = postService.findVersionById(post.getId());
+
+        post.setNodes(List.of(node));
+        assertEquals(EntityVersion.forPost(post), version);
+    }
+
+    @Test
+    public void findVersionByIdWithEmbeddedNodes() {
+        LocalDateTime modificationDate = LocalDateTime.of(2020, 9, 16, 10, 30);
+        Post post = Post.builder().id("1").nodesEmbedded(true).modificationDate(modificationDate).build();
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(post);
+
+        assertEquals(EntityVersion.of(modificationDate, 0), postService.findVersionById(post.getId()));
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void findVersionByIdWithException() {
+        assertThrows(PostNotFoundException.class, () -> postService.findVersionById("1"));
+    }
+
+    @Test
+    public void findAllLoadsNodesOfPageWithOneQuery() {
+        Post postOne = Post.builder().id("1").build();
+        Post postTwo = Post.builder().id("2").build();
+        Post postThree = Post.builder().id("3").build();
+        Node nodeOne = Node.builder().id("11").parentId("1").build();
+        Node nodeTwo = Node.builder().id("12").parentId("1").build();
+        Node nodeThree = Node.builder().id("31").parentId("3").build();
+        when(postRepository.findAllBy(any())).thenReturn(List.of(postOne, postTwo, postThree));
+        when(nodeService.findAllByParentIds(List.of("1", "2", "3")))
+                .thenReturn(Map.of("1", List.of(nodeOne, nodeTwo), "3", List.of(nodeThree)));
+
+        assertEquals(List.of(postOne, postTwo, postThree), postService.findAll(3, 0, "id", false));
+        assertEquals(List.of(nodeOne, nodeTwo), postOne.getNodes());
+        assertEquals(List.of(), postTwo.getNodes());
+        assertEquals(List.of(nodeThree), postThree.getNodes());
+        verify(nodeService, times(1)).findAllByParentIds(any());
+        verify(nodeService, never()).findAllByParentId(anyString());
+    }
+
+    @Test
+    public void findAllLoadsNodesOfReferencedPostsOnly() {
+        Node embeddedNode = Node.builder().id("11").parentId("1").build();
+        Node referencedNode = Node.builder().id("21").parentId("2").build();
+        Post embeddedPost = Post.builder().id("1").nodes(List.of(embeddedNode)).nodesEmbedded(true).build();
+        Post referencedPost = Post.builder().id("2").build();
+        when(postRepository.findAllBy(any())).thenReturn(List.of(embeddedPost, referencedPost));
+        when(nodeService.findAllByParentIds(List.of("2"))).thenReturn(Map.of("2", List.of(referencedNode)));
+
+        assertEquals(List.of(embeddedPost, referencedPost), postService.findAll(2, 0, "id", false));
+        assertEquals(List.of(embeddedNode), embeddedPost.getNodes());
+        assertEquals(List.of(referencedNode), referencedPost.getNodes());
+    }
+
+    @Test
+    public void findAllWithLimitOffsetSortAndDesc() {
+        when(postRepository.findAllBy(any())).thenReturn(List.of());
+
+        assertEquals(List.of(), postService.findAll(2, 1, "title", true));
+        verify(postRepository).findAllBy(new OffsetPageRequest(1, 2, Sort.by(Sort.Direction.DESC, "title", "id")));
+    }
+
+    @Test
+    public void findAllWithDefaultParameters() {
+        when(postRepository.findAllBy(any())).thenReturn(List.of());
+
+        postService.findAll(null, null, null, null);
+        verify(postRepository).findAllBy(new OffsetPageRequest(0, 10, Sort.by(Sort.Direction.ASC, "id")));
+    }
+
+    @Test
+    public void findAllWithUnknownSortField() {
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> postService.findAll(1, 0, "name", true));
+        assertEquals("Such field as name doesn't exist", exception.getMessage());
+    }
+
+    @Test
+    public void findAllWithIncorrectLimitOrOffset() {
+        assertThrows(ReckueIllegalArgumentException.class, () -> postService.findAll(0, 0, "id", true));
+        assertThrows(ReckueIllegalArgumentException.class, () -> postService.findAll(1, -1, "id", true));
+    }
+
+    @Test
+    public void findAllSummariesExcludesNodes() {
+        Post post = Post.builder().id("1").title("post").build();
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(post));
+
+        assertEquals(List.of(post), postService.findAllSummaries(5, 10, "title", false));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Post.class));
+        assertEquals(new Document("nodes", 0), query.getValue().getFieldsObject());
+        assertEquals(10, query.getValue().getSkip());
+        assertEquals(5, query.getValue().getLimit());
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void findAllSummariesByUserIdSortsNewestFirst() {
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of());
+
+        assertEquals(List.of(), postService.findAllSummariesByUserId("user", null, null));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Post.class));
+        assertEquals(new Document("userId", "user"), query.getValue().getQueryObject());
+        assertEquals(new Document("createdDate", -1).append("id", -1), query.getValue().getSortObject());
+        assertEquals(new Document("nodes", 0), query.getValue().getFieldsObject());
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void findAllSummariesByTagsMatchesAllTagsNewestFirst() {
+        LocalDateTime createdDate = LocalDateTime.of(2020, 5, 1, 12, 0);
+        Post postOne = Post.builder().id("1").createdDate(createdDate).build();
+        Post postTwo = Post.builder().id("2").createdDate(createdDate.minusDays(1)).build();
+        Post postThree = Post.builder().id("3").createdDate(createdDate.minusDays(2)).build();
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(postOne, postTwo, postThree));
+
+        KeysetPage<Post> page = postService.findAllSummariesByTags(List.of("java", "spring"), false, 2, null);
+        assertEquals(List.of(postOne, postTwo), page.getContent());
+        assertEquals(ContinuationToken.of(postTwo, "2", "createdDate", true), ContinuationToken.decode(page.getNext()));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Post.class));
+        assertEquals(new Document("tags", new Document("$all", List.of("java", "spring"))),
+                query.getValue().getQueryObject());
+        assertEquals(new Document("createdDate", -1).append("id", -1), query.getValue().getSortObject());
+        assertEquals(new Document("nodes", 0), query.getValue().getFieldsObject());
+        assertEquals(3, query.getValue().getLimit());
+        verify(queryPlanRecorder).record("postsByAllTags", query.getValue(), Post.class);
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void findAllByTagsMatchesAnyTagAfterToken() {
+        LocalDateTime createdDate = LocalDateTime.of(2020, 5, 1, 12, 0);
+        Post post = Post.builder().id("1").createdDate(createdDate).nodesEmbedded(true).build();
+        String cursor = ContinuationToken.of(post, "5", "createdDate", true).encode();
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(post));
+
+        KeysetPage<Post> page = postService.findAllByTags(List.of("java", "spring"), true, null, cursor);
+        assertEquals(List.of(post), page.getContent());
+        assertNull(page.getNext());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Post.class));
+        Document queryObject = query.getValue().getQueryObject();
+        assertEquals(new Document("$in", List.of("java", "spring")), queryObject.get("tags"));
+        assertEquals(List.of(new Document("createdDate", new Document("$lt", createdDate)),
+                new Document("createdDate", null),
+                new Document("createdDate", createdDate).append("id", new Document("$lt", "5"))),
+                queryObject.get("$or"));
+        assertEquals(11, query.getValue().getLimit());
+        verify(queryPlanRecorder).record("postsByAnyTag", query.getValue(), Post.class);
+    }
+
+    @Test
+    public void findAllSummariesByTagsWithIncorrectArguments() {
+        String cursor = ContinuationToken.builder().sort("title").desc(true).value("post").id("1").build().encode();
+
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> postService.findAllSummariesByTags(List.of("java"), false, 10, cursor));
+        assertEquals("Continuation token is incorrect", exception.getMessage());
+        assertThrows(ReckueIllegalArgumentException.class,
+                () -> postService.findAllSummariesByTags(List.of(), false, 10, null));
+        assertThrows(ReckueIllegalArgumentException.class,
+                () -> postService.findAllSummariesByTags(List.of("java"), false, 0, null));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    public void exportAllReadsBatchesAfterId() {
+        List<Post> posts = IntStream.range(0, 150)
+                .mapToObj(i -> Post.builder().id(String.valueOf(i)).build())
+                .collect(Collectors.toList());
+        Iterator<Post> iterator = posts.iterator();
+        CloseableIterator<Post> cursor = mock(CloseableIterator.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenReturn(cursor);
+        when(nodeService.findAllByParentIds(any())).thenReturn(Map.of());
+
+        List<Integer> batchSizes = new ArrayList<>();
+        postService.exportAll("5f0000000000000000000000", batch -> batchSizes.add(batch.size()));
+        assertEquals(List.of(100, 50), batchSizes);
+        assertEquals(List.of(), posts.get(149).getNodes());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Post.class));
+        assertEquals(new Document("id", new Document("$gt", "5f0000000000000000000000")),
+                query.getValue().getQueryObject());
+        assertEquals(new Document("id", 1), query.getValue().getSortObject());
+        verify(nodeService, times(2)).findAllByParentIds(any());
+        verify(cursor).close();
+    }
+
+    @Test
+    public void deleteById() {
+        TestSecurity.authenticate("user", "USER");
+        when(postRepository.existsById("1")).thenReturn(true);
+        when(postRepository.findById("1")).thenReturn(Optional.of(Post.builder().id("1").userId("user").build()));
+
+        postService.deleteById("1");
+        verify(postRepository).deleteById("1");
+        verify(nodeService).deleteAllByParentId("1");
+        verify(eventPublisher).publishEvent(any(PostDeletedEvent.class));
+    }
+
+    @Test
+    public void deleteByIdByAnotherUserIsForbidden() {
+        TestSecurity.authenticate("intruder", "USER");
+        when(postRepository.existsById("1")).thenReturn(true);
+        when(postRepository.findById("1")).thenReturn(Optional.of(Post.builder().id("1").userId("user").build()));
+
+        assertThrows(ReckueAccessDeniedException.class, () -> postService.deleteById("1"));
+        verify(postRepository, never()).deleteById(anyString());
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void deleteByIdWithNotFoundException() {
+        when(postRepository.existsById("1")).thenReturn(false);
+
+        assertThrows(PostNotFoundException.class, () -> postService.deleteById("1"));
+    }
+}
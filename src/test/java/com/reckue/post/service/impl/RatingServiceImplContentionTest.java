@@ -0,0 +1,140 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.exception.model.rating.RatingNotFoundException;
+import com.reckue.post.migration.index.RequiredIndex;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Rating;
+import com.reckue.post.service.RatingService;
+import com.reckue.post.util.security.TestSecurity;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Class RatingServiceImplContentionTest toggles and deletes the ratings of one post from many threads at once
+ * and checks that no duplicate ratings are created and the count of ratings of the post stays exact.
+ */
+@Slf4j
+class RatingServiceImplContentionTest extends PostServiceApplicationTests {
+
+    private static final int THREADS = 16;
+    private static final int USERS = 4;
+    private static final int TOGGLES_PER_THREAD = 250;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Post post;
+
+    @BeforeEach
+    void createPost() {
+        RequiredIndex.RATING_USER_ID_POST_ID.ensure(mongoTemplate);
+        post = mongoTemplate.insert(Post.builder().title("contention").build());
+    }
+
+    @AfterEach
+    void removePost() {
+        mongoTemplate.remove(ratingsOf(post.getId()), Rating.class);
+        mongoTemplate.remove(post);
+    }
+
+    @Test
+    void concurrentTogglesDoNotCreateDuplicates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            String userId = "user-" + thread % USERS;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                    ratingService.toggle(userId, post.getId());
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        executor.shutdown();
+
+        int toggles = THREADS * TOGGLES_PER_THREAD;
+        log.info("{} toggles by {} threads took {} ms, {} toggles per second",
+                toggles, THREADS, elapsedMillis, toggles * 1000L / Math.max(elapsedMillis, 1));
+
+        for (int user = 0; user < USERS; user++) {
+            Query query = ratingsOf(post.getId()).addCriteria(Criteria.where("userId").is("user-" + user));
+            assertTrue(mongoTemplate.count(query, Rating.class) <= 1);
+        }
+        long ratings = mongoTemplate.count(ratingsOf(post.getId()), Rating.class);
+        assertEquals(ratings, ratingService.getRatingsCountByPostId(post.getId()));
+    }
+
+    @Test
+    void concurrentDeletesAndTogglesKeepCountExact() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            String userId = "user-" + thread % USERS;
+            boolean deleting = thread % 2 == 0;
+            results.add(executor.submit(() -> {
+                TestSecurity.authenticate(userId, "USER");
+                start.await();
+                for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                    Query query = ratingsOf(post.getId()).addCriteria(Criteria.where("userId").is(userId));
+                    Rating rating = mongoTemplate.findOne(query, Rating.class);
+                    if (deleting && rating != null) {
+                        try {
+                            ratingService.deleteById(rating.getId());
+                        } catch (RatingNotFoundException e) {
+                            // the rating is removed by the concurrent delete or toggle
+                        }
+                    } else {
+                        ratingService.toggle(userId, post.getId());
+                    }
+                }
+                SecurityContextHolder.clearContext();
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        long ratings = mongoTemplate.count(ratingsOf(post.getId()), Rating.class);
+        assertEquals(ratings, ratingService.getRatingsCountByPostId(post.getId()));
+    }
+
+    private Query ratingsOf(String postId) {
+        return Query.query(Criteria.where("postId").is(postId));
+    }
+}
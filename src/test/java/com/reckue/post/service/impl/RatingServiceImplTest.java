@@ -1,164 +1,213 @@
-//package com.reckue.post.service.impl;
-//
-//import com.reckue.post.PostServiceApplicationTests;
-//import com.reckue.post.exception.ReckueIllegalArgumentException;
-//import com.reckue.post.exception.model.post.PostNotFoundException;
-//import com.reckue.post.exception.model.rating.RatingNotFoundException;
-//import com.reckue.post.model.Post;
-//import com.reckue.post.model.Rating;
-//import com.reckue.post.repository.PostRepository;
-//import com.reckue.post.repository.RatingRepository;
-//import org.junit.jupiter.api.Assertions;
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Disabled;
-//import org.junit.jupiter.api.Test;
-//import org.mockito.InjectMocks;
-//import org.mockito.Mock;
-//
-//import java.util.ArrayList;
-//import java.util.HashMap;
-//import java.util.List;
-//import java.util.Optional;
-//import java.util.stream.Collectors;
-//import java.util.stream.Stream;
-//
-//import static org.junit.jupiter.api.Assertions.assertEquals;
-//import static org.junit.jupiter.api.Assertions.assertThrows;
-//import static org.mockito.Mockito.*;
-//
-///**
-// * Class RatingServiceImplTest represents test for RatingService class.
-// *
-// * @author Kamila Meshcheryakova
-// */
-//@SuppressWarnings("unused")
-//public class RatingServiceImplTest extends PostServiceApplicationTests {
-//    private Rating rating1;
-//    private Rating rating2;
-//    private Rating rating3;
-//
-//    @Mock
-//    private RatingRepository ratingRepository;
-//
-//    @Mock
-//    private PostRepository postRepository;
-//
-//    @InjectMocks
-//    private RatingServiceImpl ratingService;
-//
-//    @BeforeEach
-//    private void createRatings() {
-//        rating1 = Rating.builder()
-//                .id("1")
-//                .userId("1a35")
-//                .postId("1ft2")
-//                .build();
-//        rating2 = Rating.builder()
-//                .id("2")
-//                .userId("2da3")
-//                .postId("3dt5")
-//                .build();
-//        rating3 = Rating.builder()
-//                .id("3")
-//                .userId("7gd3")
-//                .postId("8uv2")
-//                .build();
-//    }
-//
-//    @Test
-//    public void findAll() {
-//        List<Rating> nodes = Stream.of(rating1, rating2, rating3).collect(Collectors.toList());
-//        when(ratingRepository.findAll()).thenReturn(nodes);
-//
-//        assertEquals(nodes, ratingService.findAll());
-//    }
-//
-//    @Disabled
-//    public void create() {
-//        Post post = Post.builder()
-//                .id("2rs5")
-//                .build();
-//        when(postRepository.save(post)).thenReturn(post);
-//
-//        Rating rating = Rating.builder()
-//                .id("4")
-//                .userId("5tf4")
-//                .postId(post.getId())
-//                .build();
-//        when(ratingRepository.save(rating)).thenReturn(rating);
-//        doReturn(true).when(postRepository).existsById(post.getId());
-//
-//        assertEquals(rating, ratingService.create(rating, new HashMap<>()));
-//    }
-//
-//    @Disabled
-//    public void createIfNotFound() {
-//        when(ratingRepository.existsById(rating1.getId())).thenReturn(false);
-//        doReturn(false).when(postRepository).existsById(rating1.getPostId());
-//
-//        Exception exception = assertThrows(PostNotFoundException.class,
-//                () -> ratingService.create(rating1, new HashMap<>()));
-//
-//        assertEquals("Post by id '" + rating1.getPostId() + "' is not found", exception.getMessage());
-//    }
-//
-//    @Disabled
-//    public void update() {
-//        Rating ratingRequest = Rating.builder()
-//                .id("1")
-//                .userId("asad")
-//                .postId("asdasdfdf")
-//                .build();
-//        Rating ratingOne = Rating.builder()
-//                .id("1")
-//                .userId("1a35")
-//                .postId("1ft2")
-//                .build();
-//        when(ratingRepository.findById(ratingRequest.getId())).thenReturn(Optional.of(ratingOne));
-//        when(ratingRepository.save(ratingOne)).thenReturn(ratingOne);
-//
-//        ratingService.update(ratingRequest, new HashMap<>());
-//
-//        Assertions.assertAll(
-//                () -> assertEquals(ratingOne.getUserId(), ratingOne.getUserId()),
-//                () -> assertEquals(ratingOne.getPostId(), ratingOne.getPostId())
-//        );
-//    }
-//
-//    @Test
-//    public void updateWithNullId() {
-//        Rating ratingOne = Rating.builder()
-//                .build();
-//
-//        assertThrows(ReckueIllegalArgumentException.class, () -> ratingService.update(ratingOne, new HashMap<>()));
-//    }
-//
-//    @Test
-//    public void updateWithExistId() {
-//        when(ratingRepository.existsById(rating1.getId())).thenReturn(false);
-//        when(ratingRepository.save(rating1)).thenReturn(rating1);
-//
-//        assertThrows(RatingNotFoundException.class, () -> ratingService.update(rating1, new HashMap<>()));
-//    }
-//
-//    @Disabled
-//    public void deleteById() {
-//        List<Rating> ratings = new ArrayList<>();
-//        ratings.add(rating1);
-//        when(ratingRepository.existsById(rating1.getId())).thenReturn(true);
-//        doAnswer(invocation -> {
-//            ratings.remove(rating1);
-//            return null;
-//        }).when(ratingRepository).deleteById(rating1.getId());
-//        ratingService.deleteById(rating1.getId(), new HashMap<>());
-//
-//        assertEquals(0, ratings.size());
-//    }
-//
-//    @Test
-//    public void deleteByIdWithException() {
-//        Exception exception = assertThrows(RatingNotFoundException.class,
-//                () -> ratingService.deleteById(rating1.getId(), new HashMap<>()));
-//        assertEquals("Rating by id '" + rating1.getId() + "' is not found", exception.getMessage());
-//    }
-//}
+package com.reckue.post.service.impl;
+
+import com.mongodb.client.result.UpdateResult;
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.exception.ReckueAccessDeniedException;
+import com.reckue.post.exception.model.post.PostNotFoundException;
+import com.reckue.post.exception.model.rating.RatingNotFoundException;
+import com.reckue.post.exception.model.user.UserNotFoundException;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.Rating;
+import com.reckue.post.repository.PostRepository;
+import com.reckue.post.repository.RatingRepository;
+import com.reckue.post.util.pagination.OffsetPageRequest;
+import com.reckue.post.util.security.TestSecurity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class RatingServiceImplTest represents test for RatingService class.
+ *
+ * @author Kamila Meshcheryakova
+ */
+public class RatingServiceImplTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private RatingServiceImpl ratingService;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void findAll() {
+        List<Rating> ratings = List.of(Rating.builder().id("1").build(), Rating.builder().id("2").build());
+        when(ratingRepository.findAll()).thenReturn(ratings);
+
+        assertEquals(ratings, ratingService.findAll());
+    }
+
+    @Test
+    public void toggleRemovesExistingRating() {
+        Rating rating = Rating.builder().id("1").userId("user").postId("post").build();
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Rating.class))).thenReturn(rating);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Post.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(rating, ratingService.toggle("user", "post"));
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(new Update().inc("ratingsCount", -1)), eq(Post.class));
+        verify(mongoTemplate, never()).insert(any(Rating.class));
+    }
+
+    @Test
+    public void toggleInsertsRating() {
+        Cache posts = mock(Cache.class);
+        when(cacheManager.getCache("posts")).thenReturn(posts);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Post.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        Rating rating = ratingService.toggle("user", "post");
+
+        assertEquals("user", rating.getUserId());
+        assertEquals("post", rating.getPostId());
+        verify(mongoTemplate).insert(rating);
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(new Update().inc("ratingsCount", 1)), eq(Post.class));
+        verify(posts).evict("post");
+    }
+
+    @Test
+    public void toggleWhenRatingIsInsertedConcurrently() {
+        Rating rating = Rating.builder().id("1").userId("user").postId("post").build();
+        when(mongoTemplate.insert(any(Rating.class))).thenThrow(new DuplicateKeyException("userId_postId"));
+        when(mongoTemplate.findOne(any(Query.class), eq(Rating.class))).thenReturn(rating);
+
+        assertEquals(rating, ratingService.toggle("user", "post"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Post.class));
+    }
+
+    @Test
+    public void toggleIfPostNotFound() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Post.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        Exception exception = assertThrows(PostNotFoundException.class, () -> ratingService.toggle("user", "post"));
+        assertEquals("Post by id 'post' is not found", exception.getMessage());
+        verify(mongoTemplate).remove(any(Rating.class));
+    }
+
+    @Test
+    public void getRatingsCountByPostId() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findOne(query.capture(), eq(Post.class)))
+                .thenReturn(Post.builder().id("1").ratingsCount(12).build());
+
+        assertEquals(12, ratingService.getRatingsCountByPostId("1"));
+        assertEquals("{\"ratingsCount\": 1}", query.getValue().getFieldsObject().toJson());
+        verifyNoInteractions(ratingRepository);
+    }
+
+    @Test
+    public void getRatingsCountByPostIdIfNotFound() {
+        when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(null);
+
+        Exception exception = assertThrows(PostNotFoundException.class,
+                () -> ratingService.getRatingsCountByPostId("1"));
+        assertEquals("Post by id '1' is not found", exception.getMessage());
+    }
+
+    @Test
+    public void deleteByIdDecrementsCountOfRemovedRating() {
+        Rating rating = Rating.builder().id("1").userId("user").postId("post").build();
+        when(ratingRepository.findById("1")).thenReturn(Optional.of(rating));
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Rating.class))).thenReturn(rating);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Post.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        TestSecurity.authenticate("user", "USER");
+
+        ratingService.deleteById("1");
+
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(new Update().inc("ratingsCount", -1)), eq(Post.class));
+        verify(ratingRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    public void deleteByIdRemovedConcurrentlyKeepsCount() {
+        Rating rating = Rating.builder().id("1").userId("user").postId("post").build();
+        when(ratingRepository.findById("1")).thenReturn(Optional.of(rating));
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Rating.class))).thenReturn(null);
+        TestSecurity.authenticate("user", "USER");
+
+        ratingService.deleteById("1");
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Post.class));
+    }
+
+    @Test
+    public void deleteByIdOfOtherUser() {
+        when(ratingRepository.findById("1"))
+                .thenReturn(Optional.of(Rating.builder().id("1").userId("other").postId("post").build()));
+        TestSecurity.authenticate("user", "USER");
+
+        assertThrows(ReckueAccessDeniedException.class, () -> ratingService.deleteById("1"));
+        verify(mongoTemplate, never()).findAndRemove(any(Query.class), eq(Rating.class));
+    }
+
+    @Test
+    public void deleteByIdWithException() {
+        when(ratingRepository.findById("1")).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(RatingNotFoundException.class, () -> ratingService.deleteById("1"));
+        assertEquals("Rating by id '1' is not found", exception.getMessage());
+    }
+
+    @Test
+    public void findAllPostsWithRatingsByUserId() {
+        List<Rating> ratings = List.of(
+                Rating.builder().id("1").userId("user").postId("post3").build(),
+                Rating.builder().id("2").userId("user").postId("post1").build(),
+                Rating.builder().id("3").userId("user").postId("removed").build(),
+                Rating.builder().id("4").userId("user").postId("post2").build());
+        Post post1 = Post.builder().id("post1").build();
+        Post post2 = Post.builder().id("post2").build();
+        Post post3 = Post.builder().id("post3").build();
+        when(ratingRepository.findAllByUserId("user",
+                new OffsetPageRequest(2, 4, Sort.by(Sort.Direction.DESC, "createdDate", "id"))))
+                .thenReturn(ratings);
+        when(postRepository.findAllById(List.of("post3", "post1", "removed", "post2")))
+                .thenReturn(List.of(post1, post2, post3));
+
+        assertEquals(List.of(post3, post1, post2), ratingService.findAllPostsWithRatingsByUserId("user", 4, 2));
+        verify(postRepository, never()).findById(anyString());
+    }
+
+    @Test
+    public void findAllPostsWithRatingsByUnknownUserId() {
+        when(ratingRepository.findAllByUserId(eq("user"), any(Pageable.class))).thenReturn(List.of());
+        when(ratingRepository.existsByUserId("user")).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> ratingService.findAllPostsWithRatingsByUserId("user", null, null));
+    }
+}
@@ -0,0 +1,160 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.config.CacheConfig;
+import com.reckue.post.event.PostChangedEvent;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.ParentType;
+import com.reckue.post.model.type.StatusType;
+import com.reckue.post.repository.ReactiveNodeRepository;
+import com.reckue.post.service.impl.validation.NodeValidationServiceImpl;
+import com.reckue.post.util.pagination.ContinuationToken;
+import com.reckue.post.util.pagination.KeysetPage;
+import com.reckue.post.util.security.TestSecurity;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class ReactiveNodeServiceImplTest allows to test the reactive execution of the operations with the nodes.
+ */
+class ReactiveNodeServiceImplTest extends PostServiceApplicationTests {
+
+    private static final String USER_ID = "reactive-test-user";
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Mock
+    private ReactiveNodeRepository reactiveNodeRepository;
+
+    @Spy
+    private NodeValidationServiceImpl nodeValidationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.NODES);
+
+    @InjectMocks
+    private ReactiveNodeServiceImpl reactiveNodeService;
+
+    @BeforeEach
+    void authenticate() {
+        TestSecurity.authenticate(USER_ID, "USER");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createReadsCurrentUserBeforeSubscription() {
+        Node node = Node.builder().parentId("1").parentType(ParentType.POST).build();
+        when(reactiveNodeRepository.save(node)).thenReturn(Mono.just(node));
+
+        Mono<Node> storedNode = reactiveNodeService.create(node);
+        SecurityContextHolder.clearContext();
+
+        assertEquals(node, storedNode.block());
+        assertEquals(USER_ID, node.getUserId());
+        assertEquals(StatusType.ACTIVE, node.getStatus());
+        ArgumentCaptor<PostChangedEvent> event = ArgumentCaptor.forClass(PostChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("1", event.getValue().getPostId());
+    }
+
+    @Test
+    void findByIdWithException() {
+        when(reactiveNodeRepository.findById("1")).thenReturn(Mono.empty());
+
+        assertThrows(NoSuchElementException.class, () -> reactiveNodeService.findById("1").block());
+    }
+
+    @Test
+    void findAllByCursorReadsActiveNodesOnly() {
+        Node nodeOne = Node.builder().id("1").build();
+        Node nodeTwo = Node.builder().id("2").build();
+        Node nodeThree = Node.builder().id("3").build();
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Node.class)))
+                .thenReturn(Flux.just(nodeOne, nodeTwo, nodeThree));
+
+        KeysetPage<Node> page = reactiveNodeService.findAllByCursor(2, "id", false, null).block();
+        assertEquals(List.of(nodeOne, nodeTwo), page.getContent());
+        assertEquals(ContinuationToken.of(nodeTwo, "2", "id", false), ContinuationToken.decode(page.getNext()));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).find(query.capture(), eq(Node.class));
+        assertEquals(new Document("status", StatusType.ACTIVE), query.getValue().getQueryObject());
+        assertEquals(3, query.getValue().getLimit());
+    }
+
+    @Test
+    void deleteByIdOfAnotherUserKeepsNode() {
+        Node node = Node.builder().id("1").userId("another-user").status(StatusType.ACTIVE).build();
+        when(reactiveNodeRepository.findById("1")).thenReturn(Mono.just(node));
+
+        reactiveNodeService.deleteById("1").block();
+
+        assertEquals(StatusType.ACTIVE, node.getStatus());
+        verify(reactiveNodeRepository, never()).save(any(Node.class));
+    }
+
+    @Test
+    void updateEvictsCachedNode() {
+        Node storedNode = Node.builder().id("1").parentId("1").parentType(ParentType.POST)
+                .type(NodeType.TEXT).status(StatusType.ACTIVE).build();
+        when(reactiveNodeRepository.findById("1")).thenReturn(Mono.just(storedNode));
+        when(reactiveNodeRepository.save(storedNode)).thenReturn(Mono.just(storedNode));
+        cacheManager.getCache(CacheConfig.NODES).put("1", storedNode);
+
+        reactiveNodeService.update(Node.builder().id("1").type(NodeType.TEXT).status(StatusType.ACTIVE).build())
+                .block();
+
+        assertNull(cacheManager.getCache(CacheConfig.NODES).get("1"));
+    }
+
+    @Test
+    void deleteByIdEvictsCachedNode() {
+        Node node = Node.builder().id("1").userId(USER_ID).status(StatusType.ACTIVE).build();
+        when(reactiveNodeRepository.findById("1")).thenReturn(Mono.just(node));
+        when(reactiveNodeRepository.save(node)).thenReturn(Mono.just(node));
+        cacheManager.getCache(CacheConfig.NODES).put("1", node);
+
+        reactiveNodeService.deleteById("1").block();
+
+        assertEquals(StatusType.DELETED, node.getStatus());
+        assertNull(cacheManager.getCache(CacheConfig.NODES).get("1"));
+    }
+
+    @Test
+    void deleteByIdWithException() {
+        when(reactiveNodeRepository.findById("1")).thenReturn(Mono.empty());
+
+        assertThrows(NoSuchElementException.class, () -> reactiveNodeService.deleteById("1").block());
+    }
+}
@@ -0,0 +1,95 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.event.TagChangedEvent;
+import com.reckue.post.event.TagDeletedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.exception.model.tag.TagNotFoundException;
+import com.reckue.post.model.Tag;
+import com.reckue.post.repository.ReactiveTagRepository;
+import com.reckue.post.util.pagination.OffsetPageRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class ReactiveTagServiceImplTest allows to test the reactive execution of the operations with the tags.
+ */
+class ReactiveTagServiceImplTest extends PostServiceApplicationTests {
+
+    @Mock
+    private ReactiveTagRepository reactiveTagRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReactiveTagServiceImpl reactiveTagService;
+
+    @Test
+    void update() {
+        Tag tag = Tag.builder().id("1").name("code").build();
+        when(reactiveTagRepository.findById("1")).thenReturn(Mono.just(tag));
+        when(reactiveTagRepository.save(tag)).thenReturn(Mono.just(tag));
+
+        assertEquals(tag, reactiveTagService.update(Tag.builder().id("1").name("newName").build()).block());
+        assertEquals("newName", tag.getName());
+
+        ArgumentCaptor<TagChangedEvent> event = ArgumentCaptor.forClass(TagChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(tag, event.getValue().getTag());
+    }
+
+    @Test
+    void updateWithIncorrectArguments() {
+        when(reactiveTagRepository.findById("1")).thenReturn(Mono.empty());
+
+        assertThrows(ReckueIllegalArgumentException.class, () -> reactiveTagService.update(Tag.builder().build()));
+        assertThrows(TagNotFoundException.class,
+                () -> reactiveTagService.update(Tag.builder().id("1").name("tag").build()).block());
+        verify(reactiveTagRepository, never()).save(any(Tag.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void findAllWithLimitOffsetSortAndDesc() {
+        Tag tag = Tag.builder().id("1").name("java").build();
+        when(reactiveTagRepository.findAllBy(any())).thenReturn(Flux.just(tag));
+
+        assertEquals(List.of(tag), reactiveTagService.findAll(2, 1, "name", true).collectList().block());
+        verify(reactiveTagRepository)
+                .findAllBy(new OffsetPageRequest(1, 2, Sort.by(Sort.Direction.DESC, "name", "id")));
+    }
+
+    @Test
+    void deleteById() {
+        when(reactiveTagRepository.existsById("1")).thenReturn(Mono.just(true));
+        when(reactiveTagRepository.deleteById("1")).thenReturn(Mono.empty());
+
+        reactiveTagService.deleteById("1").block();
+
+        ArgumentCaptor<TagDeletedEvent> event = ArgumentCaptor.forClass(TagDeletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("1", event.getValue().getTagId());
+    }
+
+    @Test
+    void deleteByIdWithException() {
+        when(reactiveTagRepository.existsById("1")).thenReturn(Mono.just(false));
+
+        assertThrows(TagNotFoundException.class, () -> reactiveTagService.deleteById("1").block());
+        verify(reactiveTagRepository, never()).deleteById(anyString());
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,177 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.PostText;
+import com.reckue.post.model.node.CodeNode;
+import com.reckue.post.model.node.ImageNode;
+import com.reckue.post.model.node.ListNode;
+import com.reckue.post.model.node.TextNode;
+import com.reckue.post.model.search.FacetValue;
+import com.reckue.post.model.search.PostSearchFacets;
+import com.reckue.post.model.search.PostSearchFilter;
+import com.reckue.post.model.search.PostSearchResult;
+import com.reckue.post.model.type.LangType;
+import com.reckue.post.model.type.NodeType;
+import com.reckue.post.model.type.PostStatusType;
+import com.reckue.post.model.type.StatusType;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class SearchServiceImplTest represents test for SearchService class.
+ */
+class SearchServiceImplTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private SearchServiceImpl searchService;
+
+    @Test
+    public void indexTextOfTextBearingNodes() {
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        Post post = Post.builder().id("1").title("title").tags(List.of("java")).status(PostStatusType.PUBLISHED)
+                .nodes(List.of(
+                Node.builder().type(NodeType.TEXT).content(TextNode.builder().value("text").build()).build(),
+                Node.builder().type(NodeType.CODE)
+                        .content(CodeNode.builder().language(LangType.JAVA).content("code").build()).build(),
+                Node.builder().type(NodeType.LIST)
+                        .content(ListNode.builder().content(List.of("a", "b")).build()).build(),
+                Node.builder().type(NodeType.IMAGE).content(ImageNode.builder().imageUrl("url").build()).build(),
+                Node.builder().type(NodeType.TEXT).status(StatusType.DELETED)
+                        .content(TextNode.builder().value("deleted").build()).build()))
+                .build();
+
+        searchService.index(post);
+
+        verify(mongoTemplate).save(PostText.builder().id("1").title("title").content(List.of("text", "code", "a", "b"))
+                .tags(List.of("java")).languages(List.of("JAVA")).status(PostStatusType.PUBLISHED).build());
+    }
+
+    @Test
+    public void reindexMissingPost() {
+        when(mongoTemplate.findById("1", Post.class)).thenReturn(null);
+
+        searchService.reindex("1");
+
+        verify(mongoTemplate).remove(any(Query.class), eq(PostText.class));
+        verify(mongoTemplate, never()).save(any());
+    }
+
+    @Test
+    public void reindexLoadsActiveNodesOnly() {
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(mongoTemplate.findById("1", Post.class)).thenReturn(Post.builder().id("1").title("title").build());
+
+        searchService.reindex("1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Node.class));
+        assertEquals(new Document("parentId", "1").append("status", StatusType.ACTIVE),
+                query.getValue().getQueryObject());
+    }
+
+    @Test
+    public void rebuildReindexesStreamedPosts() {
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        CloseableIterator<Post> cursor = mock(CloseableIterator.class);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(Post.builder().id("1").build(), Post.builder().id("2").build());
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenReturn(cursor);
+        when(mongoTemplate.findById("1", Post.class))
+                .thenReturn(Post.builder().id("1").title("title").nodesEmbedded(true).build());
+
+        assertEquals(2, searchService.rebuild());
+
+        verify(mongoTemplate).save(PostText.builder().id("1").title("title").content(List.of())
+                .languages(List.of()).build());
+        verify(mongoTemplate).remove(any(Query.class), eq(PostText.class));
+        verify(cursor).close();
+    }
+
+    @Test
+    public void searchPostsInOrderOfRelevance() {
+        PostText first = PostText.builder().id("2").title("spring data").content(List.of()).score(2F).build();
+        PostText second = PostText.builder().id("1").title("post").content(List.of("spring boot")).score(1F).build();
+        PostText deleted = PostText.builder().id("3").title("spring").content(List.of()).score(0.5F).build();
+        Post postOne = Post.builder().id("1").build();
+        Post postTwo = Post.builder().id("2").build();
+        when(mongoTemplate.find(any(Query.class), eq(PostText.class))).thenReturn(List.of(first, second, deleted));
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(postOne, postTwo));
+
+        List<PostSearchResult> results = searchService.searchPosts("spring", null, 3, 0);
+
+        assertEquals(List.of(postTwo, postOne), List.of(results.get(0).getPost(), results.get(1).getPost()));
+        assertEquals(2, results.size());
+        assertEquals(2F, results.get(0).getScore());
+        assertEquals("spring boot", results.get(1).getSnippets().get(0).getText());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(PostText.class));
+        assertEquals(3, query.getValue().getLimit());
+    }
+
+    @Test
+    public void searchPostsWithFilter() {
+        when(mongoTemplate.find(any(Query.class), eq(PostText.class))).thenReturn(List.of());
+        PostSearchFilter filter = PostSearchFilter.builder().tag("java").language(LangType.JAVA).build();
+
+        assertEquals(List.of(), searchService.searchPosts("spring", filter, null, null));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(PostText.class));
+        assertEquals(new Document("$text", new Document("$search", "spring"))
+                        .append("$and", List.of(new Document("tags", "java"), new Document("languages", "JAVA"))),
+                query.getValue().getQueryObject());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Post.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void countFacetsOfFoundPosts() {
+        Document facets = new Document("tags", List.of(new Document("_id", "java").append("count", 3)))
+                .append("languages", List.of())
+                .append("statuses", List.of(new Document("_id", null).append("count", 1),
+                        new Document("_id", "DRAFT").append("count", 2)));
+        AggregationResults<Document> results = mock(AggregationResults.class);
+        when(results.getUniqueMappedResult()).thenReturn(facets);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(PostText.class), eq(Document.class)))
+                .thenReturn(results);
+
+        assertEquals(PostSearchFacets.builder()
+                .tags(List.of(new FacetValue("java", 3)))
+                .languages(List.of())
+                .statuses(List.of(new FacetValue("DRAFT", 2)))
+                .build(), searchService.countFacets("spring", null));
+    }
+
+    @Test
+    public void searchPostsWithEmptyQuery() {
+        assertThrows(ReckueIllegalArgumentException.class, () -> searchService.searchPosts(" ", null, null, null));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,106 @@
+package com.reckue.post.service.impl;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.event.PostTagsChangedEvent;
+import com.reckue.post.event.TagCountChangedEvent;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.Post;
+import com.reckue.post.model.TagCount;
+import com.reckue.post.model.TagUsage;
+import com.reckue.post.model.type.PostStatusType;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Class TagCountServiceImplTest allows to test the counters of the tags.
+ */
+class TagCountServiceImplTest extends PostServiceApplicationTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TagCountServiceImpl tagCountService;
+
+    @Test
+    void countTagsOfPostsWhichAreNotDeleted() {
+        Post draft = Post.builder().tags(List.of("java", "spring", "java")).status(PostStatusType.DRAFT).build();
+        Post deleted = Post.builder().tags(List.of("java")).status(PostStatusType.DELETED).build();
+
+        assertEquals(Set.of(), PostTagsChangedEvent.of(null, draft).getOldTags());
+        assertEquals(Set.of("java", "spring"), PostTagsChangedEvent.of(null, draft).getNewTags());
+        assertEquals(Set.of(), PostTagsChangedEvent.of(draft, deleted).getNewTags());
+    }
+
+    @Test
+    void incrementAddedAndDecrementRemovedTags() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(TagCount.class))).thenReturn(new TagCount("kotlin", 3), new TagCount("java", 0));
+
+        tagCountService.count(new PostTagsChangedEvent(Set.of("java", "spring"), Set.of("spring", "kotlin")));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(queries.capture(), updates.capture(),
+                any(FindAndModifyOptions.class), eq(TagCount.class));
+        assertEquals(new Document("name", "kotlin"), queries.getAllValues().get(0).getQueryObject());
+        assertEquals(new Document("$inc", new Document("count", 1)), updates.getAllValues().get(0).getUpdateObject());
+        assertEquals(new Document("name", "java"), queries.getAllValues().get(1).getQueryObject());
+        assertEquals(new Document("$inc", new Document("count", -1)), updates.getAllValues().get(1).getUpdateObject());
+        verify(mongoTemplate).remove(any(Query.class), eq(TagCount.class));
+
+        ArgumentCaptor<TagCountChangedEvent> events = ArgumentCaptor.forClass(TagCountChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of("kotlin=3", "java=0"), events.getAllValues().stream()
+                .map(event -> event.getName() + "=" + event.getCount())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void skipUnchangedTags() {
+        tagCountService.count(PostTagsChangedEvent.of(
+                Post.builder().tags(List.of("java")).build(),
+                Post.builder().tags(List.of("java")).build()));
+
+        verifyNoInteractions(mongoTemplate, eventPublisher);
+    }
+
+    @Test
+    void cacheMostUsedTags() {
+        when(mongoTemplate.find(any(Query.class), eq(TagCount.class)))
+                .thenReturn(List.of(new TagCount("java", 5), new TagCount("kotlin", 2)));
+
+        assertEquals(List.of(TagUsage.builder().name("java").count(5).build()), tagCountService.findMostUsed(1));
+        assertEquals(2, tagCountService.findMostUsed(null).size());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).find(query.capture(), eq(TagCount.class));
+        assertEquals(new Document("count", -1).append("name", 1), query.getValue().getSortObject());
+        assertEquals(100, query.getValue().getLimit());
+    }
+
+    @Test
+    void findMostUsedWithIncorrectLimit() {
+        assertThrows(ReckueIllegalArgumentException.class, () -> tagCountService.findMostUsed(0));
+        assertThrows(ReckueIllegalArgumentException.class, () -> tagCountService.findMostUsed(101));
+    }
+}
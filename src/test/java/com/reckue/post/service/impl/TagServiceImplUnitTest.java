@@ -1,18 +1,24 @@
 package com.reckue.post.service.impl;
 
 import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.event.TagChangedEvent;
 import com.reckue.post.exception.ModelNotFoundException;
 import com.reckue.post.exception.ReckueIllegalArgumentException;
 import com.reckue.post.exception.model.tag.TagNotFoundException;
 import com.reckue.post.model.Tag;
 import com.reckue.post.repository.TagRepository;
+import com.reckue.post.util.pagination.OffsetPageRequest;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -31,6 +37,12 @@ public class TagServiceImplUnitTest extends PostServiceApplicationTests {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -40,6 +52,10 @@ public class TagServiceImplUnitTest extends PostServiceApplicationTests {
         when(tagRepository.save(tag)).thenReturn(tag);
 
         assertEquals(tag, tagService.create(tag));
+
+        ArgumentCaptor<TagChangedEvent> event = ArgumentCaptor.forClass(TagChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(tag, event.getValue().getTag());
     }
 
     @Test
@@ -106,135 +122,41 @@ public class TagServiceImplUnitTest extends PostServiceApplicationTests {
     }
 
     @Test
-    public void findAllAndSortByName() {
-        Tag tag1 = Tag.builder().id("b1").name("kingArthur").build();
-        Tag tag2 = Tag.builder().id("10").name("zerro").build();
-        Tag tag3 = Tag.builder().id("999").name("2pack").build();
-
-        List<Tag> tags = Stream.of(tag1, tag2, tag3).collect(Collectors.toList());
-        when(tagRepository.findAll()).thenReturn(tags);
-
-        List<Tag> expected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getName))
-                .collect(Collectors.toList());
-
-        assertNotEquals(tags, tagService.findAllAndSortByName());
-        assertEquals(expected, tagService.findAllAndSortByName());
-    }
-
-    @Test
-    public void findAllAndSortById() {
-        Tag tag1 = Tag.builder().id("b2").name("13district").build();
-        Tag tag2 = Tag.builder().id("7up").name("batman").build();
-        Tag tag3 = Tag.builder().id("777").name("sotas").build();
-
-        List<Tag> tags = Stream.of(tag1, tag2, tag3).collect(Collectors.toList());
-        when(tagRepository.findAll()).thenReturn(tags);
+    public void findAllWithLimitOffsetSortAndDesc() {
+        Tag tag1 = Tag.builder().id("3").name("a").build();
+        Tag tag2 = Tag.builder().id("1").name("c").build();
 
-        List<Tag> expected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId))
-                .collect(Collectors.toList());
+        List<Tag> page = Stream.of(tag2, tag1).collect(Collectors.toList());
+        when(tagRepository.findAllBy(any(Pageable.class))).thenReturn(page);
 
-        assertNotEquals(tags, tagService.findAllAndSortById());
-        assertEquals(expected, tagService.findAllAndSortById());
+        assertEquals(page, tagService.findAll(2, 1, "name", true));
+        verify(tagRepository).findAllBy(new OffsetPageRequest(1, 2, Sort.by(Sort.Direction.DESC, "name", "id")));
     }
 
     @Test
-    public void findAllBySortType() {
-        Tag tag1 = Tag.builder().id("xxx").name("dizel").build();
-        Tag tag2 = Tag.builder().id("11").name("11friendsOushen").build();
-        Tag tag3 = Tag.builder().id("woodoo").name("john").build();
+    public void findAllWithDefaultParameters() {
+        tagService.findAll(null, null, null, null);
 
-        List<Tag> tags = Stream.of(tag1, tag2, tag3).collect(Collectors.toList());
-        when(tagRepository.findAll()).thenReturn(tags);
-
-        List<Tag> sortedByNameExpected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getName))
-                .collect(Collectors.toList());
-
-        List<Tag> sortedByIdExpected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId))
-                .collect(Collectors.toList());
-
-        assertEquals(sortedByNameExpected, tagService.findAllBySortType("name"));
-        assertEquals(sortedByIdExpected, tagService.findAllBySortType("id"));
+        verify(tagRepository).findAllBy(new OffsetPageRequest(0, 10, Sort.by(Sort.Direction.ASC, "id")));
     }
 
     @Test
-    public void findAllByTypeAndDesc() {
-        Tag tag1 = Tag.builder().id("eleven").name("911").build();
-        Tag tag2 = Tag.builder().id("112358").name("fibonnacci").build();
-        Tag tag3 = Tag.builder().id("b8").name("0stap").build();
-
-        List<Tag> tags = Stream.of(tag1, tag2, tag3).collect(Collectors.toList());
-        when(tagRepository.findAll()).thenReturn(tags);
-
-        List<Tag> sortedByNameExpected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getName))
-                .collect(Collectors.toList());
-
-        List<Tag> sortedByIdExpected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId))
-                .collect(Collectors.toList());
-
-        List<Tag> sortedByNameDescExpected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getName).reversed())
-                .collect(Collectors.toList());
-
-        List<Tag> sortedByIdDescExpected = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId).reversed())
-                .collect(Collectors.toList());
-
-        assertEquals(sortedByNameExpected, tagService.findAllByTypeAndDesc("name", false));
-        assertEquals(sortedByIdExpected, tagService.findAllByTypeAndDesc("id", false));
-        assertEquals(sortedByNameDescExpected, tagService.findAllByTypeAndDesc("name", true));
-        assertEquals(sortedByIdDescExpected, tagService.findAllByTypeAndDesc("id", true));
+    public void findAllWithUnknownSortField() {
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> tagService.findAll(10, 0, "color", false));
+        assertEquals("Such field as color doesn't exist", exception.getMessage());
+        verify(tagRepository, never()).findAllBy(any(Pageable.class));
     }
 
     @Test
-    public void findAllWithLimitOffsetSortAndDesc() {
-        Tag tag1 = Tag.builder().id("3").name("a").build();
-        Tag tag2 = Tag.builder().id("1").name("c").build();
-        Tag tag3 = Tag.builder().id("4").name("b").build();
-        Tag tag4 = Tag.builder().id("2").name("d").build();
-
-        List<Tag> tags = Stream.of(tag1, tag2, tag3, tag4).collect(Collectors.toList());
-        when(tagRepository.findAll()).thenReturn(tags);
-
-        List<Tag> test1 = tags.stream()
-                .sorted(Comparator.comparing(Tag::getName))
-                .limit(2)
-                .skip(1)
-                .collect(Collectors.toList());
-
-        List<Tag> test2 = tags.stream()
-                .sorted(Comparator.comparing(Tag::getName).reversed())
-                .limit(3)
-                .collect(Collectors.toList());
-
-        List<Tag> test3 = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId))
-                .limit(1)
-                .skip(2)
-                .collect(Collectors.toList());
-
-        List<Tag> test4 = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId))
-                .limit(2)
-                .skip(1)
-                .collect(Collectors.toList());
-
-        List<Tag> test5 = tags.stream()
-                .sorted(Comparator.comparing(Tag::getId).reversed())
-                .limit(2)
-                .skip(1)
-                .collect(Collectors.toList());
-
-        assertEquals(test1, tagService.findAll(2, 1, "name", false));
-        assertEquals(test2, tagService.findAll(3, 0, "name", true));
-        assertEquals(test3, tagService.findAll(1, 2, "id", false));
-        assertEquals(test4, tagService.findAll(2, 1, "id", false));
-        assertEquals(test5, tagService.findAll(2, 1, "id", true));
+    public void findAllWithIncorrectLimitOrOffset() {
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> tagService.findAll(-1, 0, "id", false));
+        assertEquals("Limit or offset is incorrect", exception.getMessage());
+
+        exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> tagService.findAll(10, -1, "id", false));
+        assertEquals("Limit or offset is incorrect", exception.getMessage());
     }
 
     @Test
@@ -0,0 +1,140 @@
+package com.reckue.post.util.http;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.EntityVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Class ConditionalRequestsTest allows to test the answers to the conditional requests by the version of the entity.
+ */
+class ConditionalRequestsTest extends PostServiceApplicationTests {
+
+    private static final LocalDateTime MODIFICATION_DATE = LocalDateTime.of(2020, 9, 16, 10, 30, 15);
+
+    private final EntityVersion version = EntityVersion.of(MODIFICATION_DATE, 3);
+
+    @Test
+    void respondWithoutConditionsLoadsEntity() {
+        ResponseEntity<String> response = ConditionalRequests.respond(version, null, null, () -> "post");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("post", response.getBody());
+        assertEquals(version.getEntityTag(), response.getHeaders().getETag());
+        assertEquals(version.getLastModified(), response.getHeaders().getLastModified());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void respondWithCurrentEntityTagDoesNotLoadEntity() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<String> response = ConditionalRequests.respond(version, version.getEntityTag(), null,
+                () -> String.valueOf(loads.incrementAndGet()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(version.getEntityTag(), response.getHeaders().getETag());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void respondWithChangedEntityTagLoadsEntity() {
+        String staleTag = EntityVersion.of(MODIFICATION_DATE, 2).getEntityTag();
+
+        ResponseEntity<String> response = ConditionalRequests.respond(version, staleTag, null, () -> "post");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("post", response.getBody());
+    }
+
+    @Test
+    void isNotModifiedMatchesListOfWeakAndAnyTags() {
+        assertTrue(ConditionalRequests.isNotModified(version, "\"other\", " + version.getEntityTag(), null));
+        assertTrue(ConditionalRequests.isNotModified(version, "W/" + version.getEntityTag(), null));
+        assertTrue(ConditionalRequests.isNotModified(version, "*", null));
+        assertFalse(ConditionalRequests.isNotModified(version, "\"other\"", null));
+    }
+
+    @Test
+    void isNotModifiedComparesDatesBySeconds() {
+        assertTrue(ConditionalRequests.isNotModified(version, null, httpDate(MODIFICATION_DATE)));
+        assertTrue(ConditionalRequests.isNotModified(version, null, httpDate(MODIFICATION_DATE.plusHours(1))));
+        assertFalse(ConditionalRequests.isNotModified(version, null, httpDate(MODIFICATION_DATE.minusSeconds(1))));
+        assertFalse(ConditionalRequests.isNotModified(version, null, "yesterday"));
+    }
+
+    @Test
+    void isNotModifiedPrefersEntityTagToDate() {
+        assertFalse(ConditionalRequests.isNotModified(version, "\"other\"", httpDate(MODIFICATION_DATE)));
+    }
+
+    @Test
+    void respondWithoutModificationDateSendsEntityTagOnly() {
+        EntityVersion legacyVersion = EntityVersion.of(null);
+
+        ResponseEntity<String> response = ConditionalRequests.respond(legacyVersion, null,
+                httpDate(MODIFICATION_DATE), () -> "tag");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(legacyVersion.getEntityTag(), response.getHeaders().getETag());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void respondWithCurrentStoredVersionDoesNotLoadEntity() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<String> response = ConditionalRequests.respond(() -> version, version.getEntityTag(), null,
+                loads::incrementAndGet, count -> version, String::valueOf);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(version.getEntityTag(), response.getHeaders().getETag());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void respondWithChangedStoredVersionSendsVersionOfLoadedEntity() {
+        EntityVersion staleVersion = EntityVersion.of(MODIFICATION_DATE, 2);
+
+        ResponseEntity<String> response = ConditionalRequests.respond(() -> version, staleVersion.getEntityTag(),
+                null, () -> 2, count -> EntityVersion.of(MODIFICATION_DATE, count), String::valueOf);
+
+        // the loaded entity is behind the stored one, e.g. cached, and the ETag describes the body sent
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("2", response.getBody());
+        assertEquals(staleVersion.getEntityTag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void respondWithoutConditionsDoesNotReadStoredVersion() {
+        AtomicInteger versionReads = new AtomicInteger();
+
+        ResponseEntity<String> response = ConditionalRequests.respond(() -> {
+            versionReads.incrementAndGet();
+            return version;
+        }, null, null, () -> 3, count -> version, String::valueOf);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("3", response.getBody());
+        assertEquals(0, versionReads.get());
+    }
+
+    private static String httpDate(LocalDateTime date) {
+        ZonedDateTime zonedDate = date.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("GMT"));
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(zonedDate);
+    }
+}
@@ -0,0 +1,154 @@
+package com.reckue.post.util.pagination;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.Node;
+import com.reckue.post.model.type.StatusType;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class KeysetQueryTest allows to test the keyset pagination of class KeysetQuery.
+ */
+class KeysetQueryTest extends PostServiceApplicationTests {
+
+    @Test
+    void encodeAndDecodeToken() {
+        ContinuationToken token = ContinuationToken.builder()
+                .sort("createdDate")
+                .desc(true)
+                .value("2020-10-01T12:30:15.123")
+                .id("5f66a68227efbb73c2996c1a")
+                .build();
+
+        assertEquals(token, ContinuationToken.decode(token.encode()));
+    }
+
+    @Test
+    void decodeIncorrectToken() {
+        Exception exception = assertThrows(ReckueIllegalArgumentException.class,
+                () -> ContinuationToken.decode("not a token"));
+        assertEquals("Continuation token is incorrect", exception.getMessage());
+    }
+
+    @Test
+    void createTokenFromElement() {
+        LocalDateTime createdDate = LocalDateTime.of(2020, 10, 1, 12, 30, 15);
+        Node node = Node.builder().id("1").status(StatusType.ACTIVE).createdDate(createdDate).build();
+
+        ContinuationToken byStatus = ContinuationToken.of(node, node.getId(), "status", false);
+        ContinuationToken byDate = ContinuationToken.of(node, node.getId(), "createdDate", true);
+
+        assertEquals(StatusType.ACTIVE, byStatus.typedValue(Node.class));
+        assertEquals(createdDate, byDate.typedValue(Node.class));
+    }
+
+    @Test
+    void afterById() {
+        ContinuationToken ascending = ContinuationToken.builder().sort("id").id("2").build();
+        ContinuationToken descending = ContinuationToken.builder().sort("id").desc(true).id("2").build();
+
+        assertEquals(new Document("id", new Document("$gt", "2")),
+                KeysetQuery.after(ascending, Node.class).getCriteriaObject());
+        assertEquals(new Document("id", new Document("$lt", "2")),
+                KeysetQuery.after(descending, Node.class).getCriteriaObject());
+    }
+
+    @Test
+    void afterBySortFieldWithTiebreaker() {
+        ContinuationToken token = ContinuationToken.builder().sort("userId").value("moon").id("2").build();
+
+        Document expected = new Document("$or", List.of(
+                new Document("userId", new Document("$gt", "moon")),
+                new Document("userId", "moon").append("id", new Document("$gt", "2"))));
+
+        assertEquals(expected, KeysetQuery.after(token, Node.class).getCriteriaObject());
+    }
+
+    @Test
+    void pageWithNextToken() {
+        Node node1 = Node.builder().id("1").build();
+        Node node2 = Node.builder().id("2").build();
+        Node node3 = Node.builder().id("3").build();
+
+        KeysetPage<Node> page = KeysetPage.of(List.of(node1, node2, node3), 2,
+                node -> ContinuationToken.of(node, node.getId(), "id", false));
+
+        assertEquals(List.of(node1, node2), page.getContent());
+        assertEquals("2", ContinuationToken.decode(page.getNext()).getId());
+    }
+
+    @Test
+    void lastPageWithoutNextToken() {
+        Node node = Node.builder().id("1").build();
+
+        KeysetPage<Node> page = KeysetPage.of(List.of(node), 2,
+                element -> ContinuationToken.of(element, element.getId(), "id", false));
+
+        assertEquals(List.of(node), page.getContent());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void beforeBackwardToken() {
+        ContinuationToken token = ContinuationToken.builder().sort("userId").value("moon").id("2").build()
+                .toBackward();
+
+        Document expected = new Document("$or", List.of(
+                new Document("userId", new Document("$lt", "moon")),
+                new Document("userId", null),
+                new Document("userId", "moon").append("id", new Document("$lt", "2"))));
+
+        assertEquals(expected, KeysetQuery.after(token, Node.class).getCriteriaObject());
+        assertEquals(new Document("userId", -1).append("id", -1), KeysetQuery.of(
+                new OffsetPageRequest(0, 2, PageRequestResolver.resolveSort("userId", false)), token, Node.class)
+                .getSortObject());
+    }
+
+    @Test
+    void pageAfterTokenWithNextAndPreviousTokens() {
+        Node node1 = Node.builder().id("1").build();
+        Node node2 = Node.builder().id("2").build();
+        Node node3 = Node.builder().id("3").build();
+        ContinuationToken token = ContinuationToken.builder().sort("id").id("0").build();
+
+        KeysetPage<Node> page = KeysetPage.of(List.of(node1, node2, node3), 2, token,
+                node -> ContinuationToken.of(node, node.getId(), "id", false));
+
+        assertEquals(List.of(node1, node2), page.getContent());
+        assertEquals("2", ContinuationToken.decode(page.getNext()).getId());
+        assertEquals(ContinuationToken.builder().sort("id").value("1").id("1").backward(true).build(),
+                ContinuationToken.decode(page.getPrevious()));
+    }
+
+    @Test
+    void pageBeforeBackwardTokenIsPutBackInOrder() {
+        Node node1 = Node.builder().id("1").build();
+        Node node2 = Node.builder().id("2").build();
+        ContinuationToken token = ContinuationToken.builder().sort("id").id("3").backward(true).build();
+
+        KeysetPage<Node> page = KeysetPage.of(List.of(node2, node1), 2, token,
+                node -> ContinuationToken.of(node, node.getId(), "id", false));
+
+        assertEquals(List.of(node1, node2), page.getContent());
+        assertEquals("2", ContinuationToken.decode(page.getNext()).getId());
+        assertNull(page.getPrevious());
+    }
+
+    @Test
+    void firstPageWithoutPreviousToken() {
+        Node node = Node.builder().id("1").build();
+
+        KeysetPage<Node> page = KeysetPage.of(List.of(node), 2, null,
+                element -> ContinuationToken.of(element, element.getId(), "id", false));
+
+        assertEquals(List.of(node), page.getContent());
+        assertNull(page.getNext());
+        assertNull(page.getPrevious());
+    }
+}
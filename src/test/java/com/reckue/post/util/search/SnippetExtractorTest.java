@@ -0,0 +1,49 @@
+package com.reckue.post.util.search;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.search.Highlight;
+import com.reckue.post.model.search.Snippet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Class SnippetExtractorTest allows to test the snippets of the found texts.
+ */
+class SnippetExtractorTest extends PostServiceApplicationTests {
+
+    @Test
+    void highlightWholeWordsCaseInsensitively() {
+        List<Snippet> snippets = SnippetExtractor.extract(List.of("Mongo and mongodb, MONGO!"), "mongo", 3);
+
+        assertEquals(List.of(new Snippet("Mongo and mongodb, MONGO!",
+                List.of(new Highlight(0, 5), new Highlight(19, 24)))), snippets);
+    }
+
+    @Test
+    void cutLongTextAroundFirstMatch() {
+        String text = "word ".repeat(40) + "index " + "word ".repeat(40);
+
+        Snippet snippet = SnippetExtractor.extract(List.of(text), "index", 3).get(0);
+
+        assertEquals(List.of(new Highlight(60, 65)), snippet.getHighlights());
+        assertEquals("index", snippet.getText().substring(60, 65));
+        assertEquals(' ', text.charAt(text.indexOf(snippet.getText()) - 1));
+    }
+
+    @Test
+    void skipTextsWithoutMatchesAndLimitCount() {
+        List<String> texts = List.of("title", "no match", "java one", "java two", "java three");
+
+        List<Snippet> snippets = SnippetExtractor.extract(texts, "java -title", 2);
+
+        assertEquals(List.of("java one", "java two"), List.of(snippets.get(0).getText(), snippets.get(1).getText()));
+    }
+
+    @Test
+    void ignoreQueryWithoutWords() {
+        assertEquals(List.of(), SnippetExtractor.extract(List.of("text"), "-text \"\"", 3));
+    }
+}
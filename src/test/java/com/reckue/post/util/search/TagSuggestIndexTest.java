@@ -0,0 +1,78 @@
+package com.reckue.post.util.search;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.model.Tag;
+import com.reckue.post.model.TagUsage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Class TagSuggestIndexTest allows to test the suggestions of the tags by prefix.
+ */
+class TagSuggestIndexTest extends PostServiceApplicationTests {
+
+    private TagSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagSuggestIndex();
+        index.replaceAll(List.of(
+                tag("1", "java"),
+                tag("2", "JavaScript"),
+                tag("3", "jakarta"),
+                tag("4", "kotlin"),
+                tag("5", "jvm")),
+                Map.of("java", 10L, "JavaScript", 25L, "jakarta", 10L, "kotlin", 40L));
+    }
+
+    @Test
+    void suggestByPrefixCaseInsensitivelyMostUsedFirst() {
+        assertEquals(List.of(new TagUsage("2", "JavaScript", 25), new TagUsage("3", "jakarta", 10),
+                new TagUsage("1", "java", 10)), index.suggest("JA", 10));
+    }
+
+    @Test
+    void limitSuggestions() {
+        assertEquals(List.of("kotlin", "JavaScript"), names(index.suggest("", 2)));
+        assertEquals(List.of("JavaScript"), names(index.suggest("j", 1)));
+        assertEquals(List.of(), names(index.suggest("python", 10)));
+    }
+
+    @Test
+    void putAndRemoveTags() {
+        index.put(tag("6", "jaxb"));
+        index.put(tag("2", "typescript"));
+        index.remove("3");
+
+        assertEquals(List.of("java", "jaxb"), names(index.suggest("ja", 10)));
+        assertEquals(List.of("typescript"), names(index.suggest("t", 10)));
+        assertEquals(0, index.suggest("t", 10).get(0).getCount());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void keepCountOfUpdatedTagWithSameName() {
+        index.put(tag("1", "java"));
+        index.setCount("kotlin", 1);
+
+        assertEquals(List.of(new TagUsage("2", "JavaScript", 25), new TagUsage("1", "java", 10)),
+                index.suggest("java", 10));
+        assertEquals(1, index.suggest("kotlin", 1).get(0).getCount());
+    }
+
+    private static Tag tag(String id, String name) {
+        return Tag.builder().id(id).name(name).build();
+    }
+
+    private static List<String> names(List<TagUsage> usages) {
+        return usages.stream()
+                .map(TagUsage::getName)
+                .collect(Collectors.toList());
+    }
+}
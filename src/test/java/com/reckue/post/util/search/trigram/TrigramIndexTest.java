@@ -0,0 +1,184 @@
+package com.reckue.post.util.search.trigram;
+
+import com.reckue.post.PostServiceApplicationTests;
+import com.reckue.post.exception.ReckueIllegalArgumentException;
+import com.reckue.post.model.search.CodeSearchResult;
+import com.reckue.post.model.type.LangType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Class TrigramIndexTest allows to test the trigram index of the code.
+ */
+class TrigramIndexTest extends PostServiceApplicationTests {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.replacePost("1", List.of(
+                code("11", "1", LangType.JAVA, "Map<String, List<String>> map = new HashMap<>();\n"
+                        + "map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);"),
+                code("12", "1", LangType.PYTHON, "counts = {}\ncounts.setdefault(key, []).append(value)")));
+        index.replacePost("2", List.of(
+                code("21", "2", LangType.JAVA, "HashMap<String, Integer> counts = new HashMap<>();\r\n"
+                        + "counts.merge(word, 1, Integer::sum);")));
+    }
+
+    @Test
+    void findSubstringWithLine() {
+        List<CodeSearchResult> results = index.search(TrigramQuery.substring("map.computeIfAbsent"), null, 10, 0);
+
+        assertEquals(List.of(CodeSearchResult.builder()
+                .postId("1")
+                .nodeId("11")
+                .language(LangType.JAVA)
+                .lineNumber(2)
+                .line("map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);")
+                .build()), results);
+    }
+
+    @Test
+    void matchSubstringCaseSensitively() {
+        assertEquals(List.of(), index.search(TrigramQuery.substring("MAP.COMPUTEIFABSENT"), null, 10, 0));
+    }
+
+    @Test
+    void findByRegexInOrderOfLanguages() {
+        List<CodeSearchResult> results = index.search(TrigramQuery.regex("^counts\\.\\w+\\("), null, 10, 0);
+
+        assertEquals(List.of("21", "12"), nodeIds(results));
+        assertEquals("counts.merge(word, 1, Integer::sum);", results.get(0).getLine());
+        assertEquals("counts.setdefault(key, []).append(value)", results.get(1).getLine());
+    }
+
+    @Test
+    void findByCaseInsensitiveRegex() {
+        assertEquals(List.of("11"), nodeIds(index.search(TrigramQuery.regex("(?i)MAP\\.COMPUTE"), null, 10, 0)));
+    }
+
+    @Test
+    void findByRegexWithoutLiterals() {
+        assertEquals(List.of("11", "21", "12"), nodeIds(index.search(TrigramQuery.regex("\\(.*\\)"), null, 10, 0)));
+    }
+
+    @Test
+    void searchPartitionOfLanguage() {
+        assertEquals(List.of("11", "21"), nodeIds(index.search(TrigramQuery.substring("new "), LangType.JAVA, 10, 0)));
+        assertEquals(List.of(), nodeIds(index.search(TrigramQuery.substring("new "), LangType.KOTLIN, 10, 0)));
+    }
+
+    @Test
+    void pageMatches() {
+        assertEquals(List.of("12"), nodeIds(index.search(TrigramQuery.substring("value"), null, 1, 1)));
+    }
+
+    @Test
+    void replaceAndRemoveCodeOfPost() {
+        index.replacePost("1", List.of(code("13", "1", LangType.KOTLIN, "val map = mutableMapOf<String, Int>()")));
+
+        assertEquals(List.of("13"), nodeIds(index.search(TrigramQuery.substring("map"), null, 10, 0)));
+        assertEquals(2, index.size());
+
+        index.removePost("2");
+
+        assertEquals(List.of(), index.search(TrigramQuery.substring("HashMap"), null, 10, 0));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactRemovedCode() {
+        for (int i = 0; i < 3000; i++) {
+            index.replacePost("1", List.of(code("11", "1", LangType.JAVA, "int version = " + i + ";")));
+        }
+
+        assertEquals(List.of("int version = 2999;"), index.search(TrigramQuery.substring("version"), null, 10, 0)
+                .stream()
+                .map(CodeSearchResult::getLine)
+                .collect(Collectors.toList()));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rejectIncorrectAndCatastrophicRegex() {
+        index.replacePost("3", List.of(code("31", "3", LangType.NONE, "a".repeat(30))));
+
+        Exception incorrect = assertThrows(ReckueIllegalArgumentException.class, () -> TrigramQuery.regex("(a"));
+        assertEquals("Regular expression is incorrect", incorrect.getMessage());
+        Exception complex = assertThrows(ReckueIllegalArgumentException.class,
+                () -> index.search(TrigramQuery.regex("(.*a){10}b"), LangType.NONE, 10, 0));
+        assertEquals("Regular expression is too complex", complex.getMessage());
+    }
+
+    @Test
+    void extractRequiredLiterals() {
+        assertEquals(List.of("HashMap", "get"), TrigramQuery.requiredLiterals("HashMap.get"));
+        assertEquals(List.of("map.put"), TrigramQuery.requiredLiterals("map\\.put"));
+        assertEquals(List.of("list", "add"), TrigramQuery.requiredLiterals("lists?\\w+add"));
+        assertEquals(List.of("ab", "d"), TrigramQuery.requiredLiterals("ab[]c]d(ef)?"));
+        assertEquals(List.of(), TrigramQuery.requiredLiterals("foo|bar"));
+    }
+
+    @Test
+    void skipArgumentsOfEscapes() {
+        assertEquals(List.of("map", "put"), TrigramQuery.requiredLiterals("map\\x41put"));
+        assertEquals(List.of("map", "put"), TrigramQuery.requiredLiterals("map\\x{41}put"));
+        assertEquals(List.of("map", "put"), TrigramQuery.requiredLiterals("map\\u0041put"));
+        assertEquals(List.of("map", "put"), TrigramQuery.requiredLiterals("map\\0101put"));
+        assertEquals(List.of("map", "8put"), TrigramQuery.requiredLiterals("map\\0778put"));
+        assertEquals(List.of("map", "put"), TrigramQuery.requiredLiterals("map\\cAput"));
+        assertEquals(List.of("map", "put"), TrigramQuery.requiredLiterals("map\\p{Lu}put"));
+        assertEquals(List.of("b"), TrigramQuery.requiredLiterals("(a)b\\12c"));
+        assertEquals(List.of("11"), nodeIds(index.search(TrigramQuery.regex("map\\x2EcomputeIfAbsent"), null, 10, 0)));
+    }
+
+    @Test
+    void encodePostingList() {
+        PostingList postingList = new PostingList();
+        int[] docIds = {0, 1, 127, 128, 16_511, 1_000_000, Integer.MAX_VALUE - 1};
+        for (int docId : docIds) {
+            postingList.add(docId);
+        }
+
+        assertArrayEquals(docIds, postingList.toArray());
+        assertEquals(1 + 1 + 1 + 1 + 2 + 3 + 5, postingList.sizeInBytes());
+        assertThrows(IllegalArgumentException.class, () -> postingList.add(5));
+        assertThrows(IllegalArgumentException.class, () -> new PostingList().add(PostingList.END));
+    }
+
+    @Test
+    void advanceCursorOverSkips() {
+        PostingList postingList = new PostingList();
+        for (int docId = 0; docId < 10_000; docId += 3) {
+            postingList.add(docId);
+        }
+        PostingList.Cursor cursor = postingList.cursor();
+
+        assertEquals(0, cursor.next());
+        assertEquals(999, cursor.advance(998));
+        assertEquals(999, cursor.advance(999));
+        assertEquals(1002, cursor.next());
+        assertEquals(6000, cursor.advance(5999));
+        assertEquals(9999, cursor.advance(9998));
+        assertEquals(PostingList.END, cursor.advance(10_000));
+        assertEquals(PostingList.END, postingList.cursor().advance(PostingList.END));
+    }
+
+    private static CodeDocument code(String nodeId, String postId, LangType language, String content) {
+        return new CodeDocument(nodeId, postId, language, content);
+    }
+
+    private static List<String> nodeIds(List<CodeSearchResult> results) {
+        return results.stream()
+                .map(CodeSearchResult::getNodeId)
+                .collect(Collectors.toList());
+    }
+}
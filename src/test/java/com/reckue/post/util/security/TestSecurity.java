@@ -0,0 +1,37 @@
+package com.reckue.post.util.security;
+
+import org.keycloak.KeycloakPrincipal;
+import org.keycloak.adapters.RefreshableKeycloakSecurityContext;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.keycloak.adapters.springsecurity.token.KeycloakAuthenticationToken;
+import org.keycloak.representations.AccessToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+
+/**
+ * Class TestSecurity authenticates the tests as the Keycloak adapter authenticates the requests,
+ * so that the services read the user by CurrentUser.
+ */
+public final class TestSecurity {
+
+    private TestSecurity() {
+    }
+
+    /**
+     * This method is used to authenticate the current thread as the user with the roles.
+     * The authentication is removed by SecurityContextHolder.clearContext().
+     *
+     * @param userId the identifier of the user
+     * @param roles  the names of the roles of the user
+     */
+    public static void authenticate(String userId, String... roles) {
+        AccessToken token = new AccessToken();
+        token.id(userId);
+        RefreshableKeycloakSecurityContext context =
+                new RefreshableKeycloakSecurityContext(null, null, null, token, null, null, null);
+        SimpleKeycloakAccount account =
+                new SimpleKeycloakAccount(new KeycloakPrincipal<>(userId, context), Set.of(roles), context);
+        SecurityContextHolder.getContext().setAuthentication(new KeycloakAuthenticationToken(account, false));
+    }
+}